@@ -0,0 +1,53 @@
+-- ============================================
+-- Migration : identifiants IDENTITY → séquences avec allocation par blocs de 50
+-- ============================================
+--
+-- Les entités utilisent désormais GenerationType.SEQUENCE (optimiseur « pooled », allocationSize = 50) :
+-- Hibernate réserve 50 identifiants par appel à nextval et peut regrouper les INSERT en lots JDBC
+-- (hibernate.jdbc.batch_size=50), ce que la stratégie IDENTITY empêchait.
+--
+-- Les séquences <table>_id_seq existantes sont conservées ; leur pas passe de 1 à 50 et leur valeur
+-- est recalée sur le plus grand identifiant. Au démarrage, Hibernate refuse une séquence dont le pas
+-- ne correspond pas à allocationSize : exécuter ce script AVANT de déployer la nouvelle version.
+--
+-- positions_gps a un temps reçu des identifiants attribués par l'application : le recalage sur MAX(id)
+-- place la séquence après eux, rejouer le script suffit.
+--
+-- psql -U postgres -d egggo_db -f migration_sequences.sql
+-- Le script est rejouable.
+
+DO $$
+DECLARE
+    nom_table TEXT;
+    nom_sequence TEXT;
+    max_id BIGINT;
+BEGIN
+    FOREACH nom_table IN ARRAY ARRAY[
+        'utilisateurs', 'adresses', 'categories', 'produits',
+        'commandes', 'lignes_commande', 'paiements', 'livraisons', 'positions_gps',
+        'abonnements', 'lignes_abonnement', 'reservations_stock', 'jetons_rafraichissement'
+    ]
+    LOOP
+        IF to_regclass('public.' || nom_table) IS NULL THEN
+            CONTINUE;
+        END IF;
+        nom_sequence := nom_table || '_id_seq';
+
+        -- Colonne IDENTITY : son pas se règle par ALTER TABLE ; séquence SERIAL ou absente : ALTER/CREATE SEQUENCE
+        IF EXISTS (SELECT 1 FROM information_schema.columns
+                   WHERE table_schema = 'public' AND table_name = nom_table
+                     AND column_name = 'id' AND is_identity = 'YES') THEN
+            EXECUTE format('ALTER TABLE public.%I ALTER COLUMN id SET INCREMENT BY 50', nom_table);
+        ELSE
+            EXECUTE format('CREATE SEQUENCE IF NOT EXISTS public.%I INCREMENT BY 50', nom_sequence);
+            EXECUTE format('ALTER SEQUENCE public.%I INCREMENT BY 50', nom_sequence);
+        END IF;
+
+        -- Le prochain bloc alloué commence après le plus grand identifiant existant
+        nom_sequence := COALESCE(pg_get_serial_sequence('public.' || nom_table, 'id'), 'public.' || nom_sequence);
+        EXECUTE format('SELECT COALESCE(MAX(id), 0) FROM public.%I', nom_table) INTO max_id;
+        PERFORM setval(nom_sequence, GREATEST(max_id, 1), max_id > 0);
+
+        RAISE NOTICE '% : séquence % (pas 50), dernier identifiant %', nom_table, nom_sequence, max_id;
+    END LOOP;
+END $$;
@@ -0,0 +1,92 @@
+package com.egggo.application.dispatch;
+
+import com.egggo.infrastructure.geo.Geodesie;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Durée d'une résolution de la répartition automatique : 500 commandes × 400 livreurs
+ * - ville : fermes et livreurs répartis sur 40 km, coût en minutes d'approche à 20 km/h diminué du
+ *   bonus d'attente, paires interdites au-delà de 15 km (comme MoteurDispatch)
+ * - dense : coûts uniformes sans paire interdite, cas le plus défavorable pour les potentiels
+ * - transposee : 400 commandes × 500 livreurs (plus de livreurs que de commandes)
+ *
+ * Lancement : mvn -Pbenchmark test-compile exec:exec -Dbenchmark=AffectationHongroiseBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AffectationHongroiseBenchmark {
+
+    private static final int COMMANDES = 500;
+    private static final int LIVREURS = 400;
+
+    private double[][] ville;
+    private double[][] dense;
+    private double[][] transposee;
+
+    @Setup
+    public void preparer() {
+        Random aleatoire = new Random(42);
+        ville = matriceVille(aleatoire, COMMANDES, LIVREURS);
+        transposee = matriceVille(aleatoire, LIVREURS, COMMANDES);
+        dense = new double[COMMANDES][LIVREURS];
+        for (double[] ligne : dense) {
+            for (int j = 0; j < ligne.length; j++) {
+                ligne[j] = aleatoire.nextDouble() * 100;
+            }
+        }
+    }
+
+    @Benchmark
+    public int[] ville() {
+        return AffectationHongroise.resoudre(ville);
+    }
+
+    @Benchmark
+    public int[] dense() {
+        return AffectationHongroise.resoudre(dense);
+    }
+
+    @Benchmark
+    public int[] transposee() {
+        return AffectationHongroise.resoudre(transposee);
+    }
+
+    private static double[][] matriceVille(Random aleatoire, int commandes, int livreurs) {
+        double[][] fermes = positions(aleatoire, commandes);
+        double[][] positionsLivreurs = positions(aleatoire, livreurs);
+        double[][] couts = new double[commandes][livreurs];
+        for (int i = 0; i < commandes; i++) {
+            double bonus = 0.25 * aleatoire.nextDouble() * 60;
+            for (int j = 0; j < livreurs; j++) {
+                double distance = Geodesie.distanceKm(positionsLivreurs[j][0], positionsLivreurs[j][1],
+                        fermes[i][0], fermes[i][1]);
+                couts[i][j] = distance > 15 ? AffectationHongroise.INTERDIT : distance / 20 * 60 - bonus;
+            }
+        }
+        return couts;
+    }
+
+    private static double[][] positions(Random aleatoire, int nombre) {
+        double[][] positions = new double[nombre][];
+        for (int i = 0; i < nombre; i++) {
+            positions[i] = new double[]{3.70 + aleatoire.nextDouble() * 0.36, 11.32 + aleatoire.nextDouble() * 0.36};
+        }
+        return positions;
+    }
+}
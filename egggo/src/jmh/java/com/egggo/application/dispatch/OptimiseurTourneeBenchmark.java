@@ -0,0 +1,70 @@
+package com.egggo.application.dispatch;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Durée d'un calcul de tournée sans limite de budget (amélioration jusqu'à stabilité)
+ * - vingtArrets : 10 commandes, retrait à la ferme puis dépôt chez le client, sur 10 km
+ * - dixArrets : 5 commandes, résolution exacte
+ *
+ * Lancement : mvn -Pbenchmark test-compile exec:exec -Dbenchmark=OptimiseurTourneeBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class OptimiseurTourneeBenchmark {
+
+    private static final long SANS_LIMITE = Long.MAX_VALUE / 2;
+
+    private final List<List<OptimiseurTournee.Arret>> vingt = new ArrayList<>();
+    private final List<List<OptimiseurTournee.Arret>> dix = new ArrayList<>();
+    private int suivant;
+
+    @Setup
+    public void preparer() {
+        Random aleatoire = new Random(42);
+        for (int i = 0; i < 64; i++) {
+            vingt.add(commandes(aleatoire, 10));
+            dix.add(commandes(aleatoire, 5));
+        }
+    }
+
+    @Benchmark
+    public OptimiseurTournee.Tournee vingtArrets() {
+        return OptimiseurTournee.optimiser(3.848, 11.502, vingt.get(suivant++ & 63), SANS_LIMITE);
+    }
+
+    @Benchmark
+    public OptimiseurTournee.Tournee dixArrets() {
+        return OptimiseurTournee.optimiser(3.848, 11.502, dix.get(suivant++ & 63), SANS_LIMITE);
+    }
+
+    private static List<OptimiseurTournee.Arret> commandes(Random aleatoire, int nombre) {
+        List<OptimiseurTournee.Arret> arrets = new ArrayList<>();
+        for (int i = 0; i < nombre; i++) {
+            int retrait = arrets.size();
+            arrets.add(new OptimiseurTournee.Arret(3.80 + aleatoire.nextDouble() * 0.09,
+                    11.45 + aleatoire.nextDouble() * 0.09, -1));
+            arrets.add(new OptimiseurTournee.Arret(3.80 + aleatoire.nextDouble() * 0.09,
+                    11.45 + aleatoire.nextDouble() * 0.09, retrait));
+        }
+        return arrets;
+    }
+}
@@ -0,0 +1,57 @@
+package com.egggo.infrastructure.id;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Débit de génération des références de commandes et de paiements
+ * - ancien : UUID aléatoire tronqué (SecureRandom, 8 caractères, collisions possibles)
+ * - générateur : identifiant 64 bits ordonné, en numérique et en base 32
+ * - contention : 8 threads sur le même générateur (boucle CAS)
+ * Au-delà de 4096 identifiants par milliseconde, le générateur emprunte les millisecondes suivantes :
+ * pendant une rafale l'horodatage prend de l'avance sur l'horloge, sans jamais produire de doublon.
+ *
+ * Lancement : mvn -Pbenchmark test-compile exec:exec -Dbenchmark=GenerateurIdentifiantsBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class GenerateurIdentifiantsBenchmark {
+
+    private final GenerateurIdentifiants generateur = new GenerateurIdentifiants(1);
+
+    @Benchmark
+    public String ancienUuidTronque() {
+        return UUID.randomUUID().toString().substring(0, 8).toUpperCase();
+    }
+
+    @Benchmark
+    public long generateurNumerique() {
+        return generateur.prochain();
+    }
+
+    @Benchmark
+    public String generateurBase32() {
+        return generateur.prochainTexte();
+    }
+
+    @Benchmark
+    @Threads(8)
+    public long generateurContention() {
+        return generateur.prochain();
+    }
+}
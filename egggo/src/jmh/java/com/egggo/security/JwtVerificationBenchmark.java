@@ -0,0 +1,89 @@
+package com.egggo.security;
+
+import com.egggo.domain.model.user.Client;
+import com.egggo.domain.model.user.Role;
+import com.egggo.domain.model.user.Utilisateur;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import javax.crypto.SecretKey;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Coût de vérification d'un token JWT par requête
+ * - ancien : clé et parseur reconstruits, token décodé trois fois (sujet, expiration, claims)
+ * - parseur partagé : un seul décodage avec clé et parseur pré-construits
+ * - cache : token déjà vérifié, seule l'empreinte SHA-256 est calculée
+ *
+ * Lancement : mvn -Pbenchmark test-compile exec:exec -Dbenchmark=JwtVerificationBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtVerificationBenchmark {
+
+    private static final String SECRET = "RWdnR29TZWNyZXRLZXlGb3JKV1RUb2tlbkdlbmVyYXRpb24yMDI2Q2FtZXJvb25EZWxpdmVyeUFwcCE=";
+
+    private JwtTokenProvider provider;
+    private String token;
+
+    @Setup
+    public void setup() {
+        provider = new JwtTokenProvider();
+        ReflectionTestUtils.setField(provider, "jwtSecret", SECRET);
+        ReflectionTestUtils.setField(provider, "jwtExpiration", 3_600_000L);
+        ReflectionTestUtils.setField(provider, "refreshExpiration", 7_200_000L);
+        ReflectionTestUtils.setField(provider, "tailleCache", 10_000);
+        provider.init();
+
+        Utilisateur utilisateur = Client.builder()
+                .id(42L)
+                .telephone("+237690000000")
+                .role(Role.CLIENT)
+                .build();
+        token = provider.generateToken(utilisateur);
+        provider.parseToken(token);
+    }
+
+    @Benchmark
+    public Object ancienneVerification() {
+        String subject = ancienParse(token).getSubject();
+        Date expiration = ancienParse(token).getExpiration();
+        Claims claims = ancienParse(token);
+        return subject.equals(claims.getSubject()) && expiration.after(new Date()) ? claims : null;
+    }
+
+    @Benchmark
+    public Object parseurPartage() {
+        // extractClaim contourne le cache : un décodage complet avec le parseur partagé
+        return provider.extractClaim(token, Function.identity());
+    }
+
+    @Benchmark
+    public Object cacheJetons() {
+        return provider.parseToken(token);
+    }
+
+    private Claims ancienParse(String jwt) {
+        SecretKey key = Keys.hmacShaKeyFor(Decoders.BASE64.decode(SECRET));
+        return Jwts.parser().verifyWith(key).build().parseSignedClaims(jwt).getPayload();
+    }
+}
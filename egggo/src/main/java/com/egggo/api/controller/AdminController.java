@@ -1,21 +1,25 @@
 package com.egggo.api.controller;
 
 import com.egggo.api.dto.admin.AdminDashboardDto;
+import com.egggo.api.dto.admin.AnalyticsQueryRequest;
+import com.egggo.api.dto.admin.AnalyticsQueryResponse;
+import com.egggo.api.dto.admin.TrajectoireDto;
 import com.egggo.api.dto.common.ApiResponse;
-import com.egggo.api.dto.common.PageResponse;
+import com.egggo.api.dto.common.CursorPageResponse;
 import com.egggo.api.dto.user.*;
+import com.egggo.application.pagination.Curseur;
 import com.egggo.application.service.AdminService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Pageable;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
-import java.util.List;
+import java.time.LocalDate;
+import java.util.Map;
 
 /**
  * Contrôleur pour les fonctionnalités administrateur
@@ -41,14 +45,15 @@ public class AdminController {
     // ==================== GESTION DES UTILISATEURS ====================
 
     @GetMapping("/utilisateurs")
-    @Operation(summary = "Liste utilisateurs", description = "Liste tous les utilisateurs avec filtres")
-    public ResponseEntity<ApiResponse<PageResponse<UtilisateurDto>>> getUtilisateurs(
-            @RequestParam(defaultValue = "0") int page,
-            @RequestParam(defaultValue = "20") int size,
+    @Operation(summary = "Liste utilisateurs", description = "Liste les utilisateurs, éventuellement filtrés par rôle, page par page")
+    public ResponseEntity<ApiResponse<CursorPageResponse<UtilisateurDto>>> getUtilisateurs(
+            @RequestParam(required = false) String curseur,
+            @RequestParam(required = false) Integer size,
+            @RequestParam(defaultValue = "false") boolean total,
             @RequestParam(required = false) String role) {
-        Pageable pageable = PageRequest.of(page, size);
-        Page<UtilisateurDto> utilisateurs = adminService.getUtilisateurs(role, pageable);
-        return ResponseEntity.ok(ApiResponse.success(PageResponse.from(utilisateurs)));
+        CursorPageResponse<UtilisateurDto> utilisateurs = adminService.getUtilisateurs(
+                role, curseur, Curseur.taille(size), total);
+        return ResponseEntity.ok(ApiResponse.success(utilisateurs));
     }
 
     @GetMapping("/utilisateurs/{id}")
@@ -69,8 +74,12 @@ public class AdminController {
 
     @GetMapping("/producteurs/en-attente")
     @Operation(summary = "Producteurs en attente", description = "Liste les producteurs en attente de validation")
-    public ResponseEntity<ApiResponse<List<ProducteurDto>>> getProducteursEnAttente() {
-        List<ProducteurDto> producteurs = adminService.getProducteursEnAttente();
+    public ResponseEntity<ApiResponse<CursorPageResponse<ProducteurDto>>> getProducteursEnAttente(
+            @RequestParam(required = false) String curseur,
+            @RequestParam(required = false) Integer size,
+            @RequestParam(defaultValue = "false") boolean total) {
+        CursorPageResponse<ProducteurDto> producteurs = adminService.getProducteursEnAttente(
+                curseur, Curseur.taille(size), total);
         return ResponseEntity.ok(ApiResponse.success(producteurs));
     }
 
@@ -94,8 +103,12 @@ public class AdminController {
 
     @GetMapping("/livreurs/en-attente")
     @Operation(summary = "Livreurs en attente", description = "Liste les livreurs en attente de validation")
-    public ResponseEntity<ApiResponse<List<LivreurDto>>> getLivreursEnAttente() {
-        List<LivreurDto> livreurs = adminService.getLivreursEnAttente();
+    public ResponseEntity<ApiResponse<CursorPageResponse<LivreurDto>>> getLivreursEnAttente(
+            @RequestParam(required = false) String curseur,
+            @RequestParam(required = false) Integer size,
+            @RequestParam(defaultValue = "false") boolean total) {
+        CursorPageResponse<LivreurDto> livreurs = adminService.getLivreursEnAttente(
+                curseur, Curseur.taille(size), total);
         return ResponseEntity.ok(ApiResponse.success(livreurs));
     }
 
@@ -126,10 +139,57 @@ public class AdminController {
     }
 
     @GetMapping("/stats/livraisons")
-    @Operation(summary = "Statistiques livraisons", description = "Récupère les statistiques de livraisons")
+    @Operation(summary = "Statistiques livraisons",
+               description = "Statistiques de livraisons de la période en cours (jour, semaine, mois, annee), globales, par livreur ou par ville")
     public ResponseEntity<ApiResponse<StatsLivraisonsDto>> getStatsLivraisons(
-            @RequestParam(required = false) String periode) {
-        StatsLivraisonsDto stats = adminService.getStatsLivraisons(periode);
+            @RequestParam(required = false) String periode,
+            @RequestParam(required = false) Long livreurId,
+            @RequestParam(required = false) String ville) {
+        StatsLivraisonsDto stats = adminService.getStatsLivraisons(periode, livreurId, ville);
         return ResponseEntity.ok(ApiResponse.success(stats));
     }
+
+    @PostMapping("/stats/reconstruire")
+    @Operation(summary = "Reconstruire les statistiques",
+               description = "Recalcule les agrégats journaliers depuis les commandes et inscriptions (du/au inclus, jours clos seulement, au = hier par défaut)")
+    public ResponseEntity<ApiResponse<Map<String, Integer>>> reconstruireStatistiques(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate du,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate au) {
+        int lignes = adminService.reconstruireStatistiques(du, au);
+        return ResponseEntity.ok(ApiResponse.success("Statistiques reconstruites", Map.of("lignes", lignes)));
+    }
+
+    @PostMapping("/stats/livraisons/reconstruire")
+    @Operation(summary = "Reconstruire les statistiques de livraisons",
+               description = "Recalcule les agrégats de livraisons depuis l'historique (jours clos ; le jour courant reste alimenté par les événements)")
+    public ResponseEntity<ApiResponse<Map<String, Integer>>> reconstruireStatistiquesLivraisons() {
+        int lignes = adminService.reconstruireStatistiquesLivraisons();
+        return ResponseEntity.ok(ApiResponse.success("Statistiques reconstruites", Map.of("lignes", lignes)));
+    }
+
+    // ==================== TRAJECTOIRES ====================
+
+    @GetMapping("/livraisons/{id}/trajectoire")
+    @Operation(summary = "Trajectoire d'une livraison", description = "Points GPS enregistrés pendant la livraison, dans l'ordre, pour la relecture")
+    public ResponseEntity<ApiResponse<TrajectoireDto>> getTrajectoire(@PathVariable Long id) {
+        return ResponseEntity.ok(ApiResponse.success(adminService.getTrajectoire(id)));
+    }
+
+    // ==================== ANALYSE DES VENTES ====================
+
+    @PostMapping("/analytics/query")
+    @Operation(summary = "Analyse des ventes",
+               description = "Regroupe et filtre les lignes de commande (jour, semaine, mois, producteur, categorie, produit, ville, unite, annulee) sur le cube en mémoire")
+    public ResponseEntity<ApiResponse<AnalyticsQueryResponse>> analyserVentes(
+            @Valid @RequestBody AnalyticsQueryRequest request) {
+        return ResponseEntity.ok(ApiResponse.success(adminService.analyserVentes(request)));
+    }
+
+    // ==================== MÉTRIQUES TECHNIQUES ====================
+
+    @GetMapping("/metriques")
+    @Operation(summary = "Métriques techniques", description = "Files d'attente, rejets, caches et limiteurs de débit")
+    public ResponseEntity<ApiResponse<Map<String, Map<String, Object>>>> getMetriques() {
+        return ResponseEntity.ok(ApiResponse.success(adminService.getMetriques()));
+    }
 }
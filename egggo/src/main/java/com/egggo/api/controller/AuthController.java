@@ -2,6 +2,7 @@ package com.egggo.api.controller;
 
 import com.egggo.api.dto.auth.AuthResponse;
 import com.egggo.api.dto.auth.LoginRequest;
+import com.egggo.api.dto.auth.RefreshTokenRequest;
 import com.egggo.api.dto.auth.RegisterRequest;
 import com.egggo.api.dto.common.ApiResponse;
 import com.egggo.application.service.AuthService;
@@ -42,6 +43,20 @@ public class AuthController {
         return ResponseEntity.ok(ApiResponse.success("Inscription réussie", response));
     }
 
+    @PostMapping("/refresh")
+    @Operation(summary = "Rafraîchissement", description = "Échange un token de rafraîchissement contre une nouvelle paire de tokens")
+    public ResponseEntity<ApiResponse<AuthResponse>> refresh(@Valid @RequestBody RefreshTokenRequest request) {
+        AuthResponse response = authService.refresh(request);
+        return ResponseEntity.ok(ApiResponse.success("Token rafraîchi", response));
+    }
+
+    @PostMapping("/logout")
+    @Operation(summary = "Déconnexion", description = "Révoque le token de rafraîchissement et le token d'accès courant")
+    public ResponseEntity<ApiResponse<Void>> logout(@Valid @RequestBody RefreshTokenRequest request) {
+        authService.logout(request);
+        return ResponseEntity.ok(ApiResponse.success("Déconnexion réussie"));
+    }
+
     @GetMapping("/me")
     @Operation(summary = "Profil utilisateur", description = "Récupère les informations de l'utilisateur connecté")
     public ResponseEntity<ApiResponse<AuthResponse.UserInfo>> me() {
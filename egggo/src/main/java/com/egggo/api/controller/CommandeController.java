@@ -1,23 +1,18 @@
 package com.egggo.api.controller;
 
 import com.egggo.api.dto.common.ApiResponse;
-import com.egggo.api.dto.common.PageResponse;
+import com.egggo.api.dto.common.CursorPageResponse;
 import com.egggo.api.dto.order.CommandeDto;
 import com.egggo.api.dto.order.CreateCommandeRequest;
+import com.egggo.application.pagination.Curseur;
 import com.egggo.application.service.CommandeService;
-import com.egggo.domain.model.user.Utilisateur;
-import com.egggo.domain.repository.UtilisateurRepository;
+import com.egggo.security.EggGoPrincipal;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Pageable;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
-import org.springframework.security.core.Authentication;
-import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
 
 /**
@@ -31,17 +26,12 @@ import org.springframework.web.bind.annotation.*;
 public class CommandeController {
 
     private final CommandeService commandeService;
-    private final UtilisateurRepository utilisateurRepository;
 
     /**
      * Récupère l'ID de l'utilisateur connecté depuis le contexte de sécurité
      */
     private Long getCurrentUserId() {
-        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-        String telephone = authentication.getName();
-        Utilisateur utilisateur = utilisateurRepository.findByTelephone(telephone)
-                .orElseThrow(() -> new IllegalStateException("Utilisateur non trouvé"));
-        return utilisateur.getId();
+        return EggGoPrincipal.current().getId();
     }
 
     @PostMapping
@@ -56,26 +46,28 @@ public class CommandeController {
 
     @GetMapping("/mes-commandes")
     @PreAuthorize("hasRole('CLIENT')")
-    @Operation(summary = "Mes commandes", description = "Récupère les commandes du client connecté")
-    public ResponseEntity<ApiResponse<PageResponse<CommandeDto>>> getMesCommandes(
-            @RequestParam(defaultValue = "0") int page,
-            @RequestParam(defaultValue = "10") int size) {
+    @Operation(summary = "Mes commandes", description = "Récupère les commandes du client connecté, de la plus récente à la plus ancienne (pagination par curseur)")
+    public ResponseEntity<ApiResponse<CursorPageResponse<CommandeDto>>> getMesCommandes(
+            @RequestParam(required = false) String curseur,
+            @RequestParam(required = false) Integer size,
+            @RequestParam(defaultValue = "false") boolean total) {
         Long clientId = getCurrentUserId();
-        Pageable pageable = PageRequest.of(page, size);
-        Page<CommandeDto> commandes = commandeService.getCommandesClient(clientId, pageable);
-        return ResponseEntity.ok(ApiResponse.success(PageResponse.from(commandes)));
+        CursorPageResponse<CommandeDto> commandes = commandeService.getCommandesClient(
+                clientId, curseur, Curseur.taille(size), total);
+        return ResponseEntity.ok(ApiResponse.success(commandes));
     }
 
     @GetMapping("/recues")
     @PreAuthorize("hasRole('PRODUCTEUR')")
-    @Operation(summary = "Commandes reçues", description = "Récupère les commandes reçues par le producteur connecté")
-    public ResponseEntity<ApiResponse<PageResponse<CommandeDto>>> getCommandesRecues(
-            @RequestParam(defaultValue = "0") int page,
-            @RequestParam(defaultValue = "10") int size) {
+    @Operation(summary = "Commandes reçues", description = "Récupère les commandes reçues par le producteur connecté (pagination par curseur)")
+    public ResponseEntity<ApiResponse<CursorPageResponse<CommandeDto>>> getCommandesRecues(
+            @RequestParam(required = false) String curseur,
+            @RequestParam(required = false) Integer size,
+            @RequestParam(defaultValue = "false") boolean total) {
         Long producteurId = getCurrentUserId();
-        Pageable pageable = PageRequest.of(page, size);
-        Page<CommandeDto> commandes = commandeService.getCommandesProducteur(producteurId, pageable);
-        return ResponseEntity.ok(ApiResponse.success(PageResponse.from(commandes)));
+        CursorPageResponse<CommandeDto> commandes = commandeService.getCommandesProducteur(
+                producteurId, curseur, Curseur.taille(size), total);
+        return ResponseEntity.ok(ApiResponse.success(commandes));
     }
 
     @GetMapping("/{id}")
@@ -1,23 +1,21 @@
 package com.egggo.api.controller;
 
 import com.egggo.api.dto.common.ApiResponse;
+import com.egggo.api.dto.common.CursorPageResponse;
 import com.egggo.api.dto.livreur.LivraisonDto;
 import com.egggo.api.dto.livreur.LivreurDashboardDto;
 import com.egggo.api.dto.livreur.UpdatePositionRequest;
+import com.egggo.application.pagination.Curseur;
 import com.egggo.application.service.LivreurService;
-import com.egggo.domain.model.user.Utilisateur;
-import com.egggo.domain.repository.UtilisateurRepository;
+import com.egggo.security.EggGoPrincipal;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
-import org.springframework.security.core.Authentication;
-import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
 
-import java.util.List;
 
 /**
  * Contrôleur pour les fonctionnalités livreur
@@ -30,14 +28,9 @@ import java.util.List;
 public class LivreurController {
 
     private final LivreurService livreurService;
-    private final UtilisateurRepository utilisateurRepository;
 
     private Long getCurrentUserId() {
-        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-        String telephone = authentication.getName();
-        Utilisateur utilisateur = utilisateurRepository.findByTelephone(telephone)
-                .orElseThrow(() -> new IllegalStateException("Utilisateur non trouvé"));
-        return utilisateur.getId();
+        return EggGoPrincipal.current().getId();
     }
 
     // ==================== DASHBOARD ====================
@@ -75,11 +68,15 @@ public class LivreurController {
     // ==================== LIVRAISONS ====================
 
     @GetMapping("/livraisons")
-    @Operation(summary = "Mes livraisons", description = "Liste les livraisons assignées au livreur")
-    public ResponseEntity<ApiResponse<List<LivraisonDto>>> getMesLivraisons(
-            @RequestParam(required = false) String statut) {
+    @Operation(summary = "Mes livraisons", description = "Liste les livraisons assignées au livreur (pagination par curseur)")
+    public ResponseEntity<ApiResponse<CursorPageResponse<LivraisonDto>>> getMesLivraisons(
+            @RequestParam(required = false) String statut,
+            @RequestParam(required = false) String curseur,
+            @RequestParam(required = false) Integer size,
+            @RequestParam(defaultValue = "false") boolean total) {
         Long livreurId = getCurrentUserId();
-        List<LivraisonDto> livraisons = livreurService.getLivraisons(livreurId, statut);
+        CursorPageResponse<LivraisonDto> livraisons = livreurService.getLivraisons(
+                livreurId, statut, curseur, Curseur.taille(size), total);
         return ResponseEntity.ok(ApiResponse.success(livraisons));
     }
 
@@ -1,27 +1,24 @@
 package com.egggo.api.controller;
 
 import com.egggo.api.dto.common.ApiResponse;
-import com.egggo.api.dto.common.PageResponse;
+import com.egggo.api.dto.common.CursorPageResponse;
 import com.egggo.api.dto.order.CommandeDto;
 import com.egggo.api.dto.product.CreateProduitRequest;
 import com.egggo.api.dto.product.ProduitDto;
+import com.egggo.api.dto.producteur.UpdateProfilRequest;
 import com.egggo.api.dto.producteur.UpdateStockRequest;
 import com.egggo.api.dto.producteur.ProducteurDashboardDto;
 import com.egggo.api.dto.user.LivreurDto;
+import com.egggo.api.dto.user.ProducteurDto;
+import com.egggo.application.pagination.Curseur;
 import com.egggo.application.service.ProducteurService;
-import com.egggo.domain.model.user.Utilisateur;
-import com.egggo.domain.repository.UtilisateurRepository;
+import com.egggo.security.EggGoPrincipal;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Pageable;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
-import org.springframework.security.core.Authentication;
-import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
@@ -37,14 +34,9 @@ import java.util.List;
 public class ProducteurController {
 
     private final ProducteurService producteurService;
-    private final UtilisateurRepository utilisateurRepository;
 
     private Long getCurrentUserId() {
-        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-        String telephone = authentication.getName();
-        Utilisateur utilisateur = utilisateurRepository.findByTelephone(telephone)
-                .orElseThrow(() -> new IllegalStateException("Utilisateur non trouvé"));
-        return utilisateur.getId();
+        return EggGoPrincipal.current().getId();
     }
 
     // ==================== DASHBOARD ====================
@@ -57,6 +49,17 @@ public class ProducteurController {
         return ResponseEntity.ok(ApiResponse.success(dashboard));
     }
 
+    // ==================== PROFIL ====================
+
+    @PutMapping("/profil")
+    @Operation(summary = "Modifier mon profil", description = "Met à jour le nom, la description, l'adresse, la position ou le logo de la ferme")
+    public ResponseEntity<ApiResponse<ProducteurDto>> updateProfil(
+            @Valid @RequestBody UpdateProfilRequest request) {
+        Long producteurId = getCurrentUserId();
+        ProducteurDto producteur = producteurService.updateProfil(producteurId, request);
+        return ResponseEntity.ok(ApiResponse.success("Profil mis à jour", producteur));
+    }
+
     // ==================== GESTION DES PRODUITS ====================
 
     @GetMapping("/produits")
@@ -115,15 +118,16 @@ public class ProducteurController {
     // ==================== GESTION DES COMMANDES ====================
 
     @GetMapping("/commandes")
-    @Operation(summary = "Commandes reçues", description = "Liste les commandes reçues par le producteur")
-    public ResponseEntity<ApiResponse<PageResponse<CommandeDto>>> getCommandesRecues(
+    @Operation(summary = "Commandes reçues", description = "Liste les commandes reçues par le producteur (pagination par curseur)")
+    public ResponseEntity<ApiResponse<CursorPageResponse<CommandeDto>>> getCommandesRecues(
             @RequestParam(required = false) String statut,
-            @RequestParam(defaultValue = "0") int page,
-            @RequestParam(defaultValue = "10") int size) {
+            @RequestParam(required = false) String curseur,
+            @RequestParam(required = false) Integer size,
+            @RequestParam(defaultValue = "false") boolean total) {
         Long producteurId = getCurrentUserId();
-        Pageable pageable = PageRequest.of(page, size);
-        Page<CommandeDto> commandes = producteurService.getCommandes(producteurId, statut, pageable);
-        return ResponseEntity.ok(ApiResponse.success(PageResponse.from(commandes)));
+        CursorPageResponse<CommandeDto> commandes = producteurService.getCommandes(
+                producteurId, statut, curseur, Curseur.taille(size), total);
+        return ResponseEntity.ok(ApiResponse.success(commandes));
     }
 
     @PatchMapping("/commandes/{id}/confirmer")
@@ -1,9 +1,12 @@
 package com.egggo.api.controller;
 
 import com.egggo.api.dto.common.ApiResponse;
+import com.egggo.api.dto.common.CursorPageResponse;
 import com.egggo.api.dto.product.CategorieDto;
 import com.egggo.api.dto.product.CreateProduitRequest;
 import com.egggo.api.dto.product.ProduitDto;
+import com.egggo.api.dto.search.SuggestionDto;
+import com.egggo.application.pagination.Curseur;
 import com.egggo.application.service.ProduitService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
@@ -34,9 +37,12 @@ public class ProduitController {
     }
 
     @GetMapping
-    @Operation(summary = "Liste des produits", description = "Récupère tous les produits disponibles")
-    public ResponseEntity<ApiResponse<List<ProduitDto>>> getAllProduits() {
-        List<ProduitDto> produits = produitService.getAllProduitsDisponibles();
+    @Operation(summary = "Liste des produits", description = "Récupère les produits disponibles (pagination par curseur)")
+    public ResponseEntity<ApiResponse<CursorPageResponse<ProduitDto>>> getAllProduits(
+            @RequestParam(required = false) String curseur,
+            @RequestParam(required = false) Integer size,
+            @RequestParam(defaultValue = "false") boolean total) {
+        CursorPageResponse<ProduitDto> produits = produitService.getProduitsDisponibles(curseur, Curseur.taille(size), total);
         return ResponseEntity.ok(ApiResponse.success(produits));
     }
 
@@ -68,6 +74,15 @@ public class ProduitController {
         return ResponseEntity.ok(ApiResponse.success(produits));
     }
 
+    @GetMapping("/suggest")
+    @Operation(summary = "Autocomplétion", description = "Suggestions de produits, fermes et catégories pour un début de saisie, par popularité")
+    public ResponseEntity<ApiResponse<List<SuggestionDto>>> suggerer(
+            @RequestParam String q,
+            @RequestParam(defaultValue = "8") int limite) {
+        List<SuggestionDto> suggestions = produitService.suggerer(q, limite);
+        return ResponseEntity.ok(ApiResponse.success(suggestions));
+    }
+
     @PostMapping
     @PreAuthorize("hasRole('PRODUCTEUR')")
     @Operation(summary = "Créer un produit", description = "Crée un nouveau produit (réservé aux producteurs)")
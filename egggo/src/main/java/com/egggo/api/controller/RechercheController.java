@@ -0,0 +1,31 @@
+package com.egggo.api.controller;
+
+import com.egggo.api.dto.common.ApiResponse;
+import com.egggo.api.dto.search.ResultatRechercheDto;
+import com.egggo.application.service.ProduitService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+/**
+ * Contrôleur pour la recherche unifiée
+ */
+@RestController
+@RequestMapping("/v1/recherche")
+@RequiredArgsConstructor
+@Tag(name = "Recherche", description = "Recherche plein texte sur les produits, producteurs et catégories")
+public class RechercheController {
+
+    private final ProduitService produitService;
+
+    @GetMapping
+    @Operation(summary = "Recherche unifiée", description = "Recherche insensible aux accents sur les produits, producteurs et catégories")
+    public ResponseEntity<ApiResponse<ResultatRechercheDto>> rechercher(
+            @RequestParam String q,
+            @RequestParam(defaultValue = "10") int limite) {
+        ResultatRechercheDto resultat = produitService.rechercher(q, limite);
+        return ResponseEntity.ok(ApiResponse.success(resultat));
+    }
+}
@@ -0,0 +1,39 @@
+package com.egggo.api.dto.admin;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Requête d'analyse des ventes sur le cube en mémoire
+ * Dimensions : jour, semaine, mois, producteur, categorie, produit, ville, unite, annulee.
+ * Les filtres portent sur les dimensions non temporelles (identifiants pour producteur et produit,
+ * "true"/"false" pour annulee) ; les dates se filtrent avec du/au (inclus, jours métier).
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class AnalyticsQueryRequest {
+
+    @Size(max = 3, message = "Au plus 3 dimensions de regroupement")
+    private List<String> groupBy;
+
+    private Map<String, List<String>> filtres;
+
+    private LocalDate du;
+
+    private LocalDate au;
+
+    @Min(value = 1, message = "La limite doit être positive")
+    @Max(value = 10000, message = "La limite ne peut dépasser 10000")
+    private Integer limite;
+}
@@ -0,0 +1,27 @@
+package com.egggo.api.dto.admin;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Résultat d'une analyse des ventes : une ligne par groupe, triée par montant décroissant
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class AnalyticsQueryResponse {
+
+    private List<String> colonnes;
+    private List<Map<String, Object>> lignes;
+    private Integer lignesAnalysees;
+    private Long lignesRetenues;
+    private Integer groupes;
+    private Boolean tronque;
+    private Double dureeMs;
+}
@@ -0,0 +1,36 @@
+package com.egggo.api.dto.admin;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Trajectoire enregistrée d'une livraison, pour la relecture
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TrajectoireDto {
+
+    private Long livraisonId;
+    private Integer nombrePoints;
+    private Double distanceKm;
+    private LocalDateTime debut;
+    private LocalDateTime fin;
+    private List<PointDto> points;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class PointDto {
+        private Double latitude;
+        private Double longitude;
+        private LocalDateTime horodatage;
+    }
+}
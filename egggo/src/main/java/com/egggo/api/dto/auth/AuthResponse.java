@@ -16,6 +16,7 @@ import lombok.NoArgsConstructor;
 public class AuthResponse {
 
     private String accessToken;
+    private String refreshToken;
     private String tokenType;
     private Long expiresIn;
     private UserInfo user;
@@ -0,0 +1,18 @@
+package com.egggo.api.dto.auth;
+
+import jakarta.validation.constraints.NotBlank;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO pour le rafraîchissement et la révocation d'un token
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RefreshTokenRequest {
+
+    @NotBlank(message = "Le token de rafraîchissement est obligatoire")
+    private String refreshToken;
+}
@@ -0,0 +1,48 @@
+package com.egggo.api.dto.common;
+
+import com.egggo.application.pagination.Curseur;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * DTO pour les réponses paginées par curseur
+ * nextCursor est à renvoyer tel quel pour obtenir la page suivante ; totalElements n'est
+ * calculé que sur demande (paramètre total=true), car il coûte un COUNT(*) complet.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class CursorPageResponse<T> {
+
+    private List<T> content;
+    private int size;
+    private boolean hasNext;
+    private String nextCursor;
+    private Long totalElements;
+
+    /**
+     * Construit une page à partir des éléments lus avec Curseur.limite (taille + 1)
+     */
+    public static <E, T> CursorPageResponse<T> from(List<E> elements, int taille,
+                                                     Function<E, T> conversion,
+                                                     Function<E, Curseur> position,
+                                                     Long total) {
+        boolean suite = elements.size() > taille;
+        List<E> page = suite ? elements.subList(0, taille) : elements;
+        return CursorPageResponse.<T>builder()
+                .content(page.stream().map(conversion).toList())
+                .size(taille)
+                .hasNext(suite)
+                .nextCursor(suite ? position.apply(page.get(page.size() - 1)).encoder() : null)
+                .totalElements(total)
+                .build();
+    }
+}
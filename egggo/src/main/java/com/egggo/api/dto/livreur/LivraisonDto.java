@@ -56,6 +56,7 @@ public class LivraisonDto {
         private List<PointDto> points;
         private Double distanceTotale;
         private Integer dureeEstimee;
+        private List<ArretDto> arrets; // Tournée du livreur, dans l'ordre de passage
 
         @Data
         @NoArgsConstructor
@@ -66,5 +67,22 @@ public class LivraisonDto {
             private Double longitude;
             private String label;
         }
+
+        @Data
+        @NoArgsConstructor
+        @AllArgsConstructor
+        @Builder
+        public static class ArretDto {
+            private Integer ordre;
+            private String type; // RETRAIT, DEPOT
+            private Long livraisonId;
+            private String commandeRef;
+            private Double latitude;
+            private Double longitude;
+            private String label;
+            private Double distanceKm; // Cumulée depuis la position actuelle
+            private Integer minutes; // Cumulées depuis la position actuelle
+            private LocalDateTime heureEstimee;
+        }
     }
 }
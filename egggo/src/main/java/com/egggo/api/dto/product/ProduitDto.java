@@ -1,17 +1,15 @@
 package com.egggo.api.dto.product;
 
+import com.egggo.domain.model.product.Produit;
 import com.egggo.domain.model.product.Unite;
-import lombok.AllArgsConstructor;
 import lombok.Builder;
-import lombok.Data;
-import lombok.NoArgsConstructor;
+import lombok.Value;
 
 /**
  * DTO pour les produits
+ * Immuable : les mêmes instances sont partagées par le cache catalogue entre toutes les requêtes
  */
-@Data
-@NoArgsConstructor
-@AllArgsConstructor
+@Value
 @Builder
 public class ProduitDto {
 
@@ -35,4 +33,28 @@ public class ProduitDto {
     private String producteurNom;
     private String producteurFerme;
     private Double producteurNote;
+
+    /**
+     * Convertit une entité Produit (catégorie et producteur chargés) en DTO
+     */
+    public static ProduitDto from(Produit produit) {
+        return ProduitDto.builder()
+                .id(produit.getId())
+                .nom(produit.getNom())
+                .description(produit.getDescription())
+                .prixUnitaire(produit.getPrixUnitaire())
+                .prixPromotionnel(null) // Pas de prix promotionnel dans l'entité actuelle
+                .unite(produit.getUnite())
+                .stockDisponible(produit.getQuantiteStock())
+                .imageUrl(produit.getImage())
+                .actif(produit.getDisponible())
+                .disponible(produit.verifierDisponibilite(1))
+                .categorieId(produit.getCategorie().getId())
+                .categorieNom(produit.getCategorie().getNom())
+                .producteurId(produit.getProducteur().getId())
+                .producteurNom(produit.getProducteur().getNom() + " " + produit.getProducteur().getPrenom())
+                .producteurFerme(produit.getProducteur().getNomFerme())
+                .producteurNote(produit.getProducteur().getNoteMoyenne())
+                .build();
+    }
 }
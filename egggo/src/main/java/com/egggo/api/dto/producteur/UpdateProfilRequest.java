@@ -0,0 +1,38 @@
+package com.egggo.api.dto.producteur;
+
+import jakarta.validation.constraints.DecimalMax;
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO pour la mise à jour du profil de la ferme (champs absents inchangés)
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class UpdateProfilRequest {
+
+    @Size(min = 2, max = 150, message = "Le nom de la ferme doit contenir entre 2 et 150 caractères")
+    private String nomFerme;
+
+    private String description;
+
+    @Size(max = 255, message = "L'adresse de la ferme ne doit pas dépasser 255 caractères")
+    private String adresseFerme;
+
+    @DecimalMin(value = "-90.0", message = "Latitude invalide")
+    @DecimalMax(value = "90.0", message = "Latitude invalide")
+    private Double latitude;
+
+    @DecimalMin(value = "-180.0", message = "Longitude invalide")
+    @DecimalMax(value = "180.0", message = "Longitude invalide")
+    private Double longitude;
+
+    @Size(max = 255, message = "L'URL du logo ne doit pas dépasser 255 caractères")
+    private String logoFerme;
+}
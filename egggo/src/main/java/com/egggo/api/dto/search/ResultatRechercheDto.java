@@ -0,0 +1,38 @@
+package com.egggo.api.dto.search;
+
+import com.egggo.api.dto.product.CategorieDto;
+import com.egggo.api.dto.product.ProduitDto;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * DTO pour les résultats de la recherche unifiée (produits, producteurs, catégories)
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ResultatRechercheDto {
+
+    private String requete;
+    private List<ProduitDto> produits;
+    private List<ProducteurResultat> producteurs;
+    private List<CategorieDto> categories;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class ProducteurResultat {
+        private Long id;
+        private String nomFerme;
+        private String adresseFerme;
+        private String logoFerme;
+        private Boolean certifie;
+        private Double noteMoyenne;
+    }
+}
@@ -0,0 +1,20 @@
+package com.egggo.api.dto.search;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO pour une suggestion d'autocomplétion (produit, ferme ou catégorie)
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class SuggestionDto {
+
+    private String libelle;
+    private String type; // PRODUIT, PRODUCTEUR, CATEGORIE
+    private Long id;
+}
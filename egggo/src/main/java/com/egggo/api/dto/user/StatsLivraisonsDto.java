@@ -21,6 +21,10 @@ public class StatsLivraisonsDto {
     private Integer livraisonsEchouees;
     private Double tauxReussite;
     private Double tempsLivraisonMoyen;
+    // Durées acceptation → livraison en minutes (quantiles à 1 % près)
+    private Double tempsLivraisonMedian;
+    private Double tempsLivraisonP90;
+    private Double tempsLivraisonP99;
     private Double distanceTotaleParcourue;
 
     private List<LivraisonJourDto> livraisonsParJour;
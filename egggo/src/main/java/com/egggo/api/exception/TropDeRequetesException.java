@@ -0,0 +1,20 @@
+package com.egggo.api.exception;
+
+import lombok.Getter;
+
+/**
+ * Levée lorsqu'un client dépasse son budget de requêtes (HTTP 429)
+ */
+@Getter
+public class TropDeRequetesException extends RuntimeException {
+
+    /**
+     * Délai conseillé avant une nouvelle tentative, en secondes
+     */
+    private final long retryAfterSecondes;
+
+    public TropDeRequetesException(String message, long retryAfterSecondes) {
+        super(message);
+        this.retryAfterSecondes = Math.max(1, retryAfterSecondes);
+    }
+}
@@ -0,0 +1,216 @@
+package com.egggo.application.analytics;
+
+import com.egggo.application.stats.CalendrierStatistiques;
+import com.egggo.domain.event.CommandeAnnuleeEvent;
+import com.egggo.domain.event.CommandeCreeeEvent;
+import com.egggo.domain.model.order.StatutCommande;
+import com.egggo.domain.model.stats.StatistiqueJournaliere;
+import com.egggo.domain.repository.CommandeRepository;
+import com.egggo.infrastructure.metrics.SourceMetriques;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Alimentation et interrogation du cube des ventes
+ * Le cube est chargé au démarrage par lots de commandes (curseur sur l'identifiant), puis complété
+ * par les événements de création et d'annulation : les identifiants sont mis en file et intégrés
+ * périodiquement, en relisant les lignes des nouvelles commandes. Les requêtes ne touchent jamais
+ * la base ; elles reflètent les ventes à l'intervalle d'intégration près.
+ */
+@Component
+@Slf4j
+public class AnalytiqueVentes implements SourceMetriques {
+
+    private final CommandeRepository commandeRepository;
+    private final CalendrierStatistiques calendrier;
+    private final boolean actif;
+    private final int tailleLot;
+
+    private final CubeVentes cube = new CubeVentes();
+
+    private final ConcurrentLinkedQueue<Long> creees = new ConcurrentLinkedQueue<>();
+    private final ConcurrentLinkedQueue<Long> annulees = new ConcurrentLinkedQueue<>();
+
+    private volatile boolean pret;
+
+    /**
+     * Plus grand identifiant de commande intégré : au-delà, une commande est forcément absente du cube
+     */
+    private long dernierId;
+
+    private final AtomicLong requetes = new AtomicLong();
+    private final AtomicLong commandesIntegrees = new AtomicLong();
+    private final AtomicLong annulationsIntegrees = new AtomicLong();
+    private volatile long dureeChargementMs;
+
+    public AnalytiqueVentes(CommandeRepository commandeRepository,
+                            CalendrierStatistiques calendrier,
+                            @Value("${analytics.cube.actif:true}") boolean actif,
+                            @Value("${analytics.cube.taille-lot:1000}") int tailleLot) {
+        this.commandeRepository = commandeRepository;
+        this.calendrier = calendrier;
+        this.actif = actif;
+        this.tailleLot = tailleLot;
+    }
+
+    // ====================== Alimentation ======================
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void charger() {
+        if (!actif) {
+            return;
+        }
+        long debut = System.nanoTime();
+        synchronized (cube) {
+            List<Long> ids;
+            do {
+                ids = commandeRepository.findIdsApres(dernierId, PageRequest.ofSize(tailleLot));
+                if (!ids.isEmpty()) {
+                    ranger(ids);
+                    dernierId = ids.get(ids.size() - 1);
+                }
+            } while (ids.size() == tailleLot);
+            pret = true;
+        }
+        dureeChargementMs = (System.nanoTime() - debut) / 1_000_000;
+        log.info("Cube des ventes chargé: {} lignes, {} commandes en {} ms",
+                cube.getTaille(), cube.getNombreCommandes(), dureeChargementMs);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void surCommandeCreee(CommandeCreeeEvent event) {
+        if (actif && event.commandeId() != null) {
+            creees.add(event.commandeId());
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void surCommandeAnnulee(CommandeAnnuleeEvent event) {
+        if (actif && event.commandeId() != null) {
+            annulees.add(event.commandeId());
+        }
+    }
+
+    /**
+     * Intègre les commandes créées puis les annulations reçues depuis le dernier passage
+     * Les événements reçus pendant le chargement initial peuvent concerner des commandes déjà lues :
+     * seules celles dont l'identifiant ne dépasse pas le dernier intégré sont recherchées dans le cube.
+     */
+    @Scheduled(fixedDelayString = "${analytics.cube.integration-ms:2000}")
+    public void integrer() {
+        if (!pret) {
+            return;
+        }
+        synchronized (cube) {
+            List<Long> ids = new ArrayList<>();
+            for (Long id = creees.poll(); id != null; id = creees.poll()) {
+                if (id > dernierId || !cube.contient(id)) {
+                    ids.add(id);
+                }
+            }
+            try {
+                for (int debut = 0; debut < ids.size(); debut += tailleLot) {
+                    List<Long> lot = ids.subList(debut, Math.min(ids.size(), debut + tailleLot));
+                    ranger(lot);
+                    dernierId = Math.max(dernierId, lot.stream().mapToLong(Long::longValue).max().orElse(0));
+                    commandesIntegrees.addAndGet(lot.size());
+                }
+            } catch (RuntimeException e) {
+                // Les commandes non rangées seront reprises au passage suivant
+                ids.stream().filter(id -> !cube.contient(id)).forEach(creees::add);
+                log.error("Intégration des commandes dans le cube impossible: {}", e.getMessage());
+                return;
+            }
+            for (Long id = annulees.poll(); id != null; id = annulees.poll()) {
+                if (cube.annuler(id) > 0) {
+                    annulationsIntegrees.incrementAndGet();
+                }
+            }
+        }
+    }
+
+    /**
+     * Lit les lignes des commandes données et les range dans le cube, commande par commande
+     */
+    private void ranger(List<Long> ids) {
+        List<Object[]> lignes = commandeRepository.findLignesVentes(ids);
+        List<CubeVentes.Fait> commande = new ArrayList<>();
+        for (Object[] ligne : lignes) {
+            CubeVentes.Fait fait = fait(ligne);
+            if (!commande.isEmpty() && commande.get(0).commandeId() != fait.commandeId()) {
+                cube.ajouterCommande(commande);
+                commande.clear();
+            }
+            commande.add(fait);
+        }
+        cube.ajouterCommande(commande);
+    }
+
+    private CubeVentes.Fait fait(Object[] ligne) {
+        Long producteurId = (Long) ligne[3];
+        Long produitId = (Long) ligne[6];
+        Object unite = ligne[8];
+        Integer quantite = (Integer) ligne[10];
+        Double montant = (Double) ligne[11];
+        return new CubeVentes.Fait(
+                (Long) ligne[0],
+                calendrier.jourDe((LocalDateTime) ligne[1]),
+                String.valueOf(producteurId),
+                (String) ligne[4],
+                (String) ligne[5],
+                String.valueOf(produitId),
+                (String) ligne[7],
+                unite != null ? unite.toString() : null,
+                StatistiqueJournaliere.normaliserVille((String) ligne[9]),
+                ligne[2] == StatutCommande.ANNULEE,
+                quantite != null ? quantite : 0,
+                montant != null ? montant : 0.0);
+    }
+
+    // ====================== Interrogation ======================
+
+    public CubeVentes.Resultat interroger(CubeVentes.Requete requete) {
+        if (!actif) {
+            throw new IllegalStateException("Le cube des ventes est désactivé");
+        }
+        if (!pret) {
+            throw new IllegalStateException("Le cube des ventes est en cours de chargement");
+        }
+        requetes.incrementAndGet();
+        return cube.executer(requete);
+    }
+
+    @Override
+    public String getNom() {
+        return "cubeVentes";
+    }
+
+    @Override
+    public Map<String, Object> getMetriques() {
+        Map<String, Object> metriques = new LinkedHashMap<>();
+        metriques.put("pret", pret);
+        metriques.put("lignes", cube.getTaille());
+        metriques.put("commandes", cube.getNombreCommandes());
+        metriques.put("octets", cube.getOctets());
+        metriques.put("dureeChargementMs", dureeChargementMs);
+        metriques.put("enAttente", creees.size() + annulees.size());
+        metriques.put("commandesIntegrees", commandesIntegrees.get());
+        metriques.put("annulationsIntegrees", annulationsIntegrees.get());
+        metriques.put("requetes", requetes.get());
+        return metriques;
+    }
+}
@@ -0,0 +1,656 @@
+package com.egggo.application.analytics;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Cube des ventes en mémoire, stocké en colonnes (une entrée par ligne de commande)
+ * Les dimensions textuelles sont codées par dictionnaire (un entier par valeur distincte) et les
+ * mesures rangées dans des tableaux primitifs : une ligne occupe 45 octets et un balayage de
+ * plusieurs millions de lignes se fait en quelques millisecondes, sans allocation par ligne.
+ * Un seul écrivain à la fois (méthodes synchronisées) ; les lecteurs ne prennent aucun verrou :
+ * ils lisent la taille publiée puis les colonnes, qui contiennent toujours au moins ces lignes.
+ * L'annulation d'une commande modifie ses lignes en place : une requête concurrente peut la voir
+ * partiellement appliquée, ce qui est sans conséquence pour de l'analyse.
+ */
+public final class CubeVentes {
+
+    public static final int GROUPES_MAX = 3;
+
+    private static final int BITS_CODE = 21;
+    private static final int CODE_MAX = (1 << BITS_CODE) - 1;
+    private static final int CAPACITE_INITIALE = 1 << 14;
+    private static final int OCTETS_PAR_LIGNE = 45;
+    private static final int TAILLE_BLOC = 4096;
+    private static final int GROUPES_DENSES_MAX = 1 << 18;
+
+    private static final String OUI = "true";
+    private static final String NON = "false";
+
+    private final Dictionnaire producteurs = new Dictionnaire();
+    private final Dictionnaire categories = new Dictionnaire();
+    private final Dictionnaire produits = new Dictionnaire();
+    private final Dictionnaire unites = new Dictionnaire();
+    private final Dictionnaire villes = new Dictionnaire();
+
+    private volatile Colonnes colonnes = new Colonnes(CAPACITE_INITIALE);
+    private volatile int taille;
+    private volatile long nombreCommandes;
+    private volatile int premierJour = CODE_MAX;
+    private volatile int dernierJour;
+
+    /**
+     * Ligne de commande à ranger dans le cube (valeurs déjà résolues)
+     */
+    public record Fait(long commandeId, LocalDate jour, String producteurId, String producteur, String categorie,
+                       String produitId, String produit, String unite, String ville, boolean annulee,
+                       int quantite, double montant) {
+    }
+
+    /**
+     * Requête d'analyse : regroupement (0 à 3 dimensions), filtres par valeurs, intervalle de jours inclus
+     */
+    public record Requete(List<DimensionVente> groupes, Map<DimensionVente, Set<String>> filtres,
+                          LocalDate du, LocalDate au, int limite) {
+    }
+
+    /**
+     * Résultat trié par montant décroissant ; tronque indique que des groupes ont été écartés par la limite
+     */
+    public record Resultat(List<String> colonnes, List<Map<String, Object>> lignes,
+                           int lignesAnalysees, long lignesRetenues, int groupes, boolean tronque) {
+    }
+
+    // ====================== Écriture ======================
+
+    /**
+     * Ajoute toutes les lignes d'une commande (elles restent contiguës, ce que supposent annuler et le
+     * comptage des commandes)
+     */
+    public synchronized void ajouterCommande(List<Fait> lignes) {
+        if (lignes.isEmpty()) {
+            return;
+        }
+        int n = taille;
+        Colonnes c = reserver(n + lignes.size());
+        for (Fait fait : lignes) {
+            c.commande[n] = fait.commandeId();
+            c.jour[n] = (int) fait.jour().toEpochDay() & CODE_MAX;
+            c.producteur[n] = producteurs.coder(fait.producteurId(), fait.producteur());
+            c.categorie[n] = categories.coder(fait.categorie(), fait.categorie());
+            c.produit[n] = produits.coder(fait.produitId(), fait.produit());
+            c.unite[n] = unites.coder(fait.unite(), fait.unite());
+            c.ville[n] = villes.coder(fait.ville(), fait.ville());
+            c.annulee[n] = fait.annulee();
+            c.quantite[n] = fait.quantite();
+            c.montant[n] = fait.montant();
+            n++;
+        }
+        for (Fait fait : lignes) {
+            int jour = (int) fait.jour().toEpochDay() & CODE_MAX;
+            premierJour = Math.min(premierJour, jour);
+            dernierJour = Math.max(dernierJour, jour);
+        }
+        taille = n;
+        nombreCommandes++;
+    }
+
+    /**
+     * Marque les lignes d'une commande comme annulées ; retourne le nombre de lignes trouvées
+     */
+    public synchronized int annuler(long commandeId) {
+        Colonnes c = colonnes;
+        int lignes = 0;
+        for (int i = derniereLigne(commandeId); i >= 0 && c.commande[i] == commandeId; i--) {
+            c.annulee[i] = true;
+            lignes++;
+        }
+        return lignes;
+    }
+
+    public synchronized boolean contient(long commandeId) {
+        return derniereLigne(commandeId) >= 0;
+    }
+
+    /**
+     * Dernière ligne d'une commande, en remontant depuis la fin (les commandes touchées sont en général récentes)
+     */
+    private int derniereLigne(long commandeId) {
+        long[] commande = colonnes.commande;
+        for (int i = taille - 1; i >= 0; i--) {
+            if (commande[i] == commandeId) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private Colonnes reserver(int besoin) {
+        Colonnes c = colonnes;
+        if (besoin > c.capacite) {
+            c = c.copier(Math.max(besoin, c.capacite + (c.capacite >> 1)), taille);
+            colonnes = c;
+        }
+        return c;
+    }
+
+    // ====================== Lecture ======================
+
+    public int getTaille() {
+        return taille;
+    }
+
+    public long getNombreCommandes() {
+        return nombreCommandes;
+    }
+
+    /**
+     * Mémoire occupée par les colonnes (capacité réservée comprise), hors dictionnaires
+     */
+    public long getOctets() {
+        return (long) colonnes.capacite * OCTETS_PAR_LIGNE;
+    }
+
+    /**
+     * Balaye les lignes publiées, filtre, regroupe et agrège (montant, quantité, lignes, commandes distinctes)
+     */
+    public Resultat executer(Requete requete) {
+        List<DimensionVente> groupes = requete.groupes();
+        if (groupes.size() > GROUPES_MAX) {
+            throw new IllegalArgumentException("Au plus " + GROUPES_MAX + " dimensions de regroupement");
+        }
+        if (new HashSet<>(groupes).size() != groupes.size()) {
+            throw new IllegalArgumentException("Dimension de regroupement en double");
+        }
+        if (requete.du() != null && requete.au() != null && requete.du().isAfter(requete.au())) {
+            throw new IllegalArgumentException("La date de début doit précéder la date de fin");
+        }
+        Map<DimensionVente, Set<String>> filtres = requete.filtres() != null ? requete.filtres() : Map.of();
+        for (DimensionVente dimension : filtres.keySet()) {
+            if (dimension.isTemporelle()) {
+                throw new IllegalArgumentException("Filtrer " + dimension.getCle() + " avec du/au");
+            }
+        }
+
+        // Taille lue avant les colonnes : celles-ci contiennent au moins ces lignes
+        int n = taille;
+        Colonnes c = colonnes;
+
+        int jourMin = requete.du() != null ? (int) requete.du().toEpochDay() : 0;
+        int jourMax = requete.au() != null ? (int) requete.au().toEpochDay() : CODE_MAX;
+        boolean[] filtreProducteur = filtre(filtres.get(DimensionVente.PRODUCTEUR), producteurs);
+        boolean[] filtreCategorie = filtre(filtres.get(DimensionVente.CATEGORIE), categories);
+        boolean[] filtreProduit = filtre(filtres.get(DimensionVente.PRODUIT), produits);
+        boolean[] filtreUnite = filtre(filtres.get(DimensionVente.UNITE), unites);
+        boolean[] filtreVille = filtre(filtres.get(DimensionVente.VILLE), villes);
+        Set<String> filtreAnnulee = filtres.get(DimensionVente.ANNULEE);
+        boolean garderAnnulees = filtreAnnulee == null || filtreAnnulee.contains(OUI);
+        boolean garderValides = filtreAnnulee == null || filtreAnnulee.contains(NON);
+
+        // Clé de groupe en base mixte : dense (indexation directe) si le produit des cardinalités est petit
+        DimensionVente[] axes = groupes.toArray(new DimensionVente[0]);
+        int[] origines = new int[axes.length];
+        long[] bases = new long[axes.length];
+        long cardinalite = 1;
+        for (int k = 0; k < axes.length; k++) {
+            int[] domaine = domaine(axes[k], Math.max(jourMin, premierJour), Math.min(jourMax, dernierJour));
+            origines[k] = domaine[0];
+            bases[k] = Math.max(1, domaine[1] - domaine[0] + 1);
+            cardinalite *= bases[k];
+        }
+        boolean dense = cardinalite <= GROUPES_DENSES_MAX;
+        if (!dense) {
+            Arrays.fill(origines, 0);
+            Arrays.fill(bases, 1L << BITS_CODE);
+        }
+        TableAgregats table = new TableAgregats(dense ? (int) cardinalite : 0);
+        int[] selection = new int[TAILLE_BLOC];
+        long[] cles = new long[TAILLE_BLOC];
+        long retenues = 0;
+        for (int debutBloc = 0; debutBloc < n; debutBloc += TAILLE_BLOC) {
+            int finBloc = Math.min(n, debutBloc + TAILLE_BLOC);
+            int k = 0;
+            for (int i = debutBloc; i < finBloc; i++) {
+                selection[k] = i;
+                k += c.jour[i] >= jourMin && c.jour[i] <= jourMax ? 1 : 0;
+            }
+            k = restreindre(selection, k, filtreProducteur, c.producteur);
+            k = restreindre(selection, k, filtreCategorie, c.categorie);
+            k = restreindre(selection, k, filtreProduit, c.produit);
+            k = restreindre(selection, k, filtreUnite, c.unite);
+            k = restreindre(selection, k, filtreVille, c.ville);
+            if (garderAnnulees != garderValides) {
+                int retenus = 0;
+                for (int j = 0; j < k; j++) {
+                    selection[retenus] = selection[j];
+                    retenus += c.annulee[selection[j]] == garderAnnulees ? 1 : 0;
+                }
+                k = retenus;
+            } else if (!garderAnnulees) {
+                k = 0;
+            }
+
+            Arrays.fill(cles, 0, k, 0L);
+            for (int a = 0; a < axes.length; a++) {
+                coder(axes[a], c, selection, k, cles, origines[a], bases[a]);
+            }
+            for (int j = 0; j < k; j++) {
+                int i = selection[j];
+                table.ajouter(cles[j], c.commande[i], c.quantite[i], c.montant[i]);
+            }
+            retenues += k;
+        }
+
+        List<String> entetes = new ArrayList<>();
+        for (DimensionVente axe : axes) {
+            entetes.add(axe.getCle());
+            if (axe == DimensionVente.PRODUCTEUR || axe == DimensionVente.PRODUIT) {
+                entetes.add(axe.getCle() + "Nom");
+            }
+        }
+        entetes.addAll(List.of("montant", "quantite", "lignes", "commandes"));
+
+        int[] ordre = table.meilleurs(requete.limite());
+        List<Map<String, Object>> lignes = new ArrayList<>(ordre.length);
+        int[] codes = new int[axes.length];
+        for (int r = 0; r < ordre.length; r++) {
+            int slot = ordre[r];
+            long cle = table.cles[slot];
+            for (int k = axes.length - 1; k >= 0; k--) {
+                codes[k] = (int) (cle % bases[k]) + origines[k];
+                cle /= bases[k];
+            }
+            Map<String, Object> ligne = new LinkedHashMap<>();
+            for (int k = 0; k < axes.length; k++) {
+                decoder(axes[k], codes[k], ligne);
+            }
+            ligne.put("montant", table.montant[slot]);
+            ligne.put("quantite", table.quantite[slot]);
+            ligne.put("lignes", table.lignes[slot]);
+            ligne.put("commandes", table.commandes[slot]);
+            lignes.add(ligne);
+        }
+        return new Resultat(entetes, lignes, n, retenues, table.taille, ordre.length < table.taille);
+    }
+
+    /**
+     * Réduit une sélection de lignes aux codes admis d'une colonne ; retourne la nouvelle taille
+     */
+    private static int restreindre(int[] selection, int k, boolean[] filtre, int[] colonne) {
+        if (filtre == null) {
+            return k;
+        }
+        int retenus = 0;
+        for (int j = 0; j < k; j++) {
+            int code = colonne[selection[j]];
+            selection[retenus] = selection[j];
+            retenus += code < filtre.length && filtre[code] ? 1 : 0;
+        }
+        return retenus;
+    }
+
+    /**
+     * Codes admis d'une dimension ; null sans filtre (les valeurs inconnues n'admettent rien)
+     */
+    private static boolean[] filtre(Set<String> valeurs, Dictionnaire dictionnaire) {
+        if (valeurs == null) {
+            return null;
+        }
+        int nombre = dictionnaire.nombre;
+        String[] entrees = dictionnaire.entrees;
+        boolean[] admis = new boolean[nombre];
+        for (int code = 0; code < nombre; code++) {
+            admis[code] = valeurs.contains(entrees[2 * code]);
+        }
+        return admis;
+    }
+
+    /**
+     * Intervalle [min, max] des codes d'un axe pour les lignes publiées (jours bornés par la requête)
+     */
+    private int[] domaine(DimensionVente axe, int jourMin, int jourMax) {
+        if (axe.isTemporelle() && jourMin > jourMax) {
+            return new int[]{0, 0};
+        }
+        return switch (axe) {
+            case JOUR -> new int[]{jourMin, jourMax};
+            case SEMAINE -> new int[]{semaine(jourMin), semaine(jourMax)};
+            case MOIS -> new int[]{mois(jourMin), mois(jourMax)};
+            case PRODUCTEUR -> new int[]{0, producteurs.nombre - 1};
+            case CATEGORIE -> new int[]{0, categories.nombre - 1};
+            case PRODUIT -> new int[]{0, produits.nombre - 1};
+            case UNITE -> new int[]{0, unites.nombre - 1};
+            case VILLE -> new int[]{0, villes.nombre - 1};
+            case ANNULEE -> new int[]{0, 1};
+        };
+    }
+
+    /**
+     * Ajoute le code d'un axe aux clés de regroupement des lignes sélectionnées (une colonne à la fois)
+     */
+    private static void coder(DimensionVente axe, Colonnes c, int[] selection, int k, long[] cles,
+                              int origine, long base) {
+        int[] colonne = switch (axe) {
+            case PRODUCTEUR -> c.producteur;
+            case CATEGORIE -> c.categorie;
+            case PRODUIT -> c.produit;
+            case UNITE -> c.unite;
+            case VILLE -> c.ville;
+            default -> null;
+        };
+        if (colonne != null) {
+            for (int j = 0; j < k; j++) {
+                cles[j] = cles[j] * base + colonne[selection[j]] - origine;
+            }
+            return;
+        }
+        for (int j = 0; j < k; j++) {
+            int i = selection[j];
+            int code = switch (axe) {
+                case JOUR -> c.jour[i];
+                case SEMAINE -> semaine(c.jour[i]);
+                case MOIS -> mois(c.jour[i]);
+                default -> c.annulee[i] ? 1 : 0;
+            };
+            cles[j] = cles[j] * base + code - origine;
+        }
+    }
+
+    private void decoder(DimensionVente axe, int code, Map<String, Object> ligne) {
+        switch (axe) {
+            case JOUR -> ligne.put(axe.getCle(), LocalDate.ofEpochDay(code).toString());
+            case SEMAINE -> ligne.put(axe.getCle(), LocalDate.ofEpochDay(7L * code - 3).toString());
+            case MOIS -> ligne.put(axe.getCle(), YearMonth.of(code / 12, code % 12 + 1).toString());
+            case PRODUCTEUR -> {
+                ligne.put(axe.getCle(), producteurs.cle(code));
+                ligne.put(axe.getCle() + "Nom", producteurs.libelle(code));
+            }
+            case PRODUIT -> {
+                ligne.put(axe.getCle(), produits.cle(code));
+                ligne.put(axe.getCle() + "Nom", produits.libelle(code));
+            }
+            case CATEGORIE -> ligne.put(axe.getCle(), categories.cle(code));
+            case UNITE -> ligne.put(axe.getCle(), unites.cle(code));
+            case VILLE -> ligne.put(axe.getCle(), villes.cle(code));
+            case ANNULEE -> ligne.put(axe.getCle(), code == 1);
+        }
+    }
+
+    /**
+     * Semaine ISO (numéro depuis le lundi 29 décembre 1969) d'un jour compté depuis le 1er janvier 1970
+     */
+    static int semaine(int jour) {
+        return Math.floorDiv(jour + 3, 7);
+    }
+
+    /**
+     * Mois (année × 12 + mois − 1) d'un jour compté depuis le 1er janvier 1970, en arithmétique entière
+     * (conversion jours → date civile de H. Hinnant, sans passer par LocalDate dans la boucle)
+     */
+    static int mois(int jour) {
+        int z = jour + 719468;
+        int ere = Math.floorDiv(z, 146097);
+        int jourEre = z - ere * 146097;
+        int anneeEre = (jourEre - jourEre / 1460 + jourEre / 36524 - jourEre / 146096) / 365;
+        int jourAnnee = jourEre - (365 * anneeEre + anneeEre / 4 - anneeEre / 100);
+        int moisDecale = (5 * jourAnnee + 2) / 153;
+        int mois = moisDecale < 10 ? moisDecale + 3 : moisDecale - 9;
+        int annee = anneeEre + ere * 400 + (mois <= 2 ? 1 : 0);
+        return annee * 12 + mois - 1;
+    }
+
+    // ====================== Structures internes ======================
+
+    /**
+     * Colonnes du cube ; remplacées par une copie agrandie quand la capacité est atteinte
+     */
+    private static final class Colonnes {
+        final int capacite;
+        final long[] commande;
+        final int[] jour;
+        final int[] producteur;
+        final int[] categorie;
+        final int[] produit;
+        final int[] unite;
+        final int[] ville;
+        final boolean[] annulee;
+        final int[] quantite;
+        final double[] montant;
+
+        Colonnes(int capacite) {
+            this.capacite = capacite;
+            commande = new long[capacite];
+            jour = new int[capacite];
+            producteur = new int[capacite];
+            categorie = new int[capacite];
+            produit = new int[capacite];
+            unite = new int[capacite];
+            ville = new int[capacite];
+            annulee = new boolean[capacite];
+            quantite = new int[capacite];
+            montant = new double[capacite];
+        }
+
+        Colonnes copier(int nouvelleCapacite, int lignes) {
+            Colonnes copie = new Colonnes(nouvelleCapacite);
+            System.arraycopy(commande, 0, copie.commande, 0, lignes);
+            System.arraycopy(jour, 0, copie.jour, 0, lignes);
+            System.arraycopy(producteur, 0, copie.producteur, 0, lignes);
+            System.arraycopy(categorie, 0, copie.categorie, 0, lignes);
+            System.arraycopy(produit, 0, copie.produit, 0, lignes);
+            System.arraycopy(unite, 0, copie.unite, 0, lignes);
+            System.arraycopy(ville, 0, copie.ville, 0, lignes);
+            System.arraycopy(annulee, 0, copie.annulee, 0, lignes);
+            System.arraycopy(quantite, 0, copie.quantite, 0, lignes);
+            System.arraycopy(montant, 0, copie.montant, 0, lignes);
+            return copie;
+        }
+    }
+
+    /**
+     * Dictionnaire d'une dimension : clé → code (côté écrivain), code → (clé, libellé) publié aux lecteurs
+     * Les entrées sont écrites avant la publication du nombre, lu en premier par les lecteurs.
+     */
+    private static final class Dictionnaire {
+        private final Map<String, Integer> codes = new HashMap<>();
+        private volatile String[] entrees = new String[32];
+        private volatile int nombre;
+
+        int coder(String cle, String libelle) {
+            String valeur = cle != null ? cle : "";
+            Integer code = codes.get(valeur);
+            if (code != null) {
+                return code;
+            }
+            int nouveau = nombre;
+            if (nouveau > CODE_MAX) {
+                throw new IllegalStateException("Trop de valeurs distinctes pour une dimension du cube");
+            }
+            String[] tableau = entrees;
+            if (2 * nouveau + 1 >= tableau.length) {
+                tableau = Arrays.copyOf(tableau, tableau.length * 2);
+            }
+            tableau[2 * nouveau] = valeur;
+            tableau[2 * nouveau + 1] = libelle != null ? libelle : valeur;
+            entrees = tableau;
+            nombre = nouveau + 1;
+            codes.put(valeur, nouveau);
+            return nouveau;
+        }
+
+        String cle(int code) {
+            return entrees[2 * code];
+        }
+
+        String libelle(int code) {
+            return entrees[2 * code + 1];
+        }
+    }
+
+    /**
+     * Agrégats par groupe, mesures en tableaux parallèles : indexation directe quand la clé est dense,
+     * sinon table de hachage à adressage ouvert sur des clés long
+     * Les lignes d'une commande étant contiguës, une commande distincte se détecte par changement d'identifiant.
+     */
+    private static final class TableAgregats {
+        long[] cles;
+        boolean[] occupe;
+        double[] montant;
+        long[] quantite;
+        long[] lignes;
+        long[] commandes;
+        long[] derniereCommande;
+        int taille;
+        int masque;
+        final boolean dense;
+
+        /**
+         * Table dense de la cardinalité donnée, ou table de hachage si elle vaut 0
+         */
+        TableAgregats(int cardinalite) {
+            dense = cardinalite > 0;
+            allouer(dense ? cardinalite : 64);
+        }
+
+        void ajouter(long cle, long commandeId, int qte, double mt) {
+            int i = dense ? (int) cle : trouver(cle);
+            if (!occupe[i]) {
+                if (!dense && (taille + 1) * 2 > cles.length) {
+                    agrandir();
+                    i = trouver(cle);
+                }
+                occupe[i] = true;
+                cles[i] = cle;
+                derniereCommande[i] = Long.MIN_VALUE;
+                taille++;
+            }
+            montant[i] += mt;
+            quantite[i] += qte;
+            lignes[i]++;
+            if (derniereCommande[i] != commandeId) {
+                derniereCommande[i] = commandeId;
+                commandes[i]++;
+            }
+        }
+
+        /**
+         * Positions des groupes aux plus forts montants, par montant décroissant (tas des limite meilleurs)
+         */
+        int[] meilleurs(int limite) {
+            int nombre = Math.min(limite, taille);
+            int[] tas = new int[nombre];
+            int remplis = 0;
+            for (int i = 0; i < cles.length && nombre > 0; i++) {
+                if (!occupe[i]) {
+                    continue;
+                }
+                if (remplis < nombre) {
+                    tas[remplis] = i;
+                    monter(tas, remplis++);
+                } else if (montant[i] > montant[tas[0]]) {
+                    tas[0] = i;
+                    descendre(tas, nombre);
+                }
+            }
+            // Le tas garde le plus faible en tête : on l'extrait jusqu'à vider pour obtenir l'ordre décroissant
+            for (int fin = nombre - 1; fin > 0; fin--) {
+                int tete = tas[0];
+                tas[0] = tas[fin];
+                tas[fin] = tete;
+                descendre(tas, fin);
+            }
+            return tas;
+        }
+
+        private void monter(int[] tas, int position) {
+            while (position > 0) {
+                int parent = (position - 1) / 2;
+                if (montant[tas[parent]] <= montant[tas[position]]) {
+                    return;
+                }
+                echanger(tas, parent, position);
+                position = parent;
+            }
+        }
+
+        private void descendre(int[] tas, int taille) {
+            int position = 0;
+            while (true) {
+                int plusPetit = position;
+                int gauche = 2 * position + 1;
+                if (gauche < taille && montant[tas[gauche]] < montant[tas[plusPetit]]) {
+                    plusPetit = gauche;
+                }
+                if (gauche + 1 < taille && montant[tas[gauche + 1]] < montant[tas[plusPetit]]) {
+                    plusPetit = gauche + 1;
+                }
+                if (plusPetit == position) {
+                    return;
+                }
+                echanger(tas, position, plusPetit);
+                position = plusPetit;
+            }
+        }
+
+        private static void echanger(int[] tas, int a, int b) {
+            int t = tas[a];
+            tas[a] = tas[b];
+            tas[b] = t;
+        }
+
+        private int trouver(long cle) {
+            int i = melanger(cle) & masque;
+            while (occupe[i] && cles[i] != cle) {
+                i = (i + 1) & masque;
+            }
+            return i;
+        }
+
+        private void allouer(int capacite) {
+            cles = new long[capacite];
+            occupe = new boolean[capacite];
+            montant = new double[capacite];
+            quantite = new long[capacite];
+            lignes = new long[capacite];
+            commandes = new long[capacite];
+            derniereCommande = new long[capacite];
+            masque = capacite - 1;
+        }
+
+        private void agrandir() {
+            long[] anciennesCles = cles;
+            boolean[] ancienOccupe = occupe;
+            double[] ancienMontant = montant;
+            long[] ancienneQuantite = quantite;
+            long[] anciennesLignes = lignes;
+            long[] anciennesCommandes = commandes;
+            long[] ancienneDerniere = derniereCommande;
+            allouer(anciennesCles.length * 2);
+            for (int j = 0; j < anciennesCles.length; j++) {
+                if (ancienOccupe[j]) {
+                    int i = trouver(anciennesCles[j]);
+                    occupe[i] = true;
+                    cles[i] = anciennesCles[j];
+                    montant[i] = ancienMontant[j];
+                    quantite[i] = ancienneQuantite[j];
+                    lignes[i] = anciennesLignes[j];
+                    commandes[i] = anciennesCommandes[j];
+                    derniereCommande[i] = ancienneDerniere[j];
+                }
+            }
+        }
+
+        private static int melanger(long cle) {
+            long h = cle * 0x9E3779B97F4A7C15L;
+            return (int) (h ^ (h >>> 32));
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package com.egggo.application.analytics;
+
+import java.util.Locale;
+
+/**
+ * Axes d'analyse du cube des ventes
+ * Les axes temporels se dérivent du jour métier de la commande ; ils se filtrent par intervalle (du/au).
+ */
+public enum DimensionVente {
+    JOUR,
+    SEMAINE,
+    MOIS,
+    PRODUCTEUR,
+    CATEGORIE,
+    PRODUIT,
+    VILLE,
+    UNITE,
+    ANNULEE;
+
+    public boolean isTemporelle() {
+        return this == JOUR || this == SEMAINE || this == MOIS;
+    }
+
+    /**
+     * Nom de colonne dans les résultats
+     */
+    public String getCle() {
+        return name().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Dimension désignée par son nom (insensible à la casse)
+     */
+    public static DimensionVente depuis(String nom) {
+        if (nom != null) {
+            for (DimensionVente dimension : values()) {
+                if (dimension.name().equalsIgnoreCase(nom.trim())) {
+                    return dimension;
+                }
+            }
+        }
+        throw new IllegalArgumentException("Dimension inconnue: " + nom);
+    }
+}
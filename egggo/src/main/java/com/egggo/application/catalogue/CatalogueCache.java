@@ -0,0 +1,240 @@
+package com.egggo.application.catalogue;
+
+import com.egggo.api.dto.product.ProduitDto;
+import com.egggo.domain.event.ProducteurModifieEvent;
+import com.egggo.domain.event.ProduitsModifiesEvent;
+import com.egggo.domain.model.product.Produit;
+import com.egggo.domain.repository.ProduitRepository;
+import com.egggo.infrastructure.metrics.SourceMetriques;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Cache en mémoire du catalogue produits
+ * Les lectures se font sans verrou sur un instantané immuable (indexé par id, catégorie et
+ * producteur). Chaque écriture recharge uniquement les produits modifiés, après commit,
+ * puis publie un nouvel instantané (copie sur écriture). Un rechargement complet périodique
+ * borne l'obsolescence en cas d'événement manqué (autre instance, mise à jour SQL directe).
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class CatalogueCache implements SourceMetriques {
+
+    private static final Comparator<ProduitDto> ORDRE = Comparator.comparing(ProduitDto::getId);
+
+    private final ProduitRepository produitRepository;
+
+    private volatile Instantane instantane;
+
+    private final LongAdder succes = new LongAdder();
+    private final LongAdder echecs = new LongAdder();
+    private final LongAdder invalidations = new LongAdder();
+    private final LongAdder rechargements = new LongAdder();
+
+    /**
+     * Indique si le cache a été chargé (sinon les lectures passent par la base)
+     */
+    public boolean estCharge() {
+        if (instantane == null) {
+            echecs.increment();
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Produit par id, vide s'il est absent du cache (la lecture retombe alors sur la base)
+     */
+    public Optional<ProduitDto> getProduit(Long id) {
+        ProduitDto produit = instantane.parId().get(id);
+        (produit != null ? succes : echecs).increment();
+        return Optional.ofNullable(produit);
+    }
+
+    /**
+     * Produits disponibles et en stock
+     */
+    public List<ProduitDto> getProduitsDisponibles() {
+        succes.increment();
+        return instantane.disponibles();
+    }
+
+    /**
+     * Produits disponibles et en stock d'identifiant supérieur à apresId (liste triée par identifiant),
+     * au plus limite éléments
+     */
+    public List<ProduitDto> getProduitsDisponibles(long apresId, int limite) {
+        succes.increment();
+        List<ProduitDto> disponibles = instantane.disponibles();
+        int bas = 0;
+        int haut = disponibles.size();
+        while (bas < haut) {
+            int milieu = (bas + haut) >>> 1;
+            if (disponibles.get(milieu).getId() <= apresId) {
+                bas = milieu + 1;
+            } else {
+                haut = milieu;
+            }
+        }
+        return disponibles.subList(bas, Math.min(disponibles.size(), bas + limite));
+    }
+
+    /**
+     * Produits disponibles d'une catégorie
+     */
+    public List<ProduitDto> getProduitsByCategorie(Long categorieId) {
+        succes.increment();
+        return instantane.parCategorie().getOrDefault(categorieId, List.of());
+    }
+
+    /**
+     * Tous les produits d'un producteur
+     */
+    public List<ProduitDto> getProduitsByProducteur(Long producteurId) {
+        succes.increment();
+        return instantane.parProducteur().getOrDefault(producteurId, List.of());
+    }
+
+    /**
+     * Tous les produits du catalogue (disponibles ou non)
+     */
+    public Collection<ProduitDto> getTousLesProduits() {
+        return instantane.parId().values();
+    }
+
+    /**
+     * Chargement initial au démarrage puis rechargement complet périodique
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(0)
+    @Scheduled(initialDelayString = "${catalogue.cache.rechargement-ms:600000}",
+               fixedDelayString = "${catalogue.cache.rechargement-ms:600000}")
+    public synchronized void recharger() {
+        List<Produit> produits = produitRepository.findAllAvecRelations();
+        Map<Long, ProduitDto> parId = new HashMap<>(produits.size() * 4 / 3 + 1);
+        produits.forEach(produit -> parId.put(produit.getId(), ProduitDto.from(produit)));
+        instantane = Instantane.construire(parId);
+        rechargements.increment();
+        log.debug("Catalogue rechargé: {} produits", parId.size());
+    }
+
+    /**
+     * Recharge uniquement les produits modifiés, une fois la transaction validée
+     * (avant les index qui s'appuient sur le cache)
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    @Order(0)
+    @Transactional(propagation = Propagation.REQUIRES_NEW, readOnly = true)
+    public void onProduitsModifies(ProduitsModifiesEvent event) {
+        appliquer(event.produitIds());
+    }
+
+    /**
+     * Recharge les produits d'un producteur modifié (nom de la ferme, note, etc. repris dans chaque produit)
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    @Order(0)
+    @Transactional(propagation = Propagation.REQUIRES_NEW, readOnly = true)
+    public void onProducteurModifie(ProducteurModifieEvent event) {
+        Instantane courant = instantane;
+        if (courant != null) {
+            appliquer(courant.parProducteur().getOrDefault(event.producteurId(), List.of()).stream()
+                    .map(ProduitDto::getId)
+                    .toList());
+        }
+    }
+
+    private synchronized void appliquer(Collection<Long> produitIds) {
+        Instantane courant = instantane;
+        if (courant == null || produitIds.isEmpty()) {
+            return;
+        }
+        Map<Long, ProduitDto> parId = new HashMap<>(courant.parId());
+        produitIds.forEach(parId::remove);
+        produitRepository.findAllAvecRelationsByIdIn(produitIds)
+                .forEach(produit -> parId.put(produit.getId(), ProduitDto.from(produit)));
+        instantane = Instantane.construire(parId);
+        invalidations.increment();
+    }
+
+    @Override
+    public String getNom() {
+        return "catalogue";
+    }
+
+    @Override
+    public Map<String, Object> getMetriques() {
+        Instantane courant = instantane;
+        long total = succes.sum() + echecs.sum();
+        Map<String, Object> metriques = new LinkedHashMap<>();
+        metriques.put("produits", courant != null ? courant.parId().size() : 0);
+        metriques.put("disponibles", courant != null ? courant.disponibles().size() : 0);
+        metriques.put("lectures", total);
+        metriques.put("tauxSucces", total > 0 ? (double) succes.sum() / total : 0.0);
+        metriques.put("ageInstantaneMs", courant != null ? System.currentTimeMillis() - courant.construitLe() : -1);
+        metriques.put("invalidations", invalidations.sum());
+        metriques.put("rechargementsComplets", rechargements.sum());
+        return metriques;
+    }
+
+    /**
+     * Instantané immuable du catalogue et de ses index
+     */
+    private record Instantane(Map<Long, ProduitDto> parId,
+                              List<ProduitDto> disponibles,
+                              Map<Long, List<ProduitDto>> parCategorie,
+                              Map<Long, List<ProduitDto>> parProducteur,
+                              long construitLe) {
+
+        static Instantane construire(Map<Long, ProduitDto> parId) {
+            List<ProduitDto> tous = new ArrayList<>(parId.values());
+            tous.sort(ORDRE);
+
+            List<ProduitDto> disponibles = new ArrayList<>();
+            Map<Long, List<ProduitDto>> parCategorie = new HashMap<>();
+            Map<Long, List<ProduitDto>> parProducteur = new HashMap<>();
+            for (ProduitDto produit : tous) {
+                if (Boolean.TRUE.equals(produit.getActif())) {
+                    parCategorie.computeIfAbsent(produit.getCategorieId(), k -> new ArrayList<>()).add(produit);
+                    if (produit.getStockDisponible() != null && produit.getStockDisponible() > 0) {
+                        disponibles.add(produit);
+                    }
+                }
+                parProducteur.computeIfAbsent(produit.getProducteurId(), k -> new ArrayList<>()).add(produit);
+            }
+
+            return new Instantane(
+                    Collections.unmodifiableMap(parId),
+                    List.copyOf(disponibles),
+                    figer(parCategorie),
+                    figer(parProducteur),
+                    System.currentTimeMillis());
+        }
+
+        private static Map<Long, List<ProduitDto>> figer(Map<Long, List<ProduitDto>> index) {
+            Map<Long, List<ProduitDto>> fige = new HashMap<>(index.size() * 4 / 3 + 1);
+            index.forEach((cle, produits) -> fige.put(cle, List.copyOf(produits)));
+            return Collections.unmodifiableMap(fige);
+        }
+    }
+}
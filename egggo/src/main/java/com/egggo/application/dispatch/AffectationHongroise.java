@@ -0,0 +1,120 @@
+package com.egggo.application.dispatch;
+
+import java.util.Arrays;
+
+/**
+ * Affectation de coût total minimal (méthode hongroise avec potentiels, en O(n²·m))
+ * La matrice peut être rectangulaire : chaque ligne reçoit au plus une colonne et inversement,
+ * le plus grand nombre possible de paires étant formé. Un coût supérieur ou égal à INTERDIT
+ * marque une paire impossible : le solveur l'évite tant qu'une autre affectation complète existe,
+ * et elle est retirée du résultat sinon.
+ */
+public final class AffectationHongroise {
+
+    public static final double INTERDIT = 1e9;
+
+    private AffectationHongroise() {
+    }
+
+    /**
+     * Colonne affectée à chaque ligne, ou -1
+     */
+    public static int[] resoudre(double[][] couts) {
+        int lignes = couts.length;
+        if (lignes == 0) {
+            return new int[0];
+        }
+        int colonnes = couts[0].length;
+        if (colonnes == 0) {
+            int[] vide = new int[lignes];
+            Arrays.fill(vide, -1);
+            return vide;
+        }
+        if (lignes > colonnes) {
+            // Le solveur veut au moins autant de colonnes que de lignes : on résout la transposée
+            double[][] transposee = new double[colonnes][lignes];
+            for (int i = 0; i < lignes; i++) {
+                for (int j = 0; j < colonnes; j++) {
+                    transposee[j][i] = couts[i][j];
+                }
+            }
+            int[] parColonne = resoudreLargeur(transposee);
+            int[] parLigne = new int[lignes];
+            Arrays.fill(parLigne, -1);
+            for (int j = 0; j < colonnes; j++) {
+                if (parColonne[j] >= 0) {
+                    parLigne[parColonne[j]] = j;
+                }
+            }
+            return parLigne;
+        }
+        return resoudreLargeur(couts);
+    }
+
+    /**
+     * Résolution pour lignes ≤ colonnes ; indices décalés de 1, la colonne 0 étant fictive
+     */
+    private static int[] resoudreLargeur(double[][] couts) {
+        int n = couts.length;
+        int m = couts[0].length;
+        double[] u = new double[n + 1];
+        double[] v = new double[m + 1];
+        int[] ligneDeColonne = new int[m + 1];
+        int[] precedent = new int[m + 1];
+        double[] minimum = new double[m + 1];
+        boolean[] visitee = new boolean[m + 1];
+
+        for (int i = 1; i <= n; i++) {
+            ligneDeColonne[0] = i;
+            int j0 = 0;
+            Arrays.fill(minimum, Double.POSITIVE_INFINITY);
+            Arrays.fill(visitee, false);
+            do {
+                visitee[j0] = true;
+                int i0 = ligneDeColonne[j0];
+                double[] ligne = couts[i0 - 1];
+                double ui0 = u[i0];
+                double delta = Double.POSITIVE_INFINITY;
+                int j1 = 0;
+                for (int j = 1; j <= m; j++) {
+                    if (!visitee[j]) {
+                        double reduit = ligne[j - 1] - ui0 - v[j];
+                        if (reduit < minimum[j]) {
+                            minimum[j] = reduit;
+                            precedent[j] = j0;
+                        }
+                        if (minimum[j] < delta) {
+                            delta = minimum[j];
+                            j1 = j;
+                        }
+                    }
+                }
+                for (int j = 0; j <= m; j++) {
+                    if (visitee[j]) {
+                        u[ligneDeColonne[j]] += delta;
+                        v[j] -= delta;
+                    } else {
+                        minimum[j] -= delta;
+                    }
+                }
+                j0 = j1;
+            } while (ligneDeColonne[j0] != 0);
+            // Inversion du chemin augmentant
+            do {
+                int j1 = precedent[j0];
+                ligneDeColonne[j0] = ligneDeColonne[j1];
+                j0 = j1;
+            } while (j0 != 0);
+        }
+
+        int[] resultat = new int[n];
+        Arrays.fill(resultat, -1);
+        for (int j = 1; j <= m; j++) {
+            int i = ligneDeColonne[j];
+            if (i != 0 && couts[i - 1][j - 1] < INTERDIT) {
+                resultat[i - 1] = j - 1;
+            }
+        }
+        return resultat;
+    }
+}
@@ -0,0 +1,146 @@
+package com.egggo.application.dispatch;
+
+import com.egggo.domain.event.LivreurModifieEvent;
+import com.egggo.domain.model.user.Livreur;
+import com.egggo.domain.repository.LivreurRepository;
+import com.egggo.infrastructure.geo.GrilleSpatiale;
+import com.egggo.infrastructure.metrics.SourceMetriques;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Index spatial en mémoire des livreurs assignables (disponibles, actifs, validés et localisés)
+ * Chargé au démarrage, puis tenu à jour par les événements de modification des livreurs ; tant
+ * qu'il n'est pas prêt, les appelants se rabattent sur la recherche SQL. Chaque mise à jour porte
+ * un numéro d'ordre : une ligne lue au chargement ne remplace pas un événement reçu après le
+ * début de la lecture. Les événements étant locaux, l'index ne voit que les modifications faites
+ * par ce nœud.
+ */
+@Component
+@Slf4j
+public class IndexLivreurs implements SourceMetriques {
+
+    private final LivreurRepository livreurRepository;
+    private final GrilleSpatiale grille;
+
+    /**
+     * Dernier état connu de chaque livreur : numéro d'ordre de la mise à jour et assignabilité
+     * Un livreur assignable sans position connue n'est pas dans la grille ; son premier relevé l'y place.
+     */
+    private final ConcurrentHashMap<Long, Etat> etats = new ConcurrentHashMap<>();
+    private final AtomicLong sequence = new AtomicLong();
+
+    private volatile boolean pret;
+
+    private final AtomicLong recherches = new AtomicLong();
+    private final AtomicLong misesAJour = new AtomicLong();
+    private final AtomicLong lignesPerimees = new AtomicLong();
+
+    public IndexLivreurs(LivreurRepository livreurRepository,
+                         @Value("${livreurs.index.cellule-km:1.0}") double tailleCelluleKm) {
+        this.livreurRepository = livreurRepository;
+        this.grille = new GrilleSpatiale(tailleCelluleKm);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void charger() {
+        // Numéro pris avant la lecture : tout événement reçu ensuite est au moins aussi récent que la ligne lue
+        long version = sequence.incrementAndGet();
+        for (Livreur livreur : livreurRepository.findByDisponibleTrueAndActifTrue()) {
+            if (!mettreAJour(LivreurModifieEvent.of(livreur), version)) {
+                lignesPerimees.incrementAndGet();
+            }
+        }
+        pret = true;
+        log.info("Index des livreurs chargé: {} livreurs assignables", grille.taille());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void surLivreurModifie(LivreurModifieEvent event) {
+        mettreAJour(event, sequence.incrementAndGet());
+        misesAJour.incrementAndGet();
+    }
+
+    /**
+     * Applique l'état d'un livreur sauf si une mise à jour plus récente l'a déjà été ; retourne false dans ce cas
+     */
+    private boolean mettreAJour(LivreurModifieEvent event, long version) {
+        boolean[] appliquee = {false};
+        etats.compute(event.livreurId(), (id, courant) -> {
+            if (courant != null && courant.version() > version) {
+                return courant;
+            }
+            if (event.assignable() && event.latitude() != null && event.longitude() != null) {
+                grille.placer(id, event.latitude(), event.longitude());
+            } else {
+                grille.retirer(id);
+            }
+            appliquee[0] = true;
+            return new Etat(version, event.assignable());
+        });
+        return appliquee[0];
+    }
+
+    /**
+     * Nouvelle position d'un livreur ; un livreur assignable encore absent de la grille y est placé
+     * Sans effet s'il n'est pas assignable ou inconnu de l'index.
+     */
+    public void deplacer(long livreurId, double latitude, double longitude) {
+        etats.computeIfPresent(livreurId, (id, etat) -> {
+            if (etat.assignable()) {
+                grille.placer(id, latitude, longitude);
+            }
+            return etat;
+        });
+    }
+
+    public boolean isPret() {
+        return pret;
+    }
+
+    /**
+     * Identifiants des k livreurs assignables les plus proches dans un rayon, du plus proche au plus éloigné
+     */
+    public List<GrilleSpatiale.Voisin> plusProches(double latitude, double longitude, int k, double rayonKm) {
+        recherches.incrementAndGet();
+        return grille.plusProches(latitude, longitude, k, rayonKm);
+    }
+
+    /**
+     * Livreurs assignables dans un rayon, du plus proche au plus éloigné
+     */
+    public List<GrilleSpatiale.Voisin> dansRayon(double latitude, double longitude, double rayonKm) {
+        recherches.incrementAndGet();
+        return grille.dansRayon(latitude, longitude, rayonKm);
+    }
+
+    @Override
+    public String getNom() {
+        return "indexLivreurs";
+    }
+
+    @Override
+    public Map<String, Object> getMetriques() {
+        Map<String, Object> metriques = new LinkedHashMap<>();
+        metriques.put("pret", pret);
+        metriques.put("livreurs", grille.taille());
+        metriques.put("cellules", grille.nombreCellules());
+        metriques.put("recherches", recherches.get());
+        metriques.put("misesAJour", misesAJour.get());
+        metriques.put("lignesPerimees", lignesPerimees.get());
+        return metriques;
+    }
+
+    private record Etat(long version, boolean assignable) {
+    }
+}
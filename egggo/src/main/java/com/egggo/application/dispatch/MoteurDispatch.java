@@ -0,0 +1,294 @@
+package com.egggo.application.dispatch;
+
+import com.egggo.application.service.LivraisonService;
+import com.egggo.domain.model.delivery.StatutLivraison;
+import com.egggo.domain.model.order.Commande;
+import com.egggo.domain.model.order.StatutCommande;
+import com.egggo.domain.model.user.Livreur;
+import com.egggo.domain.repository.CommandeRepository;
+import com.egggo.domain.repository.LivraisonRepository;
+import com.egggo.domain.repository.LivreurRepository;
+import com.egggo.infrastructure.geo.Geodesie;
+import com.egggo.infrastructure.metrics.HistogrammeLogarithmique;
+import com.egggo.infrastructure.metrics.SourceMetriques;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.text.Normalizer;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Répartition automatique des commandes prêtes encore sans livreur
+ * Une commande confirmée reste au producteur, qui peut choisir son livreur pendant la préparation ;
+ * elle n'entre dans la répartition qu'une fois marquée prête sans livreur.
+ * À chaque passage, les commandes en attente et les livreurs assignables sont lus en une fois,
+ * puis affectés globalement (méthode hongroise) en minimisant le temps d'approche jusqu'à la
+ * ferme, diminué d'un bonus d'attente pour ne pas délaisser les commandes anciennes éloignées.
+ * Une paire est interdite au-delà du rayon maximal, hors de la zone de couverture du livreur,
+ * ou si le livreur est rattaché (non indépendant) à un autre producteur. Un livreur reçoit au plus
+ * une commande par passage ; chaque affectation est revérifiée en base dans sa propre transaction.
+ */
+@Component
+@Slf4j
+public class MoteurDispatch implements SourceMetriques {
+
+    private static final List<StatutCommande> A_AFFECTER = List.of(StatutCommande.PRETE);
+    private static final double VITESSE_KMH = 20.0;
+    private static final double ATTENTE_MAX_MINUTES = 60.0;
+
+    private final CommandeRepository commandeRepository;
+    private final LivreurRepository livreurRepository;
+    private final LivraisonRepository livraisonRepository;
+    private final LivraisonService livraisonService;
+    private final TransactionTemplate lecture;
+    private final boolean actif;
+    private final int commandesMax;
+    private final int livraisonsMax;
+    private final double rayonMaxKm;
+    private final double poidsAttente;
+
+    private final Object verrou = new Object();
+
+    /**
+     * Durées de résolution en microsecondes (l'esquisse confond les valeurs inférieures à 1)
+     */
+    private final HistogrammeLogarithmique dureesResolution = new HistogrammeLogarithmique();
+
+    private final AtomicLong passages = new AtomicLong();
+    private final AtomicLong affectations = new AtomicLong();
+    private final AtomicLong conflits = new AtomicLong();
+    private volatile int dernieresCommandes;
+    private volatile int derniersLivreurs;
+    private volatile double derniereResolutionMs;
+
+    /**
+     * Commande à affecter : point de retrait (ferme, à défaut adresse du client) et ancienneté
+     */
+    record Demande(long commandeId, long producteurId, double latitude, double longitude,
+                   String ville, double attenteMinutes) {
+    }
+
+    /**
+     * Livreur assignable ; producteurId renseigné seulement s'il est réservé à son producteur
+     */
+    record Candidat(long livreurId, double latitude, double longitude, Long producteurId, String zone) {
+    }
+
+    public MoteurDispatch(CommandeRepository commandeRepository,
+                          LivreurRepository livreurRepository,
+                          LivraisonRepository livraisonRepository,
+                          LivraisonService livraisonService,
+                          TransactionTemplate transactionTemplate,
+                          @Value("${dispatch.auto.actif:true}") boolean actif,
+                          @Value("${dispatch.auto.commandes-max:500}") int commandesMax,
+                          @Value("${dispatch.auto.livraisons-max:3}") int livraisonsMax,
+                          @Value("${dispatch.auto.rayon-max-km:15.0}") double rayonMaxKm,
+                          @Value("${dispatch.auto.poids-attente:0.25}") double poidsAttente) {
+        this.commandeRepository = commandeRepository;
+        this.livreurRepository = livreurRepository;
+        this.livraisonRepository = livraisonRepository;
+        this.livraisonService = livraisonService;
+        this.lecture = new TransactionTemplate(transactionTemplate.getTransactionManager());
+        this.lecture.setReadOnly(true);
+        this.actif = actif;
+        this.commandesMax = commandesMax;
+        this.livraisonsMax = livraisonsMax;
+        this.rayonMaxKm = rayonMaxKm;
+        this.poidsAttente = poidsAttente;
+    }
+
+    @Scheduled(fixedDelayString = "${dispatch.auto.periode-ms:5000}")
+    public void repartir() {
+        if (!actif) {
+            return;
+        }
+        synchronized (verrou) {
+            try {
+                passer();
+            } catch (RuntimeException e) {
+                log.error("Répartition automatique impossible: {}", e.getMessage());
+            }
+        }
+    }
+
+    private void passer() {
+        List<Demande> demandes = new ArrayList<>();
+        List<Candidat> candidats = new ArrayList<>();
+        lecture.executeWithoutResult(statut -> {
+            demandes.addAll(lireDemandes());
+            if (!demandes.isEmpty()) {
+                candidats.addAll(lireCandidats());
+            }
+        });
+        passages.incrementAndGet();
+        dernieresCommandes = demandes.size();
+        derniersLivreurs = candidats.size();
+        if (demandes.isEmpty() || candidats.isEmpty()) {
+            return;
+        }
+
+        long debut = System.nanoTime();
+        int[] choix = AffectationHongroise.resoudre(couts(demandes, candidats));
+        long dureeNs = System.nanoTime() - debut;
+        double dureeMs = dureeNs / 1e6;
+        derniereResolutionMs = dureeMs;
+        synchronized (dureesResolution) {
+            dureesResolution.ajouter(dureeNs / 1e3);
+        }
+
+        int affectees = 0;
+        for (int i = 0; i < choix.length; i++) {
+            if (choix[i] < 0) {
+                continue;
+            }
+            long commandeId = demandes.get(i).commandeId();
+            long livreurId = candidats.get(choix[i]).livreurId();
+            try {
+                if (livraisonService.affecterAutomatiquement(commandeId, livreurId)) {
+                    affectees++;
+                } else {
+                    conflits.incrementAndGet();
+                }
+            } catch (RuntimeException e) {
+                conflits.incrementAndGet();
+                log.warn("Affectation de la commande {} au livreur {} impossible: {}", commandeId, livreurId, e.getMessage());
+            }
+        }
+        affectations.addAndGet(affectees);
+        log.debug("Répartition: {} commandes x {} livreurs, {} affectations, résolution en {} ms",
+                demandes.size(), candidats.size(), affectees, String.format("%.2f", dureeMs));
+    }
+
+    private List<Demande> lireDemandes() {
+        LocalDateTime maintenant = LocalDateTime.now();
+        List<Demande> demandes = new ArrayList<>();
+        for (Commande commande : commandeRepository.findSansLivraison(A_AFFECTER, PageRequest.ofSize(commandesMax))) {
+            Double latitude = commande.getProducteur().getLatitude();
+            Double longitude = commande.getProducteur().getLongitude();
+            if (latitude == null || longitude == null) {
+                latitude = commande.getAdresseLivraison().getLatitude();
+                longitude = commande.getAdresseLivraison().getLongitude();
+            }
+            if (latitude == null || longitude == null) {
+                continue;
+            }
+            double attente = commande.getDateCommande() != null
+                    ? Duration.between(commande.getDateCommande(), maintenant).toSeconds() / 60.0 : 0.0;
+            demandes.add(new Demande(commande.getId(), commande.getProducteur().getId(), latitude, longitude,
+                    normaliser(commande.getAdresseLivraison().getVille()), Math.max(0.0, attente)));
+        }
+        return demandes;
+    }
+
+    private List<Candidat> lireCandidats() {
+        Map<Long, Long> charges = new HashMap<>();
+        List<StatutLivraison> actives = new ArrayList<>(StatutLivraison.EN_COURS);
+        actives.add(StatutLivraison.ASSIGNEE);
+        for (Object[] ligne : livraisonRepository.compterParLivreur(actives)) {
+            charges.put((Long) ligne[0], (Long) ligne[1]);
+        }
+        List<Candidat> candidats = new ArrayList<>();
+        for (Livreur livreur : livreurRepository.findAssignablesLocalises()) {
+            Candidat candidat = candidat(livreur, charges.getOrDefault(livreur.getId(), 0L));
+            if (candidat != null) {
+                candidats.add(candidat);
+            }
+        }
+        return candidats;
+    }
+
+    /**
+     * Candidat d'un livreur ayant charge livraisons actives ; null s'il en a déjà livraisonsMax
+     */
+    Candidat candidat(Livreur livreur, long charge) {
+        if (charge >= livraisonsMax) {
+            return null;
+        }
+        Long producteurId = !Boolean.TRUE.equals(livreur.getIndependant()) && livreur.getProducteurRattache() != null
+                ? livreur.getProducteurRattache().getId() : null;
+        return new Candidat(livreur.getId(), livreur.getLatitude(), livreur.getLongitude(),
+                producteurId, normaliser(livreur.getZoneCouverture()));
+    }
+
+    /**
+     * Coût en minutes : approche du livreur jusqu'au point de retrait, moins le bonus d'attente
+     */
+    double[][] couts(List<Demande> demandes, List<Candidat> candidats) {
+        double[][] couts = new double[demandes.size()][candidats.size()];
+        for (int i = 0; i < demandes.size(); i++) {
+            Demande demande = demandes.get(i);
+            double bonus = poidsAttente * Math.min(demande.attenteMinutes(), ATTENTE_MAX_MINUTES);
+            for (int j = 0; j < candidats.size(); j++) {
+                Candidat candidat = candidats.get(j);
+                if (!compatible(demande, candidat)) {
+                    couts[i][j] = AffectationHongroise.INTERDIT;
+                    continue;
+                }
+                double distance = Geodesie.distanceKm(candidat.latitude(), candidat.longitude(),
+                        demande.latitude(), demande.longitude());
+                couts[i][j] = distance > rayonMaxKm
+                        ? AffectationHongroise.INTERDIT
+                        : distance / VITESSE_KMH * 60.0 - bonus;
+            }
+        }
+        return couts;
+    }
+
+    private static boolean compatible(Demande demande, Candidat candidat) {
+        if (candidat.producteurId() != null && candidat.producteurId() != demande.producteurId()) {
+            return false;
+        }
+        return candidat.zone() == null || candidat.zone().equals(demande.ville());
+    }
+
+    /**
+     * Ville ou zone comparable : sans accents, en minuscules ; null si vide
+     */
+    static String normaliser(String ville) {
+        if (ville == null || ville.isBlank()) {
+            return null;
+        }
+        return Normalizer.normalize(ville.trim(), Normalizer.Form.NFD)
+                .replaceAll("\\p{M}", "")
+                .toLowerCase(Locale.ROOT);
+    }
+
+    public boolean isActif() {
+        return actif;
+    }
+
+    @Override
+    public String getNom() {
+        return "dispatch";
+    }
+
+    @Override
+    public Map<String, Object> getMetriques() {
+        Map<String, Object> metriques = new LinkedHashMap<>();
+        metriques.put("actif", actif);
+        metriques.put("passages", passages.get());
+        metriques.put("affectations", affectations.get());
+        metriques.put("conflits", conflits.get());
+        metriques.put("dernieresCommandes", dernieresCommandes);
+        metriques.put("derniersLivreurs", derniersLivreurs);
+        metriques.put("derniereResolutionMs", derniereResolutionMs);
+        synchronized (dureesResolution) {
+            metriques.put("resolutions", dureesResolution.getNombre());
+            metriques.put("resolutionP50Ms", dureesResolution.getNombre() > 0 ? dureesResolution.quantile(0.5) / 1e3 : 0.0);
+            metriques.put("resolutionP99Ms", dureesResolution.getNombre() > 0 ? dureesResolution.quantile(0.99) / 1e3 : 0.0);
+        }
+        return metriques;
+    }
+}
@@ -0,0 +1,278 @@
+package com.egggo.application.dispatch;
+
+import com.egggo.infrastructure.geo.Geodesie;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Ordre de passage d'une tournée ouverte (départ fixe, pas de retour) avec contraintes de précédence
+ * Chaque arrêt peut exiger qu'un autre soit visité avant lui (retrait à la ferme avant le dépôt
+ * chez le client). Jusqu'à EXACT_MAX arrêts, l'ordre optimal est calculé exactement par
+ * programmation dynamique sur les sous-ensembles réalisables (moins d'une milliseconde, budget
+ * ignoré). Au-delà : construction par plus proche voisin réalisable, puis amélioration locale par
+ * 2-opt (inversion d'un tronçon) et Or-opt (déplacement d'un tronçon de 1 à 3 arrêts) jusqu'à
+ * stabilité ou épuisement du budget de temps. Distances à vol d'oiseau.
+ */
+public final class OptimiseurTournee {
+
+    private static final double EPSILON = 1e-9;
+    private static final int OR_OPT_MAX = 3;
+    /**
+     * Nombre d'arrêts jusqu'auquel la tournée est résolue exactement (2^10 × 10 états)
+     */
+    static final int EXACT_MAX = 10;
+
+    private OptimiseurTournee() {
+    }
+
+    /**
+     * Arrêt à visiter ; precedent est l'indice de l'arrêt à visiter avant celui-ci, ou -1
+     */
+    public record Arret(double latitude, double longitude, int precedent) {
+    }
+
+    /**
+     * Indices des arrêts dans l'ordre de passage et longueur du trajet depuis le départ
+     */
+    public record Tournee(int[] ordre, double distanceKm, int ameliorations) {
+    }
+
+    /**
+     * Départ inconnu (latitude ou longitude nulle) : la tournée commence au premier arrêt
+     */
+    public static Tournee optimiser(Double latitudeDepart, Double longitudeDepart, List<Arret> arrets, long budgetNanos) {
+        long echeance = System.nanoTime() + budgetNanos;
+        int n = arrets.size();
+        if (n == 0) {
+            return new Tournee(new int[0], 0.0, 0);
+        }
+        // Indice n : le départ
+        double[][] d = new double[n + 1][n + 1];
+        boolean departConnu = latitudeDepart != null && longitudeDepart != null;
+        for (int i = 0; i < n; i++) {
+            Arret a = arrets.get(i);
+            for (int j = i + 1; j < n; j++) {
+                Arret b = arrets.get(j);
+                d[i][j] = d[j][i] = Geodesie.distanceKm(a.latitude(), a.longitude(), b.latitude(), b.longitude());
+            }
+            if (departConnu) {
+                d[n][i] = d[i][n] = Geodesie.distanceKm(latitudeDepart, longitudeDepart, a.latitude(), a.longitude());
+            }
+        }
+        int[] precedents = new int[n];
+        for (int i = 0; i < n; i++) {
+            precedents[i] = arrets.get(i).precedent();
+        }
+        if (n <= EXACT_MAX) {
+            int[] ordre = exact(d, precedents);
+            return new Tournee(ordre, longueur(d, ordre), 0);
+        }
+
+        int[] ordre = plusProcheVoisin(d, precedents);
+        int[] position = new int[n];
+        int ameliorations = 0;
+        boolean ameliore = true;
+        while (ameliore && System.nanoTime() < echeance) {
+            ameliore = false;
+            if (deuxOpt(d, precedents, ordre, position)) {
+                ameliore = true;
+                ameliorations++;
+            }
+            if (orOpt(d, precedents, ordre, position)) {
+                ameliore = true;
+                ameliorations++;
+            }
+        }
+        return new Tournee(ordre, longueur(d, ordre), ameliorations);
+    }
+
+    /**
+     * cout[masque][dernier] : plus court trajet depuis le départ visitant exactement les arrêts de
+     * masque et finissant par dernier ; un arrêt n'entre dans un masque qu'après son précédent
+     */
+    private static int[] exact(double[][] d, int[] precedents) {
+        int n = precedents.length;
+        int complet = (1 << n) - 1;
+        double[][] cout = new double[complet + 1][n];
+        int[][] venant = new int[complet + 1][n];
+        for (double[] ligne : cout) {
+            Arrays.fill(ligne, Double.POSITIVE_INFINITY);
+        }
+        for (int i = 0; i < n; i++) {
+            if (precedents[i] < 0) {
+                cout[1 << i][i] = d[n][i];
+                venant[1 << i][i] = n;
+            }
+        }
+        for (int masque = 1; masque < complet; masque++) {
+            for (int dernier = 0; dernier < n; dernier++) {
+                double base = cout[masque][dernier];
+                if (base == Double.POSITIVE_INFINITY) {
+                    continue;
+                }
+                for (int j = 0; j < n; j++) {
+                    if ((masque & 1 << j) != 0 || (precedents[j] >= 0 && (masque & 1 << precedents[j]) == 0)) {
+                        continue;
+                    }
+                    int suivant = masque | 1 << j;
+                    double total = base + d[dernier][j];
+                    if (total < cout[suivant][j]) {
+                        cout[suivant][j] = total;
+                        venant[suivant][j] = dernier;
+                    }
+                }
+            }
+        }
+        int dernier = -1;
+        for (int i = 0; i < n; i++) {
+            if (cout[complet][i] < Double.POSITIVE_INFINITY && (dernier < 0 || cout[complet][i] < cout[complet][dernier])) {
+                dernier = i;
+            }
+        }
+        if (dernier < 0) {
+            throw new IllegalArgumentException("Contraintes de précédence circulaires");
+        }
+        int[] ordre = new int[n];
+        for (int k = n - 1, masque = complet; k >= 0; k--) {
+            ordre[k] = dernier;
+            int avant = venant[masque][dernier];
+            masque &= ~(1 << dernier);
+            dernier = avant;
+        }
+        return ordre;
+    }
+
+    private static int[] plusProcheVoisin(double[][] d, int[] precedents) {
+        int n = precedents.length;
+        int[] ordre = new int[n];
+        boolean[] visite = new boolean[n + 1];
+        int courant = n;
+        for (int k = 0; k < n; k++) {
+            int choix = -1;
+            for (int i = 0; i < n; i++) {
+                if (!visite[i] && (precedents[i] < 0 || visite[precedents[i]])
+                        && (choix < 0 || d[courant][i] < d[courant][choix])) {
+                    choix = i;
+                }
+            }
+            if (choix < 0) {
+                throw new IllegalArgumentException("Contraintes de précédence circulaires");
+            }
+            ordre[k] = choix;
+            visite[choix] = true;
+            courant = choix;
+        }
+        return ordre;
+    }
+
+    /**
+     * Première inversion de tronçon réalisable qui raccourcit la tournée, appliquée sur place
+     */
+    private static boolean deuxOpt(double[][] d, int[] precedents, int[] ordre, int[] position) {
+        int n = ordre.length;
+        for (int i = 0; i < n - 1; i++) {
+            int avant = i == 0 ? n : ordre[i - 1];
+            for (int j = i + 1; j < n; j++) {
+                // Tronçon [i..j] inversé : seules les deux jonctions changent (distances symétriques)
+                double ancien = d[avant][ordre[i]] + (j + 1 < n ? d[ordre[j]][ordre[j + 1]] : 0);
+                double nouveau = d[avant][ordre[j]] + (j + 1 < n ? d[ordre[i]][ordre[j + 1]] : 0);
+                if (nouveau < ancien - EPSILON && inversible(precedents, ordre, position, i, j)) {
+                    for (int a = i, b = j; a < b; a++, b--) {
+                        int t = ordre[a];
+                        ordre[a] = ordre[b];
+                        ordre[b] = t;
+                    }
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Une inversion n'est interdite que si un arrêt du tronçon dépend d'un autre arrêt du tronçon
+     */
+    private static boolean inversible(int[] precedents, int[] ordre, int[] position, int i, int j) {
+        for (int k = 0; k < ordre.length; k++) {
+            position[ordre[k]] = k;
+        }
+        for (int k = i; k <= j; k++) {
+            int p = precedents[ordre[k]];
+            if (p >= 0 && position[p] >= i && position[p] <= j) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Premier déplacement réalisable d'un tronçon de 1 à 3 arrêts qui raccourcit la tournée
+     */
+    private static boolean orOpt(double[][] d, int[] precedents, int[] ordre, int[] position) {
+        int n = ordre.length;
+        int[] candidat = new int[n];
+        for (int longueur = 1; longueur <= Math.min(OR_OPT_MAX, n - 1); longueur++) {
+            for (int i = 0; i + longueur <= n; i++) {
+                int fin = i + longueur - 1;
+                int avant = i == 0 ? n : ordre[i - 1];
+                int apres = fin + 1 < n ? ordre[fin + 1] : -1;
+                double retrait = d[avant][ordre[i]] + (apres >= 0 ? d[ordre[fin]][apres] - d[avant][apres] : 0);
+                // Insertion entre ordre[k - 1] (ou le départ) et ordre[k], hors du tronçon
+                for (int k = 0; k <= n; k++) {
+                    if (k >= i && k <= fin + 1) {
+                        continue;
+                    }
+                    int gauche = k == 0 ? n : ordre[k - 1];
+                    int droite = k < n ? ordre[k] : -1;
+                    double insertion = d[gauche][ordre[i]] + (droite >= 0 ? d[ordre[fin]][droite] - d[gauche][droite] : 0);
+                    if (insertion < retrait - EPSILON) {
+                        deplacer(ordre, candidat, i, fin, k);
+                        if (realisable(precedents, candidat, position)) {
+                            System.arraycopy(candidat, 0, ordre, 0, n);
+                            return true;
+                        }
+                    }
+                }
+            }
+        }
+        return false;
+    }
+
+    private static void deplacer(int[] ordre, int[] candidat, int i, int fin, int k) {
+        int c = 0;
+        for (int p = 0; p <= ordre.length; p++) {
+            if (p == k) {
+                for (int q = i; q <= fin; q++) {
+                    candidat[c++] = ordre[q];
+                }
+            }
+            if (p < ordre.length && (p < i || p > fin)) {
+                candidat[c++] = ordre[p];
+            }
+        }
+    }
+
+    private static boolean realisable(int[] precedents, int[] ordre, int[] position) {
+        for (int k = 0; k < ordre.length; k++) {
+            position[ordre[k]] = k;
+        }
+        for (int k = 0; k < ordre.length; k++) {
+            int p = precedents[ordre[k]];
+            if (p >= 0 && position[p] > k) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static double longueur(double[][] d, int[] ordre) {
+        double total = 0;
+        int precedent = d.length - 1;
+        for (int arret : ordre) {
+            total += d[precedent][arret];
+            precedent = arret;
+        }
+        return total;
+    }
+}
@@ -0,0 +1,123 @@
+package com.egggo.application.dispatch;
+
+import com.egggo.domain.model.delivery.Livraison;
+import com.egggo.domain.model.delivery.StatutLivraison;
+import com.egggo.domain.model.order.Commande;
+import com.egggo.domain.model.user.Livreur;
+import com.egggo.domain.model.user.Producteur;
+import com.egggo.domain.repository.LivraisonRepository;
+import com.egggo.infrastructure.geo.Geodesie;
+import com.egggo.infrastructure.metrics.SourceMetriques;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Tournée d'un livreur qui transporte plusieurs commandes
+ * Les livraisons actives du livreur donnent un retrait à la ferme (tant que la commande n'est pas
+ * récupérée) et un dépôt chez le client ; l'ordre de passage est calculé par OptimiseurTournee
+ * dans un budget de temps, puis chaque étape reçoit sa distance et sa durée cumulées à 20 km/h.
+ * Les arrêts sans coordonnées sont ignorés. À appeler dans une transaction (associations paresseuses).
+ */
+@Component
+public class PlanificateurTournees implements SourceMetriques {
+
+    private static final double VITESSE_KMH = 20.0;
+    private static final List<StatutLivraison> A_RECUPERER =
+            List.of(StatutLivraison.ASSIGNEE, StatutLivraison.ACCEPTEE, StatutLivraison.EN_ROUTE_PRODUCTEUR);
+
+    private final LivraisonRepository livraisonRepository;
+    private final long budgetNanos;
+
+    private final AtomicLong planifications = new AtomicLong();
+    private final AtomicLong arretsMax = new AtomicLong();
+    private final AtomicLong dureeMaxMicros = new AtomicLong();
+    private volatile double derniereDureeMs;
+
+    /**
+     * Étape de la tournée, dans l'ordre de passage ; retrait à la ferme ou dépôt chez le client
+     */
+    public record Etape(Livraison livraison, boolean retrait, double latitude, double longitude,
+                        double distanceCumuleeKm, int minutesCumulees) {
+    }
+
+    public PlanificateurTournees(LivraisonRepository livraisonRepository,
+                                 @Value("${tournees.budget-ms:20}") long budgetMs) {
+        this.livraisonRepository = livraisonRepository;
+        this.budgetNanos = budgetMs * 1_000_000L;
+    }
+
+    public List<Etape> planifier(Livreur livreur) {
+        long debut = System.nanoTime();
+        List<StatutLivraison> actives = new ArrayList<>(StatutLivraison.EN_COURS);
+        actives.add(StatutLivraison.ASSIGNEE);
+
+        List<OptimiseurTournee.Arret> arrets = new ArrayList<>();
+        List<Livraison> livraisons = new ArrayList<>();
+        List<Boolean> retraits = new ArrayList<>();
+        for (Livraison livraison : livraisonRepository.findByLivreurIdAndStatutIn(livreur.getId(), actives)) {
+            Commande commande = livraison.getCommande();
+            int retrait = -1;
+            Producteur producteur = commande.getProducteur();
+            if (A_RECUPERER.contains(livraison.getStatut())
+                    && producteur.getLatitude() != null && producteur.getLongitude() != null) {
+                retrait = arrets.size();
+                arrets.add(new OptimiseurTournee.Arret(producteur.getLatitude(), producteur.getLongitude(), -1));
+                livraisons.add(livraison);
+                retraits.add(true);
+            }
+            Double latitude = commande.getAdresseLivraison().getLatitude();
+            Double longitude = commande.getAdresseLivraison().getLongitude();
+            if (latitude != null && longitude != null) {
+                arrets.add(new OptimiseurTournee.Arret(latitude, longitude, retrait));
+                livraisons.add(livraison);
+                retraits.add(false);
+            }
+        }
+
+        OptimiseurTournee.Tournee tournee = OptimiseurTournee.optimiser(
+                livreur.getLatitude(), livreur.getLongitude(), arrets, budgetNanos);
+
+        List<Etape> etapes = new ArrayList<>(arrets.size());
+        double distance = 0;
+        Double latitude = livreur.getLatitude();
+        Double longitude = livreur.getLongitude();
+        for (int indice : tournee.ordre()) {
+            OptimiseurTournee.Arret arret = arrets.get(indice);
+            if (latitude != null && longitude != null) {
+                distance += Geodesie.distanceKm(latitude, longitude, arret.latitude(), arret.longitude());
+            }
+            latitude = arret.latitude();
+            longitude = arret.longitude();
+            etapes.add(new Etape(livraisons.get(indice), retraits.get(indice), arret.latitude(), arret.longitude(),
+                    distance, (int) Math.ceil(distance / VITESSE_KMH * 60)));
+        }
+
+        long dureeNanos = System.nanoTime() - debut;
+        planifications.incrementAndGet();
+        arretsMax.accumulateAndGet(arrets.size(), Math::max);
+        dureeMaxMicros.accumulateAndGet(dureeNanos / 1_000, Math::max);
+        derniereDureeMs = dureeNanos / 1e6;
+        return etapes;
+    }
+
+    @Override
+    public String getNom() {
+        return "tournees";
+    }
+
+    @Override
+    public Map<String, Object> getMetriques() {
+        Map<String, Object> metriques = new LinkedHashMap<>();
+        metriques.put("planifications", planifications.get());
+        metriques.put("arretsMax", arretsMax.get());
+        metriques.put("derniereDureeMs", derniereDureeMs);
+        metriques.put("dureeMaxMs", dureeMaxMicros.get() / 1e3);
+        return metriques;
+    }
+}
@@ -0,0 +1,100 @@
+package com.egggo.application.pagination;
+
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Curseur de pagination par clé (keyset) : position du dernier élément renvoyé
+ * La page suivante reprend strictement après cette position (date puis identifiant), via un index :
+ * une page lointaine coûte autant que la première, sans OFFSET ni COUNT(*).
+ * Le curseur est opaque pour les clients (base64 url de « date~id »), la date est absente pour
+ * les listes triées par identifiant seul.
+ */
+public record Curseur(LocalDateTime date, long id) {
+
+    public static final int TAILLE_PAR_DEFAUT = 20;
+    public static final int TAILLE_MAX = 100;
+
+    /**
+     * Position avant le premier élément d'une liste triée par date décroissante
+     */
+    private static final Curseur DEBUT_DECROISSANT = new Curseur(LocalDateTime.of(9999, 12, 31, 0, 0), Long.MAX_VALUE);
+
+    /**
+     * Position avant le premier élément d'une liste triée par identifiant croissant
+     */
+    private static final Curseur DEBUT_CROISSANT = new Curseur(null, 0);
+
+    public static Curseur apres(LocalDateTime date, Long id) {
+        return new Curseur(date, id);
+    }
+
+    public static Curseur apres(Long id) {
+        return new Curseur(null, id);
+    }
+
+    /**
+     * Décode le curseur d'une liste triée par date décroissante (null : première page)
+     */
+    public static Curseur decroissant(String curseur) {
+        if (curseur == null || curseur.isBlank()) {
+            return DEBUT_DECROISSANT;
+        }
+        Curseur decode = decoder(curseur);
+        if (decode.date() == null) {
+            throw new IllegalArgumentException("Curseur de pagination invalide");
+        }
+        return decode;
+    }
+
+    /**
+     * Décode le curseur d'une liste triée par identifiant croissant (null : première page)
+     */
+    public static Curseur croissant(String curseur) {
+        if (curseur == null || curseur.isBlank()) {
+            return DEBUT_CROISSANT;
+        }
+        return decoder(curseur);
+    }
+
+    /**
+     * Taille de page bornée (1 à 100)
+     */
+    public static int taille(Integer demandee) {
+        if (demandee == null) {
+            return TAILLE_PAR_DEFAUT;
+        }
+        return Math.max(1, Math.min(TAILLE_MAX, demandee));
+    }
+
+    /**
+     * Limite de requête : un élément de plus que la page, pour savoir s'il existe une page suivante
+     */
+    public static Pageable limite(int taille) {
+        return PageRequest.ofSize(taille + 1);
+    }
+
+    public String encoder() {
+        String brut = (date != null ? date.toString() : "") + "~" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(brut.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static Curseur decoder(String curseur) {
+        try {
+            String brut = new String(Base64.getUrlDecoder().decode(curseur), StandardCharsets.UTF_8);
+            int separateur = brut.lastIndexOf('~');
+            if (separateur < 0) {
+                throw new IllegalArgumentException("Curseur de pagination invalide");
+            }
+            LocalDateTime date = separateur > 0 ? LocalDateTime.parse(brut.substring(0, separateur)) : null;
+            return new Curseur(date, Long.parseLong(brut.substring(separateur + 1)));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new IllegalArgumentException("Curseur de pagination invalide");
+        }
+    }
+}
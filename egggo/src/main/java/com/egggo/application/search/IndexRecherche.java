@@ -0,0 +1,401 @@
+package com.egggo.application.search;
+
+import com.egggo.api.dto.product.CategorieDto;
+import com.egggo.api.dto.product.ProduitDto;
+import com.egggo.api.dto.search.ResultatRechercheDto;
+import com.egggo.application.catalogue.CatalogueCache;
+import com.egggo.domain.event.ProducteurModifieEvent;
+import com.egggo.domain.event.ProduitsModifiesEvent;
+import com.egggo.domain.model.product.Categorie;
+import com.egggo.domain.model.user.Producteur;
+import com.egggo.domain.repository.CategorieRepository;
+import com.egggo.domain.repository.ProducteurRepository;
+import com.egggo.infrastructure.metrics.SourceMetriques;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Index inversé en mémoire pour la recherche plein texte (produits, producteurs, catégories)
+ * Les textes sont normalisés (accents, ligatures, pluriels, mots vides) ; chaque terme pointe
+ * vers les documents qui le contiennent, avec un poids dépendant du champ (le nom pèse plus
+ * que la description). Le dernier mot de la requête est aussi cherché comme préfixe.
+ * Le coût d'une requête dépend du nombre de documents correspondants, pas de la taille du catalogue.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class IndexRecherche implements SourceMetriques {
+
+    private static final float POIDS_NOM = 3.0f;
+    private static final float POIDS_SECONDAIRE = 1.5f;
+    private static final float POIDS_ASSOCIE = 1.0f;
+    private static final float POIDS_DESCRIPTION = 0.5f;
+
+    /**
+     * Pondération d'un terme trouvé par préfixe, et nombre maximal de termes développés
+     */
+    private static final float FACTEUR_PREFIXE = 0.6f;
+    private static final int MAX_EXPANSIONS = 50;
+
+    private final CatalogueCache catalogueCache;
+    private final ProducteurRepository producteurRepository;
+    private final CategorieRepository categorieRepository;
+
+    private final ReentrantReadWriteLock verrou = new ReentrantReadWriteLock();
+    private Donnees donnees = new Donnees();
+
+    private final LongAdder requetes = new LongAdder();
+    private final LongAdder dureeTotaleNanos = new LongAdder();
+
+    /**
+     * Recherche unifiée
+     */
+    public ResultatRechercheDto rechercher(String requete, int limite) {
+        List<Cle> cles = chercher(requete);
+        List<ProduitDto> produits = new ArrayList<>();
+        List<ResultatRechercheDto.ProducteurResultat> producteurs = new ArrayList<>();
+        List<CategorieDto> categories = new ArrayList<>();
+
+        verrou.readLock().lock();
+        try {
+            for (Cle cle : cles) {
+                switch (cle.type()) {
+                    case PRODUIT -> {
+                        if (produits.size() < limite) {
+                            catalogueCache.getProduit(cle.id()).ifPresent(produits::add);
+                        }
+                    }
+                    case PRODUCTEUR -> {
+                        if (producteurs.size() < limite && donnees.producteurs.containsKey(cle.id())) {
+                            producteurs.add(donnees.producteurs.get(cle.id()));
+                        }
+                    }
+                    case CATEGORIE -> {
+                        if (categories.size() < limite && donnees.categories.containsKey(cle.id())) {
+                            categories.add(donnees.categories.get(cle.id()));
+                        }
+                    }
+                }
+            }
+        } finally {
+            verrou.readLock().unlock();
+        }
+
+        return ResultatRechercheDto.builder()
+                .requete(requete)
+                .produits(produits)
+                .producteurs(producteurs)
+                .categories(categories)
+                .build();
+    }
+
+    /**
+     * Recherche limitée aux produits, par pertinence décroissante
+     */
+    public List<ProduitDto> rechercherProduits(String requete, int limite) {
+        List<ProduitDto> produits = new ArrayList<>();
+        for (Cle cle : chercher(requete)) {
+            if (produits.size() >= limite) {
+                break;
+            }
+            if (cle.type() == TypeDocument.PRODUIT) {
+                catalogueCache.getProduit(cle.id()).ifPresent(produits::add);
+            }
+        }
+        return produits;
+    }
+
+    /**
+     * Documents correspondant à la requête, triés par pertinence
+     * Tous les termes doivent correspondre ; à défaut, les documents en couvrant le plus sont retenus
+     */
+    private List<Cle> chercher(String requete) {
+        long debut = System.nanoTime();
+        List<String> termes = Normaliseur.termes(requete);
+        if (termes.isEmpty()) {
+            return List.of();
+        }
+
+        Map<Cle, Score> scores = new HashMap<>();
+        verrou.readLock().lock();
+        try {
+            int totalDocuments = Math.max(1, donnees.termesParDocument.size());
+            for (int i = 0; i < termes.size(); i++) {
+                String terme = termes.get(i);
+                boolean dernier = i == termes.size() - 1;
+                Map<Cle, Float> trouves = new HashMap<>();
+
+                Map<Cle, Float> exacts = donnees.postings.get(terme);
+                if (exacts != null) {
+                    trouves.putAll(exacts);
+                }
+                if (dernier || exacts == null) {
+                    developperPrefixe(terme, trouves);
+                }
+
+                float idf = (float) Math.log(1.0 + (double) totalDocuments / (1 + trouves.size()));
+                for (Map.Entry<Cle, Float> entree : trouves.entrySet()) {
+                    scores.computeIfAbsent(entree.getKey(), k -> new Score()).ajouter(i, entree.getValue() * idf);
+                }
+            }
+        } finally {
+            verrou.readLock().unlock();
+        }
+
+        int maxTermes = scores.values().stream().mapToInt(Score::termes).max().orElse(0);
+        List<Map.Entry<Cle, Score>> retenus = new ArrayList<>();
+        for (Map.Entry<Cle, Score> entree : scores.entrySet()) {
+            if (entree.getValue().termes() == maxTermes) {
+                retenus.add(entree);
+            }
+        }
+        retenus.sort(Comparator.comparingDouble((Map.Entry<Cle, Score> e) -> e.getValue().total).reversed());
+
+        requetes.increment();
+        dureeTotaleNanos.add(System.nanoTime() - debut);
+        return retenus.stream().map(Map.Entry::getKey).toList();
+    }
+
+    private void developperPrefixe(String prefixe, Map<Cle, Float> trouves) {
+        NavigableMap<String, Map<Cle, Float>> candidats =
+                donnees.postings.subMap(prefixe, false, prefixe + Character.MAX_VALUE, false);
+        int expansions = 0;
+        for (Map<Cle, Float> postings : candidats.values()) {
+            if (expansions++ >= MAX_EXPANSIONS) {
+                break;
+            }
+            postings.forEach((cle, poids) -> trouves.merge(cle, poids * FACTEUR_PREFIXE, Math::max));
+        }
+    }
+
+    // ==================== ALIMENTATION DE L'INDEX ====================
+
+    /**
+     * Construction complète au démarrage (après le chargement du catalogue) puis périodique
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(10)
+    @Scheduled(initialDelayString = "${recherche.index.rechargement-ms:600000}",
+               fixedDelayString = "${recherche.index.rechargement-ms:600000}")
+    @Transactional(readOnly = true)
+    public synchronized void reconstruire() {
+        Donnees nouvelles = new Donnees();
+        if (catalogueCache.estCharge()) {
+            catalogueCache.getTousLesProduits().forEach(produit -> indexerProduit(nouvelles, produit));
+        }
+        producteurRepository.findByActifTrue().forEach(producteur -> indexerProducteur(nouvelles, producteur));
+        categorieRepository.findByActifTrue().forEach(categorie -> indexerCategorie(nouvelles, categorie));
+
+        verrou.writeLock().lock();
+        try {
+            donnees = nouvelles;
+        } finally {
+            verrou.writeLock().unlock();
+        }
+        log.debug("Index de recherche reconstruit: {} documents, {} termes",
+                nouvelles.termesParDocument.size(), nouvelles.postings.size());
+    }
+
+    /**
+     * Réindexe les produits modifiés, après mise à jour du cache catalogue
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    @Order(10)
+    public synchronized void onProduitsModifies(ProduitsModifiesEvent event) {
+        if (!catalogueCache.estCharge()) {
+            return;
+        }
+        verrou.writeLock().lock();
+        try {
+            for (Long id : event.produitIds()) {
+                donnees.retirer(new Cle(TypeDocument.PRODUIT, id));
+                catalogueCache.getProduit(id).ifPresent(produit -> indexerProduit(donnees, produit));
+            }
+        } finally {
+            verrou.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Réindexe un producteur créé, validé, (dés)activé ou modifié, ainsi que ses produits
+     * (qui reprennent le nom de la ferme), après mise à jour du cache catalogue
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    @Order(10)
+    @Transactional(propagation = Propagation.REQUIRES_NEW, readOnly = true)
+    public synchronized void onProducteurModifie(ProducteurModifieEvent event) {
+        Producteur producteur = producteurRepository.findById(event.producteurId()).orElse(null);
+        verrou.writeLock().lock();
+        try {
+            donnees.retirer(new Cle(TypeDocument.PRODUCTEUR, event.producteurId()));
+            if (producteur != null) {
+                indexerProducteur(donnees, producteur);
+            }
+            if (catalogueCache.estCharge()) {
+                for (ProduitDto produit : catalogueCache.getProduitsByProducteur(event.producteurId())) {
+                    donnees.retirer(new Cle(TypeDocument.PRODUIT, produit.getId()));
+                    indexerProduit(donnees, produit);
+                }
+            }
+        } finally {
+            verrou.writeLock().unlock();
+        }
+    }
+
+    private static void indexerProduit(Donnees cible, ProduitDto produit) {
+        if (!Boolean.TRUE.equals(produit.getActif())) {
+            return;
+        }
+        Map<String, Float> poids = new HashMap<>();
+        ajouterTermes(poids, produit.getNom(), POIDS_NOM);
+        ajouterTermes(poids, produit.getCategorieNom(), POIDS_SECONDAIRE);
+        ajouterTermes(poids, produit.getProducteurFerme(), POIDS_ASSOCIE);
+        ajouterTermes(poids, produit.getDescription(), POIDS_DESCRIPTION);
+        cible.ajouter(new Cle(TypeDocument.PRODUIT, produit.getId()), poids);
+    }
+
+    private static void indexerProducteur(Donnees cible, Producteur producteur) {
+        if (!Boolean.TRUE.equals(producteur.getActif()) || !Boolean.TRUE.equals(producteur.getValide())) {
+            return;
+        }
+        Map<String, Float> poids = new HashMap<>();
+        ajouterTermes(poids, producteur.getNomFerme(), POIDS_NOM);
+        ajouterTermes(poids, producteur.getAdresseFerme(), POIDS_SECONDAIRE);
+        ajouterTermes(poids, producteur.getNom() + " " + producteur.getPrenom(), POIDS_ASSOCIE);
+        ajouterTermes(poids, producteur.getDescription(), POIDS_DESCRIPTION);
+        Cle cle = new Cle(TypeDocument.PRODUCTEUR, producteur.getId());
+        cible.ajouter(cle, poids);
+        cible.producteurs.put(producteur.getId(), ResultatRechercheDto.ProducteurResultat.builder()
+                .id(producteur.getId())
+                .nomFerme(producteur.getNomFerme())
+                .adresseFerme(producteur.getAdresseFerme())
+                .logoFerme(producteur.getLogoFerme())
+                .certifie(producteur.getCertifie())
+                .noteMoyenne(producteur.getNoteMoyenne())
+                .build());
+    }
+
+    private static void indexerCategorie(Donnees cible, Categorie categorie) {
+        Map<String, Float> poids = new HashMap<>();
+        ajouterTermes(poids, categorie.getNom(), POIDS_NOM);
+        ajouterTermes(poids, categorie.getDescription(), POIDS_DESCRIPTION);
+        cible.ajouter(new Cle(TypeDocument.CATEGORIE, categorie.getId()), poids);
+        cible.categories.put(categorie.getId(), CategorieDto.builder()
+                .id(categorie.getId())
+                .nom(categorie.getNom())
+                .description(categorie.getDescription())
+                .icone(categorie.getIcone())
+                .ordre(categorie.getOrdre())
+                .actif(categorie.getActif())
+                .build());
+    }
+
+    private static void ajouterTermes(Map<String, Float> poids, String texte, float poidsChamp) {
+        for (String terme : Normaliseur.termes(texte)) {
+            poids.merge(terme, poidsChamp, Float::sum);
+        }
+    }
+
+    @Override
+    public String getNom() {
+        return "recherche";
+    }
+
+    @Override
+    public Map<String, Object> getMetriques() {
+        Map<String, Object> metriques = new LinkedHashMap<>();
+        verrou.readLock().lock();
+        try {
+            metriques.put("documents", donnees.termesParDocument.size());
+            metriques.put("termes", donnees.postings.size());
+        } finally {
+            verrou.readLock().unlock();
+        }
+        long nombre = requetes.sum();
+        metriques.put("requetes", nombre);
+        metriques.put("dureeMoyenneMicros", nombre > 0 ? dureeTotaleNanos.sum() / nombre / 1000 : 0);
+        return metriques;
+    }
+
+    enum TypeDocument {
+        PRODUIT, PRODUCTEUR, CATEGORIE
+    }
+
+    record Cle(TypeDocument type, Long id) {
+    }
+
+    /**
+     * Score cumulé d'un document et ensemble des termes de la requête couverts
+     */
+    private static final class Score {
+        private long termesCouverts;
+        private float total;
+
+        void ajouter(int indexTerme, float valeur) {
+            termesCouverts |= 1L << Math.min(indexTerme, 63);
+            total += valeur;
+        }
+
+        int termes() {
+            return Long.bitCount(termesCouverts);
+        }
+    }
+
+    /**
+     * Structures de l'index : termes triés (pour la recherche par préfixe) et termes par document
+     */
+    private static final class Donnees {
+        private final TreeMap<String, Map<Cle, Float>> postings = new TreeMap<>();
+        private final Map<Cle, Collection<String>> termesParDocument = new HashMap<>();
+        private final Map<Long, ResultatRechercheDto.ProducteurResultat> producteurs = new HashMap<>();
+        private final Map<Long, CategorieDto> categories = new HashMap<>();
+
+        void ajouter(Cle cle, Map<String, Float> poids) {
+            if (poids.isEmpty()) {
+                return;
+            }
+            poids.forEach((terme, valeur) -> postings.computeIfAbsent(terme, t -> new HashMap<>()).put(cle, valeur));
+            termesParDocument.put(cle, List.copyOf(poids.keySet()));
+        }
+
+        void retirer(Cle cle) {
+            Collection<String> termes = termesParDocument.remove(cle);
+            if (termes != null) {
+                for (String terme : termes) {
+                    Map<Cle, Float> documents = postings.get(terme);
+                    if (documents != null) {
+                        documents.remove(cle);
+                        if (documents.isEmpty()) {
+                            postings.remove(terme);
+                        }
+                    }
+                }
+            }
+            if (cle.type() == TypeDocument.PRODUCTEUR) {
+                producteurs.remove(cle.id());
+            } else if (cle.type() == TypeDocument.CATEGORIE) {
+                categories.remove(cle.id());
+            }
+        }
+    }
+}
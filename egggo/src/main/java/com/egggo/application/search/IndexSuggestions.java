@@ -0,0 +1,434 @@
+package com.egggo.application.search;
+
+import com.egggo.api.dto.product.ProduitDto;
+import com.egggo.api.dto.search.SuggestionDto;
+import com.egggo.application.catalogue.CatalogueCache;
+import com.egggo.application.search.IndexRecherche.Cle;
+import com.egggo.application.search.IndexRecherche.TypeDocument;
+import com.egggo.domain.event.ProducteurModifieEvent;
+import com.egggo.domain.event.ProduitsModifiesEvent;
+import com.egggo.domain.model.user.Producteur;
+import com.egggo.domain.repository.CategorieRepository;
+import com.egggo.domain.repository.CommandeRepository;
+import com.egggo.domain.repository.ProducteurRepository;
+import com.egggo.infrastructure.metrics.SourceMetriques;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+/**
+ * Autocomplétion de la barre de recherche (noms de produits, de fermes et de catégories)
+ * Les libellés normalisés sont rangés dans un trie ; chaque nœud conserve les meilleures
+ * suggestions de son sous-arbre, classées par popularité (quantités vendues). Une requête
+ * se limite donc à descendre le préfixe et à lire une liste déjà triée.
+ * Chaque libellé est aussi accessible depuis le début de chacun de ses mots
+ * ("frais" propose "Œufs frais"). Une modification ne recalcule que les nœuds de ses chemins.
+ */
+@Component
+@Slf4j
+public class IndexSuggestions implements SourceMetriques {
+
+    /**
+     * Nombre de suggestions conservées par nœud (et nombre maximal renvoyé)
+     */
+    public static final int MAX_SUGGESTIONS = 10;
+
+    /**
+     * Nombre maximal de mots d'un libellé servant de point d'entrée
+     */
+    private static final int MAX_POINTS_ENTREE = 5;
+
+    private static final Pattern SEPARATEURS = Pattern.compile("[^a-z0-9]+");
+
+    private static final Comparator<Entree> ORDRE = Comparator
+            .comparingLong(Entree::poids).reversed()
+            .thenComparingInt(entree -> entree.libelle().length())
+            .thenComparing(Entree::libelle);
+
+    private final CatalogueCache catalogueCache;
+    private final ProducteurRepository producteurRepository;
+    private final CategorieRepository categorieRepository;
+    private final CommandeRepository commandeRepository;
+    private final int joursPopularite;
+
+    private final ReentrantReadWriteLock verrou = new ReentrantReadWriteLock();
+    private Trie trie = new Trie();
+    private Popularite popularite = Popularite.VIDE;
+
+    private final LongAdder requetes = new LongAdder();
+    private final LongAdder dureeTotaleNanos = new LongAdder();
+
+    public IndexSuggestions(CatalogueCache catalogueCache,
+                            ProducteurRepository producteurRepository,
+                            CategorieRepository categorieRepository,
+                            CommandeRepository commandeRepository,
+                            @Value("${recherche.suggestions.popularite-jours:90}") int joursPopularite) {
+        this.catalogueCache = catalogueCache;
+        this.producteurRepository = producteurRepository;
+        this.categorieRepository = categorieRepository;
+        this.commandeRepository = commandeRepository;
+        this.joursPopularite = joursPopularite;
+    }
+
+    /**
+     * Suggestions pour un début de saisie, des plus populaires aux moins populaires
+     */
+    public List<SuggestionDto> suggerer(String saisie, int limite) {
+        long debut = System.nanoTime();
+        String prefixe = cle(saisie);
+        if (prefixe.isEmpty()) {
+            return List.of();
+        }
+        Entree[] meilleures;
+        verrou.readLock().lock();
+        try {
+            Noeud noeud = trie.trouver(prefixe);
+            meilleures = noeud != null ? noeud.meilleures : Noeud.AUCUNE;
+        } finally {
+            verrou.readLock().unlock();
+        }
+        int taille = Math.min(Math.min(limite, MAX_SUGGESTIONS), meilleures.length);
+        List<SuggestionDto> suggestions = new ArrayList<>(taille);
+        for (int i = 0; i < taille; i++) {
+            Entree entree = meilleures[i];
+            suggestions.add(SuggestionDto.builder()
+                    .libelle(entree.libelle())
+                    .type(entree.cle().type().name())
+                    .id(entree.cle().id())
+                    .build());
+        }
+        requetes.increment();
+        dureeTotaleNanos.add(System.nanoTime() - debut);
+        return suggestions;
+    }
+
+    // ==================== ALIMENTATION DU TRIE ====================
+
+    /**
+     * Construction complète au démarrage (après le catalogue) puis périodique,
+     * avec recalcul de la popularité
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(20)
+    @Scheduled(initialDelayString = "${recherche.suggestions.rechargement-ms:600000}",
+               fixedDelayString = "${recherche.suggestions.rechargement-ms:600000}")
+    @Transactional(readOnly = true)
+    public synchronized void reconstruire() {
+        Map<Long, Long> ventes = new HashMap<>();
+        for (Object[] ligne : commandeRepository.sommerQuantitesVenduesParProduit(
+                LocalDateTime.now().minusDays(joursPopularite))) {
+            ventes.put((Long) ligne[0], ((Number) ligne[1]).longValue());
+        }
+        Popularite nouvellePopularite = new Popularite(ventes, new HashMap<>(), new HashMap<>());
+
+        Trie nouveau = new Trie();
+        if (catalogueCache.estCharge()) {
+            for (ProduitDto produit : catalogueCache.getTousLesProduits()) {
+                long vendus = ventes.getOrDefault(produit.getId(), 0L);
+                nouvellePopularite.parProducteur().merge(produit.getProducteurId(), vendus, Long::sum);
+                nouvellePopularite.parCategorie().merge(produit.getCategorieId(), vendus, Long::sum);
+                indexerProduit(nouveau, produit, nouvellePopularite);
+            }
+        }
+        producteurRepository.findByActifTrue()
+                .forEach(producteur -> indexerProducteur(nouveau, producteur, nouvellePopularite));
+        categorieRepository.findByActifTrue().forEach(categorie -> nouveau.inserer(new Entree(
+                new Cle(TypeDocument.CATEGORIE, categorie.getId()), categorie.getNom(),
+                1 + nouvellePopularite.parCategorie().getOrDefault(categorie.getId(), 0L))));
+
+        verrou.writeLock().lock();
+        try {
+            trie = nouveau;
+            popularite = nouvellePopularite;
+        } finally {
+            verrou.writeLock().unlock();
+        }
+        log.debug("Index de suggestions reconstruit: {} libellés, {} nœuds", nouveau.entrees.size(), nouveau.noeuds);
+    }
+
+    /**
+     * Met à jour les produits modifiés, après mise à jour du cache catalogue
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    @Order(20)
+    public synchronized void onProduitsModifies(ProduitsModifiesEvent event) {
+        if (!catalogueCache.estCharge()) {
+            return;
+        }
+        verrou.writeLock().lock();
+        try {
+            for (Long id : event.produitIds()) {
+                trie.retirer(new Cle(TypeDocument.PRODUIT, id));
+                catalogueCache.getProduit(id).ifPresent(produit -> indexerProduit(trie, produit, popularite));
+            }
+        } finally {
+            verrou.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Met à jour une ferme créée, validée ou (dés)activée
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    @Transactional(propagation = Propagation.REQUIRES_NEW, readOnly = true)
+    public synchronized void onProducteurModifie(ProducteurModifieEvent event) {
+        Producteur producteur = producteurRepository.findById(event.producteurId()).orElse(null);
+        verrou.writeLock().lock();
+        try {
+            trie.retirer(new Cle(TypeDocument.PRODUCTEUR, event.producteurId()));
+            if (producteur != null) {
+                indexerProducteur(trie, producteur, popularite);
+            }
+        } finally {
+            verrou.writeLock().unlock();
+        }
+    }
+
+    private static void indexerProduit(Trie cible, ProduitDto produit, Popularite popularite) {
+        if (Boolean.TRUE.equals(produit.getActif())) {
+            cible.inserer(new Entree(new Cle(TypeDocument.PRODUIT, produit.getId()), produit.getNom(),
+                    1 + popularite.ventes().getOrDefault(produit.getId(), 0L)));
+        }
+    }
+
+    private static void indexerProducteur(Trie cible, Producteur producteur, Popularite popularite) {
+        if (Boolean.TRUE.equals(producteur.getActif()) && Boolean.TRUE.equals(producteur.getValide())
+                && producteur.getNomFerme() != null) {
+            cible.inserer(new Entree(new Cle(TypeDocument.PRODUCTEUR, producteur.getId()), producteur.getNomFerme(),
+                    1 + popularite.parProducteur().getOrDefault(producteur.getId(), 0L)));
+        }
+    }
+
+    /**
+     * Forme normalisée d'un libellé ou d'une saisie : mots séparés par une seule espace
+     */
+    static String cle(String texte) {
+        return SEPARATEURS.matcher(Normaliseur.normaliser(texte)).replaceAll(" ").trim();
+    }
+
+    @Override
+    public String getNom() {
+        return "suggestions";
+    }
+
+    @Override
+    public Map<String, Object> getMetriques() {
+        Map<String, Object> metriques = new LinkedHashMap<>();
+        verrou.readLock().lock();
+        try {
+            metriques.put("libelles", trie.entrees.size());
+            metriques.put("noeuds", trie.noeuds);
+        } finally {
+            verrou.readLock().unlock();
+        }
+        long nombre = requetes.sum();
+        metriques.put("requetes", nombre);
+        metriques.put("dureeMoyenneNanos", nombre > 0 ? dureeTotaleNanos.sum() / nombre : 0);
+        return metriques;
+    }
+
+    /**
+     * Libellé suggéré et son poids de popularité
+     */
+    record Entree(Cle cle, String libelle, long poids) {
+    }
+
+    /**
+     * Quantités vendues par produit, et leurs sommes par ferme et par catégorie
+     */
+    private record Popularite(Map<Long, Long> ventes,
+                              Map<Long, Long> parProducteur,
+                              Map<Long, Long> parCategorie) {
+        static final Popularite VIDE = new Popularite(Map.of(), Map.of(), Map.of());
+    }
+
+    /**
+     * Nœud du trie : enfants triés par caractère (recherche dichotomique), libellés se terminant
+     * ici et meilleures suggestions du sous-arbre
+     */
+    private static final class Noeud {
+        static final Entree[] AUCUNE = new Entree[0];
+
+        private char[] caracteres = new char[0];
+        private Noeud[] enfants = new Noeud[0];
+        private List<Entree> terminales;
+        private Entree[] meilleures = AUCUNE;
+
+        Noeud enfant(char c) {
+            int i = Arrays.binarySearch(caracteres, c);
+            return i >= 0 ? enfants[i] : null;
+        }
+
+        Noeud creerEnfant(char c) {
+            int i = Arrays.binarySearch(caracteres, c);
+            if (i >= 0) {
+                return enfants[i];
+            }
+            int position = -i - 1;
+            char[] nouveauxCaracteres = new char[caracteres.length + 1];
+            Noeud[] nouveauxEnfants = new Noeud[enfants.length + 1];
+            System.arraycopy(caracteres, 0, nouveauxCaracteres, 0, position);
+            System.arraycopy(enfants, 0, nouveauxEnfants, 0, position);
+            System.arraycopy(caracteres, position, nouveauxCaracteres, position + 1, caracteres.length - position);
+            System.arraycopy(enfants, position, nouveauxEnfants, position + 1, enfants.length - position);
+            Noeud enfant = new Noeud();
+            nouveauxCaracteres[position] = c;
+            nouveauxEnfants[position] = enfant;
+            caracteres = nouveauxCaracteres;
+            enfants = nouveauxEnfants;
+            return enfant;
+        }
+
+        void supprimerEnfant(char c) {
+            int i = Arrays.binarySearch(caracteres, c);
+            if (i < 0) {
+                return;
+            }
+            char[] nouveauxCaracteres = new char[caracteres.length - 1];
+            Noeud[] nouveauxEnfants = new Noeud[enfants.length - 1];
+            System.arraycopy(caracteres, 0, nouveauxCaracteres, 0, i);
+            System.arraycopy(enfants, 0, nouveauxEnfants, 0, i);
+            System.arraycopy(caracteres, i + 1, nouveauxCaracteres, i, caracteres.length - i - 1);
+            System.arraycopy(enfants, i + 1, nouveauxEnfants, i, enfants.length - i - 1);
+            caracteres = nouveauxCaracteres;
+            enfants = nouveauxEnfants;
+        }
+
+        boolean estVide() {
+            return enfants.length == 0 && (terminales == null || terminales.isEmpty());
+        }
+
+        /**
+         * Les meilleures d'un nœud sont les meilleures parmi ses libellés et celles de ses enfants
+         */
+        void recalculer() {
+            Map<Cle, Entree> candidates = new HashMap<>();
+            if (terminales != null) {
+                terminales.forEach(entree -> candidates.merge(entree.cle(), entree, IndexSuggestions::meilleure));
+            }
+            for (Noeud enfant : enfants) {
+                for (Entree entree : enfant.meilleures) {
+                    candidates.merge(entree.cle(), entree, IndexSuggestions::meilleure);
+                }
+            }
+            meilleures = candidates.values().stream()
+                    .sorted(ORDRE)
+                    .limit(MAX_SUGGESTIONS)
+                    .toArray(Entree[]::new);
+        }
+    }
+
+    private static Entree meilleure(Entree a, Entree b) {
+        return ORDRE.compare(a, b) <= 0 ? a : b;
+    }
+
+    /**
+     * Trie et table des chemins de chaque libellé (pour le retirer sans parcours complet)
+     */
+    private static final class Trie {
+        private final Noeud racine = new Noeud();
+        private final Map<Cle, List<String>> entrees = new HashMap<>();
+        private int noeuds = 1;
+
+        Noeud trouver(String prefixe) {
+            Noeud noeud = racine;
+            for (int i = 0; i < prefixe.length() && noeud != null; i++) {
+                noeud = noeud.enfant(prefixe.charAt(i));
+            }
+            return noeud;
+        }
+
+        void inserer(Entree entree) {
+            retirer(entree.cle());
+            List<String> chemins = chemins(entree.libelle());
+            if (chemins.isEmpty()) {
+                return;
+            }
+            for (String chemin : chemins) {
+                Noeud[] parcours = new Noeud[chemin.length() + 1];
+                parcours[0] = racine;
+                for (int i = 0; i < chemin.length(); i++) {
+                    int avant = parcours[i].enfants.length;
+                    parcours[i + 1] = parcours[i].creerEnfant(chemin.charAt(i));
+                    noeuds += parcours[i].enfants.length - avant;
+                }
+                Noeud fin = parcours[chemin.length()];
+                if (fin.terminales == null) {
+                    fin.terminales = new ArrayList<>(1);
+                }
+                fin.terminales.add(entree);
+                for (int i = parcours.length - 1; i >= 0; i--) {
+                    parcours[i].recalculer();
+                }
+            }
+            entrees.put(entree.cle(), chemins);
+        }
+
+        void retirer(Cle cle) {
+            List<String> chemins = entrees.remove(cle);
+            if (chemins == null) {
+                return;
+            }
+            for (String chemin : chemins) {
+                Noeud[] parcours = new Noeud[chemin.length() + 1];
+                parcours[0] = racine;
+                for (int i = 0; i < chemin.length() && parcours[i] != null; i++) {
+                    parcours[i + 1] = parcours[i].enfant(chemin.charAt(i));
+                }
+                Noeud fin = parcours[chemin.length()];
+                if (fin == null) {
+                    continue;
+                }
+                fin.terminales.removeIf(entree -> entree.cle().equals(cle));
+                for (int i = parcours.length - 1; i >= 0; i--) {
+                    if (i > 0 && parcours[i].estVide()) {
+                        parcours[i - 1].supprimerEnfant(chemin.charAt(i - 1));
+                        noeuds--;
+                    } else {
+                        parcours[i].recalculer();
+                    }
+                }
+            }
+        }
+
+        /**
+         * Clés d'accès d'un libellé : le libellé complet puis la suite à partir de chaque mot
+         */
+        private static List<String> chemins(String libelle) {
+            String complet = cle(libelle);
+            List<String> chemins = new ArrayList<>();
+            if (complet.isEmpty()) {
+                return chemins;
+            }
+            chemins.add(complet);
+            int debut = complet.indexOf(' ');
+            while (debut >= 0 && chemins.size() < MAX_POINTS_ENTREE) {
+                String suite = complet.substring(debut + 1);
+                if (!chemins.contains(suite)) {
+                    chemins.add(suite);
+                }
+                debut = complet.indexOf(' ', debut + 1);
+            }
+            return chemins;
+        }
+    }
+}
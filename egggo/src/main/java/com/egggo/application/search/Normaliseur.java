@@ -0,0 +1,65 @@
+package com.egggo.application.search;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Normalisation de texte français pour la recherche
+ * Minuscules, suppression des accents (é → e), ligatures (œ → oe, æ → ae),
+ * découpage en mots, suppression des mots vides et des marques simples du pluriel.
+ * Le même traitement est appliqué aux documents indexés et aux requêtes.
+ */
+public final class Normaliseur {
+
+    private static final Pattern DIACRITIQUES = Pattern.compile("\\p{M}+");
+    private static final Pattern SEPARATEURS = Pattern.compile("[^a-z0-9]+");
+
+    private static final Set<String> MOTS_VIDES = Set.of(
+            "a", "au", "aux", "avec", "ce", "ces", "d", "dans", "de", "des", "du", "en", "et",
+            "la", "le", "les", "l", "leur", "ou", "par", "pour", "sans", "sur", "un", "une");
+
+    private Normaliseur() {
+    }
+
+    /**
+     * Normalise un texte sans le découper (minuscules, accents et ligatures)
+     */
+    public static String normaliser(String texte) {
+        if (texte == null || texte.isEmpty()) {
+            return "";
+        }
+        String minuscules = texte.toLowerCase(Locale.ROOT)
+                .replace("œ", "oe")
+                .replace("æ", "ae")
+                .replace("’", "'");
+        return DIACRITIQUES.matcher(Normalizer.normalize(minuscules, Normalizer.Form.NFD)).replaceAll("");
+    }
+
+    /**
+     * Découpe un texte en termes indexables
+     */
+    public static List<String> termes(String texte) {
+        List<String> termes = new ArrayList<>();
+        for (String mot : SEPARATEURS.split(normaliser(texte))) {
+            if (mot.isEmpty() || MOTS_VIDES.contains(mot)) {
+                continue;
+            }
+            termes.add(singulier(mot));
+        }
+        return termes;
+    }
+
+    /**
+     * Réduction légère du pluriel : "oeufs" → "oeuf", "choux" → "chou"
+     */
+    static String singulier(String mot) {
+        if (mot.length() > 3 && (mot.endsWith("s") || mot.endsWith("x")) && !Character.isDigit(mot.charAt(0))) {
+            return mot.substring(0, mot.length() - 1);
+        }
+        return mot;
+    }
+}
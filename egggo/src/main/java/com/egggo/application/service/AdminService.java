@@ -1,25 +1,53 @@
 package com.egggo.application.service;
 
 import com.egggo.api.dto.admin.AdminDashboardDto;
+import com.egggo.api.dto.admin.AnalyticsQueryRequest;
+import com.egggo.api.dto.admin.AnalyticsQueryResponse;
+import com.egggo.api.dto.admin.TrajectoireDto;
+import com.egggo.api.dto.common.CursorPageResponse;
 import com.egggo.api.dto.user.*;
-import com.egggo.domain.model.order.Commande;
-import com.egggo.domain.model.order.StatutCommande;
+import com.egggo.application.analytics.AnalytiqueVentes;
+import com.egggo.application.analytics.CubeVentes;
+import com.egggo.application.analytics.DimensionVente;
+import com.egggo.application.pagination.Curseur;
+import com.egggo.application.stats.AgregatsJournaliers;
+import com.egggo.application.stats.AgregatsLivraisons;
+import com.egggo.application.stats.CalendrierStatistiques;
+import com.egggo.application.suivi.Trajectoires;
+import com.egggo.domain.event.LivreurModifieEvent;
+import com.egggo.domain.event.ProducteurModifieEvent;
+import com.egggo.domain.model.stats.Granularite;
+import com.egggo.domain.model.stats.StatistiqueJournaliere;
+import com.egggo.domain.model.stats.StatistiqueLivraison;
 import com.egggo.domain.model.user.*;
 import com.egggo.domain.repository.*;
+import com.egggo.infrastructure.geo.CodecTrajectoire;
+import com.egggo.infrastructure.geo.Geodesie;
+import com.egggo.infrastructure.metrics.HistogrammeLogarithmique;
+import com.egggo.infrastructure.metrics.SourceMetriques;
+import com.egggo.security.ListeRevocation;
 import jakarta.persistence.EntityNotFoundException;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.Pageable;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
+import java.time.Instant;
 import java.time.LocalDateTime;
+import java.time.ZoneId;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
 import java.util.stream.Collectors;
 
 /**
@@ -30,45 +58,65 @@ import java.util.stream.Collectors;
 @Slf4j
 public class AdminService {
 
+    private static final int NOMBRE_TOP_PRODUCTEURS = 5;
+    private static final int JOURS_GRAPHIQUE = 7;
+    private static final int LIMITE_ANALYSE = 1000;
+
     private final UtilisateurRepository utilisateurRepository;
     private final ProducteurRepository producteurRepository;
     private final LivreurRepository livreurRepository;
     private final ClientRepository clientRepository;
     private final CommandeRepository commandeRepository;
+    private final JetonRafraichissementRepository jetonRafraichissementRepository;
+    private final ListeRevocation listeRevocation;
+    private final List<SourceMetriques> sourcesMetriques;
+    private final ApplicationEventPublisher eventPublisher;
+    private final CalendrierStatistiques calendrier;
+    private final AgregatsJournaliers agregatsJournaliers;
+    private final AgregatsLivraisons agregatsLivraisons;
+    private final AnalytiqueVentes analytiqueVentes;
     private final LivraisonRepository livraisonRepository;
+    private final Trajectoires trajectoires;
 
     /**
      * Récupère le tableau de bord administrateur
+     * Les compteurs de commandes et le graphique sont lus dans les agrégats journaliers.
      */
     @Transactional(readOnly = true)
     public AdminDashboardDto getDashboard() {
-        LocalDateTime debutMois = LocalDate.now().withDayOfMonth(1).atStartOfDay();
-        LocalDateTime debut7Jours = LocalDate.now().minusDays(7).atStartOfDay();
+        LocalDate aujourdhui = calendrier.aujourdhui();
+        LocalDate debutMois = aujourdhui.withDayOfMonth(1);
+        LocalDate debutGraphique = aujourdhui.minusDays(JOURS_GRAPHIQUE - 1L);
+        Map<LocalDate, StatistiqueJournaliere> parJour = agregatsJournaliers.totauxParJour(
+                debutMois.isBefore(debutGraphique) ? debutMois : debutGraphique, aujourdhui);
 
         // Compteurs globaux
         long totalClients = clientRepository.count();
         long totalProducteurs = producteurRepository.count();
         long totalLivreurs = livreurRepository.count();
-        long commandesMois = commandeRepository.countByDateCommandeAfter(debutMois);
-
-        // Producteurs en attente de validation
-        long producteursEnAttente = producteurRepository.findAll().stream()
-                .filter(p -> !p.getValide())
-                .count();
 
-        // Livreurs en attente de validation
-        long livreursEnAttente = livreurRepository.findAll().stream()
-                .filter(l -> !l.getValide())
-                .count();
-
-        // Chiffre d'affaires du mois
-        double chiffreAffairesMois = commandeRepository.findByDateCommandeAfter(debutMois).stream()
-                .filter(c -> c.getStatut() != StatutCommande.ANNULEE)
-                .mapToDouble(Commande::getMontantTotal)
-                .sum();
+        // Comptes en attente de validation
+        long producteursEnAttente = producteurRepository.countByValideFalse();
+        long livreursEnAttente = livreurRepository.countByValideFalse();
+
+        // Commandes et chiffre d'affaires du mois
+        long commandesMois = 0;
+        double chiffreAffairesMois = 0;
+        for (StatistiqueJournaliere jour : parJour.values()) {
+            if (!jour.getJour().isBefore(debutMois)) {
+                commandesMois += jour.getCommandes();
+                chiffreAffairesMois += jour.getChiffreAffaires();
+            }
+        }
 
         // Données pour le graphique des 7 derniers jours
-        List<AdminDashboardDto.ChartDataDto> commandesChart = genererDonneesGraphique7Jours();
+        List<AdminDashboardDto.ChartDataDto> commandesChart = parJour.values().stream()
+                .filter(jour -> !jour.getJour().isBefore(debutGraphique))
+                .map(jour -> AdminDashboardDto.ChartDataDto.builder()
+                        .label(jour.getJour().format(DateTimeFormatter.ofPattern("dd/MM")))
+                        .valeur(jour.getCommandes().doubleValue())
+                        .build())
+                .collect(Collectors.toList());
 
         // Alertes système
         List<AdminDashboardDto.AlerteDto> alertes = genererAlertes(producteursEnAttente, livreursEnAttente);
@@ -87,19 +135,27 @@ public class AdminService {
     }
 
     /**
-     * Récupère tous les utilisateurs paginés
+     * Recalcule les agrégats journaliers d'un intervalle de jours clos (inclus, hier par défaut)
+     */
+    public int reconstruireStatistiques(LocalDate du, LocalDate au) {
+        return agregatsJournaliers.reconstruire(du, au != null ? au : calendrier.aujourdhui().minusDays(1));
+    }
+
+    /**
+     * Récupère une page d'utilisateurs, éventuellement filtrés par rôle, par identifiant croissant
      */
     @Transactional(readOnly = true)
-    public Page<UtilisateurDto> getUtilisateurs(String role, Pageable pageable) {
-        Page<Utilisateur> utilisateurs;
-        if (role != null && !role.isEmpty()) {
-            Role roleEnum = Role.valueOf(role.toUpperCase());
-            utilisateurs = utilisateurRepository.findByRole(roleEnum, pageable);
-        } else {
-            utilisateurs = utilisateurRepository.findAll(pageable);
+    public CursorPageResponse<UtilisateurDto> getUtilisateurs(String role, String curseur, int taille, boolean avecTotal) {
+        Curseur position = Curseur.croissant(curseur);
+        if (role == null || role.isEmpty()) {
+            return CursorPageResponse.from(utilisateurRepository.findPage(position.id(), Curseur.limite(taille)),
+                    taille, this::toUtilisateurDto, utilisateur -> Curseur.apres(utilisateur.getId()),
+                    avecTotal ? utilisateurRepository.count() : null);
         }
-
-        return utilisateurs.map(this::toUtilisateurDto);
+        Role roleEnum = Role.valueOf(role.toUpperCase(Locale.ROOT));
+        return CursorPageResponse.from(utilisateurRepository.findPageByRole(roleEnum, position.id(), Curseur.limite(taille)),
+                taille, this::toUtilisateurDto, utilisateur -> Curseur.apres(utilisateur.getId()),
+                avecTotal ? utilisateurRepository.countByRole(roleEnum) : null);
     }
 
     /**
@@ -121,7 +177,15 @@ public class AdminService {
                 .orElseThrow(() -> new EntityNotFoundException("Utilisateur non trouvé"));
 
         utilisateur.setActif(!utilisateur.getActif());
+        // Les tokens déjà émis portent l'ancienne version de sécurité
+        utilisateur.incrementerVersionSecurite();
         utilisateur = utilisateurRepository.save(utilisateur);
+        revoquerSessions(utilisateur);
+        if (utilisateur instanceof Producteur) {
+            eventPublisher.publishEvent(new ProducteurModifieEvent(id));
+        } else if (utilisateur instanceof Livreur livreur) {
+            eventPublisher.publishEvent(LivreurModifieEvent.of(livreur));
+        }
 
         log.info("Utilisateur {} {} par admin", id, utilisateur.getActif() ? "activé" : "désactivé");
 
@@ -129,14 +193,14 @@ public class AdminService {
     }
 
     /**
-     * Récupère les producteurs en attente de validation
+     * Récupère une page de producteurs en attente de validation, du plus ancien au plus récent
      */
     @Transactional(readOnly = true)
-    public List<ProducteurDto> getProducteursEnAttente() {
-        return producteurRepository.findAll().stream()
-                .filter(p -> !p.getValide())
-                .map(this::toProducteurDto)
-                .collect(Collectors.toList());
+    public CursorPageResponse<ProducteurDto> getProducteursEnAttente(String curseur, int taille, boolean avecTotal) {
+        Curseur position = Curseur.croissant(curseur);
+        return CursorPageResponse.from(producteurRepository.findPageEnAttente(position.id(), Curseur.limite(taille)),
+                taille, this::toProducteurDto, producteur -> Curseur.apres(producteur.getId()),
+                avecTotal ? producteurRepository.countByValideFalse() : null);
     }
 
     /**
@@ -149,6 +213,7 @@ public class AdminService {
 
         producteur.setValide(true);
         producteur = producteurRepository.save(producteur);
+        eventPublisher.publishEvent(new ProducteurModifieEvent(id));
 
         log.info("Producteur {} validé par admin", id);
 
@@ -164,20 +229,23 @@ public class AdminService {
                 .orElseThrow(() -> new EntityNotFoundException("Producteur non trouvé"));
 
         producteur.setActif(false);
+        producteur.incrementerVersionSecurite();
         producteurRepository.save(producteur);
+        revoquerSessions(producteur);
+        eventPublisher.publishEvent(new ProducteurModifieEvent(id));
 
         log.info("Producteur {} refusé par admin - Raison: {}", id, raison);
     }
 
     /**
-     * Récupère les livreurs en attente de validation
+     * Récupère une page de livreurs en attente de validation, du plus ancien au plus récent
      */
     @Transactional(readOnly = true)
-    public List<LivreurDto> getLivreursEnAttente() {
-        return livreurRepository.findAll().stream()
-                .filter(l -> !l.getValide())
-                .map(this::toLivreurDto)
-                .collect(Collectors.toList());
+    public CursorPageResponse<LivreurDto> getLivreursEnAttente(String curseur, int taille, boolean avecTotal) {
+        Curseur position = Curseur.croissant(curseur);
+        return CursorPageResponse.from(livreurRepository.findPageEnAttente(position.id(), Curseur.limite(taille)),
+                taille, this::toLivreurDto, livreur -> Curseur.apres(livreur.getId()),
+                avecTotal ? livreurRepository.countByValideFalse() : null);
     }
 
     /**
@@ -190,6 +258,7 @@ public class AdminService {
 
         livreur.setValide(true);
         livreur = livreurRepository.save(livreur);
+        eventPublisher.publishEvent(LivreurModifieEvent.of(livreur));
 
         log.info("Livreur {} validé par admin", id);
 
@@ -205,145 +274,181 @@ public class AdminService {
                 .orElseThrow(() -> new EntityNotFoundException("Livreur non trouvé"));
 
         livreur.setActif(false);
+        livreur.incrementerVersionSecurite();
         livreurRepository.save(livreur);
+        revoquerSessions(livreur);
+        eventPublisher.publishEvent(LivreurModifieEvent.of(livreur));
 
         log.info("Livreur {} refusé par admin - Raison: {}", id, raison);
     }
 
     /**
-     * Récupère les statistiques de ventes
+     * Récupère les statistiques de ventes, calculées par des requêtes d'agrégation
+     * (journées découpées dans le fuseau métier, quelques centaines de lignes au plus)
      */
     @Transactional(readOnly = true)
     public StatsVentesDto getStatsVentes(String periode) {
-        LocalDateTime debut = getDebutPeriode(periode);
-
-        List<Commande> commandes = commandeRepository.findByDateCommandeAfter(debut);
-        List<Commande> commandesPayees = commandes.stream()
-                .filter(c -> c.getStatut() != StatutCommande.ANNULEE)
-                .collect(Collectors.toList());
-
-        double chiffreAffaires = commandesPayees.stream()
-                .mapToDouble(Commande::getMontantTotal)
-                .sum();
-
-        double panierMoyen = commandesPayees.isEmpty() ? 0 :
-                chiffreAffaires / commandesPayees.size();
-
-        // Statistiques par jour
-        Map<String, List<Commande>> parJour = commandesPayees.stream()
-                .collect(Collectors.groupingBy(c ->
-                        c.getDateCommande().toLocalDate().format(DateTimeFormatter.ISO_DATE)));
+        LocalDateTime debut = calendrier.debutPeriode(periode);
+
+        Object[] totaux = commandeRepository.totaliserVentes(debut).get(0);
+        long nombreCommandes = ((Number) totaux[0]).longValue();
+        double chiffreAffaires = ((Number) totaux[1]).doubleValue();
+        double panierMoyen = nombreCommandes == 0 ? 0 : chiffreAffaires / nombreCommandes;
+
+        // Statistiques par jour : agrégats horaires regroupés par journée du fuseau métier
+        Map<LocalDate, double[]> parJour = new TreeMap<>();
+        for (Object[] ligne : commandeRepository.sommerVentesParHeure(debut)) {
+            LocalDateTime heure = LocalDateTime.of(((Number) ligne[0]).intValue(), ((Number) ligne[1]).intValue(),
+                    ((Number) ligne[2]).intValue(), ((Number) ligne[3]).intValue(), 0);
+            double[] cumul = parJour.computeIfAbsent(calendrier.jourDe(heure), jour -> new double[2]);
+            cumul[0] += ((Number) ligne[4]).doubleValue();
+            cumul[1] += ((Number) ligne[5]).longValue();
+        }
 
         List<StatsVentesDto.VenteJourDto> ventesParJour = parJour.entrySet().stream()
                 .map(e -> StatsVentesDto.VenteJourDto.builder()
-                        .date(e.getKey())
-                        .montant(e.getValue().stream().mapToDouble(Commande::getMontantTotal).sum())
-                        .commandes(e.getValue().size())
+                        .date(e.getKey().format(DateTimeFormatter.ISO_DATE))
+                        .montant(e.getValue()[0])
+                        .commandes((int) e.getValue()[1])
                         .build())
-                .sorted((a, b) -> a.getDate().compareTo(b.getDate()))
                 .collect(Collectors.toList());
 
         // Top producteurs
-        Map<Producteur, Double> chiffreParProducteur = commandesPayees.stream()
-                .collect(Collectors.groupingBy(
-                        Commande::getProducteur,
-                        Collectors.summingDouble(Commande::getMontantTotal)));
-
-        List<StatsVentesDto.TopProducteurDto> topProducteurs = chiffreParProducteur.entrySet().stream()
-                .map(e -> StatsVentesDto.TopProducteurDto.builder()
-                        .id(e.getKey().getId())
-                        .nomFerme(e.getKey().getNomFerme())
-                        .chiffreAffaires(e.getValue())
-                        .commandes((int) commandesPayees.stream()
-                                .filter(c -> c.getProducteur().equals(e.getKey()))
-                                .count())
+        List<StatsVentesDto.TopProducteurDto> topProducteurs = commandeRepository
+                .classerProducteursParVentes(debut, PageRequest.ofSize(NOMBRE_TOP_PRODUCTEURS)).stream()
+                .map(ligne -> StatsVentesDto.TopProducteurDto.builder()
+                        .id((Long) ligne[0])
+                        .nomFerme((String) ligne[1])
+                        .chiffreAffaires(((Number) ligne[2]).doubleValue())
+                        .commandes(((Number) ligne[3]).intValue())
                         .build())
-                .sorted((a, b) -> b.getChiffreAffaires().compareTo(a.getChiffreAffaires()))
-                .limit(5)
                 .collect(Collectors.toList());
 
         return StatsVentesDto.builder()
                 .chiffreAffairesTotal(chiffreAffaires)
-                .nombreCommandes(commandesPayees.size())
+                .nombreCommandes((int) nombreCommandes)
                 .panierMoyen(panierMoyen)
-                .nombreClients((int) commandesPayees.stream()
-                        .map(c -> c.getClient().getId())
-                        .distinct()
-                        .count())
+                .nombreClients(((Number) totaux[2]).intValue())
                 .ventesParJour(ventesParJour)
                 .topProducteurs(topProducteurs)
                 .build();
     }
 
     /**
-     * Récupère les statistiques de livraisons
+     * Récupère les statistiques de livraisons de la période calendaire en cours
+     * (jour, semaine, mois ou année), toutes livraisons ou pour un livreur ou une ville
+     * Lecture d'une seule ligne d'agrégat, quelle que soit la taille de l'historique.
      */
     @Transactional(readOnly = true)
-    public StatsLivraisonsDto getStatsLivraisons(String periode) {
-        LocalDateTime debut = getDebutPeriode(periode);
-
-        var livraisons = livraisonRepository.findAll().stream()
-                .filter(l -> l.getDateAssignation().isAfter(debut))
-                .collect(Collectors.toList());
-
-        int reussies = (int) livraisons.stream()
-                .filter(l -> l.getStatut() == com.egggo.domain.model.delivery.StatutLivraison.LIVREE)
-                .count();
-
-        int echouees = (int) livraisons.stream()
-                .filter(l -> l.getStatut() == com.egggo.domain.model.delivery.StatutLivraison.ECHOUEE)
-                .count();
-
-        double tauxReussite = livraisons.isEmpty() ? 100.0 :
-                (reussies * 100.0) / livraisons.size();
+    public StatsLivraisonsDto getStatsLivraisons(String periode, Long livreurId, String ville) {
+        if (livreurId != null && ville != null) {
+            throw new IllegalArgumentException("Filtrer par livreur ou par ville, pas les deux");
+        }
+        String dimension = livreurId != null ? StatistiqueLivraison.dimensionLivreur(livreurId)
+                : ville != null ? StatistiqueLivraison.dimensionVille(ville)
+                : StatistiqueLivraison.TOUTES;
+        StatistiqueLivraison stats = agregatsLivraisons.lire(
+                Granularite.depuisPeriode(periode), calendrier.aujourdhui(), dimension);
+        HistogrammeLogarithmique durees = stats.lireDurees();
 
-        double distanceTotale = livraisons.stream()
-                .filter(l -> l.getDistanceKm() != null)
-                .mapToDouble(l -> l.getDistanceKm())
-                .sum();
+        double tauxReussite = stats.getAssignees() == 0 ? 100.0 :
+                (stats.getReussies() * 100.0) / stats.getAssignees();
 
         return StatsLivraisonsDto.builder()
-                .livraisonsTotales(livraisons.size())
-                .livraisonsReussies(reussies)
-                .livraisonsEchouees(echouees)
+                .livraisonsTotales(stats.getAssignees().intValue())
+                .livraisonsReussies(stats.getReussies().intValue())
+                .livraisonsEchouees(stats.getEchouees().intValue())
                 .tauxReussite(tauxReussite)
-                .distanceTotaleParcourue(distanceTotale)
+                .distanceTotaleParcourue(stats.getDistanceKm())
+                .tempsLivraisonMoyen(enMinutes(durees.getMoyenne()))
+                .tempsLivraisonMedian(enMinutes(durees.quantile(0.5)))
+                .tempsLivraisonP90(enMinutes(durees.quantile(0.9)))
+                .tempsLivraisonP99(enMinutes(durees.quantile(0.99)))
                 .build();
     }
 
-    // ====================== Méthodes utilitaires ======================
-
-    private LocalDateTime getDebutPeriode(String periode) {
-        if (periode == null) periode = "mois";
-
-        return switch (periode.toLowerCase()) {
-            case "jour" -> LocalDate.now().atStartOfDay();
-            case "semaine" -> LocalDate.now().minusWeeks(1).atStartOfDay();
-            case "annee" -> LocalDate.now().withDayOfYear(1).atStartOfDay();
-            default -> LocalDate.now().withDayOfMonth(1).atStartOfDay(); // mois
-        };
+    /**
+     * Recalcule les agrégats de livraisons depuis l'historique, jour courant conservé tel quel
+     */
+    public int reconstruireStatistiquesLivraisons() {
+        return agregatsLivraisons.reconstruire();
     }
 
-    private List<AdminDashboardDto.ChartDataDto> genererDonneesGraphique7Jours() {
-        List<AdminDashboardDto.ChartDataDto> data = new ArrayList<>();
-        LocalDate aujourdhui = LocalDate.now();
+    /**
+     * Analyse libre des ventes (regroupement et filtres) sur le cube en mémoire, sans requête SQL
+     */
+    public AnalyticsQueryResponse analyserVentes(AnalyticsQueryRequest request) {
+        List<DimensionVente> groupes = new ArrayList<>();
+        if (request.getGroupBy() != null) {
+            request.getGroupBy().forEach(nom -> groupes.add(DimensionVente.depuis(nom)));
+        }
+        Map<DimensionVente, Set<String>> filtres = new EnumMap<>(DimensionVente.class);
+        if (request.getFiltres() != null) {
+            request.getFiltres().forEach((nom, valeurs) -> {
+                DimensionVente dimension = DimensionVente.depuis(nom);
+                Set<String> retenues = new HashSet<>();
+                if (valeurs != null) {
+                    // Les villes du cube sont des clés normalisées
+                    valeurs.forEach(valeur -> retenues.add(dimension == DimensionVente.VILLE
+                            ? StatistiqueJournaliere.normaliserVille(valeur) : valeur));
+                }
+                filtres.put(dimension, retenues);
+            });
+        }
+        int limite = request.getLimite() != null ? request.getLimite() : LIMITE_ANALYSE;
+
+        long debut = System.nanoTime();
+        CubeVentes.Resultat resultat = analytiqueVentes.interroger(
+                new CubeVentes.Requete(groupes, filtres, request.getDu(), request.getAu(), limite));
+        return AnalyticsQueryResponse.builder()
+                .colonnes(resultat.colonnes())
+                .lignes(resultat.lignes())
+                .lignesAnalysees(resultat.lignesAnalysees())
+                .lignesRetenues(resultat.lignesRetenues())
+                .groupes(resultat.groupes())
+                .tronque(resultat.tronque())
+                .dureeMs((System.nanoTime() - debut) / 1_000_000.0)
+                .build();
+    }
 
-        for (int i = 6; i >= 0; i--) {
-            LocalDate date = aujourdhui.minusDays(i);
-            LocalDateTime debut = date.atStartOfDay();
-            LocalDateTime fin = date.plusDays(1).atStartOfDay();
+    /**
+     * Relecture de la trajectoire enregistrée d'une livraison
+     */
+    public TrajectoireDto getTrajectoire(Long livraisonId) {
+        if (!livraisonRepository.existsById(livraisonId)) {
+            throw new EntityNotFoundException("Livraison non trouvée");
+        }
+        List<CodecTrajectoire.Point> points = trajectoires.lire(livraisonId);
+        double distance = 0;
+        for (int i = 1; i < points.size(); i++) {
+            distance += Geodesie.distanceKm(points.get(i - 1).latitude(), points.get(i - 1).longitude(),
+                    points.get(i).latitude(), points.get(i).longitude());
+        }
+        List<TrajectoireDto.PointDto> dtos = points.stream()
+                .map(point -> TrajectoireDto.PointDto.builder()
+                        .latitude(point.latitude())
+                        .longitude(point.longitude())
+                        .horodatage(date(point.horodatageMs()))
+                        .build())
+                .collect(Collectors.toList());
+        return TrajectoireDto.builder()
+                .livraisonId(livraisonId)
+                .nombrePoints(points.size())
+                .distanceKm(Math.round(distance * 100.0) / 100.0)
+                .debut(dtos.isEmpty() ? null : dtos.get(0).getHorodatage())
+                .fin(dtos.isEmpty() ? null : dtos.get(dtos.size() - 1).getHorodatage())
+                .points(dtos)
+                .build();
+    }
 
-            long nombreCommandes = commandeRepository.findByDateCommandeAfter(debut).stream()
-                    .filter(c -> c.getDateCommande().isBefore(fin))
-                    .count();
+    // ====================== Méthodes utilitaires ======================
 
-            data.add(AdminDashboardDto.ChartDataDto.builder()
-                    .label(date.format(DateTimeFormatter.ofPattern("dd/MM")))
-                    .valeur((double) nombreCommandes)
-                    .build());
-        }
+    private static LocalDateTime date(long horodatageMs) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(horodatageMs), ZoneId.systemDefault());
+    }
 
-        return data;
+    private static Double enMinutes(double secondes) {
+        return Double.isNaN(secondes) ? null : secondes / 60.0;
     }
 
     private List<AdminDashboardDto.AlerteDto> genererAlertes(long producteursEnAttente, long livreursEnAttente) {
@@ -428,4 +533,25 @@ public class AdminService {
                 .dateCreation(l.getDateCreation())
                 .build();
     }
+
+    /**
+     * Révoque les tokens d'accès émis avant le changement de version de sécurité,
+     * et les tokens de rafraîchissement si le compte est désactivé
+     */
+    private void revoquerSessions(Utilisateur utilisateur) {
+        listeRevocation.revoquerUtilisateur(utilisateur.getId(), utilisateur.getVersionSecurite());
+        if (!utilisateur.getActif()) {
+            jetonRafraichissementRepository.revoquerUtilisateur(
+                    utilisateur.getId(), LocalDateTime.now(), MotifRevocation.DESACTIVATION);
+        }
+    }
+
+    /**
+     * Agrège les compteurs techniques de toutes les sources de métriques
+     */
+    public Map<String, Map<String, Object>> getMetriques() {
+        Map<String, Map<String, Object>> metriques = new LinkedHashMap<>();
+        sourcesMetriques.forEach(source -> metriques.put(source.getNom(), source.getMetriques()));
+        return metriques;
+    }
 }
@@ -2,19 +2,38 @@ package com.egggo.application.service;
 
 import com.egggo.api.dto.auth.AuthResponse;
 import com.egggo.api.dto.auth.LoginRequest;
+import com.egggo.api.dto.auth.RefreshTokenRequest;
 import com.egggo.api.dto.auth.RegisterRequest;
+import com.egggo.domain.event.UtilisateurInscritEvent;
 import com.egggo.domain.model.user.*;
 import com.egggo.domain.repository.ClientRepository;
+import com.egggo.domain.repository.JetonRafraichissementRepository;
 import com.egggo.domain.repository.LivreurRepository;
 import com.egggo.domain.repository.ProducteurRepository;
 import com.egggo.domain.repository.UtilisateurRepository;
+import com.egggo.security.ExecuteurHachage;
+import com.egggo.security.EggGoPrincipal;
 import com.egggo.security.JwtTokenProvider;
+import com.egggo.security.LimiteurConnexion;
+import com.egggo.security.ListeRevocation;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.security.authentication.BadCredentialsException;
-import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.UUID;
 
 /**
  * Service d'authentification
@@ -28,20 +47,28 @@ public class AuthService {
     private final ClientRepository clientRepository;
     private final LivreurRepository livreurRepository;
     private final ProducteurRepository producteurRepository;
-    private final PasswordEncoder passwordEncoder;
+    private final ExecuteurHachage executeurHachage;
+    private final LimiteurConnexion limiteurConnexion;
     private final JwtTokenProvider jwtTokenProvider;
+    private final JetonRafraichissementRepository jetonRafraichissementRepository;
+    private final ListeRevocation listeRevocation;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+
+    private static final SecureRandom RANDOM = new SecureRandom();
 
     /**
      * Authentifie un utilisateur et retourne un token JWT
+     * Volontairement hors transaction : aucune connexion n'est retenue pendant le hachage BCrypt
      */
-    @Transactional(readOnly = true)
     public AuthResponse login(LoginRequest request) {
         log.info("Tentative de connexion pour: {}", request.getTelephone());
+        limiteurConnexion.verifier(request.getTelephone());
 
         Utilisateur utilisateur = utilisateurRepository.findByTelephone(request.getTelephone())
                 .orElseThrow(() -> new BadCredentialsException("Identifiants invalides"));
 
-        if (!passwordEncoder.matches(request.getMotDePasse(), utilisateur.getMotDePasse())) {
+        if (!executeurHachage.matches(request.getMotDePasse(), utilisateur.getMotDePasse())) {
             throw new BadCredentialsException("Identifiants invalides");
         }
 
@@ -49,19 +76,22 @@ public class AuthService {
             throw new BadCredentialsException("Compte désactivé");
         }
 
-        String token = jwtTokenProvider.generateToken(utilisateur.getTelephone(), utilisateur.getRole().name());
+        AuthResponse response = emettreJetons(utilisateur, UUID.randomUUID().toString());
 
         log.info("Connexion réussie pour: {}", request.getTelephone());
 
-        return buildAuthResponse(utilisateur, token);
+        return response;
     }
 
     /**
      * Inscrit un nouvel utilisateur
+     * Le mot de passe est haché avant d'ouvrir la transaction d'enregistrement : comme pour la
+     * connexion, aucune connexion n'est retenue pendant le hachage BCrypt. Un numéro pris entre la
+     * vérification et l'enregistrement est refusé par la contrainte d'unicité (même réponse 400).
      */
-    @Transactional
     public AuthResponse register(RegisterRequest request) {
         log.info("Tentative d'inscription: {} - {}", request.getTelephone(), request.getRole());
+        limiteurConnexion.verifier(request.getTelephone());
 
         // Vérifier si le téléphone existe déjà
         if (utilisateurRepository.existsByTelephone(request.getTelephone())) {
@@ -73,9 +103,26 @@ public class AuthService {
             throw new IllegalArgumentException("Cet email est déjà utilisé");
         }
 
-        Utilisateur utilisateur;
-        String encodedPassword = passwordEncoder.encode(request.getMotDePasse());
+        String encodedPassword = executeurHachage.encode(request.getMotDePasse());
 
+        AuthResponse response;
+        try {
+            response = transactionTemplate.execute(statut -> {
+                Utilisateur utilisateur = creerUtilisateur(request, encodedPassword);
+                eventPublisher.publishEvent(UtilisateurInscritEvent.of(utilisateur));
+                return emettreJetons(utilisateur, UUID.randomUUID().toString());
+            });
+        } catch (DataIntegrityViolationException e) {
+            throw new IllegalArgumentException("Ce numéro de téléphone ou cet email est déjà utilisé");
+        }
+
+        log.info("Inscription réussie pour: {}", request.getTelephone());
+
+        return response;
+    }
+
+    private Utilisateur creerUtilisateur(RegisterRequest request, String encodedPassword) {
+        Utilisateur utilisateur;
         switch (request.getRole()) {
             case CLIENT -> {
                 Client client = Client.builder()
@@ -123,22 +170,123 @@ public class AuthService {
             }
             default -> throw new IllegalArgumentException("Rôle non supporté pour l'inscription");
         }
+        return utilisateur;
+    }
+
+    /**
+     * Échange un token de rafraîchissement contre une nouvelle paire de tokens (rotation)
+     * La présentation d'un token déjà consommé révoque toute sa famille
+     */
+    @Transactional(noRollbackFor = BadCredentialsException.class)
+    public AuthResponse refresh(RefreshTokenRequest request) {
+        JetonRafraichissement jeton = jetonRafraichissementRepository.findByEmpreinte(empreinte(request.getRefreshToken()))
+                .orElseThrow(() -> new BadCredentialsException("Token de rafraîchissement invalide"));
+
+        if (jeton.getRevoque()) {
+            if (jeton.getMotifRevocation() == MotifRevocation.ROTATION) {
+                revoquerFamille(jeton.getFamille(), MotifRevocation.REUTILISATION);
+                log.warn("Réutilisation d'un token de rafraîchissement pour l'utilisateur {}: famille révoquée",
+                        jeton.getUtilisateurId());
+            }
+            throw new BadCredentialsException("Token de rafraîchissement révoqué");
+        }
+        if (jeton.estExpire()) {
+            throw new BadCredentialsException("Token de rafraîchissement expiré");
+        }
 
-        String token = jwtTokenProvider.generateToken(utilisateur.getTelephone(), utilisateur.getRole().name());
+        // Révocation conditionnelle : si un appel concurrent a déjà consommé ce token, c'est une réutilisation
+        if (jetonRafraichissementRepository.revoquerSiActif(jeton.getId(), LocalDateTime.now(), MotifRevocation.ROTATION) == 0) {
+            revoquerFamille(jeton.getFamille(), MotifRevocation.REUTILISATION);
+            log.warn("Rafraîchissement concurrent pour l'utilisateur {}: famille révoquée", jeton.getUtilisateurId());
+            throw new BadCredentialsException("Token de rafraîchissement révoqué");
+        }
 
-        log.info("Inscription réussie pour: {}", request.getTelephone());
+        Utilisateur utilisateur = utilisateurRepository.findById(jeton.getUtilisateurId())
+                .orElseThrow(() -> new BadCredentialsException("Token de rafraîchissement invalide"));
+        if (!utilisateur.getActif()) {
+            throw new BadCredentialsException("Compte désactivé");
+        }
+
+        return emettreJetons(utilisateur, jeton.getFamille());
+    }
 
-        return buildAuthResponse(utilisateur, token);
+    /**
+     * Déconnecte l'utilisateur : révoque la famille du token de rafraîchissement
+     * et le token d'accès courant
+     */
+    @Transactional
+    public void logout(RefreshTokenRequest request) {
+        jetonRafraichissementRepository.findByEmpreinte(empreinte(request.getRefreshToken()))
+                .ifPresent(jeton -> revoquerFamille(jeton.getFamille(), MotifRevocation.DECONNEXION));
+
+        try {
+            EggGoPrincipal principal = EggGoPrincipal.current();
+            if (principal.getJti() != null) {
+                listeRevocation.revoquerJeton(principal.getJti());
+            }
+        } catch (IllegalStateException e) {
+            // Déconnexion sans token d'accès valide : seul le token de rafraîchissement est révoqué
+        }
+    }
+
+    /**
+     * Supprime chaque nuit les tokens de rafraîchissement expirés
+     */
+    @Scheduled(cron = "0 30 3 * * *")
+    @Transactional
+    public void purgerJetonsExpires() {
+        int supprimes = jetonRafraichissementRepository.supprimerExpires(LocalDateTime.now());
+        log.info("{} tokens de rafraîchissement expirés supprimés", supprimes);
+    }
+
+    /**
+     * Révoque une famille de tokens de rafraîchissement et les tokens d'accès émis avec eux
+     */
+    private void revoquerFamille(String famille, MotifRevocation motif) {
+        jetonRafraichissementRepository.revoquerFamille(famille, LocalDateTime.now(), motif);
+        jetonRafraichissementRepository.findJtiAccesByFamille(famille).forEach(listeRevocation::revoquerJeton);
+    }
+
+    /**
+     * Émet un token d'accès et un token de rafraîchissement (persisté sous forme d'empreinte)
+     */
+    private AuthResponse emettreJetons(Utilisateur utilisateur, String famille) {
+        String jti = UUID.randomUUID().toString();
+        String accessToken = jwtTokenProvider.generateToken(utilisateur, jti);
+
+        byte[] aleatoire = new byte[32];
+        RANDOM.nextBytes(aleatoire);
+        String refreshToken = Base64.getUrlEncoder().withoutPadding().encodeToString(aleatoire);
+
+        jetonRafraichissementRepository.save(JetonRafraichissement.builder()
+                .empreinte(empreinte(refreshToken))
+                .utilisateurId(utilisateur.getId())
+                .famille(famille)
+                .jtiAcces(jti)
+                .dateExpiration(LocalDateTime.now().plusNanos(jwtTokenProvider.getRefreshExpiration() * 1_000_000))
+                .build());
+
+        return buildAuthResponse(utilisateur, accessToken, refreshToken);
+    }
+
+    private static String empreinte(String token) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 indisponible", e);
+        }
     }
 
     /**
      * Construit la réponse d'authentification
      */
-    private AuthResponse buildAuthResponse(Utilisateur utilisateur, String token) {
+    private AuthResponse buildAuthResponse(Utilisateur utilisateur, String token, String refreshToken) {
         return AuthResponse.builder()
                 .accessToken(token)
+                .refreshToken(refreshToken)
                 .tokenType("Bearer")
-                .expiresIn(86400000L) // 24 heures en millisecondes
+                .expiresIn(jwtTokenProvider.getJwtExpiration())
                 .user(AuthResponse.UserInfo.builder()
                         .id(utilisateur.getId())
                         .nom(utilisateur.getNom())
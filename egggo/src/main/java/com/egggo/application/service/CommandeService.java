@@ -1,7 +1,11 @@
 package com.egggo.application.service;
 
+import com.egggo.api.dto.common.CursorPageResponse;
 import com.egggo.api.dto.order.CommandeDto;
 import com.egggo.api.dto.order.CreateCommandeRequest;
+import com.egggo.application.pagination.Curseur;
+import com.egggo.domain.event.CommandeAnnuleeEvent;
+import com.egggo.domain.event.CommandeCreeeEvent;
 import com.egggo.domain.model.common.Adresse;
 import com.egggo.domain.model.order.*;
 import com.egggo.domain.model.product.Produit;
@@ -11,12 +15,15 @@ import com.egggo.domain.repository.*;
 import jakarta.persistence.EntityNotFoundException;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.Pageable;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 /**
@@ -32,6 +39,9 @@ public class CommandeService {
     private final ProducteurRepository producteurRepository;
     private final ProduitRepository produitRepository;
     private final AdresseRepository adresseRepository;
+    private final StockService stockService;
+    private final ReservationStockService reservationStockService;
+    private final ApplicationEventPublisher eventPublisher;
 
     /**
      * Crée une nouvelle commande
@@ -80,13 +90,19 @@ public class CommandeService {
                 .fraisLivraison(500.0) // Frais de livraison par défaut
                 .build();
 
-        // Ajouter les lignes de commande
+        // Charger tous les produits du panier en une seule requête
+        SortedMap<Long, Integer> quantites = new TreeMap<>();
         for (CreateCommandeRequest.LigneCommandeRequest ligneRequest : request.getLignes()) {
-            Produit produit = produitRepository.findById(ligneRequest.getProduitId())
-                    .orElseThrow(() -> new EntityNotFoundException("Produit non trouvé: " + ligneRequest.getProduitId()));
+            quantites.merge(ligneRequest.getProduitId(), ligneRequest.getQuantite(), Integer::sum);
+        }
+        Map<Long, Produit> produits = produitRepository.findAllById(quantites.keySet()).stream()
+                .collect(Collectors.toMap(Produit::getId, Function.identity()));
 
-            if (produit.getQuantiteStock() < ligneRequest.getQuantite()) {
-                throw new IllegalArgumentException("Stock insuffisant pour le produit: " + produit.getNom());
+        // Ajouter les lignes de commande
+        for (CreateCommandeRequest.LigneCommandeRequest ligneRequest : request.getLignes()) {
+            Produit produit = produits.get(ligneRequest.getProduitId());
+            if (produit == null) {
+                throw new EntityNotFoundException("Produit non trouvé: " + ligneRequest.getProduitId());
             }
 
             LigneCommande ligne = LigneCommande.builder()
@@ -96,34 +112,47 @@ public class CommandeService {
                     .build();
 
             commande.ajouterLigne(ligne);
-
-            // Décrémenter le stock
-            produit.decrementerStock(ligneRequest.getQuantite());
-            produitRepository.save(produit);
         }
 
+        // Décrémenter le stock (mises à jour conditionnelles, tout ou rien)
+        stockService.retirer(quantites, produits);
+
         commande = commandeRepository.save(commande);
+
+        // Paiement mobile ou carte : stock retenu jusqu'à la confirmation du paiement
+        if (commande.getModePaiement().necessitePaiementImmediat()) {
+            reservationStockService.reserver(commande);
+        }
+        eventPublisher.publishEvent(CommandeCreeeEvent.of(commande));
         log.info("Commande créée: {} par client {}", commande.getReference(), clientId);
 
         return toCommandeDto(commande);
     }
 
     /**
-     * Récupère les commandes d'un client
+     * Récupère une page de commandes d'un client (pagination par curseur)
      */
     @Transactional(readOnly = true)
-    public Page<CommandeDto> getCommandesClient(Long clientId, Pageable pageable) {
-        return commandeRepository.findByClientIdOrderByDateCommandeDesc(clientId, pageable)
-                .map(this::toCommandeDto);
+    public CursorPageResponse<CommandeDto> getCommandesClient(Long clientId, String curseur, int taille, boolean avecTotal) {
+        Curseur position = Curseur.decroissant(curseur);
+        List<Commande> commandes = commandeRepository.findPageClient(
+                clientId, position.date(), position.id(), Curseur.limite(taille));
+        return CursorPageResponse.from(commandes, taille, this::toCommandeDto,
+                commande -> Curseur.apres(commande.getDateCommande(), commande.getId()),
+                avecTotal ? commandeRepository.countByClientId(clientId) : null);
     }
 
     /**
-     * Récupère les commandes d'un producteur
+     * Récupère une page de commandes d'un producteur (pagination par curseur)
      */
     @Transactional(readOnly = true)
-    public Page<CommandeDto> getCommandesProducteur(Long producteurId, Pageable pageable) {
-        return commandeRepository.findByProducteurIdOrderByDateCommandeDesc(producteurId, pageable)
-                .map(this::toCommandeDto);
+    public CursorPageResponse<CommandeDto> getCommandesProducteur(Long producteurId, String curseur, int taille, boolean avecTotal) {
+        Curseur position = Curseur.decroissant(curseur);
+        List<Commande> commandes = commandeRepository.findPageProducteur(
+                producteurId, position.date(), position.id(), Curseur.limite(taille));
+        return CursorPageResponse.from(commandes, taille, this::toCommandeDto,
+                commande -> Curseur.apres(commande.getDateCommande(), commande.getId()),
+                avecTotal ? commandeRepository.countByProducteurId(producteurId) : null);
     }
 
     /**
@@ -179,14 +208,13 @@ public class CommandeService {
         commande.setStatut(StatutCommande.ANNULEE);
         commande.setNotes(raison);
 
-        // Restaurer le stock
-        for (LigneCommande ligne : commande.getLignes()) {
-            Produit produit = ligne.getProduit();
-            produit.incrementerStock(ligne.getQuantite());
-            produitRepository.save(produit);
+        // Restaurer le stock (sauf s'il l'a déjà été à l'expiration de la réservation)
+        if (reservationStockService.clore(commande.getId())) {
+            stockService.restituer(commande.getLignes());
         }
 
         commande = commandeRepository.save(commande);
+        eventPublisher.publishEvent(CommandeAnnuleeEvent.of(commande));
         log.info("Commande annulée: {} - Raison: {}", commande.getReference(), raison);
 
         return toCommandeDto(commande);
@@ -1,6 +1,9 @@
 package com.egggo.application.service;
 
 import com.egggo.api.dto.livreur.LivraisonDto;
+import com.egggo.application.dispatch.IndexLivreurs;
+import com.egggo.domain.event.LivraisonAssigneeEvent;
+import com.egggo.domain.event.LivreurModifieEvent;
 import com.egggo.domain.model.delivery.Livraison;
 import com.egggo.domain.model.delivery.StatutLivraison;
 import com.egggo.domain.model.order.Commande;
@@ -9,9 +12,12 @@ import com.egggo.domain.model.user.Livreur;
 import com.egggo.domain.repository.CommandeRepository;
 import com.egggo.domain.repository.LivraisonRepository;
 import com.egggo.domain.repository.LivreurRepository;
+import com.egggo.infrastructure.geo.Geodesie;
+import com.egggo.infrastructure.geo.GrilleSpatiale;
 import jakarta.persistence.EntityNotFoundException;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -26,9 +32,15 @@ import java.util.List;
 @Slf4j
 public class LivraisonService {
 
+    private static final double RAYON_RECHERCHE_KM = 10.0;
+    private static final int CANDIDATS_MAX = 10;
+    private static final double DISTANCE_DEFAUT_KM = 5.0;
+
     private final LivraisonRepository livraisonRepository;
     private final CommandeRepository commandeRepository;
     private final LivreurRepository livreurRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final IndexLivreurs indexLivreurs;
 
     /**
      * Crée une livraison pour une commande
@@ -46,26 +58,56 @@ public class LivraisonService {
             throw new IllegalStateException("Une livraison existe déjà pour cette commande");
         }
 
+        // Mettre à jour le statut de la commande
+        commande.mettreAJourStatut(StatutCommande.EN_PREPARATION);
+        commandeRepository.save(commande);
+
+        Livraison livraison = affecter(commande, livreur);
+        log.info("Livraison créée: {} pour commande {} avec livreur {}", livraison.getId(), commandeId, livreurId);
+
+        return toLivraisonDto(livraison);
+    }
+
+    /**
+     * Crée la livraison d'une commande pour un livreur, avec distance et durée estimées
+     * depuis la position du livreur (passage par la ferme puis chez le client)
+     */
+    public Livraison affecter(Commande commande, Livreur livreur) {
+        Double distance = calculerDistance(livreur, commande);
         Livraison livraison = Livraison.builder()
                 .commande(commande)
                 .livreur(livreur)
                 .statut(StatutLivraison.ASSIGNEE)
                 .dateAssignation(LocalDateTime.now())
+                .distanceKm(distance)
+                .tempsEstime(estimerTemps(distance))
                 .build();
-
-        // Calculer la distance estimée
-        Double distance = calculerDistance(livreur, commande);
-        livraison.setDistanceKm(distance);
-        livraison.setTempsEstime(estimerTemps(distance));
-
-        // Mettre à jour le statut de la commande
-        commande.mettreAJourStatut(StatutCommande.EN_PREPARATION);
-        commandeRepository.save(commande);
-
         livraison = livraisonRepository.save(livraison);
-        log.info("Livraison créée: {} pour commande {} avec livreur {}", livraison.getId(), commandeId, livreurId);
+        eventPublisher.publishEvent(LivraisonAssigneeEvent.of(livraison));
+        return livraison;
+    }
 
-        return toLivraisonDto(livraison);
+    /**
+     * Affectation décidée par la répartition automatique, revérifiée en base
+     * Retourne false si la commande a été affectée ou n'est plus prête, ou si le livreur n'est plus
+     * assignable. La ligne de la commande est verrouillée : une affectation manuelle simultanée
+     * attend la fin de celle-ci et voit la livraison créée.
+     */
+    @Transactional
+    public boolean affecterAutomatiquement(Long commandeId, Long livreurId) {
+        Commande commande = commandeRepository.verrouiller(commandeId).orElse(null);
+        if (commande == null
+                || commande.getStatut() != StatutCommande.PRETE
+                || livraisonRepository.findByCommandeId(commandeId).isPresent()) {
+            return false;
+        }
+        Livreur livreur = livreurRepository.findById(livreurId).orElse(null);
+        if (livreur == null || !LivreurModifieEvent.estAssignable(livreur)) {
+            return false;
+        }
+        Livraison livraison = affecter(commande, livreur);
+        log.info("Livraison {} affectée automatiquement: commande {}, livreur {}", livraison.getId(), commandeId, livreurId);
+        return true;
     }
 
     /**
@@ -93,9 +135,21 @@ public class LivraisonService {
                     .orElse(null);
         }
 
-        // Chercher les livreurs à proximité (dans un rayon de 10km)
+        // Index spatial en mémoire ; chaque candidat est revérifié en base avant d'être retenu
+        if (indexLivreurs.isPret()) {
+            for (GrilleSpatiale.Voisin voisin : indexLivreurs.plusProches(
+                    latitudeDestination, longitudeDestination, CANDIDATS_MAX, RAYON_RECHERCHE_KM)) {
+                Livreur livreur = livreurRepository.findById(voisin.id()).orElse(null);
+                if (livreur != null && LivreurModifieEvent.estAssignable(livreur)) {
+                    return livreur;
+                }
+            }
+            return null;
+        }
+
+        // Démarrage à froid : recherche SQL des livreurs à proximité
         List<Livreur> livreursProches = livreurRepository.findLivreursProches(
-                latitudeDestination, longitudeDestination, 10.0);
+                latitudeDestination, longitudeDestination, RAYON_RECHERCHE_KM);
 
         return livreursProches.stream()
                 .filter(Livreur::getValide)
@@ -104,31 +158,22 @@ public class LivraisonService {
     }
 
     /**
-     * Calcule la distance entre le livreur et l'adresse de livraison
+     * Calcule la distance du trajet du livreur : jusqu'à la ferme, puis jusqu'à l'adresse de livraison
      */
     private Double calculerDistance(Livreur livreur, Commande commande) {
-        if (livreur.getLatitude() == null || livreur.getLongitude() == null) {
-            return 5.0; // Distance par défaut
+        Double latClient = commande.getAdresseLivraison().getLatitude();
+        Double lonClient = commande.getAdresseLivraison().getLongitude();
+        if (livreur.getLatitude() == null || livreur.getLongitude() == null || latClient == null || lonClient == null) {
+            return DISTANCE_DEFAUT_KM;
         }
 
-        Double lat1 = livreur.getLatitude();
-        Double lon1 = livreur.getLongitude();
-        Double lat2 = commande.getAdresseLivraison().getLatitude();
-        Double lon2 = commande.getAdresseLivraison().getLongitude();
-
-        if (lat2 == null || lon2 == null) {
-            return 5.0; // Distance par défaut
+        Double latFerme = commande.getProducteur().getLatitude();
+        Double lonFerme = commande.getProducteur().getLongitude();
+        if (latFerme == null || lonFerme == null) {
+            return Geodesie.distanceKm(livreur.getLatitude(), livreur.getLongitude(), latClient, lonClient);
         }
-
-        // Formule de Haversine pour calculer la distance
-        double R = 6371; // Rayon de la Terre en km
-        double dLat = Math.toRadians(lat2 - lat1);
-        double dLon = Math.toRadians(lon2 - lon1);
-        double a = Math.sin(dLat / 2) * Math.sin(dLat / 2) +
-                   Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2)) *
-                   Math.sin(dLon / 2) * Math.sin(dLon / 2);
-        double c = 2 * Math.atan2(Math.sqrt(a), Math.sqrt(1 - a));
-        return R * c;
+        return Geodesie.distanceKm(livreur.getLatitude(), livreur.getLongitude(), latFerme, lonFerme)
+                + Geodesie.distanceKm(latFerme, lonFerme, latClient, lonClient);
     }
 
     /**
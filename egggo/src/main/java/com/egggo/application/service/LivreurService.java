@@ -1,8 +1,16 @@
 package com.egggo.application.service;
 
+import com.egggo.api.dto.common.CursorPageResponse;
+import com.egggo.api.exception.TropDeRequetesException;
 import com.egggo.api.dto.livreur.LivraisonDto;
 import com.egggo.api.dto.livreur.LivreurDashboardDto;
 import com.egggo.api.dto.livreur.UpdatePositionRequest;
+import com.egggo.application.dispatch.PlanificateurTournees;
+import com.egggo.application.pagination.Curseur;
+import com.egggo.application.suivi.IngestionPositions;
+import com.egggo.application.suivi.Trajectoires;
+import com.egggo.domain.event.LivraisonTermineeEvent;
+import com.egggo.domain.event.LivreurModifieEvent;
 import com.egggo.domain.model.delivery.Livraison;
 import com.egggo.domain.model.delivery.StatutLivraison;
 import com.egggo.domain.model.order.Commande;
@@ -14,6 +22,7 @@ import com.egggo.domain.repository.LivreurRepository;
 import jakarta.persistence.EntityNotFoundException;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -34,6 +43,10 @@ public class LivreurService {
     private final LivreurRepository livreurRepository;
     private final LivraisonRepository livraisonRepository;
     private final CommandeRepository commandeRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final IngestionPositions ingestionPositions;
+    private final Trajectoires trajectoires;
+    private final PlanificateurTournees planificateurTournees;
 
     /**
      * Récupère le tableau de bord d'un livreur
@@ -124,16 +137,12 @@ public class LivreurService {
 
     /**
      * Met à jour la position GPS du livreur
+     * Le relevé passe par la file d'ingestion : index des livreurs mis à jour aussitôt, base par lots.
      */
-    @Transactional
     public void updatePosition(Long livreurId, UpdatePositionRequest request) {
-        Livreur livreur = livreurRepository.findById(livreurId)
-                .orElseThrow(() -> new EntityNotFoundException("Livreur non trouvé"));
-
-        livreur.mettreAJourPosition(request.getLatitude(), request.getLongitude());
-        livreurRepository.save(livreur);
-
-        log.debug("Position mise à jour pour livreur {}: {}, {}", livreurId, request.getLatitude(), request.getLongitude());
+        if (!ingestionPositions.soumettre(livreurId, request.getLatitude(), request.getLongitude())) {
+            throw new TropDeRequetesException("Trop de positions en attente, veuillez réessayer", 1);
+        }
     }
 
     /**
@@ -146,26 +155,37 @@ public class LivreurService {
 
         livreur.setDisponible(disponible);
         livreurRepository.save(livreur);
+        eventPublisher.publishEvent(LivreurModifieEvent.of(livreur));
 
         log.info("Disponibilité mise à jour pour livreur {}: {}", livreurId, disponible);
     }
 
     /**
-     * Récupère les livraisons d'un livreur
+     * Récupère une page de livraisons d'un livreur, éventuellement filtrées par statut (pagination par curseur)
      */
     @Transactional(readOnly = true)
-    public List<LivraisonDto> getLivraisons(Long livreurId, String statut) {
+    public CursorPageResponse<LivraisonDto> getLivraisons(Long livreurId, String statut, String curseur,
+                                                          int taille, boolean avecTotal) {
+        Curseur position = Curseur.decroissant(curseur);
         List<Livraison> livraisons;
+        Long total = null;
         if (statut != null && !statut.isEmpty()) {
             StatutLivraison statutEnum = StatutLivraison.valueOf(statut.toUpperCase());
-            livraisons = livraisonRepository.findByLivreurIdAndStatutIn(livreurId, List.of(statutEnum));
+            livraisons = livraisonRepository.findPageLivreurParStatut(livreurId, statutEnum,
+                    position.date(), position.id(), Curseur.limite(taille));
+            if (avecTotal) {
+                total = livraisonRepository.countByLivreurIdAndStatut(livreurId, statutEnum);
+            }
         } else {
-            livraisons = livraisonRepository.findByLivreurIdOrderByDateAssignationDesc(livreurId);
+            livraisons = livraisonRepository.findPageLivreur(livreurId,
+                    position.date(), position.id(), Curseur.limite(taille));
+            if (avecTotal) {
+                total = livraisonRepository.countByLivreurId(livreurId);
+            }
         }
 
-        return livraisons.stream()
-                .map(this::toLivraisonDto)
-                .collect(Collectors.toList());
+        return CursorPageResponse.from(livraisons, taille, this::toLivraisonDto,
+                livraison -> Curseur.apres(livraison.getDateAssignation(), livraison.getId()), total);
     }
 
     /**
@@ -255,6 +275,7 @@ public class LivreurService {
         livreurRepository.save(livreur);
 
         livraison = livraisonRepository.save(livraison);
+        eventPublisher.publishEvent(LivraisonTermineeEvent.of(livraison));
         log.info("Livraison {} confirmée par livreur {}", livraisonId, livreurId);
 
         return toLivraisonDto(livraison);
@@ -272,10 +293,15 @@ public class LivreurService {
             throw new IllegalArgumentException("Cette livraison n'est pas assignée à ce livreur");
         }
 
+        boolean dejaTerminee = livraison.getStatut() == StatutLivraison.LIVREE
+                || livraison.getStatut() == StatutLivraison.ECHOUEE;
         livraison.setStatut(StatutLivraison.ECHOUEE);
         livraison.setNotes(description);
 
         livraison = livraisonRepository.save(livraison);
+        if (!dejaTerminee) {
+            eventPublisher.publishEvent(LivraisonTermineeEvent.of(livraison));
+        }
         log.warn("Problème signalé pour livraison {} par livreur {}: {}", livraisonId, livreurId, description);
 
         return toLivraisonDto(livraison);
@@ -296,8 +322,34 @@ public class LivreurService {
         Livreur livreur = livraison.getLivreur();
         Commande commande = livraison.getCommande();
 
-        // Dans une vraie application, on appellerait un service de cartographie (Google Maps, etc.)
-        // Pour l'instant, on retourne les coordonnées de départ et d'arrivée
+        // Points : trajet déjà parcouru, décodé depuis la trajectoire compressée
+        List<LivraisonDto.ItineraireDto.PointDto> parcours = trajectoires.lire(livraisonId).stream()
+                .map(point -> LivraisonDto.ItineraireDto.PointDto.builder()
+                        .latitude(point.latitude())
+                        .longitude(point.longitude())
+                        .build())
+                .collect(Collectors.toList());
+
+        // Arrêts : tournée optimisée de toutes les livraisons actives du livreur
+        LocalDateTime maintenant = LocalDateTime.now();
+        List<PlanificateurTournees.Etape> etapes = planificateurTournees.planifier(livreur);
+        List<LivraisonDto.ItineraireDto.ArretDto> arrets = new ArrayList<>(etapes.size());
+        for (PlanificateurTournees.Etape etape : etapes) {
+            Commande commandeEtape = etape.livraison().getCommande();
+            arrets.add(LivraisonDto.ItineraireDto.ArretDto.builder()
+                    .ordre(arrets.size() + 1)
+                    .type(etape.retrait() ? "RETRAIT" : "DEPOT")
+                    .livraisonId(etape.livraison().getId())
+                    .commandeRef(commandeEtape.getReference())
+                    .latitude(etape.latitude())
+                    .longitude(etape.longitude())
+                    .label(etape.retrait() ? commandeEtape.getProducteur().getNomFerme() : formatAdresse(commandeEtape))
+                    .distanceKm(Math.round(etape.distanceCumuleeKm() * 100.0) / 100.0)
+                    .minutes(etape.minutesCumulees())
+                    .heureEstimee(maintenant.plusMinutes(etape.minutesCumulees()))
+                    .build());
+        }
+
         return LivraisonDto.ItineraireDto.builder()
                 .depart(LivraisonDto.ItineraireDto.PointDto.builder()
                         .latitude(livreur.getLatitude())
@@ -309,9 +361,10 @@ public class LivreurService {
                         .longitude(commande.getAdresseLivraison().getLongitude())
                         .label(formatAdresse(commande))
                         .build())
-                .points(new ArrayList<>()) // Serait rempli par le service de cartographie
+                .points(parcours)
                 .distanceTotale(livraison.getDistanceKm())
                 .dureeEstimee(livraison.getTempsEstime())
+                .arrets(arrets)
                 .build();
     }
 
@@ -8,8 +8,10 @@ import com.egggo.domain.model.order.ModePaiement;
 import com.egggo.domain.model.order.StatutCommande;
 import com.egggo.domain.model.payment.Paiement;
 import com.egggo.domain.model.payment.StatutPaiement;
+import com.egggo.domain.model.product.StatutReservation;
 import com.egggo.domain.repository.CommandeRepository;
 import com.egggo.domain.repository.PaiementRepository;
+import com.egggo.infrastructure.id.GenerateurIdentifiants;
 import jakarta.persistence.EntityNotFoundException;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -18,8 +20,6 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.List;
-import java.util.Random;
-import java.util.UUID;
 import java.util.stream.Collectors;
 
 /**
@@ -32,10 +32,13 @@ import java.util.stream.Collectors;
 @Slf4j
 public class PaiementService {
 
+    static final String NOTE_REMBOURSEMENT =
+            "Paiement reçu après l'expiration de la réservation de stock : remboursement à effectuer";
+
     private final PaiementRepository paiementRepository;
     private final CommandeRepository commandeRepository;
-    
-    private final Random random = new Random();
+    private final ReservationStockService reservationStockService;
+    private final GenerateurIdentifiants generateurIdentifiants;
 
     /**
      * Initie un paiement mobile money (SIMULATION)
@@ -89,6 +92,8 @@ public class PaiementService {
     /**
      * Confirme un paiement (SIMULATION du callback opérateur)
      * Utilise le code OTP pour simuler différents scénarios
+     * Un paiement réussi est toujours enregistré : si le stock réservé a déjà été restitué,
+     * la commande reste annulée, marquée payée et à rembourser.
      */
     @Transactional
     public PaiementResponse confirmerPaiement(ConfirmerPaiementRequest request) {
@@ -113,10 +118,18 @@ public class PaiementService {
                 nouveauStatut = StatutPaiement.REUSSI;
                 messageOperateur = simulerMessageSucces(paiement);
                 
-                // Mettre à jour la commande
+                // L'opérateur a débité le client : le paiement est enregistré dans tous les cas
                 Commande commande = paiement.getCommande();
                 commande.setPaye(true);
-                commande.setStatut(StatutCommande.CONFIRMEE);
+                if (reservationStockService.convertir(commande.getId())) {
+                    commande.setStatut(StatutCommande.CONFIRMEE);
+                } else {
+                    // Stock déjà restitué (réservation expirée ou libérée) : commande annulée
+                    // et payée, à rembourser après revue manuelle
+                    commande.setNotes(NOTE_REMBOURSEMENT);
+                    log.error("Paiement {} reçu après la libération du stock de la commande {}: remboursement à effectuer",
+                            paiement.getReference(), commande.getReference());
+                }
                 commandeRepository.save(commande);
                 
                 log.info("✅ [SIMULATION] Paiement RÉUSSI: {}", paiement.getReference());
@@ -148,6 +161,12 @@ public class PaiementService {
         paiement.setDatePaiement(LocalDateTime.now());
         paiement = paiementRepository.save(paiement);
 
+        // Paiement expiré ou annulé : le stock réservé est restitué
+        if (nouveauStatut == StatutPaiement.EXPIRE || nouveauStatut == StatutPaiement.ANNULE) {
+            reservationStockService.liberer(paiement.getCommande().getId(), StatutReservation.LIBEREE,
+                    "Paiement " + nouveauStatut.getLibelle().toLowerCase());
+        }
+
         return toPaiementResponse(paiement, messageOperateur);
     }
 
@@ -199,6 +218,7 @@ public class PaiementService {
         paiement.setStatut(StatutPaiement.ANNULE);
         paiement.setDatePaiement(LocalDateTime.now());
         paiement = paiementRepository.save(paiement);
+        reservationStockService.liberer(paiement.getCommande().getId(), StatutReservation.LIBEREE, "Paiement annulé");
 
         log.info("🚫 [SIMULATION] Paiement annulé: {}", paiement.getReference());
 
@@ -208,7 +228,7 @@ public class PaiementService {
     // ==================== MÉTHODES DE SIMULATION ====================
 
     /**
-     * Génère une référence de paiement unique
+     * Génère une référence de paiement unique, ordonnée dans le temps
      */
     private String genererReference(ModePaiement mode) {
         String prefix = switch (mode) {
@@ -217,7 +237,7 @@ public class PaiementService {
             case CASH_LIVRAISON -> "CASH";
             default -> "PAY";
         };
-        return prefix + "-" + System.currentTimeMillis() + "-" + random.nextInt(1000);
+        return prefix + "-" + generateurIdentifiants.prochainTexte();
     }
 
     /**
@@ -225,9 +245,9 @@ public class PaiementService {
      */
     private String genererTransactionId(ModePaiement mode) {
         return switch (mode) {
-            case ORANGE_MONEY -> "CM.OM." + UUID.randomUUID().toString().substring(0, 12).toUpperCase();
-            case MTN_MOMO -> "MOMO" + System.currentTimeMillis() + random.nextInt(10000);
-            default -> UUID.randomUUID().toString();
+            case ORANGE_MONEY -> "CM.OM." + generateurIdentifiants.prochainTexte();
+            case MTN_MOMO -> "MOMO" + generateurIdentifiants.prochain();
+            default -> "TX-" + generateurIdentifiants.prochainTexte();
         };
     }
 
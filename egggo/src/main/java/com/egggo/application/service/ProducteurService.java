@@ -1,31 +1,38 @@
 package com.egggo.application.service;
 
+import com.egggo.api.dto.common.CursorPageResponse;
 import com.egggo.api.dto.order.CommandeDto;
 import com.egggo.api.dto.product.ProduitDto;
 import com.egggo.api.dto.producteur.ProducteurDashboardDto;
 import com.egggo.api.dto.product.CreateProduitRequest;
+import com.egggo.api.dto.producteur.UpdateProfilRequest;
 import com.egggo.api.dto.producteur.UpdateStockRequest;
 import com.egggo.api.dto.user.LivreurDto;
+import com.egggo.api.dto.user.ProducteurDto;
+import com.egggo.application.dispatch.MoteurDispatch;
+import com.egggo.application.pagination.Curseur;
+import com.egggo.domain.event.CommandeAnnuleeEvent;
+import com.egggo.domain.event.ProducteurModifieEvent;
+import com.egggo.domain.event.ProduitsModifiesEvent;
 import com.egggo.domain.model.order.Commande;
-import com.egggo.domain.model.order.LigneCommande;
 import com.egggo.domain.model.order.StatutCommande;
 import com.egggo.domain.model.product.Produit;
 import com.egggo.domain.model.user.Livreur;
 import com.egggo.domain.model.user.Producteur;
 import com.egggo.domain.repository.*;
 import com.egggo.domain.model.delivery.Livraison;
-import com.egggo.domain.model.delivery.StatutLivraison;
 import jakarta.persistence.EntityNotFoundException;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.Pageable;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 import java.util.stream.Collectors;
 
 /**
@@ -42,6 +49,11 @@ public class ProducteurService {
     private final LivreurRepository livreurRepository;
     private final CategorieRepository categorieRepository;
     private final LivraisonRepository livraisonRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final StockService stockService;
+    private final ReservationStockService reservationStockService;
+    private final LivraisonService livraisonService;
+    private final MoteurDispatch moteurDispatch;
 
     /**
      * Récupère le tableau de bord d'un producteur
@@ -73,8 +85,9 @@ public class ProducteurService {
                 .count();
 
         // Commandes récentes
+        Curseur debut = Curseur.decroissant(null);
         List<ProducteurDashboardDto.CommandeResumeDto> commandesRecentes = commandeRepository
-                .findByProducteurIdOrderByDateCommandeDesc(producteurId, Pageable.ofSize(5))
+                .findPageProducteur(producteurId, debut.date(), debut.id(), PageRequest.ofSize(5))
                 .stream()
                 .map(c -> ProducteurDashboardDto.CommandeResumeDto.builder()
                         .id(c.getId())
@@ -110,6 +123,46 @@ public class ProducteurService {
                 .build();
     }
 
+    /**
+     * Met à jour le profil de la ferme ; les produits en cache et les index de recherche
+     * qui reprennent ces informations sont rafraîchis après commit
+     */
+    @Transactional
+    public ProducteurDto updateProfil(Long producteurId, UpdateProfilRequest request) {
+        Producteur producteur = producteurRepository.findById(producteurId)
+                .orElseThrow(() -> new EntityNotFoundException("Producteur non trouvé"));
+
+        if (request.getNomFerme() != null) producteur.setNomFerme(request.getNomFerme());
+        if (request.getDescription() != null) producteur.setDescription(request.getDescription());
+        if (request.getAdresseFerme() != null) producteur.setAdresseFerme(request.getAdresseFerme());
+        if (request.getLatitude() != null) producteur.setLatitude(request.getLatitude());
+        if (request.getLongitude() != null) producteur.setLongitude(request.getLongitude());
+        if (request.getLogoFerme() != null) producteur.setLogoFerme(request.getLogoFerme());
+
+        producteur = producteurRepository.save(producteur);
+        eventPublisher.publishEvent(new ProducteurModifieEvent(producteurId));
+        log.info("Profil du producteur {} mis à jour", producteurId);
+
+        return ProducteurDto.builder()
+                .id(producteur.getId())
+                .nom(producteur.getNom())
+                .prenom(producteur.getPrenom())
+                .telephone(producteur.getTelephone())
+                .email(producteur.getEmail())
+                .nomFerme(producteur.getNomFerme())
+                .description(producteur.getDescription())
+                .adresseFerme(producteur.getAdresseFerme())
+                .latitude(producteur.getLatitude())
+                .longitude(producteur.getLongitude())
+                .logoFerme(producteur.getLogoFerme())
+                .certifie(producteur.getCertifie())
+                .valide(producteur.getValide())
+                .noteMoyenne(producteur.getNoteMoyenne())
+                .nombreVentes(producteur.getNombreVentes())
+                .dateCreation(producteur.getDateCreation())
+                .build();
+    }
+
     /**
      * Récupère les produits d'un producteur
      */
@@ -145,6 +198,7 @@ public class ProducteurService {
                 .build();
 
         produit = produitRepository.save(produit);
+        eventPublisher.publishEvent(ProduitsModifiesEvent.of(produit.getId()));
         log.info("Produit créé: {} par producteur {}", produit.getNom(), producteurId);
 
         return toProduitDto(produit);
@@ -176,6 +230,7 @@ public class ProducteurService {
         }
 
         produit = produitRepository.save(produit);
+        eventPublisher.publishEvent(ProduitsModifiesEvent.of(produitId));
         log.info("Produit mis à jour: {}", produit.getNom());
 
         return toProduitDto(produit);
@@ -193,23 +248,27 @@ public class ProducteurService {
             throw new IllegalArgumentException("Ce produit n'appartient pas à ce producteur");
         }
 
-        int nouveauStock;
         switch (request.getOperation()) {
             case ADD:
-                nouveauStock = produit.getQuantiteStock() + request.getQuantite();
+                // Mise à jour atomique : ne pas écraser les ventes concurrentes
+                produitRepository.ajusterStock(produitId, request.getQuantite());
+                produit = produitRepository.findById(produitId)
+                        .orElseThrow(() -> new EntityNotFoundException("Produit non trouvé"));
                 break;
             case REMOVE:
-                nouveauStock = Math.max(0, produit.getQuantiteStock() - request.getQuantite());
+                produitRepository.ajusterStock(produitId, -request.getQuantite());
+                produit = produitRepository.findById(produitId)
+                        .orElseThrow(() -> new EntityNotFoundException("Produit non trouvé"));
                 break;
             case SET:
             default:
-                nouveauStock = request.getQuantite();
+                produit.setQuantiteStock(request.getQuantite());
+                produit.setDisponible(request.getQuantite() > 0);
+                produit = produitRepository.save(produit);
                 break;
         }
-
-        produit.setQuantiteStock(nouveauStock);
-        produit.setDisponible(nouveauStock > 0);
-        produit = produitRepository.save(produit);
+        int nouveauStock = produit.getQuantiteStock();
+        eventPublisher.publishEvent(ProduitsModifiesEvent.of(produitId));
 
         log.info("Stock mis à jour pour produit {}: {}", produitId, nouveauStock);
 
@@ -230,6 +289,7 @@ public class ProducteurService {
 
         produit.setDisponible(!produit.getDisponible());
         produit = produitRepository.save(produit);
+        eventPublisher.publishEvent(ProduitsModifiesEvent.of(produitId));
 
         return toProduitDto(produit);
     }
@@ -247,23 +307,36 @@ public class ProducteurService {
         }
 
         produitRepository.delete(produit);
+        eventPublisher.publishEvent(ProduitsModifiesEvent.of(produitId));
         log.info("Produit supprimé: {}", produitId);
     }
 
     /**
-     * Récupère les commandes d'un producteur
+     * Récupère une page de commandes d'un producteur, éventuellement filtrées par statut (pagination par curseur)
      */
     @Transactional(readOnly = true)
-    public Page<CommandeDto> getCommandes(Long producteurId, String statut, Pageable pageable) {
-        Page<Commande> commandes;
+    public CursorPageResponse<CommandeDto> getCommandes(Long producteurId, String statut, String curseur,
+                                                        int taille, boolean avecTotal) {
+        Curseur position = Curseur.decroissant(curseur);
+        List<Commande> commandes;
+        Long total = null;
         if (statut != null && !statut.isEmpty()) {
             StatutCommande statutEnum = StatutCommande.valueOf(statut.toUpperCase());
-            commandes = commandeRepository.findByProducteurIdAndStatutOrderByDateCommandeDesc(producteurId, statutEnum, pageable);
+            commandes = commandeRepository.findPageProducteurParStatut(producteurId, statutEnum,
+                    position.date(), position.id(), Curseur.limite(taille));
+            if (avecTotal) {
+                total = commandeRepository.countByProducteurIdAndStatut(producteurId, statutEnum);
+            }
         } else {
-            commandes = commandeRepository.findByProducteurIdOrderByDateCommandeDesc(producteurId, pageable);
+            commandes = commandeRepository.findPageProducteur(producteurId,
+                    position.date(), position.id(), Curseur.limite(taille));
+            if (avecTotal) {
+                total = commandeRepository.countByProducteurId(producteurId);
+            }
         }
 
-        return commandes.map(this::toCommandeDto);
+        return CursorPageResponse.from(commandes, taille, this::toCommandeDto,
+                commande -> Curseur.apres(commande.getDateCommande(), commande.getId()), total);
     }
 
     /**
@@ -307,14 +380,13 @@ public class ProducteurService {
         commande.setStatut(StatutCommande.ANNULEE);
         commande.setNotes(raison);
 
-        // Restaurer le stock
-        for (LigneCommande ligne : commande.getLignes()) {
-            Produit produit = ligne.getProduit();
-            produit.incrementerStock(ligne.getQuantite());
-            produitRepository.save(produit);
+        // Restaurer le stock (sauf s'il l'a déjà été à l'expiration de la réservation)
+        if (reservationStockService.clore(commande.getId())) {
+            stockService.restituer(commande.getLignes());
         }
 
         commande = commandeRepository.save(commande);
+        eventPublisher.publishEvent(CommandeAnnuleeEvent.of(commande));
         log.info("Commande annulée: {} par producteur {} - Raison: {}", commande.getReference(), producteurId, raison);
 
         return toCommandeDto(commande);
@@ -346,10 +418,12 @@ public class ProducteurService {
 
     /**
      * Assigne un livreur à une commande et crée la livraison correspondante
+     * La ligne de la commande est verrouillée, comme dans l'affectation automatique : aucune autre
+     * livraison ne peut être créée entre la vérification et l'insertion.
      */
     @Transactional
     public CommandeDto assignerLivreur(Long producteurId, Long commandeId, Long livreurId) {
-        Commande commande = commandeRepository.findById(commandeId)
+        Commande commande = commandeRepository.verrouiller(commandeId)
                 .orElseThrow(() -> new EntityNotFoundException("Commande non trouvée"));
 
         if (!commande.getProducteur().getId().equals(producteurId)) {
@@ -359,18 +433,14 @@ public class ProducteurService {
         Livreur livreur = livreurRepository.findById(livreurId)
                 .orElseThrow(() -> new EntityNotFoundException("Livreur non trouvé"));
 
-        // Vérifier si une livraison existe déjà
-        if (livraisonRepository.findByCommandeId(commandeId).isEmpty()) {
-            // Créer la livraison pour le livreur
-            Livraison livraison = Livraison.builder()
-                    .commande(commande)
-                    .livreur(livreur)
-                    .statut(StatutLivraison.ASSIGNEE)
-                    .dateAssignation(java.time.LocalDateTime.now())
-                    .distanceKm(5.0) // Distance par défaut
-                    .tempsEstime(30) // 30 minutes par défaut
-                    .build();
-            livraisonRepository.save(livraison);
+        // Une livraison existante n'est reprise que pour le même livreur (répétition de la requête)
+        Optional<Livraison> existante = livraisonRepository.findByCommandeId(commandeId);
+        if (existante.isPresent() && !existante.get().getLivreur().getId().equals(livreurId)) {
+            throw new IllegalStateException("Un autre livreur est déjà assigné à cette commande");
+        }
+        if (existante.isEmpty()) {
+            // Créer la livraison pour le livreur (distance et durée estimées depuis sa position)
+            livraisonService.affecter(commande, livreur);
             log.info("Livraison créée pour commande {} avec livreur {}", commandeId, livreurId);
         }
 
@@ -384,6 +454,7 @@ public class ProducteurService {
 
     /**
      * Marque une commande comme prête (le livreur peut maintenant la récupérer)
+     * Sans livreur assigné, la commande est laissée à la répartition automatique si elle est active.
      */
     @Transactional
     public CommandeDto marquerPrete(Long producteurId, Long commandeId) {
@@ -394,13 +465,19 @@ public class ProducteurService {
             throw new IllegalArgumentException("Cette commande n'appartient pas à ce producteur");
         }
 
+        boolean sansLivreur = livraisonRepository.findByCommandeId(commandeId).isEmpty();
+        if (sansLivreur && commande.getStatut() == StatutCommande.CONFIRMEE && moteurDispatch.isActif()) {
+            // Préparée sans livreur : la répartition automatique prendra la commande une fois prête
+            commande.mettreAJourStatut(StatutCommande.EN_PREPARATION);
+        }
+
         if (commande.getStatut() != StatutCommande.EN_PREPARATION) {
             throw new IllegalStateException("La commande doit être en préparation pour être marquée comme prête");
         }
 
-        // Vérifier qu'une livraison existe (donc un livreur a été assigné)
-        Livraison livraison = livraisonRepository.findByCommandeId(commandeId)
-                .orElseThrow(() -> new IllegalStateException("Un livreur doit être assigné avant de marquer la commande comme prête"));
+        if (sansLivreur && !moteurDispatch.isActif()) {
+            throw new IllegalStateException("Un livreur doit être assigné avant de marquer la commande comme prête");
+        }
 
         commande.mettreAJourStatut(StatutCommande.PRETE);
         commande = commandeRepository.save(commande);
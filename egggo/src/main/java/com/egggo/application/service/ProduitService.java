@@ -1,8 +1,16 @@
 package com.egggo.application.service;
 
+import com.egggo.api.dto.common.CursorPageResponse;
 import com.egggo.api.dto.product.CategorieDto;
 import com.egggo.api.dto.product.CreateProduitRequest;
 import com.egggo.api.dto.product.ProduitDto;
+import com.egggo.api.dto.search.ResultatRechercheDto;
+import com.egggo.api.dto.search.SuggestionDto;
+import com.egggo.application.catalogue.CatalogueCache;
+import com.egggo.application.pagination.Curseur;
+import com.egggo.application.search.IndexRecherche;
+import com.egggo.application.search.IndexSuggestions;
+import com.egggo.domain.event.ProduitsModifiesEvent;
 import com.egggo.domain.model.product.Categorie;
 import com.egggo.domain.model.product.Produit;
 import com.egggo.domain.model.user.Producteur;
@@ -12,10 +20,13 @@ import com.egggo.domain.repository.ProduitRepository;
 import jakarta.persistence.EntityNotFoundException;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
+import java.util.Optional;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 /**
@@ -29,6 +40,12 @@ public class ProduitService {
     private final ProduitRepository produitRepository;
     private final CategorieRepository categorieRepository;
     private final ProducteurRepository producteurRepository;
+    private final CatalogueCache catalogueCache;
+    private final IndexRecherche indexRecherche;
+    private final IndexSuggestions indexSuggestions;
+    private final ApplicationEventPublisher eventPublisher;
+
+    private static final int LIMITE_RECHERCHE = 50;
 
     /**
      * Récupère toutes les catégories actives
@@ -56,6 +73,9 @@ public class ProduitService {
      */
     @Transactional(readOnly = true)
     public List<ProduitDto> getProduitsByCategorie(Long categorieId) {
+        if (catalogueCache.estCharge()) {
+            return catalogueCache.getProduitsByCategorie(categorieId);
+        }
         return produitRepository.findByCategorieIdAndDisponibleTrue(categorieId)
                 .stream()
                 .map(this::toProduitDto)
@@ -67,6 +87,9 @@ public class ProduitService {
      */
     @Transactional(readOnly = true)
     public List<ProduitDto> getProduitsByProducteur(Long producteurId) {
+        if (catalogueCache.estCharge()) {
+            return catalogueCache.getProduitsByProducteur(producteurId);
+        }
         return produitRepository.findByProducteurId(producteurId)
                 .stream()
                 .map(this::toProduitDto)
@@ -74,14 +97,19 @@ public class ProduitService {
     }
 
     /**
-     * Récupère tous les produits disponibles
+     * Récupère une page de produits disponibles, par identifiant croissant (pagination par curseur)
      */
     @Transactional(readOnly = true)
-    public List<ProduitDto> getAllProduitsDisponibles() {
-        return produitRepository.findByDisponibleTrueAndQuantiteStockGreaterThan(0)
-                .stream()
-                .map(this::toProduitDto)
-                .collect(Collectors.toList());
+    public CursorPageResponse<ProduitDto> getProduitsDisponibles(String curseur, int taille, boolean avecTotal) {
+        Curseur position = Curseur.croissant(curseur);
+        if (catalogueCache.estCharge()) {
+            return CursorPageResponse.from(catalogueCache.getProduitsDisponibles(position.id(), taille + 1), taille,
+                    Function.identity(), produit -> Curseur.apres(produit.getId()),
+                    avecTotal ? (long) catalogueCache.getProduitsDisponibles().size() : null);
+        }
+        return CursorPageResponse.from(produitRepository.findPageDisponibles(position.id(), Curseur.limite(taille)), taille,
+                this::toProduitDto, produit -> Curseur.apres(produit.getId()),
+                avecTotal ? produitRepository.countByDisponibleTrueAndQuantiteStockGreaterThan(0) : null);
     }
 
     /**
@@ -89,22 +117,45 @@ public class ProduitService {
      */
     @Transactional(readOnly = true)
     public ProduitDto getProduitById(Long id) {
+        if (catalogueCache.estCharge()) {
+            Optional<ProduitDto> enCache = catalogueCache.getProduit(id);
+            if (enCache.isPresent()) {
+                return enCache.get();
+            }
+        }
         Produit produit = produitRepository.findById(id)
                 .orElseThrow(() -> new EntityNotFoundException("Produit non trouvé"));
         return toProduitDto(produit);
     }
 
     /**
-     * Recherche des produits par mot-clé
+     * Recherche des produits par mot-clé (index plein texte, insensible aux accents)
      */
     @Transactional(readOnly = true)
     public List<ProduitDto> rechercherProduits(String search) {
+        if (catalogueCache.estCharge()) {
+            return indexRecherche.rechercherProduits(search, LIMITE_RECHERCHE);
+        }
         return produitRepository.findByNomContainingIgnoreCaseAndDisponibleTrue(search)
                 .stream()
                 .map(this::toProduitDto)
                 .collect(Collectors.toList());
     }
 
+    /**
+     * Recherche unifiée sur les produits, producteurs et catégories
+     */
+    public ResultatRechercheDto rechercher(String search, int limite) {
+        return indexRecherche.rechercher(search, Math.min(Math.max(limite, 1), LIMITE_RECHERCHE));
+    }
+
+    /**
+     * Suggestions d'autocomplétion pour un début de saisie
+     */
+    public List<SuggestionDto> suggerer(String saisie, int limite) {
+        return indexSuggestions.suggerer(saisie, Math.min(Math.max(limite, 1), IndexSuggestions.MAX_SUGGESTIONS));
+    }
+
     /**
      * Crée un nouveau produit (pour les producteurs)
      */
@@ -129,6 +180,7 @@ public class ProduitService {
                 .build();
 
         produit = produitRepository.save(produit);
+        eventPublisher.publishEvent(ProduitsModifiesEvent.of(produit.getId()));
         log.info("Produit créé: {} par producteur {}", produit.getNom(), producteurId);
 
         return toProduitDto(produit);
@@ -147,6 +199,7 @@ public class ProduitService {
             produit.setDisponible(true);
         }
         produit = produitRepository.save(produit);
+        eventPublisher.publishEvent(ProduitsModifiesEvent.of(produitId));
 
         log.info("Stock mis à jour pour produit {}: {}", produitId, quantite);
 
@@ -171,23 +224,6 @@ public class ProduitService {
      * Convertit une entité Produit en DTO
      */
     private ProduitDto toProduitDto(Produit produit) {
-        return ProduitDto.builder()
-                .id(produit.getId())
-                .nom(produit.getNom())
-                .description(produit.getDescription())
-                .prixUnitaire(produit.getPrixUnitaire())
-                .prixPromotionnel(null) // Pas de prix promotionnel dans l'entité actuelle
-                .unite(produit.getUnite())
-                .stockDisponible(produit.getQuantiteStock())
-                .imageUrl(produit.getImage())
-                .actif(produit.getDisponible())
-                .disponible(produit.verifierDisponibilite(1))
-                .categorieId(produit.getCategorie().getId())
-                .categorieNom(produit.getCategorie().getNom())
-                .producteurId(produit.getProducteur().getId())
-                .producteurNom(produit.getProducteur().getNom() + " " + produit.getProducteur().getPrenom())
-                .producteurFerme(produit.getProducteur().getNomFerme())
-                .producteurNote(produit.getProducteur().getNoteMoyenne())
-                .build();
+        return ProduitDto.from(produit);
     }
 }
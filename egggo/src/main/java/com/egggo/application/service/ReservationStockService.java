@@ -0,0 +1,222 @@
+package com.egggo.application.service;
+
+import com.egggo.domain.event.CommandeAnnuleeEvent;
+import com.egggo.domain.model.order.Commande;
+import com.egggo.domain.model.order.StatutCommande;
+import com.egggo.domain.model.product.ReservationStock;
+import com.egggo.domain.model.product.StatutReservation;
+import com.egggo.domain.repository.CommandeRepository;
+import com.egggo.domain.repository.PaiementRepository;
+import com.egggo.domain.repository.ReservationStockRepository;
+import com.egggo.infrastructure.metrics.SourceMetriques;
+import com.egggo.infrastructure.timer.RoueTemporelle;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Service de réservation du stock des commandes payées par mobile money ou carte
+ * Le stock est retiré à la commande puis retenu pendant une durée limitée : converti en vente
+ * si le paiement est confirmé, restitué (et la commande annulée) si le paiement expire, est annulé
+ * ou n'arrive jamais. Les échéances sont suivies par une roue temporelle en mémoire, rechargée
+ * depuis la base au démarrage, avec un balayage périodique de la table en filet de sécurité.
+ */
+@Service
+@Slf4j
+public class ReservationStockService implements SourceMetriques {
+
+    private static final long DUREE_TICK_MS = 1000;
+    private static final int NIVEAUX_ROUE = 3;
+
+    private final ReservationStockRepository reservationRepository;
+    private final CommandeRepository commandeRepository;
+    private final PaiementRepository paiementRepository;
+    private final StockService stockService;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final Duration duree;
+
+    private final RoueTemporelle<Long> roue = new RoueTemporelle<>(DUREE_TICK_MS, NIVEAUX_ROUE, System.currentTimeMillis());
+
+    private final LongAdder creees = new LongAdder();
+    private final LongAdder converties = new LongAdder();
+    private final LongAdder liberees = new LongAdder();
+    private final LongAdder expirees = new LongAdder();
+
+    public ReservationStockService(ReservationStockRepository reservationRepository,
+                                   CommandeRepository commandeRepository,
+                                   PaiementRepository paiementRepository,
+                                   StockService stockService,
+                                   TransactionTemplate transactionTemplate,
+                                   ApplicationEventPublisher eventPublisher,
+                                   @Value("${stock.reservation.duree-minutes:15}") long dureeMinutes) {
+        this.reservationRepository = reservationRepository;
+        this.commandeRepository = commandeRepository;
+        this.paiementRepository = paiementRepository;
+        this.stockService = stockService;
+        this.transactionTemplate = transactionTemplate;
+        this.eventPublisher = eventPublisher;
+        this.duree = Duration.ofMinutes(dureeMinutes);
+    }
+
+    /**
+     * Réserve le stock d'une commande qui vient d'être créée (stock déjà retiré)
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void reserver(Commande commande) {
+        LocalDateTime expiration = LocalDateTime.now().plus(duree);
+        reservationRepository.save(ReservationStock.builder()
+                .commandeId(commande.getId())
+                .dateExpiration(expiration)
+                .build());
+        // Si la transaction échoue, l'échéance trouvera une réservation inexistante et sera ignorée
+        roue.planifier(commande.getId(), enMillis(expiration));
+        creees.increment();
+    }
+
+    /**
+     * Convertit la réservation en vente définitive (paiement confirmé)
+     * Retourne false si la réservation a déjà expiré ou été libérée : le stock a été restitué
+     * et l'appelant doit traiter le paiement reçu sans marchandise (remboursement).
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public boolean convertir(Long commandeId) {
+        if (reservationRepository.cloturer(commandeId, StatutReservation.CONVERTIE, LocalDateTime.now()) == 1) {
+            roue.annuler(commandeId);
+            converties.increment();
+            return true;
+        }
+        return !stockRestitue(commandeId);
+    }
+
+    /**
+     * Libère la réservation après annulation ou expiration du paiement :
+     * stock restitué, commande annulée, paiements encore en attente expirés
+     * Sans effet si la réservation n'est plus active (ou si la commande n'en a pas).
+     */
+    @Transactional
+    public boolean liberer(Long commandeId, StatutReservation statut, String raison) {
+        LocalDateTime maintenant = LocalDateTime.now();
+        if (reservationRepository.cloturer(commandeId, statut, maintenant) == 0) {
+            return false;
+        }
+        roue.annuler(commandeId);
+        Commande commande = commandeRepository.findById(commandeId).orElse(null);
+        if (commande != null) {
+            stockService.restituer(commande.getLignes());
+            if (commande.peutEtreAnnulee() && !Boolean.TRUE.equals(commande.getPaye())) {
+                commande.setStatut(StatutCommande.ANNULEE);
+                commande.setNotes(raison);
+                commandeRepository.save(commande);
+                eventPublisher.publishEvent(CommandeAnnuleeEvent.of(commande));
+            }
+        }
+        paiementRepository.expirerEnAttente(commandeId, maintenant);
+        (statut == StatutReservation.EXPIREE ? expirees : liberees).increment();
+        log.info("Réservation de stock {} pour la commande {}: {}", statut.getLibelle().toLowerCase(), commandeId, raison);
+        return true;
+    }
+
+    /**
+     * Clôture la réservation d'une commande annulée par le client ou le producteur
+     * Retourne true si l'appelant doit restituer le stock : réservation active, convertie (commande
+     * payée) ou absente ; false s'il l'a déjà été (réservation expirée ou libérée).
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public boolean clore(Long commandeId) {
+        if (reservationRepository.cloturer(commandeId, StatutReservation.LIBEREE, LocalDateTime.now()) == 1) {
+            roue.annuler(commandeId);
+            liberees.increment();
+            return true;
+        }
+        return !stockRestitue(commandeId);
+    }
+
+    /**
+     * Vrai si la réservation de la commande a été close en rendant son stock (expirée ou libérée)
+     */
+    private boolean stockRestitue(Long commandeId) {
+        return reservationRepository.findStatutByCommandeId(commandeId)
+                .map(statut -> statut == StatutReservation.EXPIREE || statut == StatutReservation.LIBEREE)
+                .orElse(false);
+    }
+
+    /**
+     * Avance la roue temporelle et libère les réservations arrivées à échéance
+     */
+    @Scheduled(fixedDelay = DUREE_TICK_MS)
+    public void traiterEcheances() {
+        List<Long> commandes = roue.avancer(System.currentTimeMillis());
+        commandes.forEach(this::expirer);
+    }
+
+    /**
+     * Filet de sécurité : réservations expirées manquées par la roue (autre instance, redémarrage)
+     */
+    @Scheduled(fixedDelayString = "${stock.reservation.balayage-ms:300000}",
+               initialDelayString = "${stock.reservation.balayage-ms:300000}")
+    public void balayer() {
+        List<Long> commandes = reservationRepository.findCommandesExpirees(LocalDateTime.now().minusSeconds(30));
+        if (!commandes.isEmpty()) {
+            log.warn("{} réservations expirées rattrapées par le balayage", commandes.size());
+            commandes.forEach(this::expirer);
+        }
+    }
+
+    /**
+     * Recharge les échéances des réservations actives au démarrage
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void recharger() {
+        List<Object[]> actives = reservationRepository.findEcheancesActives();
+        for (Object[] ligne : actives) {
+            roue.planifier((Long) ligne[0], enMillis((LocalDateTime) ligne[1]));
+        }
+        log.info("Réservations de stock actives rechargées: {}", actives.size());
+    }
+
+    private void expirer(Long commandeId) {
+        try {
+            transactionTemplate.executeWithoutResult(statut -> liberer(commandeId, StatutReservation.EXPIREE,
+                    "Paiement non confirmé dans les " + duree.toMinutes() + " minutes"));
+        } catch (RuntimeException e) {
+            // Réessai au prochain balayage
+            log.error("Expiration de la réservation de la commande {} impossible: {}", commandeId, e.getMessage());
+        }
+    }
+
+    private static long enMillis(LocalDateTime date) {
+        return date.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    @Override
+    public String getNom() {
+        return "reservationsStock";
+    }
+
+    @Override
+    public Map<String, Object> getMetriques() {
+        Map<String, Object> metriques = new LinkedHashMap<>();
+        metriques.put("echeancesPlanifiees", roue.taille());
+        metriques.put("creees", creees.sum());
+        metriques.put("converties", converties.sum());
+        metriques.put("liberees", liberees.sum());
+        metriques.put("expirees", expirees.sum());
+        return metriques;
+    }
+}
@@ -0,0 +1,104 @@
+package com.egggo.application.service;
+
+import com.egggo.domain.event.ProduitsModifiesEvent;
+import com.egggo.domain.model.order.LigneCommande;
+import com.egggo.domain.model.product.Produit;
+import com.egggo.domain.repository.ProduitRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+/**
+ * Service de gestion du stock des produits
+ * Le stock n'est jamais lu puis réécrit : chaque mouvement est une mise à jour SQL conditionnelle,
+ * ce qui empêche la survente quand plusieurs clients commandent le même produit en même temps.
+ * Les produits sont toujours mis à jour par id croissant pour éviter les interblocages.
+ * Les décréments d'une commande partent en un seul lot JDBC (un aller-retour quel que soit le
+ * nombre de lignes) ; la disponibilité est calculée avant le stock, sur l'ancienne valeur.
+ * Chaque décrément doit rapporter exactement une ligne modifiée : un pilote qui ne remonte pas
+ * les comptes du lot (SUCCESS_NO_INFO) fait échouer la commande plutôt que de risquer la survente.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class StockService {
+
+    private static final String DECREMENT_STOCK =
+            "UPDATE produits SET "
+            + "disponible = CASE WHEN quantite_stock > ? THEN disponible ELSE false END, "
+            + "quantite_stock = quantite_stock - ?, "
+            + "date_modification = CURRENT_TIMESTAMP "
+            + "WHERE id = ? AND quantite_stock >= ?";
+
+    private final ProduitRepository produitRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+
+    /**
+     * Retire du stock les quantités demandées (produit id → quantité), tout ou rien
+     * Doit être appelé dans la transaction de la commande : un stock insuffisant lève une exception
+     * qui annule aussi les décréments déjà effectués.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void retirer(SortedMap<Long, Integer> quantites, Map<Long, Produit> produits) {
+        List<Map.Entry<Long, Integer>> entrees = new ArrayList<>(quantites.entrySet());
+        int[][] resultats = jdbcTemplate.batchUpdate(DECREMENT_STOCK, entrees, entrees.size(),
+                (requete, entree) -> {
+                    requete.setInt(1, entree.getValue());
+                    requete.setInt(2, entree.getValue());
+                    requete.setLong(3, entree.getKey());
+                    requete.setInt(4, entree.getValue());
+                });
+        int i = 0;
+        for (int[] lot : resultats) {
+            for (int lignes : lot) {
+                // Sans compte de lignes, impossible de savoir si le stock suffisait : la commande est refusée
+                if (lignes == Statement.SUCCESS_NO_INFO) {
+                    throw new IllegalStateException(
+                            "Le pilote JDBC ne remonte pas le nombre de lignes mises à jour par lot");
+                }
+                if (lignes != 1) {
+                    Long produitId = entrees.get(i).getKey();
+                    Produit produit = produits.get(produitId);
+                    throw new IllegalArgumentException("Stock insuffisant pour le produit: "
+                            + (produit != null ? produit.getNom() : produitId));
+                }
+                i++;
+            }
+        }
+        eventPublisher.publishEvent(ProduitsModifiesEvent.of(quantites.keySet()));
+    }
+
+    /**
+     * Remet en stock les quantités de lignes de commande (annulation)
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void restituer(Collection<LigneCommande> lignes) {
+        SortedMap<Long, Integer> quantites = regrouper(lignes);
+        quantites.forEach(produitRepository::incrementerStock);
+        eventPublisher.publishEvent(ProduitsModifiesEvent.of(quantites.keySet()));
+    }
+
+    /**
+     * Additionne les quantités par produit, triées par id
+     */
+    public static SortedMap<Long, Integer> regrouper(Collection<LigneCommande> lignes) {
+        SortedMap<Long, Integer> quantites = new TreeMap<>();
+        for (LigneCommande ligne : lignes) {
+            quantites.merge(ligne.getProduit().getId(), ligne.getQuantite(), Integer::sum);
+        }
+        return quantites;
+    }
+}
@@ -0,0 +1,354 @@
+package com.egggo.application.stats;
+
+import com.egggo.domain.event.CommandeAnnuleeEvent;
+import com.egggo.domain.event.CommandeCreeeEvent;
+import com.egggo.domain.event.UtilisateurInscritEvent;
+import com.egggo.domain.model.stats.StatistiqueJournaliere;
+import com.egggo.domain.model.user.Role;
+import com.egggo.domain.repository.CommandeRepository;
+import com.egggo.domain.repository.StatistiqueJournaliereRepository;
+import com.egggo.domain.repository.UtilisateurRepository;
+import com.egggo.infrastructure.metrics.SourceMetriques;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+
+/**
+ * Agrégats journaliers d'activité (commandes, chiffre d'affaires, annulations, inscriptions)
+ * par journée du fuseau métier et par ville de livraison
+ * Les événements métier sont cumulés en mémoire après commit puis écrits toutes les quelques
+ * secondes par des mises à jour relatives : les transactions de commande ne verrouillent jamais
+ * la ligne du jour. Une reconstruction depuis les tables sources sert au remplissage initial,
+ * au recalcul nocturne des jours récents et, à la demande, à corriger un écart (écritures
+ * perdues lors d'un arrêt brutal par exemple).
+ */
+@Component
+@Slf4j
+public class AgregatsJournaliers implements SourceMetriques {
+
+    private static final int JOURS_PAR_LOT = 31;
+
+    private final StatistiqueJournaliereRepository statistiqueRepository;
+    private final CommandeRepository commandeRepository;
+    private final UtilisateurRepository utilisateurRepository;
+    private final CalendrierStatistiques calendrier;
+    private final TransactionTemplate transactionTemplate;
+    private final int joursReconstruits;
+
+    /**
+     * Deltas pas encore écrits ; un delta n'est modifié qu'à l'intérieur de compute()
+     */
+    private final ConcurrentHashMap<StatistiqueJournaliere.Cle, Delta> enAttente = new ConcurrentHashMap<>();
+
+    /**
+     * Sérialise écritures et reconstructions de cette instance
+     */
+    private final Object verrou = new Object();
+
+    private final AtomicLong evenements = new AtomicLong();
+    private final AtomicLong lignesEcrites = new AtomicLong();
+    private final AtomicLong echecsEcriture = new AtomicLong();
+    private final AtomicReference<LocalDateTime> derniereReconstruction = new AtomicReference<>();
+
+    public AgregatsJournaliers(StatistiqueJournaliereRepository statistiqueRepository,
+                               CommandeRepository commandeRepository,
+                               UtilisateurRepository utilisateurRepository,
+                               CalendrierStatistiques calendrier,
+                               TransactionTemplate transactionTemplate,
+                               @Value("${statistiques.rollup.jours-reconstruits:7}") int joursReconstruits) {
+        this.statistiqueRepository = statistiqueRepository;
+        this.commandeRepository = commandeRepository;
+        this.utilisateurRepository = utilisateurRepository;
+        this.calendrier = calendrier;
+        this.transactionTemplate = transactionTemplate;
+        this.joursReconstruits = joursReconstruits;
+    }
+
+    // ====================== Alimentation ======================
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void surCommandeCreee(CommandeCreeeEvent event) {
+        cumuler(event.dateCommande(), event.ville(), delta -> {
+            delta.commandes++;
+            delta.chiffreAffaires += event.montant();
+        });
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void surCommandeAnnulee(CommandeAnnuleeEvent event) {
+        // Rattachée au jour de la commande : le chiffre d'affaires du jour reste celui des commandes non annulées
+        cumuler(event.dateCommande(), event.ville(), delta -> {
+            delta.annulations++;
+            delta.chiffreAffaires -= event.montant();
+        });
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void surUtilisateurInscrit(UtilisateurInscritEvent event) {
+        cumuler(event.dateInscription(), null, delta -> {
+            switch (event.role()) {
+                case CLIENT -> delta.clients++;
+                case PRODUCTEUR -> delta.producteurs++;
+                case LIVREUR -> delta.livreurs++;
+                default -> { }
+            }
+        });
+    }
+
+    private void cumuler(LocalDateTime date, String ville, Consumer<Delta> modification) {
+        LocalDateTime instant = date != null ? date : LocalDateTime.now();
+        StatistiqueJournaliere.Cle cle = new StatistiqueJournaliere.Cle(
+                calendrier.jourDe(instant), StatistiqueJournaliere.normaliserVille(ville));
+        enAttente.compute(cle, (c, delta) -> {
+            Delta courant = delta != null ? delta : new Delta();
+            modification.accept(courant);
+            return courant;
+        });
+        evenements.incrementAndGet();
+    }
+
+    /**
+     * Écrit les deltas cumulés : une mise à jour relative par ligne, suivie d'une insertion si la
+     * ligne n'existe pas encore. Si une autre instance insère la même ligne entre-temps, la clé
+     * primaire fait échouer la transaction : les deltas sont remis en attente et repartent par la
+     * mise à jour à l'écriture suivante.
+     */
+    @Scheduled(fixedDelayString = "${statistiques.rollup.ecriture-ms:5000}")
+    public void ecrire() {
+        synchronized (verrou) {
+            if (enAttente.isEmpty()) {
+                return;
+            }
+            Map<StatistiqueJournaliere.Cle, Delta> lot = new HashMap<>();
+            for (StatistiqueJournaliere.Cle cle : new ArrayList<>(enAttente.keySet())) {
+                Delta delta = enAttente.remove(cle);
+                if (delta != null) {
+                    lot.put(cle, delta);
+                }
+            }
+            try {
+                transactionTemplate.executeWithoutResult(statut -> lot.forEach((cle, delta) -> {
+                    int modifiees = statistiqueRepository.incrementer(cle.getJour(), cle.getVille(), delta.commandes,
+                            delta.chiffreAffaires, delta.annulations, delta.clients, delta.producteurs, delta.livreurs);
+                    if (modifiees == 0) {
+                        statistiqueRepository.inserer(cle.getJour(), cle.getVille(), delta.commandes,
+                                delta.chiffreAffaires, delta.annulations, delta.clients, delta.producteurs, delta.livreurs);
+                    }
+                }));
+                lignesEcrites.addAndGet(lot.size());
+            } catch (RuntimeException e) {
+                // Les deltas sont remis en attente pour la prochaine écriture
+                lot.forEach((cle, delta) -> enAttente.merge(cle, delta, Delta::ajouter));
+                echecsEcriture.incrementAndGet();
+                log.error("Écriture des statistiques journalières impossible: {}", e.getMessage());
+            }
+        }
+    }
+
+    // ====================== Lecture ======================
+
+    /**
+     * Totaux toutes villes confondues, jour par jour (jours sans activité inclus, à zéro)
+     * Les deltas pas encore écrits sont ajoutés : la lecture est à jour sans attendre l'écriture.
+     */
+    public TreeMap<LocalDate, StatistiqueJournaliere> totauxParJour(LocalDate du, LocalDate au) {
+        TreeMap<LocalDate, StatistiqueJournaliere> totaux = new TreeMap<>();
+        for (LocalDate jour = du; !jour.isAfter(au); jour = jour.plusDays(1)) {
+            totaux.put(jour, StatistiqueJournaliere.builder().jour(jour).ville(null).build());
+        }
+        for (StatistiqueJournaliere ligne : statistiqueRepository.findByJourBetween(du, au)) {
+            ajouter(totaux.get(ligne.getJour()), ligne);
+        }
+        for (StatistiqueJournaliere.Cle cle : enAttente.keySet()) {
+            StatistiqueJournaliere total = totaux.get(cle.getJour());
+            if (total != null) {
+                enAttente.computeIfPresent(cle, (c, delta) -> {
+                    ajouter(total, delta.enLigne(c));
+                    return delta;
+                });
+            }
+        }
+        return totaux;
+    }
+
+    private static void ajouter(StatistiqueJournaliere total, StatistiqueJournaliere ligne) {
+        total.setCommandes(total.getCommandes() + ligne.getCommandes());
+        total.setChiffreAffaires(total.getChiffreAffaires() + ligne.getChiffreAffaires());
+        total.setAnnulations(total.getAnnulations() + ligne.getAnnulations());
+        total.setNouveauxClients(total.getNouveauxClients() + ligne.getNouveauxClients());
+        total.setNouveauxProducteurs(total.getNouveauxProducteurs() + ligne.getNouveauxProducteurs());
+        total.setNouveauxLivreurs(total.getNouveauxLivreurs() + ligne.getNouveauxLivreurs());
+    }
+
+    // ====================== Reconstruction ======================
+
+    /**
+     * Remplissage initial : reconstruit l'historique jusqu'à hier si la table est vide
+     * Le jour courant n'est alimenté que par les événements, puis recalculé la nuit suivante.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void initialiser() {
+        if (statistiqueRepository.count() > 0) {
+            return;
+        }
+        LocalDateTime premiereCommande = commandeRepository.findPremiereDateCommande();
+        LocalDateTime premiereInscription = utilisateurRepository.findPremiereDateInscription();
+        LocalDateTime premiere = premiereCommande == null ? premiereInscription
+                : premiereInscription == null || premiereCommande.isBefore(premiereInscription) ? premiereCommande
+                : premiereInscription;
+        LocalDate hier = calendrier.aujourdhui().minusDays(1);
+        if (premiere != null && !calendrier.jourDe(premiere).isAfter(hier)) {
+            int lignes = reconstruire(calendrier.jourDe(premiere), hier);
+            log.info("Statistiques journalières initialisées: {} lignes", lignes);
+        }
+    }
+
+    /**
+     * Recalcul nocturne des jours récents (annulations tardives, écritures perdues)
+     */
+    @Scheduled(cron = "${statistiques.rollup.reconstruction-cron:0 30 2 * * *}",
+               zone = "${statistiques.fuseau:Africa/Douala}")
+    public void reconstruireJoursRecents() {
+        LocalDate hier = calendrier.aujourdhui().minusDays(1);
+        reconstruire(hier.minusDays(joursReconstruits - 1L), hier);
+    }
+
+    /**
+     * Recalcule les compteurs des jours donnés (inclus) depuis les commandes et les inscriptions
+     * Un événement reçu pendant le recalcul d'un jour peut y être compté deux fois : seuls les
+     * jours clos (jusqu'à hier) sont recalculés, où seule une annulation tardive reste possible.
+     * Retourne le nombre de lignes écrites.
+     */
+    public int reconstruire(LocalDate du, LocalDate au) {
+        if (au.isBefore(du)) {
+            throw new IllegalArgumentException("Intervalle de reconstruction invalide");
+        }
+        if (!au.isBefore(calendrier.aujourdhui())) {
+            throw new IllegalArgumentException("Seuls les jours clos (jusqu'à hier) peuvent être reconstruits");
+        }
+        synchronized (verrou) {
+            ecrire();
+            int lignes = 0;
+            for (LocalDate debutLot = du; !debutLot.isAfter(au); debutLot = debutLot.plusDays(JOURS_PAR_LOT)) {
+                LocalDate finLot = debutLot.plusDays(JOURS_PAR_LOT - 1L).isAfter(au) ? au : debutLot.plusDays(JOURS_PAR_LOT - 1L);
+                LocalDate premierJour = debutLot;
+                Integer ecrites = transactionTemplate.execute(statut -> reconstruireLot(premierJour, finLot));
+                lignes += ecrites != null ? ecrites : 0;
+            }
+            derniereReconstruction.set(LocalDateTime.now());
+            log.info("Statistiques journalières reconstruites du {} au {}: {} lignes", du, au, lignes);
+            return lignes;
+        }
+    }
+
+    private int reconstruireLot(LocalDate du, LocalDate au) {
+        LocalDateTime debut = calendrier.debutJour(du);
+        LocalDateTime fin = calendrier.debutJour(au.plusDays(1));
+        Map<StatistiqueJournaliere.Cle, StatistiqueJournaliere> lignes = new LinkedHashMap<>();
+
+        for (Object[] ligne : commandeRepository.compterParHeureEtVille(debut, fin)) {
+            StatistiqueJournaliere stat = ligne(lignes, heure(ligne), (String) ligne[4]);
+            stat.setCommandes(stat.getCommandes() + ((Number) ligne[5]).longValue());
+            stat.setChiffreAffaires(stat.getChiffreAffaires() + ((Number) ligne[6]).doubleValue());
+            stat.setAnnulations(stat.getAnnulations() + ((Number) ligne[7]).longValue());
+        }
+        for (Object[] ligne : utilisateurRepository.compterInscriptionsParHeure(debut, fin)) {
+            StatistiqueJournaliere stat = ligne(lignes, heure(ligne), null);
+            long nombre = ((Number) ligne[5]).longValue();
+            switch ((Role) ligne[4]) {
+                case CLIENT -> stat.setNouveauxClients(stat.getNouveauxClients() + nombre);
+                case PRODUCTEUR -> stat.setNouveauxProducteurs(stat.getNouveauxProducteurs() + nombre);
+                case LIVREUR -> stat.setNouveauxLivreurs(stat.getNouveauxLivreurs() + nombre);
+                default -> { }
+            }
+        }
+
+        statistiqueRepository.supprimerEntre(du, au);
+        statistiqueRepository.flush();
+        statistiqueRepository.saveAll(lignes.values());
+        return lignes.size();
+    }
+
+    private StatistiqueJournaliere ligne(Map<StatistiqueJournaliere.Cle, StatistiqueJournaliere> lignes,
+                                         LocalDateTime heure, String ville) {
+        StatistiqueJournaliere.Cle cle = new StatistiqueJournaliere.Cle(
+                calendrier.jourDe(heure), StatistiqueJournaliere.normaliserVille(ville));
+        return lignes.computeIfAbsent(cle, c -> StatistiqueJournaliere.builder()
+                .jour(c.getJour())
+                .ville(c.getVille())
+                .build());
+    }
+
+    private static LocalDateTime heure(Object[] ligne) {
+        return LocalDateTime.of(((Number) ligne[0]).intValue(), ((Number) ligne[1]).intValue(),
+                ((Number) ligne[2]).intValue(), ((Number) ligne[3]).intValue(), 0);
+    }
+
+    @Override
+    public String getNom() {
+        return "statistiquesJournalieres";
+    }
+
+    @Override
+    public Map<String, Object> getMetriques() {
+        Map<String, Object> metriques = new LinkedHashMap<>();
+        metriques.put("lignesEnAttente", enAttente.size());
+        metriques.put("evenements", evenements.get());
+        metriques.put("lignesEcrites", lignesEcrites.get());
+        metriques.put("echecsEcriture", echecsEcriture.get());
+        metriques.put("derniereReconstruction", derniereReconstruction.get());
+        return metriques;
+    }
+
+    /**
+     * Deltas cumulés d'une ligne (jour, ville)
+     */
+    private static final class Delta {
+        long commandes;
+        double chiffreAffaires;
+        long annulations;
+        long clients;
+        long producteurs;
+        long livreurs;
+
+        Delta ajouter(Delta autre) {
+            commandes += autre.commandes;
+            chiffreAffaires += autre.chiffreAffaires;
+            annulations += autre.annulations;
+            clients += autre.clients;
+            producteurs += autre.producteurs;
+            livreurs += autre.livreurs;
+            return this;
+        }
+
+        StatistiqueJournaliere enLigne(StatistiqueJournaliere.Cle cle) {
+            return StatistiqueJournaliere.builder()
+                    .jour(cle.getJour())
+                    .ville(cle.getVille())
+                    .commandes(commandes)
+                    .chiffreAffaires(chiffreAffaires)
+                    .annulations(annulations)
+                    .nouveauxClients(clients)
+                    .nouveauxProducteurs(producteurs)
+                    .nouveauxLivreurs(livreurs)
+                    .build();
+        }
+    }
+}
@@ -0,0 +1,326 @@
+package com.egggo.application.stats;
+
+import com.egggo.domain.event.LivraisonAssigneeEvent;
+import com.egggo.domain.event.LivraisonTermineeEvent;
+import com.egggo.domain.model.delivery.StatutLivraison;
+import com.egggo.domain.model.stats.Granularite;
+import com.egggo.domain.model.stats.StatistiqueLivraison;
+import com.egggo.domain.repository.LivraisonRepository;
+import com.egggo.domain.repository.StatistiqueLivraisonRepository;
+import com.egggo.infrastructure.metrics.HistogrammeLogarithmique;
+import com.egggo.infrastructure.metrics.SourceMetriques;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * Agrégats des livraisons par période calendaire (jour, semaine, mois, année) et par dimension
+ * (toutes, par livreur, par ville), avec l'esquisse des durées acceptation → livraison
+ * Chaque événement de livraison met à jour les douze lignes qui le concernent ; une statistique
+ * de période se lit donc en une seule ligne, quel que soit l'historique. Comme pour les
+ * agrégats journaliers, les événements sont cumulés en mémoire puis fusionnés en base par
+ * lots, sous verrou de ligne (les esquisses ne s'additionnent pas en SQL).
+ */
+@Component
+@Slf4j
+public class AgregatsLivraisons implements SourceMetriques {
+
+    private static final int TAILLE_LOT_RECONSTRUCTION = 2000;
+
+    private final StatistiqueLivraisonRepository statistiqueRepository;
+    private final LivraisonRepository livraisonRepository;
+    private final CalendrierStatistiques calendrier;
+    private final TransactionTemplate transactionTemplate;
+
+    /**
+     * Deltas pas encore écrits ; un delta n'est modifié qu'à l'intérieur de compute()
+     */
+    private final ConcurrentHashMap<StatistiqueLivraison.Cle, Delta> enAttente = new ConcurrentHashMap<>();
+
+    private final Object verrou = new Object();
+
+    private final AtomicLong evenements = new AtomicLong();
+    private final AtomicLong lignesEcrites = new AtomicLong();
+    private final AtomicLong echecsEcriture = new AtomicLong();
+
+    public AgregatsLivraisons(StatistiqueLivraisonRepository statistiqueRepository,
+                              LivraisonRepository livraisonRepository,
+                              CalendrierStatistiques calendrier,
+                              TransactionTemplate transactionTemplate) {
+        this.statistiqueRepository = statistiqueRepository;
+        this.livraisonRepository = livraisonRepository;
+        this.calendrier = calendrier;
+        this.transactionTemplate = transactionTemplate;
+    }
+
+    // ====================== Alimentation ======================
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void surLivraisonAssignee(LivraisonAssigneeEvent event) {
+        cumuler(enAttente, event.dateAssignation(), event.livreurId(), event.ville(), delta -> delta.assignees++);
+        evenements.incrementAndGet();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void surLivraisonTerminee(LivraisonTermineeEvent event) {
+        cumuler(enAttente, event.dateAssignation(), event.livreurId(), event.ville(),
+                delta -> delta.terminer(event.reussie(), event.distanceKm(), event.dureeSecondes()));
+        evenements.incrementAndGet();
+    }
+
+    /**
+     * Applique une modification aux deltas des quatre granularités et des trois dimensions d'une livraison
+     */
+    private void cumuler(ConcurrentHashMap<StatistiqueLivraison.Cle, Delta> cible, LocalDateTime dateAssignation,
+                         Long livreurId, String ville, Consumer<Delta> modification) {
+        LocalDate jour = calendrier.jourDe(dateAssignation != null ? dateAssignation : LocalDateTime.now());
+        String[] dimensions = {
+                StatistiqueLivraison.TOUTES,
+                StatistiqueLivraison.dimensionLivreur(livreurId),
+                StatistiqueLivraison.dimensionVille(ville)
+        };
+        for (Granularite granularite : Granularite.values()) {
+            LocalDate debut = granularite.debut(jour);
+            for (String dimension : dimensions) {
+                cible.compute(new StatistiqueLivraison.Cle(granularite, debut, dimension), (cle, delta) -> {
+                    Delta courant = delta != null ? delta : new Delta();
+                    modification.accept(courant);
+                    return courant;
+                });
+            }
+        }
+    }
+
+    /**
+     * Fusionne les deltas cumulés dans les lignes (verrouillées le temps de la transaction)
+     */
+    @Scheduled(fixedDelayString = "${statistiques.rollup.ecriture-ms:5000}")
+    public void ecrire() {
+        synchronized (verrou) {
+            if (enAttente.isEmpty()) {
+                return;
+            }
+            Map<StatistiqueLivraison.Cle, Delta> lot = new HashMap<>();
+            for (StatistiqueLivraison.Cle cle : new ArrayList<>(enAttente.keySet())) {
+                Delta delta = enAttente.remove(cle);
+                if (delta != null) {
+                    lot.put(cle, delta);
+                }
+            }
+            try {
+                transactionTemplate.executeWithoutResult(statut -> lot.forEach((cle, delta) -> {
+                    StatistiqueLivraison ligne = statistiqueRepository
+                            .verrouiller(cle.getGranularite(), cle.getDebut(), cle.getDimension())
+                            .orElseGet(() -> nouvelleLigne(cle));
+                    delta.appliquer(ligne);
+                    statistiqueRepository.save(ligne);
+                }));
+                lignesEcrites.addAndGet(lot.size());
+            } catch (RuntimeException e) {
+                // Deltas remis en attente ; une création concurrente de la même ligne se résout au lot suivant
+                lot.forEach((cle, delta) -> enAttente.merge(cle, delta, Delta::ajouter));
+                echecsEcriture.incrementAndGet();
+                log.error("Écriture des statistiques de livraisons impossible: {}", e.getMessage());
+            }
+        }
+    }
+
+    // ====================== Lecture ======================
+
+    /**
+     * Agrégat de la période contenant le jour donné, deltas non encore écrits compris
+     * Dimension : {@link StatistiqueLivraison#TOUTES}, dimensionLivreur(id) ou dimensionVille(ville).
+     */
+    public StatistiqueLivraison lire(Granularite granularite, LocalDate jour, String dimension) {
+        StatistiqueLivraison.Cle cle = new StatistiqueLivraison.Cle(granularite, granularite.debut(jour), dimension);
+        StatistiqueLivraison resultat = nouvelleLigne(cle);
+        statistiqueRepository.findById(cle).ifPresent(ligne -> {
+            resultat.setAssignees(ligne.getAssignees());
+            resultat.setReussies(ligne.getReussies());
+            resultat.setEchouees(ligne.getEchouees());
+            resultat.setDistanceKm(ligne.getDistanceKm());
+            resultat.setDurees(ligne.getDurees());
+        });
+        enAttente.computeIfPresent(cle, (c, delta) -> {
+            delta.appliquer(resultat);
+            return delta;
+        });
+        return resultat;
+    }
+
+    // ====================== Reconstruction ======================
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void initialiser() {
+        if (statistiqueRepository.count() == 0 && livraisonRepository.count() > 0) {
+            reconstruire();
+        }
+    }
+
+    /**
+     * Recalcule les agrégats depuis la table des livraisons (lecture par lots, une seule transaction)
+     * Seules les livraisons assignées avant aujourd'hui sont relues : un événement reçu pendant la
+     * relecture y serait compté deux fois. Les lignes du jour courant, alimentées par les événements,
+     * sont conservées et reportées dans la semaine, le mois et l'année en cours. Seule la clôture
+     * tardive d'une livraison assignée un jour précédent peut encore être comptée deux fois.
+     * Retourne le nombre de lignes écrites.
+     */
+    public int reconstruire() {
+        synchronized (verrou) {
+            ecrire();
+            LocalDate aujourdhui = calendrier.aujourdhui();
+            Integer lignes = transactionTemplate.execute(statut -> {
+                ConcurrentHashMap<StatistiqueLivraison.Cle, Delta> agregats = new ConcurrentHashMap<>();
+                long dernierId = 0;
+                List<Object[]> lot;
+                do {
+                    lot = livraisonRepository.findLotStatistiques(dernierId, PageRequest.ofSize(TAILLE_LOT_RECONSTRUCTION));
+                    for (Object[] ligne : lot) {
+                        dernierId = (Long) ligne[0];
+                        rejouer(agregats, ligne, aujourdhui);
+                    }
+                } while (lot.size() == TAILLE_LOT_RECONSTRUCTION);
+
+                // Jour courant : repris tel quel, y compris dans les périodes ouvertes qui le contiennent
+                for (StatistiqueLivraison jour : statistiqueRepository.findByGranulariteAndDebut(Granularite.JOUR, aujourdhui)) {
+                    for (Granularite granularite : Granularite.values()) {
+                        agregats.merge(new StatistiqueLivraison.Cle(granularite, granularite.debut(aujourdhui),
+                                jour.getDimension()), Delta.depuis(jour), Delta::ajouter);
+                    }
+                }
+
+                statistiqueRepository.deleteAllInBatch();
+                statistiqueRepository.flush();
+                List<StatistiqueLivraison> nouvelles = new ArrayList<>(agregats.size());
+                agregats.forEach((cle, delta) -> {
+                    StatistiqueLivraison ligneStat = nouvelleLigne(cle);
+                    delta.appliquer(ligneStat);
+                    nouvelles.add(ligneStat);
+                });
+                statistiqueRepository.saveAll(nouvelles);
+                return nouvelles.size();
+            });
+            log.info("Statistiques de livraisons reconstruites: {} lignes", lignes);
+            return lignes != null ? lignes : 0;
+        }
+    }
+
+    private void rejouer(ConcurrentHashMap<StatistiqueLivraison.Cle, Delta> agregats, Object[] ligne,
+                         LocalDate aujourdhui) {
+        LocalDateTime dateAssignation = (LocalDateTime) ligne[4];
+        if (dateAssignation == null || !calendrier.jourDe(dateAssignation).isBefore(aujourdhui)) {
+            return;
+        }
+        Long livreurId = (Long) ligne[1];
+        String ville = (String) ligne[2];
+        StatutLivraison statut = (StatutLivraison) ligne[3];
+        LocalDateTime dateAcceptation = (LocalDateTime) ligne[5];
+        LocalDateTime dateLivraison = (LocalDateTime) ligne[6];
+        Double distanceKm = (Double) ligne[7];
+
+        cumuler(agregats, dateAssignation, livreurId, ville, delta -> delta.assignees++);
+        if (statut == StatutLivraison.LIVREE || statut == StatutLivraison.ECHOUEE) {
+            boolean reussie = statut == StatutLivraison.LIVREE;
+            Long duree = reussie && dateAcceptation != null && dateLivraison != null
+                    ? Duration.between(dateAcceptation, dateLivraison).toSeconds()
+                    : null;
+            cumuler(agregats, dateAssignation, livreurId, ville, delta -> delta.terminer(reussie, distanceKm, duree));
+        }
+    }
+
+    private static StatistiqueLivraison nouvelleLigne(StatistiqueLivraison.Cle cle) {
+        return StatistiqueLivraison.builder()
+                .granularite(cle.getGranularite())
+                .debut(cle.getDebut())
+                .dimension(cle.getDimension())
+                .build();
+    }
+
+    @Override
+    public String getNom() {
+        return "statistiquesLivraisons";
+    }
+
+    @Override
+    public Map<String, Object> getMetriques() {
+        Map<String, Object> metriques = new LinkedHashMap<>();
+        metriques.put("lignesEnAttente", enAttente.size());
+        metriques.put("evenements", evenements.get());
+        metriques.put("lignesEcrites", lignesEcrites.get());
+        metriques.put("echecsEcriture", echecsEcriture.get());
+        return metriques;
+    }
+
+    /**
+     * Deltas cumulés d'une ligne d'agrégat
+     */
+    private static final class Delta {
+        long assignees;
+        long reussies;
+        long echouees;
+        double distanceKm;
+        final HistogrammeLogarithmique durees = new HistogrammeLogarithmique();
+
+        static Delta depuis(StatistiqueLivraison ligne) {
+            Delta delta = new Delta();
+            delta.assignees = ligne.getAssignees();
+            delta.reussies = ligne.getReussies();
+            delta.echouees = ligne.getEchouees();
+            delta.distanceKm = ligne.getDistanceKm();
+            delta.durees.fusionner(ligne.lireDurees());
+            return delta;
+        }
+
+        void terminer(boolean reussie, Double distance, Long dureeSecondes) {
+            if (!reussie) {
+                echouees++;
+                return;
+            }
+            reussies++;
+            if (distance != null) {
+                distanceKm += distance;
+            }
+            if (dureeSecondes != null) {
+                durees.ajouter(dureeSecondes);
+            }
+        }
+
+        Delta ajouter(Delta autre) {
+            assignees += autre.assignees;
+            reussies += autre.reussies;
+            echouees += autre.echouees;
+            distanceKm += autre.distanceKm;
+            durees.fusionner(autre.durees);
+            return this;
+        }
+
+        void appliquer(StatistiqueLivraison ligne) {
+            ligne.setAssignees(ligne.getAssignees() + assignees);
+            ligne.setReussies(ligne.getReussies() + reussies);
+            ligne.setEchouees(ligne.getEchouees() + echouees);
+            ligne.setDistanceKm(ligne.getDistanceKm() + distanceKm);
+            if (durees.getNombre() > 0) {
+                HistogrammeLogarithmique cumul = ligne.lireDurees();
+                cumul.fusionner(durees);
+                ligne.setDurees(cumul.encoder());
+            }
+        }
+    }
+}
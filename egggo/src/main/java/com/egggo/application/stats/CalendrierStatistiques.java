@@ -0,0 +1,73 @@
+package com.egggo.application.stats;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Locale;
+
+/**
+ * Calendrier des statistiques : les journées sont découpées dans le fuseau métier (Africa/Douala)
+ * et non dans celui du serveur. Les dates enregistrées restent en heure locale du serveur ;
+ * ce composant fait la conversion dans les deux sens.
+ */
+@Component
+public class CalendrierStatistiques {
+
+    private final ZoneId fuseau;
+    private final ZoneId fuseauServeur = ZoneId.systemDefault();
+
+    public CalendrierStatistiques(@Value("${statistiques.fuseau:Africa/Douala}") String fuseau) {
+        this.fuseau = ZoneId.of(fuseau);
+    }
+
+    public ZoneId getFuseau() {
+        return fuseau;
+    }
+
+    /**
+     * Jour courant dans le fuseau métier
+     */
+    public LocalDate aujourdhui() {
+        return LocalDate.now(fuseau);
+    }
+
+    /**
+     * Début d'une journée métier, exprimé en heure du serveur (pour les requêtes)
+     */
+    public LocalDateTime debutJour(LocalDate jour) {
+        return jour.atStartOfDay(fuseau).withZoneSameInstant(fuseauServeur).toLocalDateTime();
+    }
+
+    /**
+     * Journée métier à laquelle appartient une date enregistrée en heure du serveur
+     */
+    public LocalDate jourDe(LocalDateTime date) {
+        return date.atZone(fuseauServeur).withZoneSameInstant(fuseau).toLocalDate();
+    }
+
+    /**
+     * Premier jour d'une période de statistiques (jour, semaine, mois par défaut, annee)
+     */
+    public LocalDate premierJour(String periode) {
+        LocalDate aujourdhui = aujourdhui();
+        if (periode == null) {
+            return aujourdhui.withDayOfMonth(1);
+        }
+        return switch (periode.toLowerCase(Locale.ROOT)) {
+            case "jour" -> aujourdhui;
+            case "semaine" -> aujourdhui.minusWeeks(1);
+            case "annee" -> aujourdhui.withDayOfYear(1);
+            default -> aujourdhui.withDayOfMonth(1); // mois
+        };
+    }
+
+    /**
+     * Début d'une période de statistiques, en heure du serveur
+     */
+    public LocalDateTime debutPeriode(String periode) {
+        return debutJour(premierJour(periode));
+    }
+}
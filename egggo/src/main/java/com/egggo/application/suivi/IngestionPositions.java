@@ -0,0 +1,176 @@
+package com.egggo.application.suivi;
+
+import com.egggo.application.dispatch.IndexLivreurs;
+import com.egggo.domain.model.delivery.StatutLivraison;
+import com.egggo.domain.repository.LivraisonRepository;
+import com.egggo.infrastructure.ingestion.TamponCirculaire;
+import com.egggo.infrastructure.metrics.SourceMetriques;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * File d'ingestion des positions GPS des livreurs (écriture différée)
+ * Un relevé est déposé dans un anneau sans verrou et l'index des livreurs est déplacé aussitôt ;
+ * la base est écrite périodiquement par lots : une mise à jour de position par livreur (le dernier
+ * relevé l'emporte) et ajout des relevés aux trajectoires compressées des livraisons en cours.
+ * La file est vidée à l'arrêt de l'application.
+ */
+@Component
+@Slf4j
+public class IngestionPositions implements SourceMetriques {
+
+    private static final String MISE_A_JOUR_POSITION =
+            "UPDATE livreurs SET latitude = ?, longitude = ? WHERE utilisateur_id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final LivraisonRepository livraisonRepository;
+    private final IndexLivreurs indexLivreurs;
+    private final Trajectoires trajectoires;
+    private final TamponCirculaire<Releve> tampon;
+    private final int tailleLot;
+
+    private final Object verrou = new Object();
+
+    private final LongAdder recus = new LongAdder();
+    private final LongAdder ecrits = new LongAdder();
+    private final LongAdder positionsLivreurs = new LongAdder();
+    private final LongAdder positionsHistorisees = new LongAdder();
+    private final LongAdder perdus = new LongAdder();
+
+    /**
+     * Relevé GPS d'un livreur, horodaté à la réception
+     */
+    public record Releve(long livreurId, double latitude, double longitude, long horodatageMs) {
+    }
+
+    public IngestionPositions(JdbcTemplate jdbcTemplate,
+                              TransactionTemplate transactionTemplate,
+                              LivraisonRepository livraisonRepository,
+                              IndexLivreurs indexLivreurs,
+                              Trajectoires trajectoires,
+                              @Value("${positions.ingestion.capacite:65536}") int capacite,
+                              @Value("${positions.ingestion.taille-lot:2000}") int tailleLot) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.livraisonRepository = livraisonRepository;
+        this.indexLivreurs = indexLivreurs;
+        this.trajectoires = trajectoires;
+        this.tampon = new TamponCirculaire<>(capacite);
+        this.tailleLot = tailleLot;
+    }
+
+    /**
+     * Dépose un relevé ; false si la file est pleine (l'appelant demande au client de réessayer)
+     */
+    public boolean soumettre(long livreurId, double latitude, double longitude) {
+        if (!tampon.offrir(new Releve(livreurId, latitude, longitude, System.currentTimeMillis()))) {
+            return false;
+        }
+        recus.increment();
+        indexLivreurs.deplacer(livreurId, latitude, longitude);
+        return true;
+    }
+
+    /**
+     * Écrit les relevés en attente, par lots (au plus une capacité de file par passage)
+     */
+    @Scheduled(fixedDelayString = "${positions.ingestion.ecriture-ms:250}")
+    public void ecrire() {
+        synchronized (verrou) {
+            int lotsMax = Math.max(1, tampon.capacite() / tailleLot);
+            for (int lot = 0; lot < lotsMax && ecrireLot() == tailleLot; lot++) {
+                // lot complet : la file contient peut-être encore des relevés
+            }
+        }
+    }
+
+    @PreDestroy
+    public void vider() {
+        synchronized (verrou) {
+            long avant = ecrits.sum();
+            while (ecrireLot() > 0) {
+                // jusqu'à épuisement
+            }
+            log.info("File des positions vidée à l'arrêt: {} relevés écrits", ecrits.sum() - avant);
+        }
+    }
+
+    private int ecrireLot() {
+        List<Releve> releves = new ArrayList<>();
+        int lus = tampon.vider(releves::add, tailleLot);
+        if (lus == 0) {
+            return 0;
+        }
+        Map<Long, Releve> dernieres = new HashMap<>();
+        for (Releve releve : releves) {
+            dernieres.merge(releve.livreurId(), releve,
+                    (ancien, nouveau) -> nouveau.horodatageMs() >= ancien.horodatageMs() ? nouveau : ancien);
+        }
+        Map<Long, List<Releve>> parLivraison;
+        try {
+            parLivraison = transactionTemplate.execute(statut -> {
+                jdbcTemplate.batchUpdate(MISE_A_JOUR_POSITION, new ArrayList<>(dernieres.values()), dernieres.size(),
+                        (requete, releve) -> {
+                            requete.setDouble(1, releve.latitude());
+                            requete.setDouble(2, releve.longitude());
+                            requete.setLong(3, releve.livreurId());
+                        });
+
+                Map<Long, List<Long>> enCours = new HashMap<>();
+                for (Object[] ligne : livraisonRepository.findIdsEnCours(dernieres.keySet(), StatutLivraison.EN_COURS)) {
+                    enCours.computeIfAbsent((Long) ligne[0], id -> new ArrayList<>()).add((Long) ligne[1]);
+                }
+                Map<Long, List<Releve>> historises = new HashMap<>();
+                for (Releve releve : releves) {
+                    for (Long livraisonId : enCours.getOrDefault(releve.livreurId(), List.of())) {
+                        historises.computeIfAbsent(livraisonId, id -> new ArrayList<>()).add(releve);
+                    }
+                }
+                return historises;
+            });
+        } catch (RuntimeException e) {
+            // Relevés abandonnés : les positions courantes seront remplacées par les suivants
+            perdus.add(lus);
+            log.error("Écriture de {} positions GPS impossible: {}", lus, e.getMessage());
+            return lus;
+        }
+        ecrits.add(lus);
+        positionsLivreurs.add(dernieres.size());
+        // Hors de la transaction des positions : un conflit sur une trajectoire ne les annule pas
+        trajectoires.ajouter(parLivraison);
+        positionsHistorisees.add(parLivraison.values().stream().mapToInt(List::size).sum());
+        return lus;
+    }
+
+    @Override
+    public String getNom() {
+        return "ingestionPositions";
+    }
+
+    @Override
+    public Map<String, Object> getMetriques() {
+        Map<String, Object> metriques = new LinkedHashMap<>();
+        metriques.put("enAttente", tampon.taille());
+        metriques.put("capacite", tampon.capacite());
+        metriques.put("recus", recus.sum());
+        metriques.put("refuses", tampon.getRefuses());
+        metriques.put("ecrits", ecrits.sum());
+        metriques.put("positionsLivreurs", positionsLivreurs.sum());
+        metriques.put("positionsHistorisees", positionsHistorisees.sum());
+        metriques.put("perdus", perdus.sum());
+        return metriques;
+    }
+}
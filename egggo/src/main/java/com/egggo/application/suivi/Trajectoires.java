@@ -0,0 +1,280 @@
+package com.egggo.application.suivi;
+
+import com.egggo.domain.model.delivery.SegmentTrajectoire;
+import com.egggo.domain.repository.SegmentTrajectoireRepository;
+import com.egggo.infrastructure.geo.CodecTrajectoire;
+import com.egggo.infrastructure.metrics.SourceMetriques;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Stockage compressé des trajectoires de livraison
+ * Le tronçon ouvert de chaque livraison active est gardé en mémoire et prolongé à chaque relevé ;
+ * il n'est écrit en base qu'à sa fermeture (tronçon plein) ou par l'écriture périodique, et non à
+ * chaque lot de relevés. Une traîne restée sans relevé pendant toute une période est écrite puis
+ * oubliée. La lecture décode les tronçons en base, puis la traîne en mémoire.
+ * Un seul écrivain par livraison est supposé : la file d'ingestion des positions de ce nœud. Le
+ * numéro de version des tronçons fait échouer une écriture concurrente (autre nœud) au lieu
+ * d'écraser l'autre : les traînes concernées sont alors oubliées et relues au relevé suivant, et
+ * leurs points non écrits sont perdus.
+ */
+@Component
+@Slf4j
+public class Trajectoires implements SourceMetriques {
+
+    /**
+     * Taille d'encodage au-delà de laquelle un tronçon est fermé (marge sous la colonne de 8 Ko)
+     */
+    private static final int OCTETS_MAX = 6144;
+
+    private final SegmentTrajectoireRepository segmentRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final int pointsParSegment;
+
+    /**
+     * Tronçons ouverts des livraisons actives, par livraison ; accès sous verrou
+     */
+    private final Map<Long, Traine> traines = new HashMap<>();
+    private final Object verrou = new Object();
+
+    private final LongAdder pointsAjoutes = new LongAdder();
+    private final LongAdder octetsAjoutes = new LongAdder();
+    private final LongAdder segmentsOuverts = new LongAdder();
+    private final LongAdder segmentsEcrits = new LongAdder();
+    private final LongAdder conflits = new LongAdder();
+    private final LongAdder lectures = new LongAdder();
+
+    public Trajectoires(SegmentTrajectoireRepository segmentRepository,
+                        TransactionTemplate transactionTemplate,
+                        @Value("${trajectoires.points-par-segment:256}") int pointsParSegment) {
+        this.segmentRepository = segmentRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.pointsParSegment = pointsParSegment;
+    }
+
+    /**
+     * Ajoute des relevés aux trajectoires des livraisons ; seuls les tronçons fermés sont écrits aussitôt
+     * Hors de toute transaction de l'appelant : un conflit d'écriture n'annule que les trajectoires.
+     */
+    public void ajouter(Map<Long, List<IngestionPositions.Releve>> relevesParLivraison) {
+        if (relevesParLivraison.isEmpty()) {
+            return;
+        }
+        synchronized (verrou) {
+            Set<Long> absentes = new HashSet<>();
+            for (Long livraisonId : relevesParLivraison.keySet()) {
+                if (!traines.containsKey(livraisonId)) {
+                    absentes.add(livraisonId);
+                }
+            }
+            Map<Long, Integer> premiersNumeros = new HashMap<>();
+            if (!absentes.isEmpty()) {
+                for (SegmentTrajectoire segment : segmentRepository.findOuverts(absentes)) {
+                    traines.put(segment.getLivraisonId(), new Traine(segment));
+                    absentes.remove(segment.getLivraisonId());
+                }
+            }
+            if (!absentes.isEmpty()) {
+                // Sans tronçon ouvert (tous fermés, ou traîne perdue avant sa première écriture) :
+                // la numérotation reprend après le dernier tronçon en base
+                for (Object[] ligne : segmentRepository.findDerniersNumeros(absentes)) {
+                    premiersNumeros.put((Long) ligne[0], ((Number) ligne[1]).intValue() + 1);
+                }
+            }
+
+            List<SegmentTrajectoire> fermes = new ArrayList<>();
+            relevesParLivraison.forEach((livraisonId, releves) -> {
+                List<IngestionPositions.Releve> tries = new ArrayList<>(releves);
+                tries.sort(Comparator.comparingLong(IngestionPositions.Releve::horodatageMs));
+
+                Traine traine = traines.computeIfAbsent(livraisonId,
+                        id -> new Traine(nouveauSegment(id, premiersNumeros.getOrDefault(id, 0))));
+                for (IngestionPositions.Releve releve : tries) {
+                    if (traine.encodeur.nombre() >= pointsParSegment || traine.encodeur.longueur() >= OCTETS_MAX) {
+                        enregistrer(traine.segment, traine.encodeur);
+                        traine.segment.setOuvert(false);
+                        fermes.add(traine.segment);
+                        traine.ouvrir(nouveauSegment(livraisonId, traine.segment.getNumero() + 1));
+                    }
+                    int avant = traine.encodeur.longueur();
+                    traine.encodeur.ajouter(releve.horodatageMs(), releve.latitude(), releve.longitude());
+                    if (traine.segment.getDebut() == null) {
+                        traine.segment.setDebut(date(releve.horodatageMs()));
+                    }
+                    traine.modifiee = true;
+                    octetsAjoutes.add(traine.encodeur.longueur() - avant);
+                    pointsAjoutes.increment();
+                }
+            });
+            if (!fermes.isEmpty()) {
+                persister(fermes, List.of());
+            }
+        }
+    }
+
+    /**
+     * Écrit les traînes modifiées depuis la dernière écriture et oublie celles restées sans relevé
+     */
+    @Scheduled(fixedDelayString = "${trajectoires.ecriture-ms:30000}")
+    public void ecrire() {
+        synchronized (verrou) {
+            List<Traine> modifiees = new ArrayList<>();
+            for (Iterator<Traine> it = traines.values().iterator(); it.hasNext(); ) {
+                Traine traine = it.next();
+                if (traine.modifiee) {
+                    modifiees.add(traine);
+                } else {
+                    it.remove();
+                }
+            }
+            if (!modifiees.isEmpty()) {
+                persister(List.of(), modifiees);
+            }
+        }
+    }
+
+    @PreDestroy
+    public void vider() {
+        ecrire();
+    }
+
+    /**
+     * Écrit des tronçons fermés et des traînes dans une transaction ; en cas d'échec, les livraisons
+     * concernées sont oubliées (relues au prochain relevé)
+     */
+    private void persister(List<SegmentTrajectoire> fermes, List<Traine> modifiees) {
+        try {
+            transactionTemplate.executeWithoutResult(statut -> {
+                segmentRepository.saveAll(fermes);
+                for (Traine traine : modifiees) {
+                    enregistrer(traine.segment, traine.encodeur);
+                    // Instance gérée : elle porte la version incrémentée à la validation
+                    traine.segment = segmentRepository.save(traine.segment);
+                }
+            });
+            modifiees.forEach(traine -> traine.modifiee = false);
+            segmentsEcrits.add(fermes.size() + modifiees.size());
+        } catch (RuntimeException e) {
+            fermes.forEach(segment -> traines.remove(segment.getLivraisonId()));
+            modifiees.forEach(traine -> traines.remove(traine.segment.getLivraisonId()));
+            conflits.increment();
+            log.error("Écriture de {} tronçons de trajectoire impossible: {}",
+                    fermes.size() + modifiees.size(), e.getMessage());
+        }
+    }
+
+    /**
+     * Trajectoire complète d'une livraison, dans l'ordre des relevés (traîne non écrite comprise)
+     */
+    public List<CodecTrajectoire.Point> lire(Long livraisonId) {
+        lectures.increment();
+        // Traîne copiée avant la lecture en base : un tronçon fermé entre-temps est lu depuis la copie
+        int numeroTraine = Integer.MAX_VALUE;
+        byte[] traine = null;
+        synchronized (verrou) {
+            Traine enMemoire = traines.get(livraisonId);
+            if (enMemoire != null) {
+                numeroTraine = enMemoire.segment.getNumero();
+                traine = enMemoire.encodeur.octets();
+            }
+        }
+        List<CodecTrajectoire.Point> points = new ArrayList<>();
+        for (SegmentTrajectoire segment : segmentRepository.findByLivraisonIdOrderByNumeroAsc(livraisonId)) {
+            if (segment.getNumero() < numeroTraine) {
+                points.addAll(CodecTrajectoire.decoder(segment.getDonnees()));
+            }
+        }
+        if (traine != null) {
+            points.addAll(CodecTrajectoire.decoder(traine));
+        }
+        return points;
+    }
+
+    private SegmentTrajectoire nouveauSegment(Long livraisonId, int numero) {
+        segmentsOuverts.increment();
+        return SegmentTrajectoire.builder()
+                .livraisonId(livraisonId)
+                .numero(numero)
+                .build();
+    }
+
+    private static CodecTrajectoire.Encodeur reprendre(SegmentTrajectoire segment) {
+        if (segment.getDonnees() == null || segment.getNombrePoints() == 0) {
+            return CodecTrajectoire.Encodeur.nouveau();
+        }
+        return CodecTrajectoire.Encodeur.reprendre(segment.getDonnees(), segment.getNombrePoints(),
+                segment.getDernierHorodatage(), segment.getDerniereLatitude(), segment.getDerniereLongitude());
+    }
+
+    private static void enregistrer(SegmentTrajectoire segment, CodecTrajectoire.Encodeur encodeur) {
+        segment.setDonnees(encodeur.octets());
+        segment.setNombrePoints(encodeur.nombre());
+        segment.setDernierHorodatage(encodeur.dernierHorodatage());
+        segment.setDerniereLatitude(encodeur.derniereLatitude());
+        segment.setDerniereLongitude(encodeur.derniereLongitude());
+        segment.setFin(date(encodeur.dernierHorodatage()));
+    }
+
+    private static LocalDateTime date(long horodatageMs) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(horodatageMs), ZoneId.systemDefault());
+    }
+
+    @Override
+    public String getNom() {
+        return "trajectoires";
+    }
+
+    @Override
+    public Map<String, Object> getMetriques() {
+        Map<String, Object> metriques = new LinkedHashMap<>();
+        long points = pointsAjoutes.sum();
+        metriques.put("pointsAjoutes", points);
+        metriques.put("octetsAjoutes", octetsAjoutes.sum());
+        metriques.put("octetsParPoint", points > 0 ? Math.round(octetsAjoutes.sum() * 100.0 / points) / 100.0 : 0.0);
+        metriques.put("segmentsOuverts", segmentsOuverts.sum());
+        metriques.put("segmentsEcrits", segmentsEcrits.sum());
+        metriques.put("conflits", conflits.sum());
+        synchronized (verrou) {
+            metriques.put("trainesEnMemoire", traines.size());
+        }
+        metriques.put("lectures", lectures.sum());
+        return metriques;
+    }
+
+    /**
+     * Tronçon ouvert d'une livraison et son encodage en cours
+     */
+    private static final class Traine {
+        SegmentTrajectoire segment;
+        CodecTrajectoire.Encodeur encodeur;
+        boolean modifiee;
+
+        Traine(SegmentTrajectoire segment) {
+            this.segment = segment;
+            this.encodeur = reprendre(segment);
+        }
+
+        void ouvrir(SegmentTrajectoire suivant) {
+            segment = suivant;
+            encodeur = CodecTrajectoire.Encodeur.nouveau();
+        }
+    }
+}
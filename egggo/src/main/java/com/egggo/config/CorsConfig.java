@@ -47,14 +47,16 @@ public class CorsConfig {
                 "Accept",
                 "Origin",
                 "Access-Control-Request-Method",
-                "Access-Control-Request-Headers"
+                "Access-Control-Request-Headers",
+                "Idempotency-Key"
         ));
         
         // Headers exposés dans la réponse
         configuration.setExposedHeaders(Arrays.asList(
                 "Access-Control-Allow-Origin",
                 "Access-Control-Allow-Credentials",
-                "Authorization"
+                "Authorization",
+                "Idempotency-Replayed"
         ));
         
         // Autoriser les credentials (cookies, authorization headers)
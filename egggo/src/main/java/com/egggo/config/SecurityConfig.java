@@ -1,6 +1,8 @@
 package com.egggo.config;
 
+import com.egggo.infrastructure.idempotence.IdempotenceFilter;
 import com.egggo.security.JwtAuthenticationFilter;
+import com.egggo.security.LimiteDebitFilter;
 import lombok.RequiredArgsConstructor;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -32,6 +34,8 @@ import org.springframework.web.cors.CorsConfigurationSource;
 public class SecurityConfig {
 
     private final JwtAuthenticationFilter jwtAuthFilter;
+    private final LimiteDebitFilter limiteDebitFilter;
+    private final IdempotenceFilter idempotenceFilter;
     private final UserDetailsService userDetailsService;
     private final CorsConfigurationSource corsConfigurationSource;
 
@@ -42,6 +46,7 @@ public class SecurityConfig {
             "/v1/auth/**",
             "/v1/produits/**",
             "/v1/categories/**",
+            "/v1/recherche/**",
             "/v3/api-docs/**",
             "/swagger-ui/**",
             "/swagger-ui.html",
@@ -86,7 +91,11 @@ public class SecurityConfig {
                 .authenticationProvider(authenticationProvider())
                 
                 // Filtre JWT avant le filtre d'authentification standard
-                .addFilterBefore(jwtAuthFilter, UsernamePasswordAuthenticationFilter.class);
+                .addFilterBefore(jwtAuthFilter, UsernamePasswordAuthenticationFilter.class)
+
+                // Limitation de débit, une fois l'utilisateur identifié par le JWT
+                .addFilterAfter(limiteDebitFilter, JwtAuthenticationFilter.class)
+                .addFilterAfter(idempotenceFilter, LimiteDebitFilter.class);
         
         return http.build();
     }
@@ -0,0 +1,17 @@
+package com.egggo.domain.event;
+
+import com.egggo.domain.model.order.Commande;
+
+import java.time.LocalDateTime;
+
+/**
+ * Événement publié lorsqu'une commande passe au statut ANNULEE (client, producteur ou expiration du paiement)
+ */
+public record CommandeAnnuleeEvent(Long commandeId, LocalDateTime dateCommande, String ville, double montant) {
+
+    public static CommandeAnnuleeEvent of(Commande commande) {
+        return new CommandeAnnuleeEvent(commande.getId(), commande.getDateCommande(),
+                commande.getAdresseLivraison() != null ? commande.getAdresseLivraison().getVille() : null,
+                commande.getMontantTotal());
+    }
+}
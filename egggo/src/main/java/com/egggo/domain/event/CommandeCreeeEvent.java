@@ -0,0 +1,18 @@
+package com.egggo.domain.event;
+
+import com.egggo.domain.model.order.Commande;
+
+import java.time.LocalDateTime;
+
+/**
+ * Événement publié à la création d'une commande ; les agrégats statistiques le traitent après commit
+ * Les valeurs utiles sont copiées à la publication pour ne pas relire l'entité hors transaction.
+ */
+public record CommandeCreeeEvent(Long commandeId, LocalDateTime dateCommande, String ville, double montant) {
+
+    public static CommandeCreeeEvent of(Commande commande) {
+        return new CommandeCreeeEvent(commande.getId(), commande.getDateCommande(),
+                commande.getAdresseLivraison() != null ? commande.getAdresseLivraison().getVille() : null,
+                commande.getMontantTotal());
+    }
+}
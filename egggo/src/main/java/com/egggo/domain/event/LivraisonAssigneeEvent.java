@@ -0,0 +1,16 @@
+package com.egggo.domain.event;
+
+import com.egggo.domain.model.delivery.Livraison;
+
+import java.time.LocalDateTime;
+
+/**
+ * Événement publié à la création (assignation) d'une livraison
+ */
+public record LivraisonAssigneeEvent(Long livraisonId, Long livreurId, String ville, LocalDateTime dateAssignation) {
+
+    public static LivraisonAssigneeEvent of(Livraison livraison) {
+        return new LivraisonAssigneeEvent(livraison.getId(), livraison.getLivreur().getId(),
+                LivraisonTermineeEvent.villeDe(livraison), livraison.getDateAssignation());
+    }
+}
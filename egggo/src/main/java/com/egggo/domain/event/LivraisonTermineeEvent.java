@@ -0,0 +1,30 @@
+package com.egggo.domain.event;
+
+import com.egggo.domain.model.delivery.Livraison;
+import com.egggo.domain.model.delivery.StatutLivraison;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+/**
+ * Événement publié quand une livraison atteint un état final (livrée ou échouée)
+ * La durée acceptation → livraison est nulle si la livraison a échoué ou n'a pas été acceptée.
+ */
+public record LivraisonTermineeEvent(Long livraisonId, Long livreurId, String ville, LocalDateTime dateAssignation,
+                                     boolean reussie, Double distanceKm, Long dureeSecondes) {
+
+    public static LivraisonTermineeEvent of(Livraison livraison) {
+        boolean reussie = livraison.getStatut() == StatutLivraison.LIVREE;
+        Long duree = reussie && livraison.getDateAcceptation() != null && livraison.getDateLivraison() != null
+                ? Duration.between(livraison.getDateAcceptation(), livraison.getDateLivraison()).toSeconds()
+                : null;
+        return new LivraisonTermineeEvent(livraison.getId(), livraison.getLivreur().getId(), villeDe(livraison),
+                livraison.getDateAssignation(), reussie, livraison.getDistanceKm(), duree);
+    }
+
+    static String villeDe(Livraison livraison) {
+        return livraison.getCommande() != null && livraison.getCommande().getAdresseLivraison() != null
+                ? livraison.getCommande().getAdresseLivraison().getVille()
+                : null;
+    }
+}
@@ -0,0 +1,24 @@
+package com.egggo.domain.event;
+
+import com.egggo.domain.model.user.Livreur;
+
+/**
+ * Événement publié lorsque la position, la disponibilité, la validation ou l'activation d'un livreur change
+ * L'état utile est copié à la publication : l'index des livreurs ne relit pas la base.
+ */
+public record LivreurModifieEvent(Long livreurId, boolean assignable, Double latitude, Double longitude) {
+
+    public static LivreurModifieEvent of(Livreur livreur) {
+        return new LivreurModifieEvent(livreur.getId(), estAssignable(livreur),
+                livreur.getLatitude(), livreur.getLongitude());
+    }
+
+    /**
+     * Un livreur peut recevoir une livraison s'il est disponible, actif et validé
+     */
+    public static boolean estAssignable(Livreur livreur) {
+        return Boolean.TRUE.equals(livreur.getDisponible())
+                && Boolean.TRUE.equals(livreur.getActif())
+                && Boolean.TRUE.equals(livreur.getValide());
+    }
+}
@@ -0,0 +1,7 @@
+package com.egggo.domain.event;
+
+/**
+ * Événement publié lorsqu'un producteur est créé, validé, refusé, (dés)activé ou modifie son profil
+ */
+public record ProducteurModifieEvent(Long producteurId) {
+}
@@ -0,0 +1,19 @@
+package com.egggo.domain.event;
+
+import java.util.Collection;
+import java.util.Set;
+
+/**
+ * Événement publié lorsqu'un ou plusieurs produits sont créés, modifiés ou supprimés
+ * (stock, prix, disponibilité...). Les caches et index en mémoire le traitent après commit.
+ */
+public record ProduitsModifiesEvent(Set<Long> produitIds) {
+
+    public static ProduitsModifiesEvent of(Long... produitIds) {
+        return new ProduitsModifiesEvent(Set.of(produitIds));
+    }
+
+    public static ProduitsModifiesEvent of(Collection<Long> produitIds) {
+        return new ProduitsModifiesEvent(Set.copyOf(produitIds));
+    }
+}
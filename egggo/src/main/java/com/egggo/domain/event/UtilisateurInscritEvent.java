@@ -0,0 +1,16 @@
+package com.egggo.domain.event;
+
+import com.egggo.domain.model.user.Role;
+import com.egggo.domain.model.user.Utilisateur;
+
+import java.time.LocalDateTime;
+
+/**
+ * Événement publié après l'inscription d'un utilisateur
+ */
+public record UtilisateurInscritEvent(Long utilisateurId, Role role, LocalDateTime dateInscription) {
+
+    public static UtilisateurInscritEvent of(Utilisateur utilisateur) {
+        return new UtilisateurInscritEvent(utilisateur.getId(), utilisateur.getRole(), utilisateur.getDateCreation());
+    }
+}
@@ -16,7 +16,8 @@ import lombok.*;
 public class Adresse {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "adresses_id_seq")
+    @SequenceGenerator(name = "adresses_id_seq", sequenceName = "adresses_id_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false, length = 100)
@@ -5,24 +5,32 @@ import com.egggo.domain.model.user.Livreur;
 import jakarta.persistence.*;
 import lombok.*;
 
+import java.security.SecureRandom;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Random;
 
 /**
  * Entité représentant une livraison de commande
  */
 @Entity
-@Table(name = "livraisons")
+@Table(name = "livraisons", indexes = {
+        @Index(name = "idx_livraison_livreur_date", columnList = "livreur_id, date_assignation, id")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
 public class Livraison {
 
+    /**
+     * Le code remis au client prouve la livraison : il doit rester imprévisible
+     */
+    private static final SecureRandom ALEA_CODE = new SecureRandom();
+
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "livraisons_id_seq")
+    @SequenceGenerator(name = "livraisons_id_seq", sequenceName = "livraisons_id_seq", allocationSize = 50)
     private Long id;
 
     @OneToOne(fetch = FetchType.LAZY)
@@ -75,8 +83,7 @@ public class Livraison {
     @PrePersist
     public void prePersist() {
         if (codeConfirmation == null) {
-            Random random = new Random();
-            codeConfirmation = String.format("%04d", random.nextInt(10000));
+            codeConfirmation = String.format("%04d", ALEA_CODE.nextInt(10000));
         }
         if (dateAssignation == null) {
             dateAssignation = LocalDateTime.now();
@@ -9,7 +9,9 @@ import java.time.LocalDateTime;
  * Entité représentant une position GPS dans l'historique de livraison
  */
 @Entity
-@Table(name = "positions_gps")
+@Table(name = "positions_gps", indexes = {
+        @Index(name = "idx_position_livraison_date", columnList = "livraison_id, timestamp")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -17,7 +19,8 @@ import java.time.LocalDateTime;
 public class PositionGPS {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "positions_gps_id_seq")
+    @SequenceGenerator(name = "positions_gps_id_seq", sequenceName = "positions_gps_id_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY)
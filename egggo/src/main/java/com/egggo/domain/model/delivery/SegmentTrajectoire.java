@@ -0,0 +1,73 @@
+package com.egggo.domain.model.delivery;
+
+import com.egggo.infrastructure.id.GenerateurIdentifiants;
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Tronçon compressé de la trajectoire d'une livraison (voir CodecTrajectoire)
+ * Une trajectoire est découpée en tronçons numérotés d'au plus quelques centaines de points ;
+ * seul le dernier est ouvert et reçoit les nouveaux relevés. Le dernier point quantifié est conservé
+ * en clair pour prolonger l'encodage sans le relire.
+ */
+@Entity
+@Table(name = "segments_trajectoire",
+        uniqueConstraints = @UniqueConstraint(name = "uk_segment_livraison_numero", columnNames = {"livraison_id", "numero"}),
+        indexes = @Index(name = "idx_segment_livraison_ouvert", columnList = "livraison_id, ouvert"))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class SegmentTrajectoire {
+
+    @Id
+    private Long id;
+
+    @Column(name = "livraison_id", nullable = false)
+    private Long livraisonId;
+
+    @Column(nullable = false)
+    private Integer numero;
+
+    @Column(nullable = false)
+    @Builder.Default
+    private Boolean ouvert = true;
+
+    @Column(name = "nombre_points", nullable = false)
+    @Builder.Default
+    private Integer nombrePoints = 0;
+
+    private LocalDateTime debut;
+
+    private LocalDateTime fin;
+
+    /**
+     * Dernier point encodé : horodatage en ms et coordonnées quantifiées au 1e-5 degré
+     */
+    @Column(name = "dernier_horodatage")
+    private Long dernierHorodatage;
+
+    @Column(name = "derniere_latitude")
+    private Integer derniereLatitude;
+
+    @Column(name = "derniere_longitude")
+    private Integer derniereLongitude;
+
+    @Column(nullable = false, length = 8192)
+    private byte[] donnees;
+
+    /**
+     * Verrou optimiste : une écriture concurrente du même tronçon échoue au lieu d'écraser l'autre
+     */
+    @Version
+    private Long version;
+
+    @PrePersist
+    public void prePersist() {
+        if (id == null) {
+            id = GenerateurIdentifiants.instance().prochain();
+        }
+    }
+}
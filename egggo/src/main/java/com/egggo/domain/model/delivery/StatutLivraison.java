@@ -1,5 +1,7 @@
 package com.egggo.domain.model.delivery;
 
+import java.util.List;
+
 /**
  * Énumération des statuts de livraison
  */
@@ -13,6 +15,12 @@ public enum StatutLivraison {
     LIVREE("Livrée", "La commande a été livrée"),
     ECHOUEE("Échouée", "La livraison a échoué");
 
+    /**
+     * Statuts d'une livraison acceptée et pas encore terminée (trajet en cours)
+     */
+    public static final List<StatutLivraison> EN_COURS =
+            List.of(ACCEPTEE, EN_ROUTE_PRODUCTEUR, RECUPEREE, EN_ROUTE_CLIENT, ARRIVEE);
+
     private final String libelle;
     private final String description;
 
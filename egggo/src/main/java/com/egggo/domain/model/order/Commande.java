@@ -4,6 +4,7 @@ import com.egggo.domain.model.common.Adresse;
 import com.egggo.domain.model.delivery.Livraison;
 import com.egggo.domain.model.user.Client;
 import com.egggo.domain.model.user.Producteur;
+import com.egggo.infrastructure.id.GenerateurIdentifiants;
 import jakarta.persistence.*;
 import lombok.*;
 import org.springframework.data.annotation.CreatedDate;
@@ -13,13 +14,23 @@ import org.springframework.data.jpa.domain.support.AuditingEntityListener;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.UUID;
 
 /**
  * Entité représentant une commande passée par un client
  */
 @Entity
-@Table(name = "commandes")
+@Table(name = "commandes", indexes = {
+        @Index(name = "idx_commande_client_date", columnList = "client_id, date_commande, id"),
+        @Index(name = "idx_commande_producteur_date", columnList = "producteur_id, date_commande, id")
+})
+@NamedEntityGraph(name = Commande.GRAPHE_LISTE,
+        attributeNodes = {
+                @NamedAttributeNode("client"),
+                @NamedAttributeNode("producteur"),
+                @NamedAttributeNode("adresseLivraison"),
+                @NamedAttributeNode(value = "livraison", subgraph = "livraison")
+        },
+        subgraphs = @NamedSubgraph(name = "livraison", attributeNodes = @NamedAttributeNode("livreur")))
 @EntityListeners(AuditingEntityListener.class)
 @Data
 @NoArgsConstructor
@@ -27,8 +38,16 @@ import java.util.UUID;
 @Builder
 public class Commande {
 
+    /**
+     * Graphe des listes de commandes : relations à un seul élément chargées par jointure
+     * (la livraison, côté inverse du one-to-one, serait sinon lue commande par commande).
+     * Les lignes et leurs produits sont chargés par lots (hibernate.default_batch_fetch_size).
+     */
+    public static final String GRAPHE_LISTE = "Commande.liste";
+
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "commandes_id_seq")
+    @SequenceGenerator(name = "commandes_id_seq", sequenceName = "commandes_id_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false, unique = true, length = 50)
@@ -105,8 +124,7 @@ public class Commande {
     @PrePersist
     public void prePersist() {
         if (reference == null) {
-            String uuid = UUID.randomUUID().toString().substring(0, 8).toUpperCase();
-            reference = "EGG-" + java.time.Year.now().getValue() + "-" + uuid;
+            reference = "EGG-" + java.time.Year.now().getValue() + "-" + GenerateurIdentifiants.instance().prochainTexte();
         }
     }
 
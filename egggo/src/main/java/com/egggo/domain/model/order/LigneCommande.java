@@ -16,7 +16,8 @@ import lombok.*;
 public class LigneCommande {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "lignes_commande_id_seq")
+    @SequenceGenerator(name = "lignes_commande_id_seq", sequenceName = "lignes_commande_id_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY)
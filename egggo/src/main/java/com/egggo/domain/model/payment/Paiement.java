@@ -2,13 +2,13 @@ package com.egggo.domain.model.payment;
 
 import com.egggo.domain.model.order.Commande;
 import com.egggo.domain.model.order.ModePaiement;
+import com.egggo.infrastructure.id.GenerateurIdentifiants;
 import jakarta.persistence.*;
 import lombok.*;
 import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.jpa.domain.support.AuditingEntityListener;
 
 import java.time.LocalDateTime;
-import java.util.UUID;
 
 /**
  * Entité représentant un paiement pour une commande
@@ -23,7 +23,8 @@ import java.util.UUID;
 public class Paiement {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "paiements_id_seq")
+    @SequenceGenerator(name = "paiements_id_seq", sequenceName = "paiements_id_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false, unique = true, length = 50)
@@ -70,8 +71,7 @@ public class Paiement {
     @PrePersist
     public void prePersist() {
         if (reference == null) {
-            String uuid = UUID.randomUUID().toString().substring(0, 8).toUpperCase();
-            reference = "PAY-" + System.currentTimeMillis() + "-" + uuid;
+            reference = "PAY-" + GenerateurIdentifiants.instance().prochainTexte();
         }
     }
 
@@ -22,7 +22,8 @@ import java.time.LocalDateTime;
 public class Produit {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "produits_id_seq")
+    @SequenceGenerator(name = "produits_id_seq", sequenceName = "produits_id_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false, length = 150)
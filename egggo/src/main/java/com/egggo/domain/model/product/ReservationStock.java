@@ -0,0 +1,49 @@
+package com.egggo.domain.model.product;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.springframework.data.annotation.CreatedDate;
+import org.springframework.data.jpa.domain.support.AuditingEntityListener;
+
+import java.time.LocalDateTime;
+
+/**
+ * Entité représentant une réservation de stock entre la commande et la confirmation du paiement
+ * Le stock des lignes de la commande est retiré dès la commande ; la réservation indique s'il
+ * doit être restitué. Elle ne change de statut qu'une fois (mise à jour conditionnelle sur ACTIVE),
+ * ce qui départage sans verrou une confirmation de paiement et une expiration simultanées.
+ */
+@Entity
+@Table(name = "reservations_stock", indexes = {
+        @Index(name = "idx_reservation_statut_expiration", columnList = "statut, date_expiration")
+})
+@EntityListeners(AuditingEntityListener.class)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ReservationStock {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "reservations_stock_id_seq")
+    @SequenceGenerator(name = "reservations_stock_id_seq", sequenceName = "reservations_stock_id_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(name = "commande_id", nullable = false, unique = true)
+    private Long commandeId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    @Builder.Default
+    private StatutReservation statut = StatutReservation.ACTIVE;
+
+    @Column(name = "date_expiration", nullable = false)
+    private LocalDateTime dateExpiration;
+
+    @CreatedDate
+    @Column(nullable = false, updatable = false)
+    private LocalDateTime dateCreation;
+
+    @Column
+    private LocalDateTime dateCloture;
+}
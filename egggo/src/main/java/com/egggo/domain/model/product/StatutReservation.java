@@ -0,0 +1,27 @@
+package com.egggo.domain.model.product;
+
+/**
+ * Énumération des statuts d'une réservation de stock
+ */
+public enum StatutReservation {
+    ACTIVE("Active", "Le stock est retenu en attendant le paiement"),
+    CONVERTIE("Convertie", "Le paiement a été confirmé, le stock est définitivement vendu"),
+    LIBEREE("Libérée", "Le paiement ou la commande a été annulé, le stock a été restitué"),
+    EXPIREE("Expirée", "Le paiement n'a pas été confirmé à temps, le stock a été restitué");
+
+    private final String libelle;
+    private final String description;
+
+    StatutReservation(String libelle, String description) {
+        this.libelle = libelle;
+        this.description = description;
+    }
+
+    public String getLibelle() {
+        return libelle;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+}
@@ -0,0 +1,43 @@
+package com.egggo.domain.model.stats;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.TemporalAdjusters;
+import java.util.Locale;
+
+/**
+ * Granularités calendaires des agrégats statistiques (semaine ISO commençant le lundi)
+ */
+public enum Granularite {
+    JOUR,
+    SEMAINE,
+    MOIS,
+    ANNEE;
+
+    /**
+     * Premier jour de la période qui contient le jour donné
+     */
+    public LocalDate debut(LocalDate jour) {
+        return switch (this) {
+            case JOUR -> jour;
+            case SEMAINE -> jour.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+            case MOIS -> jour.withDayOfMonth(1);
+            case ANNEE -> jour.withDayOfYear(1);
+        };
+    }
+
+    /**
+     * Granularité correspondant au paramètre "periode" des statistiques (jour, semaine, mois par défaut, annee)
+     */
+    public static Granularite depuisPeriode(String periode) {
+        if (periode == null) {
+            return MOIS;
+        }
+        return switch (periode.toLowerCase(Locale.ROOT)) {
+            case "jour" -> JOUR;
+            case "semaine" -> SEMAINE;
+            case "annee" -> ANNEE;
+            default -> MOIS;
+        };
+    }
+}
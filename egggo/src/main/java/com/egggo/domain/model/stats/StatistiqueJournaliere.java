@@ -0,0 +1,98 @@
+package com.egggo.domain.model.stats;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.io.Serializable;
+import java.text.Normalizer;
+import java.time.LocalDate;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * Compteurs d'activité agrégés par journée (fuseau métier) et par ville
+ * La clé (jour, ville) est la clé primaire : le tableau de bord lit quelques lignes par clé.
+ * Les compteurs sont incrémentés par des mises à jour relatives (jamais réécrits depuis
+ * l'application), ce qui permet à plusieurs instances de les alimenter en parallèle.
+ * Les inscriptions n'ont pas de ville : elles sont rangées sous {@link #SANS_VILLE}.
+ */
+@Entity
+@Table(name = "statistiques_journalieres")
+@IdClass(StatistiqueJournaliere.Cle.class)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class StatistiqueJournaliere {
+
+    public static final String SANS_VILLE = "";
+    public static final int LONGUEUR_VILLE = 100;
+
+    private static final Pattern DIACRITIQUES = Pattern.compile("\\p{M}+");
+    private static final Pattern ESPACES = Pattern.compile("\\s+");
+
+    @Id
+    @Column(nullable = false)
+    private LocalDate jour;
+
+    @Id
+    @Column(nullable = false, length = LONGUEUR_VILLE)
+    private String ville;
+
+    /**
+     * Commandes passées ce jour-là, annulées comprises
+     */
+    @Column(nullable = false)
+    @Builder.Default
+    private Long commandes = 0L;
+
+    /**
+     * Montant des commandes du jour, déduction faite des commandes annulées depuis
+     */
+    @Column(nullable = false)
+    @Builder.Default
+    private Double chiffreAffaires = 0.0;
+
+    /**
+     * Commandes du jour annulées depuis (comptées au jour de la commande)
+     */
+    @Column(nullable = false)
+    @Builder.Default
+    private Long annulations = 0L;
+
+    @Column(nullable = false)
+    @Builder.Default
+    private Long nouveauxClients = 0L;
+
+    @Column(nullable = false)
+    @Builder.Default
+    private Long nouveauxProducteurs = 0L;
+
+    @Column(nullable = false)
+    @Builder.Default
+    private Long nouveauxLivreurs = 0L;
+
+    /**
+     * Ville normalisée servant de clé : sans accents, en minuscules, espaces réduits, tronquée
+     * (« Yaoundé », « YAOUNDE » et « yaounde » désignent la même ville)
+     */
+    public static String normaliserVille(String ville) {
+        if (ville == null || ville.isBlank()) {
+            return SANS_VILLE;
+        }
+        String sansAccents = DIACRITIQUES.matcher(Normalizer.normalize(ville.trim(), Normalizer.Form.NFD)).replaceAll("");
+        String normalisee = ESPACES.matcher(sansAccents).replaceAll(" ").toLowerCase(Locale.ROOT);
+        return normalisee.length() > LONGUEUR_VILLE ? normalisee.substring(0, LONGUEUR_VILLE) : normalisee;
+    }
+
+    /**
+     * Clé primaire composite (jour, ville)
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Cle implements Serializable {
+        private LocalDate jour;
+        private String ville;
+    }
+}
@@ -0,0 +1,90 @@
+package com.egggo.domain.model.stats;
+
+import com.egggo.infrastructure.metrics.HistogrammeLogarithmique;
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+
+/**
+ * Agrégat des livraisons d'une période calendaire (jour, semaine, mois, année) pour une dimension :
+ * toutes les livraisons, un livreur ou une ville de livraison
+ * Chaque livraison alimente les quatre granularités de ses trois dimensions : toute requête de
+ * statistiques se réduit à la lecture d'une ligne par clé primaire. Les durées acceptation →
+ * livraison sont conservées sous forme d'esquisse de quantiles sérialisée.
+ * Les livraisons sont rattachées au jour de leur assignation.
+ */
+@Entity
+@Table(name = "statistiques_livraisons")
+@IdClass(StatistiqueLivraison.Cle.class)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class StatistiqueLivraison {
+
+    public static final String TOUTES = "*";
+
+    @Id
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 10)
+    private Granularite granularite;
+
+    @Id
+    @Column(nullable = false)
+    private LocalDate debut;
+
+    @Id
+    @Column(nullable = false, length = 120)
+    private String dimension;
+
+    @Column(nullable = false)
+    @Builder.Default
+    private Long assignees = 0L;
+
+    @Column(nullable = false)
+    @Builder.Default
+    private Long reussies = 0L;
+
+    @Column(nullable = false)
+    @Builder.Default
+    private Long echouees = 0L;
+
+    /**
+     * Distance cumulée des livraisons réussies
+     */
+    @Column(nullable = false)
+    @Builder.Default
+    private Double distanceKm = 0.0;
+
+    /**
+     * Esquisse des durées acceptation → livraison, en secondes
+     */
+    @Column(length = 8192)
+    private byte[] durees;
+
+    public HistogrammeLogarithmique lireDurees() {
+        return HistogrammeLogarithmique.decoder(durees);
+    }
+
+    public static String dimensionLivreur(Long livreurId) {
+        return "livreur:" + livreurId;
+    }
+
+    public static String dimensionVille(String ville) {
+        return "ville:" + StatistiqueJournaliere.normaliserVille(ville);
+    }
+
+    /**
+     * Clé primaire composite (granularité, début de période, dimension)
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Cle implements Serializable {
+        private Granularite granularite;
+        private LocalDate debut;
+        private String dimension;
+    }
+}
@@ -25,7 +25,8 @@ import java.util.List;
 public class Abonnement {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "abonnements_id_seq")
+    @SequenceGenerator(name = "abonnements_id_seq", sequenceName = "abonnements_id_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false, length = 100)
@@ -0,0 +1,72 @@
+package com.egggo.domain.model.user;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.springframework.data.annotation.CreatedDate;
+import org.springframework.data.jpa.domain.support.AuditingEntityListener;
+
+import java.time.LocalDateTime;
+
+/**
+ * Entité représentant un token de rafraîchissement
+ * Seule l'empreinte SHA-256 du token est stockée. Chaque rafraîchissement révoque le token
+ * utilisé et en émet un nouveau dans la même famille : la réutilisation d'un token déjà
+ * consommé révèle un vol et entraîne la révocation de toute la famille.
+ */
+@Entity
+@Table(name = "jetons_rafraichissement", indexes = {
+        @Index(name = "idx_jeton_famille", columnList = "famille"),
+        @Index(name = "idx_jeton_utilisateur", columnList = "utilisateur_id")
+})
+@EntityListeners(AuditingEntityListener.class)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class JetonRafraichissement {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "jetons_rafraichissement_id_seq")
+    @SequenceGenerator(name = "jetons_rafraichissement_id_seq", sequenceName = "jetons_rafraichissement_id_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(nullable = false, unique = true, length = 64)
+    private String empreinte;
+
+    @Column(name = "utilisateur_id", nullable = false)
+    private Long utilisateurId;
+
+    /**
+     * Identifiant de la chaîne de rotation (commun à tous les tokens issus d'une même connexion)
+     */
+    @Column(nullable = false, length = 36)
+    private String famille;
+
+    /**
+     * Identifiant (jti) du token d'accès émis avec ce token de rafraîchissement
+     */
+    @Column(name = "jti_acces", length = 36)
+    private String jtiAcces;
+
+    @Column(nullable = false)
+    private LocalDateTime dateExpiration;
+
+    @Column(nullable = false)
+    @Builder.Default
+    private Boolean revoque = false;
+
+    @Column
+    private LocalDateTime dateRevocation;
+
+    @Enumerated(EnumType.STRING)
+    @Column(length = 20)
+    private MotifRevocation motifRevocation;
+
+    @CreatedDate
+    @Column(nullable = false, updatable = false)
+    private LocalDateTime dateCreation;
+
+    public boolean estExpire() {
+        return dateExpiration.isBefore(LocalDateTime.now());
+    }
+}
@@ -4,6 +4,7 @@ import com.egggo.domain.model.delivery.Livraison;
 import jakarta.persistence.*;
 import lombok.*;
 import lombok.experimental.SuperBuilder;
+import org.hibernate.annotations.DynamicUpdate;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -11,8 +12,11 @@ import java.util.List;
 /**
  * Entité représentant un livreur partenaire
  * Un livreur effectue les livraisons des commandes
+ * Mises à jour limitées aux colonnes modifiées : la position est écrite à part, par lots,
+ * et ne doit pas être écrasée par la sauvegarde d'une entité chargée plus tôt.
  */
 @Entity
+@DynamicUpdate
 @Table(name = "livreurs")
 @PrimaryKeyJoinColumn(name = "utilisateur_id")
 @Data
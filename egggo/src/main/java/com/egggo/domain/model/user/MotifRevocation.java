@@ -0,0 +1,11 @@
+package com.egggo.domain.model.user;
+
+/**
+ * Motif de révocation d'un token de rafraîchissement
+ */
+public enum MotifRevocation {
+    ROTATION,       // Remplacé par un nouveau token lors d'un rafraîchissement
+    DECONNEXION,    // Déconnexion explicite de l'utilisateur
+    REUTILISATION,  // Token déjà consommé présenté à nouveau (vol présumé)
+    DESACTIVATION   // Compte désactivé par un administrateur
+}
@@ -24,7 +24,8 @@ import java.time.LocalDateTime;
 public abstract class Utilisateur {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "utilisateurs_id_seq")
+    @SequenceGenerator(name = "utilisateurs_id_seq", sequenceName = "utilisateurs_id_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false, length = 100)
@@ -53,6 +54,14 @@ public abstract class Utilisateur {
     @Builder.Default
     private Boolean actif = true;
 
+    /**
+     * Version de sécurité du compte, embarquée dans les JWT émis
+     * Incrémentée à chaque changement sensible (désactivation, réactivation...)
+     */
+    @Column(name = "version_securite")
+    @Builder.Default
+    private Integer versionSecurite = 0;
+
     @CreatedDate
     @Column(nullable = false, updatable = false)
     private LocalDateTime dateCreation;
@@ -67,4 +76,11 @@ public abstract class Utilisateur {
     public String getNomComplet() {
         return prenom + " " + nom;
     }
+
+    /**
+     * Invalide les tokens émis avec la version de sécurité courante
+     */
+    public void incrementerVersionSecurite() {
+        this.versionSecurite = (versionSecurite != null ? versionSecurite : 0) + 1;
+    }
 }
@@ -2,14 +2,17 @@ package com.egggo.domain.repository;
 
 import com.egggo.domain.model.order.Commande;
 import com.egggo.domain.model.order.StatutCommande;
-import org.springframework.data.domain.Page;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -25,14 +28,63 @@ public interface CommandeRepository extends JpaRepository<Commande, Long> {
     Optional<Commande> findByReference(String reference);
 
     /**
-     * Trouve les commandes d'un client
+     * Lit une commande en verrouillant sa ligne jusqu'à la fin de la transaction (affectation d'un livreur)
      */
-    Page<Commande> findByClientIdOrderByDateCommandeDesc(Long clientId, Pageable pageable);
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT c FROM Commande c WHERE c.id = :id")
+    Optional<Commande> verrouiller(@Param("id") Long id);
 
     /**
-     * Trouve les commandes d'un producteur
+     * Page de commandes d'un client, de la plus récente à la plus ancienne, après un curseur (date, id)
      */
-    Page<Commande> findByProducteurIdOrderByDateCommandeDesc(Long producteurId, Pageable pageable);
+    @EntityGraph(Commande.GRAPHE_LISTE)
+    @Query("SELECT c FROM Commande c WHERE c.client.id = :clientId " +
+           "AND (c.dateCommande < :date OR (c.dateCommande = :date AND c.id < :id)) " +
+           "ORDER BY c.dateCommande DESC, c.id DESC")
+    List<Commande> findPageClient(@Param("clientId") Long clientId,
+                                  @Param("date") LocalDateTime date,
+                                  @Param("id") Long id,
+                                  Pageable limite);
+
+    /**
+     * Page de commandes d'un producteur, de la plus récente à la plus ancienne, après un curseur (date, id)
+     */
+    @EntityGraph(Commande.GRAPHE_LISTE)
+    @Query("SELECT c FROM Commande c WHERE c.producteur.id = :producteurId " +
+           "AND (c.dateCommande < :date OR (c.dateCommande = :date AND c.id < :id)) " +
+           "ORDER BY c.dateCommande DESC, c.id DESC")
+    List<Commande> findPageProducteur(@Param("producteurId") Long producteurId,
+                                      @Param("date") LocalDateTime date,
+                                      @Param("id") Long id,
+                                      Pageable limite);
+
+    /**
+     * Page de commandes d'un producteur dans un statut, après un curseur (date, id)
+     */
+    @EntityGraph(Commande.GRAPHE_LISTE)
+    @Query("SELECT c FROM Commande c WHERE c.producteur.id = :producteurId AND c.statut = :statut " +
+           "AND (c.dateCommande < :date OR (c.dateCommande = :date AND c.id < :id)) " +
+           "ORDER BY c.dateCommande DESC, c.id DESC")
+    List<Commande> findPageProducteurParStatut(@Param("producteurId") Long producteurId,
+                                               @Param("statut") StatutCommande statut,
+                                               @Param("date") LocalDateTime date,
+                                               @Param("id") Long id,
+                                               Pageable limite);
+
+    /**
+     * Compte les commandes d'un client
+     */
+    long countByClientId(Long clientId);
+
+    /**
+     * Compte les commandes d'un producteur
+     */
+    long countByProducteurId(Long producteurId);
+
+    /**
+     * Compte les commandes d'un producteur dans un statut
+     */
+    long countByProducteurIdAndStatut(Long producteurId, StatutCommande statut);
 
     /**
      * Trouve les commandes par statut
@@ -67,14 +119,17 @@ public interface CommandeRepository extends JpaRepository<Commande, Long> {
                                     @Param("debut") LocalDateTime debut);
 
     /**
-     * Trouve les commandes non payées
+     * Commandes aux statuts donnés encore sans livraison, de la plus ancienne à la plus récente
      */
-    List<Commande> findByPayeFalseAndStatutNot(StatutCommande statut);
+    @Query("SELECT c FROM Commande c JOIN FETCH c.producteur JOIN FETCH c.adresseLivraison " +
+           "WHERE c.statut IN :statuts AND NOT EXISTS (SELECT l.id FROM Livraison l WHERE l.commande = c) " +
+           "ORDER BY c.dateCommande ASC, c.id ASC")
+    List<Commande> findSansLivraison(@Param("statuts") Collection<StatutCommande> statuts, Pageable limite);
 
     /**
-     * Trouve les commandes d'un producteur avec un statut spécifique (paginé)
+     * Trouve les commandes non payées
      */
-    Page<Commande> findByProducteurIdAndStatutOrderByDateCommandeDesc(Long producteurId, StatutCommande statut, Pageable pageable);
+    List<Commande> findByPayeFalseAndStatutNot(StatutCommande statut);
 
     /**
      * Trouve les commandes après une date
@@ -90,4 +145,77 @@ public interface CommandeRepository extends JpaRepository<Commande, Long> {
      * Trouve les commandes d'un producteur après une date
      */
     List<Commande> findByProducteurIdAndDateCommandeAfter(Long producteurId, LocalDateTime date);
+
+    /**
+     * Quantités vendues par produit depuis une date (hors commandes annulées ou remboursées)
+     * Chaque ligne contient [produitId, quantité]
+     */
+    @Query("SELECT l.produit.id, SUM(l.quantite) FROM LigneCommande l " +
+           "WHERE l.commande.dateCommande >= :depuis " +
+           "AND l.commande.statut <> 'ANNULEE' AND l.commande.statut <> 'REMBOURSEE' " +
+           "GROUP BY l.produit.id")
+    List<Object[]> sommerQuantitesVenduesParProduit(@Param("depuis") LocalDateTime depuis);
+
+    /**
+     * Totaux des ventes depuis une date (hors commandes annulées)
+     * Une seule ligne : [nombre de commandes, chiffre d'affaires, clients distincts]
+     */
+    @Query("SELECT COUNT(c), COALESCE(SUM(c.montantTotal), 0), COUNT(DISTINCT c.client.id) FROM Commande c " +
+           "WHERE c.dateCommande >= :depuis AND c.statut <> 'ANNULEE'")
+    List<Object[]> totaliserVentes(@Param("depuis") LocalDateTime depuis);
+
+    /**
+     * Ventes par heure depuis une date (hors commandes annulées), en heure du serveur
+     * Le découpage horaire permet de regrouper ensuite par journée dans n'importe quel fuseau.
+     * Chaque ligne contient [année, mois, jour, heure, chiffre d'affaires, nombre de commandes]
+     */
+    @Query("SELECT YEAR(c.dateCommande), MONTH(c.dateCommande), DAY(c.dateCommande), HOUR(c.dateCommande), " +
+           "SUM(c.montantTotal), COUNT(c) FROM Commande c " +
+           "WHERE c.dateCommande >= :depuis AND c.statut <> 'ANNULEE' " +
+           "GROUP BY YEAR(c.dateCommande), MONTH(c.dateCommande), DAY(c.dateCommande), HOUR(c.dateCommande)")
+    List<Object[]> sommerVentesParHeure(@Param("depuis") LocalDateTime depuis);
+
+    /**
+     * Producteurs ayant le plus gros chiffre d'affaires depuis une date (hors commandes annulées)
+     * Chaque ligne contient [producteurId, nomFerme, chiffre d'affaires, nombre de commandes]
+     */
+    @Query("SELECT p.id, p.nomFerme, SUM(c.montantTotal), COUNT(c) FROM Commande c JOIN c.producteur p " +
+           "WHERE c.dateCommande >= :depuis AND c.statut <> 'ANNULEE' " +
+           "GROUP BY p.id, p.nomFerme ORDER BY SUM(c.montantTotal) DESC")
+    List<Object[]> classerProducteursParVentes(@Param("depuis") LocalDateTime depuis, Pageable limite);
+
+    /**
+     * Commandes par heure et par ville de livraison sur un intervalle (reconstruction des statistiques)
+     * Chaque ligne contient [année, mois, jour, heure, ville, commandes, chiffre d'affaires hors annulées, annulations]
+     */
+    @Query("SELECT YEAR(c.dateCommande), MONTH(c.dateCommande), DAY(c.dateCommande), HOUR(c.dateCommande), a.ville, " +
+           "COUNT(c), SUM(CASE WHEN c.statut = 'ANNULEE' THEN 0 ELSE c.montantTotal END), " +
+           "SUM(CASE WHEN c.statut = 'ANNULEE' THEN 1 ELSE 0 END) " +
+           "FROM Commande c LEFT JOIN c.adresseLivraison a " +
+           "WHERE c.dateCommande >= :debut AND c.dateCommande < :fin " +
+           "GROUP BY YEAR(c.dateCommande), MONTH(c.dateCommande), DAY(c.dateCommande), HOUR(c.dateCommande), a.ville")
+    List<Object[]> compterParHeureEtVille(@Param("debut") LocalDateTime debut, @Param("fin") LocalDateTime fin);
+
+    /**
+     * Date de la première commande (null si aucune)
+     */
+    @Query("SELECT MIN(c.dateCommande) FROM Commande c")
+    LocalDateTime findPremiereDateCommande();
+
+    /**
+     * Identifiants de commandes après un curseur, dans l'ordre croissant (chargement du cube des ventes)
+     */
+    @Query("SELECT c.id FROM Commande c WHERE c.id > :apresId ORDER BY c.id")
+    List<Long> findIdsApres(@Param("apresId") Long apresId, Pageable limite);
+
+    /**
+     * Lignes de vente de commandes données, groupées par commande (cube des ventes)
+     * Chaque ligne contient [commande, date, statut, producteur, ferme, catégorie, produit, nom du produit,
+     * unité, ville, quantité, prix total]
+     */
+    @Query("SELECT c.id, c.dateCommande, c.statut, pr.id, pr.nomFerme, cat.nom, p.id, p.nom, p.unite, a.ville, " +
+           "l.quantite, l.prixTotal FROM LigneCommande l JOIN l.commande c JOIN c.producteur pr " +
+           "JOIN l.produit p JOIN p.categorie cat LEFT JOIN c.adresseLivraison a " +
+           "WHERE c.id IN :ids ORDER BY c.id, l.id")
+    List<Object[]> findLignesVentes(@Param("ids") List<Long> ids);
 }
@@ -0,0 +1,72 @@
+package com.egggo.domain.repository;
+
+import com.egggo.domain.model.user.JetonRafraichissement;
+import com.egggo.domain.model.user.MotifRevocation;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Repository pour la gestion des tokens de rafraîchissement
+ */
+@Repository
+public interface JetonRafraichissementRepository extends JpaRepository<JetonRafraichissement, Long> {
+
+    /**
+     * Trouve un token par son empreinte SHA-256
+     */
+    Optional<JetonRafraichissement> findByEmpreinte(String empreinte);
+
+    /**
+     * Révoque un token s'il ne l'est pas déjà (retourne 0 si un autre appel l'a consommé avant)
+     */
+    @Modifying
+    @Query("UPDATE JetonRafraichissement j SET j.revoque = true, j.dateRevocation = :date, j.motifRevocation = :motif " +
+           "WHERE j.id = :id AND j.revoque = false")
+    int revoquerSiActif(@Param("id") Long id, @Param("date") LocalDateTime date,
+                        @Param("motif") MotifRevocation motif);
+
+    /**
+     * Révoque tous les tokens actifs d'une famille
+     */
+    @Modifying
+    @Query("UPDATE JetonRafraichissement j SET j.revoque = true, j.dateRevocation = :date, j.motifRevocation = :motif " +
+           "WHERE j.famille = :famille AND j.revoque = false")
+    int revoquerFamille(@Param("famille") String famille, @Param("date") LocalDateTime date,
+                        @Param("motif") MotifRevocation motif);
+
+    /**
+     * Révoque tous les tokens actifs d'un utilisateur
+     */
+    @Modifying
+    @Query("UPDATE JetonRafraichissement j SET j.revoque = true, j.dateRevocation = :date, j.motifRevocation = :motif " +
+           "WHERE j.utilisateurId = :utilisateurId AND j.revoque = false")
+    int revoquerUtilisateur(@Param("utilisateurId") Long utilisateurId, @Param("date") LocalDateTime date,
+                            @Param("motif") MotifRevocation motif);
+
+    /**
+     * Identifiants des tokens d'accès d'une famille
+     */
+    @Query("SELECT j.jtiAcces FROM JetonRafraichissement j WHERE j.famille = :famille AND j.jtiAcces IS NOT NULL")
+    List<String> findJtiAccesByFamille(@Param("famille") String famille);
+
+    /**
+     * Tokens révoqués récemment (hors rotation normale), dont le token d'accès associé peut encore être valide
+     */
+    @Query("SELECT j FROM JetonRafraichissement j WHERE j.revoque = true AND j.dateRevocation >= :depuis " +
+           "AND j.motifRevocation <> com.egggo.domain.model.user.MotifRevocation.ROTATION AND j.jtiAcces IS NOT NULL")
+    List<JetonRafraichissement> findRevoquesDepuis(@Param("depuis") LocalDateTime depuis);
+
+    /**
+     * Supprime les tokens expirés
+     */
+    @Modifying
+    @Query("DELETE FROM JetonRafraichissement j WHERE j.dateExpiration < :limite")
+    int supprimerExpires(@Param("limite") LocalDateTime limite);
+}
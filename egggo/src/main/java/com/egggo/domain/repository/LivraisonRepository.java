@@ -2,12 +2,15 @@ package com.egggo.domain.repository;
 
 import com.egggo.domain.model.delivery.Livraison;
 import com.egggo.domain.model.delivery.StatutLivraison;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -23,13 +26,39 @@ public interface LivraisonRepository extends JpaRepository<Livraison, Long> {
     Optional<Livraison> findByCommandeId(Long commandeId);
 
     /**
-     * Trouve les livraisons d'un livreur
+     * Page de livraisons d'un livreur, de la plus récente à la plus ancienne, après un curseur (date, id)
      */
-    List<Livraison> findByLivreurIdOrderByDateAssignationDesc(Long livreurId);
+    @EntityGraph(attributePaths = {"commande", "commande.client", "commande.adresseLivraison"})
+    @Query("SELECT l FROM Livraison l WHERE l.livreur.id = :livreurId " +
+           "AND (l.dateAssignation < :date OR (l.dateAssignation = :date AND l.id < :id)) " +
+           "ORDER BY l.dateAssignation DESC, l.id DESC")
+    List<Livraison> findPageLivreur(@Param("livreurId") Long livreurId,
+                                    @Param("date") LocalDateTime date,
+                                    @Param("id") Long id,
+                                    Pageable limite);
 
     /**
-     * Trouve les livraisons actives d'un livreur
+     * Page de livraisons d'un livreur dans un statut, après un curseur (date, id)
      */
+    @EntityGraph(attributePaths = {"commande", "commande.client", "commande.adresseLivraison"})
+    @Query("SELECT l FROM Livraison l WHERE l.livreur.id = :livreurId AND l.statut = :statut " +
+           "AND (l.dateAssignation < :date OR (l.dateAssignation = :date AND l.id < :id)) " +
+           "ORDER BY l.dateAssignation DESC, l.id DESC")
+    List<Livraison> findPageLivreurParStatut(@Param("livreurId") Long livreurId,
+                                             @Param("statut") StatutLivraison statut,
+                                             @Param("date") LocalDateTime date,
+                                             @Param("id") Long id,
+                                             Pageable limite);
+
+    /**
+     * Compte les livraisons d'un livreur
+     */
+    long countByLivreurId(Long livreurId);
+
+    /**
+     * Trouve les livraisons actives d'un livreur (avec la commande, son client et son adresse)
+     */
+    @EntityGraph(attributePaths = {"commande", "commande.client", "commande.adresseLivraison"})
     List<Livraison> findByLivreurIdAndStatutIn(Long livreurId, List<StatutLivraison> statuts);
 
     /**
@@ -55,4 +84,26 @@ public interface LivraisonRepository extends JpaRepository<Livraison, Long> {
     @Query("SELECT AVG(TIMESTAMPDIFF(MINUTE, l.dateAcceptation, l.dateLivraison)) " +
            "FROM Livraison l WHERE l.livreur.id = :livreurId AND l.statut = 'LIVREE'")
     Double calculerTempsMoyenLivraison(@Param("livreurId") Long livreurId);
+
+    /**
+     * Lot de livraisons pour la reconstruction des statistiques, par identifiant croissant
+     * Chaque ligne contient [id, livreurId, ville, statut, dateAssignation, dateAcceptation, dateLivraison, distanceKm]
+     */
+    @Query("SELECT l.id, l.livreur.id, a.ville, l.statut, l.dateAssignation, l.dateAcceptation, " +
+           "l.dateLivraison, l.distanceKm FROM Livraison l JOIN l.commande c LEFT JOIN c.adresseLivraison a " +
+           "WHERE l.id > :id ORDER BY l.id")
+    List<Object[]> findLotStatistiques(@Param("id") long id, Pageable limite);
+
+    /**
+     * Livraisons en cours de livreurs donnés ; chaque ligne contient [livreur, livraison]
+     */
+    @Query("SELECT l.livreur.id, l.id FROM Livraison l WHERE l.livreur.id IN :livreurIds AND l.statut IN :statuts")
+    List<Object[]> findIdsEnCours(@Param("livreurIds") Collection<Long> livreurIds,
+                                  @Param("statuts") Collection<StatutLivraison> statuts);
+
+    /**
+     * Nombre de livraisons aux statuts donnés par livreur ; chaque ligne contient [livreur, nombre]
+     */
+    @Query("SELECT l.livreur.id, COUNT(l) FROM Livraison l WHERE l.statut IN :statuts GROUP BY l.livreur.id")
+    List<Object[]> compterParLivreur(@Param("statuts") Collection<StatutLivraison> statuts);
 }
@@ -1,6 +1,7 @@
 package com.egggo.domain.repository;
 
 import com.egggo.domain.model.user.Livreur;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -51,4 +52,23 @@ public interface LivreurRepository extends JpaRepository<Livreur, Long> {
      */
     @Query("SELECT l FROM Livreur l WHERE l.actif = true ORDER BY l.noteMoyenne DESC")
     List<Livreur> findMeilleursLivreurs();
+
+    /**
+     * Livreurs assignables et localisés, avec leur producteur de rattachement
+     */
+    @Query("SELECT l FROM Livreur l LEFT JOIN FETCH l.producteurRattache WHERE " +
+           "l.disponible = true AND l.actif = true AND l.valide = true AND " +
+           "l.latitude IS NOT NULL AND l.longitude IS NOT NULL")
+    List<Livreur> findAssignablesLocalises();
+
+    /**
+     * Page de livreurs en attente de validation, du plus ancien au plus récent, après un curseur
+     */
+    @Query("SELECT l FROM Livreur l WHERE l.valide = false AND l.id > :id ORDER BY l.id")
+    List<Livreur> findPageEnAttente(@Param("id") Long id, Pageable limite);
+
+    /**
+     * Compte les livreurs en attente de validation
+     */
+    long countByValideFalse();
 }
@@ -3,6 +3,7 @@ package com.egggo.domain.repository;
 import com.egggo.domain.model.payment.Paiement;
 import com.egggo.domain.model.payment.StatutPaiement;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -56,4 +57,12 @@ public interface PaiementRepository extends JpaRepository<Paiement, Long> {
     @Query("SELECT SUM(p.montant) FROM Paiement p WHERE p.statut = 'REUSSI' " +
            "AND p.datePaiement >= :debut AND p.datePaiement < :fin")
     Double calculerMontantTotal(@Param("debut") LocalDateTime debut, @Param("fin") LocalDateTime fin);
+
+    /**
+     * Passe en EXPIRE les paiements encore en attente d'une commande
+     */
+    @Modifying
+    @Query("UPDATE Paiement p SET p.statut = 'EXPIRE', p.datePaiement = :date " +
+           "WHERE p.commande.id = :commandeId AND p.statut = 'EN_ATTENTE'")
+    int expirerEnAttente(@Param("commandeId") Long commandeId, @Param("date") LocalDateTime date);
 }
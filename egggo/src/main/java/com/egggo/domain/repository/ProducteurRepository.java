@@ -1,6 +1,7 @@
 package com.egggo.domain.repository;
 
 import com.egggo.domain.model.user.Producteur;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -64,4 +65,15 @@ public interface ProducteurRepository extends JpaRepository<Producteur, Long> {
            "LOWER(p.nom) LIKE LOWER(CONCAT('%', :search, '%')) OR " +
            "LOWER(p.nomFerme) LIKE LOWER(CONCAT('%', :search, '%'))")
     List<Producteur> rechercherProducteurs(@Param("search") String search);
+
+    /**
+     * Page de producteurs en attente de validation, du plus ancien au plus récent, après un curseur
+     */
+    @Query("SELECT p FROM Producteur p WHERE p.valide = false AND p.id > :id ORDER BY p.id")
+    List<Producteur> findPageEnAttente(@Param("id") Long id, Pageable limite);
+
+    /**
+     * Compte les producteurs en attente de validation
+     */
+    long countByValideFalse();
 }
@@ -2,11 +2,15 @@ package com.egggo.domain.repository;
 
 import com.egggo.domain.model.product.Produit;
 import com.egggo.domain.model.product.Unite;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 
 /**
@@ -18,17 +22,26 @@ public interface ProduitRepository extends JpaRepository<Produit, Long> {
     /**
      * Trouve les produits par catégorie
      */
+    @EntityGraph(attributePaths = {"categorie", "producteur"})
     List<Produit> findByCategorieIdAndDisponibleTrue(Long categorieId);
 
     /**
      * Trouve les produits par producteur
      */
+    @EntityGraph(attributePaths = {"categorie", "producteur"})
     List<Produit> findByProducteurId(Long producteurId);
 
     /**
-     * Trouve les produits disponibles (en stock)
+     * Page de produits disponibles et en stock, par identifiant croissant, après un curseur
      */
-    List<Produit> findByDisponibleTrueAndQuantiteStockGreaterThan(Integer stock);
+    @EntityGraph(attributePaths = {"categorie", "producteur"})
+    @Query("SELECT p FROM Produit p WHERE p.disponible = true AND p.quantiteStock > 0 AND p.id > :id ORDER BY p.id")
+    List<Produit> findPageDisponibles(@Param("id") Long id, Pageable limite);
+
+    /**
+     * Compte les produits disponibles et en stock
+     */
+    long countByDisponibleTrueAndQuantiteStockGreaterThan(Integer stock);
 
     /**
      * Trouve les produits par unité
@@ -38,6 +51,7 @@ public interface ProduitRepository extends JpaRepository<Produit, Long> {
     /**
      * Recherche des produits par nom (contient, ignore case)
      */
+    @EntityGraph(attributePaths = {"categorie", "producteur"})
     List<Produit> findByNomContainingIgnoreCaseAndDisponibleTrue(String nom);
 
     /**
@@ -63,4 +77,39 @@ public interface ProduitRepository extends JpaRepository<Produit, Long> {
      */
     @Query("SELECT p FROM Produit p WHERE p.disponible = true AND p.quantiteStock < 10")
     List<Produit> findProduitsStockFaible();
+
+    /**
+     * Charge tous les produits avec leur catégorie et leur producteur (alimentation du cache catalogue)
+     */
+    @Query("SELECT p FROM Produit p JOIN FETCH p.categorie JOIN FETCH p.producteur")
+    List<Produit> findAllAvecRelations();
+
+    /**
+     * Charge des produits précis avec leur catégorie et leur producteur
+     */
+    @Query("SELECT p FROM Produit p JOIN FETCH p.categorie JOIN FETCH p.producteur WHERE p.id IN :ids")
+    List<Produit> findAllAvecRelationsByIdIn(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Réapprovisionne le stock d'un produit (mise à jour atomique, sans lecture préalable)
+     */
+    @Modifying
+    @Query("UPDATE Produit p SET " +
+           "p.disponible = CASE WHEN p.quantiteStock + :quantite > 0 THEN true ELSE p.disponible END, " +
+           "p.quantiteStock = p.quantiteStock + :quantite, " +
+           "p.dateModification = CURRENT_TIMESTAMP " +
+           "WHERE p.id = :id")
+    int incrementerStock(@Param("id") Long id, @Param("quantite") int quantite);
+
+    /**
+     * Ajoute (ou retire si négatif) une quantité au stock, sans descendre sous zéro
+     * Vide le contexte de persistance pour que le produit relu reflète la nouvelle valeur.
+     */
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE Produit p SET " +
+           "p.disponible = CASE WHEN p.quantiteStock + :delta > 0 THEN true ELSE false END, " +
+           "p.quantiteStock = CASE WHEN p.quantiteStock + :delta > 0 THEN p.quantiteStock + :delta ELSE 0 END, " +
+           "p.dateModification = CURRENT_TIMESTAMP " +
+           "WHERE p.id = :id")
+    int ajusterStock(@Param("id") Long id, @Param("delta") int delta);
 }
@@ -0,0 +1,54 @@
+package com.egggo.domain.repository;
+
+import com.egggo.domain.model.product.ReservationStock;
+import com.egggo.domain.model.product.StatutReservation;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Repository pour la gestion des réservations de stock
+ */
+@Repository
+public interface ReservationStockRepository extends JpaRepository<ReservationStock, Long> {
+
+    /**
+     * Statut de la réservation d'une commande (vide si la commande n'en a pas)
+     */
+    @Query("SELECT r.statut FROM ReservationStock r WHERE r.commandeId = :commandeId")
+    Optional<StatutReservation> findStatutByCommandeId(@Param("commandeId") Long commandeId);
+
+    /**
+     * Clôture une réservation encore active (verrou d'une seule ligne)
+     * Retourne 0 si elle a déjà été convertie, libérée ou expirée
+     */
+    @Modifying
+    @Query("UPDATE ReservationStock r SET r.statut = :statut, r.dateCloture = :date " +
+           "WHERE r.commandeId = :commandeId AND r.statut = 'ACTIVE'")
+    int cloturer(@Param("commandeId") Long commandeId,
+                 @Param("statut") StatutReservation statut,
+                 @Param("date") LocalDateTime date);
+
+    /**
+     * Réservations actives : [commandeId, dateExpiration] (rechargement de l'échéancier)
+     */
+    @Query("SELECT r.commandeId, r.dateExpiration FROM ReservationStock r WHERE r.statut = 'ACTIVE'")
+    List<Object[]> findEcheancesActives();
+
+    /**
+     * Commandes dont la réservation active a expiré avant une date
+     */
+    @Query("SELECT r.commandeId FROM ReservationStock r WHERE r.statut = 'ACTIVE' AND r.dateExpiration < :date")
+    List<Long> findCommandesExpirees(@Param("date") LocalDateTime date);
+
+    /**
+     * Compte les réservations par statut
+     */
+    long countByStatut(StatutReservation statut);
+}
@@ -0,0 +1,35 @@
+package com.egggo.domain.repository;
+
+import com.egggo.domain.model.delivery.SegmentTrajectoire;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Repository pour les tronçons compressés de trajectoire
+ */
+@Repository
+public interface SegmentTrajectoireRepository extends JpaRepository<SegmentTrajectoire, Long> {
+
+    /**
+     * Tronçons ouverts (au plus un par livraison) des livraisons données
+     */
+    @Query("SELECT s FROM SegmentTrajectoire s WHERE s.ouvert = true AND s.livraisonId IN :livraisonIds")
+    List<SegmentTrajectoire> findOuverts(@Param("livraisonIds") Collection<Long> livraisonIds);
+
+    /**
+     * Dernier numéro de tronçon de chacune des livraisons données : [livraisonId, numéro]
+     */
+    @Query("SELECT s.livraisonId, MAX(s.numero) FROM SegmentTrajectoire s " +
+           "WHERE s.livraisonId IN :livraisonIds GROUP BY s.livraisonId")
+    List<Object[]> findDerniersNumeros(@Param("livraisonIds") Collection<Long> livraisonIds);
+
+    /**
+     * Tronçons d'une livraison dans l'ordre de la trajectoire
+     */
+    List<SegmentTrajectoire> findByLivraisonIdOrderByNumeroAsc(Long livraisonId);
+}
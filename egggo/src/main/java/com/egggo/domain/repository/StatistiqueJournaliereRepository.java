@@ -0,0 +1,74 @@
+package com.egggo.domain.repository;
+
+import com.egggo.domain.model.stats.StatistiqueJournaliere;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Repository des compteurs journaliers d'activité
+ */
+@Repository
+public interface StatistiqueJournaliereRepository
+        extends JpaRepository<StatistiqueJournaliere, StatistiqueJournaliere.Cle> {
+
+    /**
+     * Compteurs de toutes les villes entre deux jours inclus (parcours de la clé primaire)
+     */
+    List<StatistiqueJournaliere> findByJourBetween(LocalDate du, LocalDate au);
+
+    /**
+     * Ajoute des deltas aux compteurs d'une ligne existante (mise à jour relative)
+     * Requête native sans paramètre typé dans les expressions : portable entre PostgreSQL et H2.
+     * Retourne 0 si la ligne n'existe pas encore.
+     */
+    @Modifying
+    @Query(value = "UPDATE statistiques_journalieres SET " +
+                   "commandes = commandes + :commandes, " +
+                   "chiffre_affaires = chiffre_affaires + :chiffreAffaires, " +
+                   "annulations = annulations + :annulations, " +
+                   "nouveaux_clients = nouveaux_clients + :clients, " +
+                   "nouveaux_producteurs = nouveaux_producteurs + :producteurs, " +
+                   "nouveaux_livreurs = nouveaux_livreurs + :livreurs " +
+                   "WHERE jour = :jour AND ville = :ville",
+           nativeQuery = true)
+    int incrementer(@Param("jour") LocalDate jour,
+                    @Param("ville") String ville,
+                    @Param("commandes") long commandes,
+                    @Param("chiffreAffaires") double chiffreAffaires,
+                    @Param("annulations") long annulations,
+                    @Param("clients") long clients,
+                    @Param("producteurs") long producteurs,
+                    @Param("livreurs") long livreurs);
+
+    /**
+     * Crée la ligne (jour, ville) avec ses premiers compteurs
+     * Échoue sur la clé primaire si une autre instance l'a créée entre-temps.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO statistiques_journalieres " +
+                   "(jour, ville, commandes, chiffre_affaires, annulations, " +
+                   "nouveaux_clients, nouveaux_producteurs, nouveaux_livreurs) " +
+                   "VALUES (:jour, :ville, :commandes, :chiffreAffaires, :annulations, :clients, :producteurs, :livreurs)",
+           nativeQuery = true)
+    int inserer(@Param("jour") LocalDate jour,
+                @Param("ville") String ville,
+                @Param("commandes") long commandes,
+                @Param("chiffreAffaires") double chiffreAffaires,
+                @Param("annulations") long annulations,
+                @Param("clients") long clients,
+                @Param("producteurs") long producteurs,
+                @Param("livreurs") long livreurs);
+
+    /**
+     * Supprime les compteurs entre deux jours inclus (avant reconstruction)
+     */
+    @Modifying
+    @Query("DELETE FROM StatistiqueJournaliere s WHERE s.jour BETWEEN :du AND :au")
+    int supprimerEntre(@Param("du") LocalDate du, @Param("au") LocalDate au);
+}
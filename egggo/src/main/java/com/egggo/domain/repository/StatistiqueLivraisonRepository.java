@@ -0,0 +1,37 @@
+package com.egggo.domain.repository;
+
+import com.egggo.domain.model.stats.Granularite;
+import com.egggo.domain.model.stats.StatistiqueLivraison;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Repository des agrégats de livraisons par période et par dimension
+ */
+@Repository
+public interface StatistiqueLivraisonRepository
+        extends JpaRepository<StatistiqueLivraison, StatistiqueLivraison.Cle> {
+
+    /**
+     * Lit un agrégat en verrouillant sa ligne jusqu'à la fin de la transaction (fusion des esquisses)
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT s FROM StatistiqueLivraison s " +
+           "WHERE s.granularite = :granularite AND s.debut = :debut AND s.dimension = :dimension")
+    Optional<StatistiqueLivraison> verrouiller(@Param("granularite") Granularite granularite,
+                                               @Param("debut") LocalDate debut,
+                                               @Param("dimension") String dimension);
+
+    /**
+     * Lignes d'une période, toutes dimensions confondues
+     */
+    List<StatistiqueLivraison> findByGranulariteAndDebut(Granularite granularite, LocalDate debut);
+}
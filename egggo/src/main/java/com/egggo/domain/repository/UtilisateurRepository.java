@@ -2,13 +2,13 @@ package com.egggo.domain.repository;
 
 import com.egggo.domain.model.user.Role;
 import com.egggo.domain.model.user.Utilisateur;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
@@ -53,7 +53,42 @@ public interface UtilisateurRepository extends JpaRepository<Utilisateur, Long>
     List<Utilisateur> rechercherParNomOuTelephone(@Param("search") String search);
 
     /**
-     * Trouve les utilisateurs par rôle (paginé)
+     * Page d'utilisateurs par identifiant croissant, après un curseur
      */
-    Page<Utilisateur> findByRole(Role role, Pageable pageable);
+    @Query("SELECT u FROM Utilisateur u WHERE u.id > :id ORDER BY u.id")
+    List<Utilisateur> findPage(@Param("id") Long id, Pageable limite);
+
+    /**
+     * Page d'utilisateurs d'un rôle par identifiant croissant, après un curseur
+     */
+    @Query("SELECT u FROM Utilisateur u WHERE u.role = :role AND u.id > :id ORDER BY u.id")
+    List<Utilisateur> findPageByRole(@Param("role") Role role, @Param("id") Long id, Pageable limite);
+
+    /**
+     * Compte les utilisateurs d'un rôle
+     */
+    long countByRole(Role role);
+
+    /**
+     * Comptes dont des tokens déjà émis peuvent être révoqués : [id, versionSecurite, actif]
+     */
+    @Query("SELECT u.id, u.versionSecurite, u.actif FROM Utilisateur u " +
+           "WHERE u.actif = false OR u.versionSecurite > 0")
+    List<Object[]> findVersionsSecuriteARevoquer();
+
+    /**
+     * Inscriptions par heure et par rôle sur un intervalle (reconstruction des statistiques)
+     * Chaque ligne contient [année, mois, jour, heure, rôle, nombre]
+     */
+    @Query("SELECT YEAR(u.dateCreation), MONTH(u.dateCreation), DAY(u.dateCreation), HOUR(u.dateCreation), " +
+           "u.role, COUNT(u) FROM Utilisateur u " +
+           "WHERE u.dateCreation >= :debut AND u.dateCreation < :fin " +
+           "GROUP BY YEAR(u.dateCreation), MONTH(u.dateCreation), DAY(u.dateCreation), HOUR(u.dateCreation), u.role")
+    List<Object[]> compterInscriptionsParHeure(@Param("debut") LocalDateTime debut, @Param("fin") LocalDateTime fin);
+
+    /**
+     * Date de la première inscription (null si aucune)
+     */
+    @Query("SELECT MIN(u.dateCreation) FROM Utilisateur u")
+    LocalDateTime findPremiereDateInscription();
 }
@@ -0,0 +1,173 @@
+package com.egggo.infrastructure.geo;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Codage compact d'une suite de points horodatés (trajectoire GPS)
+ * Coordonnées quantifiées au 1e-5 degré (≈ 1,1 m, sous la précision d'un GPS de téléphone) comme
+ * les polylignes cartographiques. Le premier point est écrit en absolu, les suivants en écarts
+ * (temps en ms, latitude, longitude), chacun en zigzag + varint : un relevé toutes les quelques
+ * secondes en ville tient en 5 à 7 octets au lieu d'une ligne de table. Un encodage peut être
+ * repris à partir de son dernier point sans relire les octets déjà écrits.
+ */
+public final class CodecTrajectoire {
+
+    public static final double ECHELLE = 1e5;
+
+    private static final byte VERSION = 1;
+
+    private CodecTrajectoire() {
+    }
+
+    /**
+     * Point décodé
+     */
+    public record Point(long horodatageMs, double latitude, double longitude) {
+    }
+
+    public static int quantifier(double degres) {
+        return (int) Math.round(degres * ECHELLE);
+    }
+
+    /**
+     * Encodage en cours : octets écrits et dernier point quantifié
+     */
+    public static final class Encodeur {
+
+        private byte[] octets;
+        private int longueur;
+        private int nombre;
+        private long dernierHorodatage;
+        private int derniereLatitude;
+        private int derniereLongitude;
+
+        private Encodeur(byte[] octets, int longueur) {
+            this.octets = octets;
+            this.longueur = longueur;
+        }
+
+        public static Encodeur nouveau() {
+            Encodeur encodeur = new Encodeur(new byte[64], 0);
+            encodeur.octets[encodeur.longueur++] = VERSION;
+            return encodeur;
+        }
+
+        /**
+         * Reprend un encodage existant à partir de son dernier point (sans le décoder)
+         */
+        public static Encodeur reprendre(byte[] donnees, int nombre, long dernierHorodatage,
+                                         int derniereLatitude, int derniereLongitude) {
+            if (donnees == null || donnees.length == 0) {
+                return nouveau();
+            }
+            Encodeur encodeur = new Encodeur(Arrays.copyOf(donnees, donnees.length + 64), donnees.length);
+            encodeur.nombre = nombre;
+            encodeur.dernierHorodatage = dernierHorodatage;
+            encodeur.derniereLatitude = derniereLatitude;
+            encodeur.derniereLongitude = derniereLongitude;
+            return encodeur;
+        }
+
+        public void ajouter(long horodatageMs, double latitude, double longitude) {
+            int lat = quantifier(latitude);
+            int lon = quantifier(longitude);
+            if (nombre == 0) {
+                ecrire(zigzag(horodatageMs));
+                ecrire(zigzag(lat));
+                ecrire(zigzag(lon));
+            } else {
+                ecrire(zigzag(horodatageMs - dernierHorodatage));
+                ecrire(zigzag((long) lat - derniereLatitude));
+                ecrire(zigzag((long) lon - derniereLongitude));
+            }
+            dernierHorodatage = horodatageMs;
+            derniereLatitude = lat;
+            derniereLongitude = lon;
+            nombre++;
+        }
+
+        public byte[] octets() {
+            return Arrays.copyOf(octets, longueur);
+        }
+
+        public int longueur() {
+            return longueur;
+        }
+
+        public int nombre() {
+            return nombre;
+        }
+
+        public long dernierHorodatage() {
+            return dernierHorodatage;
+        }
+
+        public int derniereLatitude() {
+            return derniereLatitude;
+        }
+
+        public int derniereLongitude() {
+            return derniereLongitude;
+        }
+
+        private void ecrire(long valeur) {
+            if (longueur + 10 > octets.length) {
+                octets = Arrays.copyOf(octets, octets.length * 2);
+            }
+            while ((valeur & ~0x7FL) != 0) {
+                octets[longueur++] = (byte) ((valeur & 0x7F) | 0x80);
+                valeur >>>= 7;
+            }
+            octets[longueur++] = (byte) valeur;
+        }
+    }
+
+    /**
+     * Décode tous les points d'un encodage, dans l'ordre d'ajout
+     */
+    public static List<Point> decoder(byte[] donnees) {
+        List<Point> points = new ArrayList<>();
+        if (donnees == null || donnees.length == 0) {
+            return points;
+        }
+        if (donnees[0] != VERSION) {
+            throw new IllegalArgumentException("Version de trajectoire inconnue");
+        }
+        int[] position = {1};
+        long horodatage = 0;
+        long lat = 0;
+        long lon = 0;
+        while (position[0] < donnees.length) {
+            horodatage += dezigzag(lireVarint(donnees, position));
+            lat += dezigzag(lireVarint(donnees, position));
+            lon += dezigzag(lireVarint(donnees, position));
+            points.add(new Point(horodatage, lat / ECHELLE, lon / ECHELLE));
+        }
+        return points;
+    }
+
+    private static long zigzag(long valeur) {
+        return (valeur << 1) ^ (valeur >> 63);
+    }
+
+    private static long dezigzag(long valeur) {
+        return (valeur >>> 1) ^ -(valeur & 1);
+    }
+
+    private static long lireVarint(byte[] donnees, int[] position) {
+        long valeur = 0;
+        for (int decalage = 0; decalage < 64; decalage += 7) {
+            if (position[0] >= donnees.length) {
+                break;
+            }
+            byte octet = donnees[position[0]++];
+            valeur |= (long) (octet & 0x7F) << decalage;
+            if (octet >= 0) {
+                return valeur;
+            }
+        }
+        throw new IllegalArgumentException("Trajectoire corrompue");
+    }
+}
@@ -0,0 +1,29 @@
+package com.egggo.infrastructure.geo;
+
+/**
+ * Calculs de distance sur la sphère terrestre
+ */
+public final class Geodesie {
+
+    public static final double RAYON_TERRE_KM = 6371.0;
+
+    /**
+     * Longueur d'un degré de latitude (et de longitude à l'équateur)
+     */
+    public static final double KM_PAR_DEGRE = Math.PI * RAYON_TERRE_KM / 180.0;
+
+    private Geodesie() {
+    }
+
+    /**
+     * Distance orthodromique en km (formule de haversine, stable pour les petites distances)
+     */
+    public static double distanceKm(double latitude1, double longitude1, double latitude2, double longitude2) {
+        double dLat = Math.toRadians(latitude2 - latitude1);
+        double dLon = Math.toRadians(longitude2 - longitude1);
+        double a = Math.sin(dLat / 2) * Math.sin(dLat / 2)
+                + Math.cos(Math.toRadians(latitude1)) * Math.cos(Math.toRadians(latitude2))
+                * Math.sin(dLon / 2) * Math.sin(dLon / 2);
+        return 2 * RAYON_TERRE_KM * Math.atan2(Math.sqrt(a), Math.sqrt(1 - a));
+    }
+}
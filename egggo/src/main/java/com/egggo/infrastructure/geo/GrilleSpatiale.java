@@ -0,0 +1,191 @@
+package com.egggo.infrastructure.geo;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Index spatial en grille régulière (cellules carrées en degrés) de points identifiés par un long
+ * Chaque point est rangé dans la cellule qui le contient ; une recherche parcourt les cellules par
+ * anneaux concentriques autour du point de requête et s'arrête dès que la distance minimale à
+ * toute cellule hors des anneaux parcourus dépasse le rayon ou le k-ième voisin trouvé. Les
+ * colonnes ont toutes la même largeur, antiméridien compris. Lectures et écritures concurrentes sans verrou global :
+ * les déplacements d'un même point sont sérialisés par la table des positions, et un lecteur
+ * peut tout au plus voir un point en cours de déplacement dans deux cellules (dédoublonné).
+ */
+public final class GrilleSpatiale {
+
+    /**
+     * Point trouvé et sa distance au point de requête
+     */
+    public record Voisin(long id, double distanceKm) {
+    }
+
+    private record Position(double latitude, double longitude, long cellule) {
+    }
+
+    private final double tailleCelluleDeg;
+    private final double tailleCelluleKm;
+    private final long colonnesParLigne;
+    private final double largeurColonneDeg;
+    private final int lignes;
+
+    private final ConcurrentHashMap<Long, Position> positions = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Long, Set<Long>> cellules = new ConcurrentHashMap<>();
+
+    public GrilleSpatiale(double tailleCelluleKm) {
+        if (!(tailleCelluleKm > 0)) {
+            throw new IllegalArgumentException("Taille de cellule invalide: " + tailleCelluleKm);
+        }
+        this.tailleCelluleKm = tailleCelluleKm;
+        this.tailleCelluleDeg = tailleCelluleKm / Geodesie.KM_PAR_DEGRE;
+        this.colonnesParLigne = (long) Math.ceil(360.0 / tailleCelluleDeg);
+        this.largeurColonneDeg = 360.0 / colonnesParLigne;
+        this.lignes = (int) Math.floor(180.0 / tailleCelluleDeg) + 1;
+    }
+
+    /**
+     * Place ou déplace un point
+     */
+    public void placer(long id, double latitude, double longitude) {
+        long cellule = cellule(ligne(latitude), colonne(longitude));
+        positions.compute(id, (cle, ancienne) -> ranger(id, ancienne, latitude, longitude, cellule));
+    }
+
+    /**
+     * Retire un point (sans effet s'il est absent)
+     */
+    public void retirer(long id) {
+        positions.computeIfPresent(id, (cle, ancienne) -> {
+            retirerDeCellule(ancienne.cellule(), id);
+            return null;
+        });
+    }
+
+    public boolean contient(long id) {
+        return positions.containsKey(id);
+    }
+
+    public int taille() {
+        return positions.size();
+    }
+
+    public int nombreCellules() {
+        return cellules.size();
+    }
+
+    /**
+     * Les k points les plus proches dans un rayon donné, du plus proche au plus éloigné
+     */
+    public List<Voisin> plusProches(double latitude, double longitude, int k, double rayonKm) {
+        if (k <= 0 || positions.isEmpty()) {
+            return List.of();
+        }
+        int ligne0 = ligne(latitude);
+        int colonne0 = colonne(longitude);
+        double cosLatitude = Math.cos(Math.toRadians(latitude));
+
+        // Tas des k meilleurs, le plus éloigné en tête
+        PriorityQueue<Voisin> meilleurs = new PriorityQueue<>(
+                Comparator.comparingDouble(Voisin::distanceKm).reversed());
+        Set<Long> vus = new HashSet<>();
+        for (int anneau = 0; ; anneau++) {
+            for (int dl = -anneau; dl <= anneau; dl++) {
+                boolean bord = Math.abs(dl) == anneau;
+                for (int dc = -anneau; dc <= anneau; dc += bord ? 1 : 2 * anneau) {
+                    Set<Long> ids = cellules.get(cellule(ligne0 + dl, colonne0 + dc));
+                    if (ids != null) {
+                        examiner(ids, latitude, longitude, k, rayonKm, meilleurs, vus);
+                    }
+                }
+            }
+            double borne = distanceHorsAnneaux(ligne0, anneau, cosLatitude);
+            if (borne == Double.POSITIVE_INFINITY || borne > rayonKm
+                    || meilleurs.size() == k && meilleurs.peek().distanceKm() <= borne) {
+                break;
+            }
+        }
+        List<Voisin> resultat = new ArrayList<>(meilleurs);
+        resultat.sort(Comparator.comparingDouble(Voisin::distanceKm));
+        return resultat;
+    }
+
+    /**
+     * Tous les points dans un rayon donné, du plus proche au plus éloigné
+     */
+    public List<Voisin> dansRayon(double latitude, double longitude, double rayonKm) {
+        return plusProches(latitude, longitude, Integer.MAX_VALUE, rayonKm);
+    }
+
+    /**
+     * Distance minimale du point de requête à tout point hors des anneaux 0 à anneau (infinie si
+     * les anneaux couvrent le globe) : un écart de plus de anneau lignes vaut au moins anneau
+     * hauteurs de cellule le long d'un méridien ; un écart de plus de anneau colonnes vaut au moins
+     * la distance au méridien décalé d'autant (distance à un grand cercle, exacte jusqu'à 90°)
+     */
+    private double distanceHorsAnneaux(int ligne0, int anneau, double cosLatitude) {
+        double parLigne = ligne0 - anneau <= 0 && ligne0 + anneau >= lignes - 1
+                ? Double.POSITIVE_INFINITY : anneau * tailleCelluleKm;
+        double parColonne = 2L * anneau + 1 >= colonnesParLigne ? Double.POSITIVE_INFINITY
+                : Geodesie.RAYON_TERRE_KM * Math.asin(Math.min(1.0,
+                        cosLatitude * Math.sin(Math.toRadians(Math.min(90.0, anneau * largeurColonneDeg)))));
+        return Math.min(parLigne, parColonne);
+    }
+
+    private void examiner(Set<Long> ids, double latitude, double longitude, int k, double rayonKm,
+                          PriorityQueue<Voisin> meilleurs, Set<Long> vus) {
+        for (Long id : ids) {
+            Position position = positions.get(id);
+            if (position == null || !vus.add(id)) {
+                continue;
+            }
+            double distance = Geodesie.distanceKm(latitude, longitude, position.latitude(), position.longitude());
+            if (distance > rayonKm) {
+                continue;
+            }
+            if (meilleurs.size() < k) {
+                meilleurs.add(new Voisin(id, distance));
+            } else if (distance < meilleurs.peek().distanceKm()) {
+                meilleurs.poll();
+                meilleurs.add(new Voisin(id, distance));
+            }
+        }
+    }
+
+    private Position ranger(long id, Position ancienne, double latitude, double longitude, long cellule) {
+        if (ancienne == null || ancienne.cellule() != cellule) {
+            cellules.compute(cellule, (c, ids) -> {
+                Set<Long> contenu = ids != null ? ids : ConcurrentHashMap.newKeySet();
+                contenu.add(id);
+                return contenu;
+            });
+            if (ancienne != null) {
+                retirerDeCellule(ancienne.cellule(), id);
+            }
+        }
+        return new Position(latitude, longitude, cellule);
+    }
+
+    private void retirerDeCellule(long cellule, long id) {
+        cellules.computeIfPresent(cellule, (c, ids) -> {
+            ids.remove(id);
+            return ids.isEmpty() ? null : ids;
+        });
+    }
+
+    private int ligne(double latitude) {
+        return (int) Math.floor((latitude + 90.0) / tailleCelluleDeg);
+    }
+
+    private int colonne(double longitude) {
+        return (int) Math.floor((longitude + 180.0) / largeurColonneDeg);
+    }
+
+    private long cellule(int ligne, int colonne) {
+        return ligne * colonnesParLigne + Math.floorMod(colonne, colonnesParLigne);
+    }
+}
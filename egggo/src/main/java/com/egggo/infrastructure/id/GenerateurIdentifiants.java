@@ -0,0 +1,129 @@
+package com.egggo.infrastructure.id;
+
+import java.lang.management.ManagementFactory;
+import java.net.InetAddress;
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Générateur d'identifiants ordonnés dans le temps, sans verrou (style Snowflake)
+ * Un identifiant tient sur 63 bits : 41 bits de millisecondes depuis le 1er janvier 2024
+ * (≈ 69 ans), 10 bits de numéro de nœud (0 à 1023) et 12 bits de séquence (4096 par ms et par nœud).
+ * L'état (milliseconde, séquence) tient dans un seul AtomicLong mis à jour par CAS : deux appels
+ * ne peuvent pas obtenir la même valeur. Si la séquence d'une milliseconde est épuisée, ou si
+ * l'horloge recule, le générateur emprunte les millisecondes suivantes au lieu d'attendre :
+ * les identifiants restent strictement croissants sur un nœud.
+ * Le rendu texte utilise la base 32 de Crockford (sans I, L, O, U) sur 13 caractères fixes,
+ * ce qui préserve l'ordre chronologique dans les index et évite les confusions de lecture.
+ */
+public final class GenerateurIdentifiants {
+
+    public static final long EPOQUE_MS = Instant.parse("2024-01-01T00:00:00Z").toEpochMilli();
+
+    private static final int BITS_NOEUD = 10;
+    private static final int BITS_SEQUENCE = 12;
+    public static final int NOEUD_MAX = (1 << BITS_NOEUD) - 1;
+    private static final long SEQUENCE_MAX = (1L << BITS_SEQUENCE) - 1;
+
+    private static final char[] ALPHABET = "0123456789ABCDEFGHJKMNPQRSTVWXYZ".toCharArray();
+    private static final int LONGUEUR_TEXTE = 13;
+
+    private static volatile GenerateurIdentifiants instance = new GenerateurIdentifiants(noeudParDefaut());
+
+    private final long noeud;
+
+    /**
+     * Dernier état attribué : (millisecondes depuis l'époque << 12) | séquence
+     */
+    private final AtomicLong dernier = new AtomicLong();
+
+    public GenerateurIdentifiants(int noeud) {
+        if (noeud < 0 || noeud > NOEUD_MAX) {
+            throw new IllegalArgumentException("Numéro de nœud hors limites (0 à " + NOEUD_MAX + "): " + noeud);
+        }
+        this.noeud = noeud;
+    }
+
+    /**
+     * Générateur partagé de l'application (utilisable depuis les entités)
+     */
+    public static GenerateurIdentifiants instance() {
+        return instance;
+    }
+
+    /**
+     * Fixe le numéro de nœud du générateur partagé (au démarrage, avant toute génération)
+     */
+    public static void configurer(int noeud) {
+        instance = new GenerateurIdentifiants(noeud);
+    }
+
+    /**
+     * Prochain identifiant numérique
+     */
+    public long prochain() {
+        long maintenant = System.currentTimeMillis() - EPOQUE_MS;
+        long precedent;
+        long suivant;
+        do {
+            precedent = dernier.get();
+            long msPrecedente = precedent >>> BITS_SEQUENCE;
+            if (maintenant > msPrecedente) {
+                suivant = maintenant << BITS_SEQUENCE;
+            } else if ((precedent & SEQUENCE_MAX) < SEQUENCE_MAX) {
+                suivant = precedent + 1;
+            } else {
+                // Séquence épuisée ou horloge en retard : milliseconde suivante
+                suivant = (msPrecedente + 1) << BITS_SEQUENCE;
+            }
+        } while (!dernier.compareAndSet(precedent, suivant));
+
+        long ms = suivant >>> BITS_SEQUENCE;
+        long sequence = suivant & SEQUENCE_MAX;
+        return (ms << (BITS_NOEUD + BITS_SEQUENCE)) | (noeud << BITS_SEQUENCE) | sequence;
+    }
+
+    /**
+     * Prochain identifiant en base 32 de Crockford (13 caractères)
+     */
+    public String prochainTexte() {
+        return enBase32(prochain());
+    }
+
+    public int getNoeud() {
+        return (int) noeud;
+    }
+
+    /**
+     * Encode un identifiant positif en base 32 de Crockford, sur 13 caractères
+     */
+    public static String enBase32(long valeur) {
+        char[] texte = new char[LONGUEUR_TEXTE];
+        for (int i = LONGUEUR_TEXTE - 1; i >= 0; i--) {
+            texte[i] = ALPHABET[(int) (valeur & 31)];
+            valeur >>>= 5;
+        }
+        return new String(texte);
+    }
+
+    /**
+     * Instant de génération d'un identifiant
+     */
+    public static Instant instantDe(long identifiant) {
+        return Instant.ofEpochMilli((identifiant >>> (BITS_NOEUD + BITS_SEQUENCE)) + EPOQUE_MS);
+    }
+
+    /**
+     * Nœud par défaut quand aucun n'est configuré : dérivé du nom d'hôte et du PID
+     * (dev et test seulement : hors de ces profils, identifiants.noeud est obligatoire)
+     */
+    static int noeudParDefaut() {
+        String source;
+        try {
+            source = InetAddress.getLocalHost().getHostName() + "/" + ManagementFactory.getRuntimeMXBean().getName();
+        } catch (Exception e) {
+            source = ManagementFactory.getRuntimeMXBean().getName();
+        }
+        return (source.hashCode() & 0x7fffffff) % (NOEUD_MAX + 1);
+    }
+}
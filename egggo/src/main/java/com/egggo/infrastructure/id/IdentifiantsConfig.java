@@ -0,0 +1,32 @@
+package com.egggo.infrastructure.id;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.core.env.Profiles;
+
+/**
+ * Configuration du générateur d'identifiants
+ * Le numéro de nœud doit être distinct sur chaque instance déployée. -1 le dérive de l'hôte et du
+ * PID (collisions possibles entre instances) : accepté seulement avec les profils dev et test.
+ */
+@Configuration
+@Slf4j
+public class IdentifiantsConfig {
+
+    @Bean
+    public GenerateurIdentifiants generateurIdentifiants(@Value("${identifiants.noeud:-1}") int noeud,
+                                                         Environment environment) {
+        if (noeud >= 0) {
+            GenerateurIdentifiants.configurer(noeud);
+        } else if (!environment.acceptsProfiles(Profiles.of("dev", "test"))) {
+            throw new IllegalStateException(
+                    "identifiants.noeud doit être fixé (0 à " + GenerateurIdentifiants.NOEUD_MAX + ") hors des profils dev et test");
+        }
+        GenerateurIdentifiants generateur = GenerateurIdentifiants.instance();
+        log.info("Générateur d'identifiants: nœud {}", generateur.getNoeud());
+        return generateur;
+    }
+}
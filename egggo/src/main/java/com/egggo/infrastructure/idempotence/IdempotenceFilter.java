@@ -0,0 +1,282 @@
+package com.egggo.infrastructure.idempotence;
+
+import com.egggo.api.dto.common.ApiResponse;
+import com.egggo.infrastructure.idempotence.RegistreIdempotence.Entree;
+import com.egggo.infrastructure.idempotence.RegistreIdempotence.ReponseMemorisee;
+import com.egggo.infrastructure.idempotence.RegistreIdempotence.Reservation;
+import com.egggo.security.EggGoPrincipal;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.lang.NonNull;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Filtre d'idempotence des créations (en-tête Idempotency-Key)
+ * Sur les routes configurées, un POST portant une clé déjà vue par le même utilisateur reçoit
+ * la réponse d'origine, rejouée à l'identique, sans nouvelle exécution (ni commande ni paiement
+ * en double). Une même clé réutilisée avec un corps différent est refusée (422).
+ * Seules les réponses 2xx sont mémorisées : après une erreur, la requête peut être retentée.
+ * Le corps est lu en mémoire pour l'empreinte : au-delà de la taille configurée, la requête est
+ * refusée (413).
+ */
+@Component
+@Slf4j
+public class IdempotenceFilter extends OncePerRequestFilter {
+
+    public static final String EN_TETE_CLE = "Idempotency-Key";
+    public static final String EN_TETE_REJEU = "Idempotency-Replayed";
+
+    private static final int LONGUEUR_MAX_CLE = 255;
+    private static final int TAILLE_MAX_REPONSE = 64 * 1024;
+    private static final int TENTATIVES = 3;
+
+    private final RegistreIdempotence registre;
+    private final ObjectMapper objectMapper;
+    private final List<String> chemins;
+    private final long attenteMaxMs;
+    private final int tailleMaxCorps;
+
+    public IdempotenceFilter(RegistreIdempotence registre,
+                             ObjectMapper objectMapper,
+                             @Value("${idempotence.chemins:/v1/commandes,/v1/paiements/initier}") List<String> chemins,
+                             @Value("${idempotence.attente-max-ms:30000}") long attenteMaxMs,
+                             @Value("${idempotence.taille-max-corps:65536}") int tailleMaxCorps) {
+        this.registre = registre;
+        this.objectMapper = objectMapper;
+        this.chemins = chemins;
+        this.attenteMaxMs = attenteMaxMs;
+        this.tailleMaxCorps = tailleMaxCorps;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(@NonNull HttpServletRequest request) {
+        if (!"POST".equals(request.getMethod()) || request.getHeader(EN_TETE_CLE) == null) {
+            return true;
+        }
+        return !chemins.contains(request.getRequestURI().substring(request.getContextPath().length()));
+    }
+
+    @Override
+    protected void doFilterInternal(
+            @NonNull HttpServletRequest request,
+            @NonNull HttpServletResponse response,
+            @NonNull FilterChain filterChain
+    ) throws ServletException, IOException {
+
+        String cleClient = request.getHeader(EN_TETE_CLE).trim();
+        if (cleClient.isEmpty() || cleClient.length() > LONGUEUR_MAX_CLE) {
+            ecrireErreur(response, HttpStatus.BAD_REQUEST,
+                    "En-tête " + EN_TETE_CLE + " invalide (1 à " + LONGUEUR_MAX_CLE + " caractères)");
+            return;
+        }
+
+        String chemin = request.getRequestURI().substring(request.getContextPath().length());
+        byte[] corps = request.getContentLengthLong() > tailleMaxCorps ? null : lireCorps(request);
+        if (corps == null) {
+            ecrireErreur(response, HttpStatus.PAYLOAD_TOO_LARGE,
+                    "Corps de requête trop volumineux (" + tailleMaxCorps + " octets au maximum)");
+            return;
+        }
+        String cle = chemin + "|" + appelant(request) + "|" + cleClient;
+        String empreinte = empreinte(chemin, corps);
+
+        for (int tentative = 0; tentative < TENTATIVES; tentative++) {
+            Reservation reservation = registre.reserver(cle, empreinte);
+            Entree entree = reservation.entree();
+
+            if (reservation.proprietaire()) {
+                executer(new RequeteRelue(request, corps), response, filterChain, cle, entree);
+                return;
+            }
+            if (!entree.empreinte().equals(empreinte)) {
+                ecrireErreur(response, HttpStatus.UNPROCESSABLE_ENTITY,
+                        "Cette clé d'idempotence a déjà été utilisée pour une autre requête");
+                return;
+            }
+
+            ReponseMemorisee reponse;
+            try {
+                reponse = registre.attendre(entree, attenteMaxMs);
+            } catch (TimeoutException e) {
+                break;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+            if (reponse != null) {
+                log.info("Requête idempotente rejouée: {} {}", chemin, cleClient);
+                rejouer(response, reponse);
+                return;
+            }
+            // La première exécution a échoué sans effet : nouvelle tentative de réservation
+        }
+
+        ecrireErreur(response, HttpStatus.CONFLICT, "Une requête avec cette clé d'idempotence est déjà en cours");
+    }
+
+    /**
+     * Exécute la requête en capturant la réponse pour les doublons
+     */
+    private void executer(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain,
+                          String cle, Entree entree) throws ServletException, IOException {
+        ContentCachingResponseWrapper capture = new ContentCachingResponseWrapper(response);
+        boolean memorisee = false;
+        try {
+            filterChain.doFilter(request, capture);
+            int statut = capture.getStatus();
+            if (statut >= 200 && statut < 300 && capture.getContentSize() <= TAILLE_MAX_REPONSE) {
+                registre.memoriser(entree, new ReponseMemorisee(statut, capture.getContentType(),
+                        capture.getContentAsByteArray()));
+                memorisee = true;
+            }
+        } finally {
+            if (!memorisee) {
+                registre.abandonner(cle, entree);
+            }
+            capture.copyBodyToResponse();
+        }
+    }
+
+    /**
+     * Lit le corps en s'arrêtant au premier octet au-delà de la taille maximale (null si dépassée)
+     */
+    private byte[] lireCorps(HttpServletRequest request) throws IOException {
+        byte[] corps = request.getInputStream().readNBytes(tailleMaxCorps + 1);
+        return corps.length > tailleMaxCorps ? null : corps;
+    }
+
+    private void rejouer(HttpServletResponse response, ReponseMemorisee reponse) throws IOException {
+        response.setStatus(reponse.statut());
+        if (reponse.contentType() != null) {
+            response.setContentType(reponse.contentType());
+        }
+        response.setHeader(EN_TETE_REJEU, "true");
+        response.setContentLength(reponse.corps().length);
+        response.getOutputStream().write(reponse.corps());
+    }
+
+    private void ecrireErreur(HttpServletResponse response, HttpStatus statut, String message) throws IOException {
+        response.setStatus(statut.value());
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setCharacterEncoding("UTF-8");
+        objectMapper.writeValue(response.getOutputStream(), ApiResponse.error(message));
+    }
+
+    /**
+     * Les clés sont propres à chaque utilisateur (ou IP pour les appels anonymes)
+     */
+    private String appelant(HttpServletRequest request) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.getPrincipal() instanceof EggGoPrincipal principal) {
+            return "u:" + principal.getId();
+        }
+        return "ip:" + request.getRemoteAddr();
+    }
+
+    private static String empreinte(String chemin, byte[] corps) {
+        try {
+            MessageDigest sha256 = MessageDigest.getInstance("SHA-256");
+            sha256.update(chemin.getBytes(StandardCharsets.UTF_8));
+            sha256.update((byte) 0);
+            return HexFormat.of().formatHex(sha256.digest(corps));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 indisponible", e);
+        }
+    }
+
+    /**
+     * Requête dont le corps, déjà lu pour l'empreinte, peut être relu par le contrôleur
+     */
+    private static final class RequeteRelue extends HttpServletRequestWrapper {
+
+        private final byte[] corps;
+
+        RequeteRelue(HttpServletRequest request, byte[] corps) {
+            super(request);
+            this.corps = corps;
+        }
+
+        @Override
+        public ServletInputStream getInputStream() {
+            ByteArrayInputStream source = new ByteArrayInputStream(corps);
+            return new ServletInputStream() {
+                @Override
+                public boolean isFinished() {
+                    return source.available() == 0;
+                }
+
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                /**
+                 * Corps déjà en mémoire : tout est disponible immédiatement
+                 */
+                @Override
+                public void setReadListener(ReadListener readListener) {
+                    try {
+                        if (source.available() > 0) {
+                            readListener.onDataAvailable();
+                        }
+                        readListener.onAllDataRead();
+                    } catch (IOException e) {
+                        readListener.onError(e);
+                    }
+                }
+
+                @Override
+                public int read() {
+                    return source.read();
+                }
+
+                @Override
+                public int read(byte[] b, int off, int len) {
+                    return source.read(b, off, len);
+                }
+            };
+        }
+
+        @Override
+        public BufferedReader getReader() {
+            String encodage = getCharacterEncoding() != null ? getCharacterEncoding() : StandardCharsets.UTF_8.name();
+            return new BufferedReader(new InputStreamReader(getInputStream(), Charset.forName(encodage)));
+        }
+
+        @Override
+        public int getContentLength() {
+            return corps.length;
+        }
+
+        @Override
+        public long getContentLengthLong() {
+            return corps.length;
+        }
+    }
+}
@@ -0,0 +1,162 @@
+package com.egggo.infrastructure.idempotence;
+
+import com.egggo.infrastructure.metrics.SourceMetriques;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Registre borné des requêtes idempotentes (clé → empreinte de la requête et réponse sérialisée)
+ * La première requête d'une clé en devient propriétaire et l'exécute ; les doublons, même
+ * concurrents, attendent son résultat au lieu de la rejouer. Les entrées expirent après une durée
+ * fixe ; au-delà de la capacité, les plus anciennes entrées terminées sont évincées.
+ */
+@Component
+public class RegistreIdempotence implements SourceMetriques {
+
+    private final int capacite;
+    private final long dureeMs;
+
+    /**
+     * Entrées dans l'ordre d'insertion (la plus ancienne en tête), protégées par leur propre moniteur
+     */
+    private final LinkedHashMap<String, Entree> entrees = new LinkedHashMap<>();
+
+    private final LongAdder executions = new LongAdder();
+    private final LongAdder rejeux = new LongAdder();
+    private final LongAdder conflits = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    public RegistreIdempotence(@Value("${idempotence.capacite:10000}") int capacite,
+                               @Value("${idempotence.duree-minutes:1440}") long dureeMinutes) {
+        this.capacite = capacite;
+        this.dureeMs = Duration.ofMinutes(dureeMinutes).toMillis();
+    }
+
+    /**
+     * Réserve une clé : l'appelant devient propriétaire si la clé est libre (ou expirée),
+     * sinon il reçoit l'entrée existante
+     */
+    public Reservation reserver(String cle, String empreinte) {
+        long maintenant = System.currentTimeMillis();
+        synchronized (entrees) {
+            Entree existante = entrees.get(cle);
+            if (existante != null && existante.expiration() > maintenant) {
+                if (!existante.empreinte().equals(empreinte)) {
+                    conflits.increment();
+                } else {
+                    rejeux.increment();
+                }
+                return new Reservation(existante, false);
+            }
+            Entree nouvelle = new Entree(empreinte, new CompletableFuture<>(), maintenant + dureeMs);
+            entrees.remove(cle);
+            entrees.put(cle, nouvelle);
+            executions.increment();
+            evincer(maintenant);
+            return new Reservation(nouvelle, true);
+        }
+    }
+
+    /**
+     * Mémorise la réponse du propriétaire et réveille les doublons en attente
+     */
+    public void memoriser(Entree entree, ReponseMemorisee reponse) {
+        entree.resultat().complete(reponse);
+    }
+
+    /**
+     * Libère la clé sans réponse mémorisable (erreur) : les doublons en attente pourront l'exécuter
+     */
+    public void abandonner(String cle, Entree entree) {
+        synchronized (entrees) {
+            entrees.remove(cle, entree);
+        }
+        entree.resultat().complete(null);
+    }
+
+    /**
+     * Attend le résultat d'une exécution en cours
+     * Retourne null si le propriétaire a abandonné ; lève TimeoutException au-delà du délai
+     */
+    public ReponseMemorisee attendre(Entree entree, long delaiMs) throws TimeoutException, InterruptedException {
+        try {
+            return entree.resultat().get(delaiMs, TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Évince les entrées expirées puis, si la capacité est dépassée, les plus anciennes terminées
+     * (une exécution en cours n'est jamais évincée)
+     */
+    private void evincer(long maintenant) {
+        if (entrees.size() <= capacite) {
+            return;
+        }
+        Iterator<Entree> iterateur = entrees.values().iterator();
+        while (iterateur.hasNext() && entrees.size() > capacite) {
+            Entree entree = iterateur.next();
+            if (entree.expiration() <= maintenant || entree.resultat().isDone()) {
+                iterateur.remove();
+                evictions.increment();
+            }
+        }
+    }
+
+    @Scheduled(fixedDelay = 60_000)
+    void purger() {
+        long maintenant = System.currentTimeMillis();
+        synchronized (entrees) {
+            entrees.values().removeIf(entree -> entree.expiration() <= maintenant && entree.resultat().isDone());
+        }
+    }
+
+    @Override
+    public String getNom() {
+        return "idempotence";
+    }
+
+    @Override
+    public Map<String, Object> getMetriques() {
+        Map<String, Object> metriques = new LinkedHashMap<>();
+        synchronized (entrees) {
+            metriques.put("entrees", entrees.size());
+        }
+        metriques.put("capacite", capacite);
+        metriques.put("executions", executions.sum());
+        metriques.put("rejeux", rejeux.sum());
+        metriques.put("conflits", conflits.sum());
+        metriques.put("evictions", evictions.sum());
+        return metriques;
+    }
+
+    /**
+     * Réponse HTTP mémorisée pour être rejouée à l'identique
+     */
+    public record ReponseMemorisee(int statut, String contentType, byte[] corps) {
+    }
+
+    /**
+     * Empreinte de la requête d'origine, résultat (à venir) et instant d'expiration
+     */
+    public record Entree(String empreinte, CompletableFuture<ReponseMemorisee> resultat, long expiration) {
+    }
+
+    /**
+     * Entrée réservée ou existante, et rôle de l'appelant
+     */
+    public record Reservation(Entree entree, boolean proprietaire) {
+    }
+}
@@ -0,0 +1,98 @@
+package com.egggo.infrastructure.ingestion;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Consumer;
+
+/**
+ * File bornée sans verrou à producteurs multiples et consommateur unique (anneau de D. Vyukov)
+ * Chaque case porte un numéro de séquence : un producteur réserve une position par CAS sur la
+ * queue, écrit l'élément puis publie la case en avançant sa séquence ; le consommateur ne lit une
+ * case qu'une fois publiée et la rend en avançant sa séquence d'un tour. Aucune allocation par
+ * élément et aucune attente : une file pleine refuse l'élément.
+ * Le consommateur doit être unique (les appels à vider sont sérialisés par l'appelant).
+ */
+public final class TamponCirculaire<E> {
+
+    private final int masque;
+    private final Object[] cases;
+    private final AtomicLongArray sequences;
+    private final AtomicLong queue = new AtomicLong();
+    private final AtomicLong refuses = new AtomicLong();
+    private volatile long tete;
+
+    public TamponCirculaire(int capaciteMinimale) {
+        if (capaciteMinimale < 2 || capaciteMinimale > (1 << 30)) {
+            throw new IllegalArgumentException("Capacité invalide: " + capaciteMinimale);
+        }
+        int capacite = Integer.highestOneBit(capaciteMinimale - 1) << 1;
+        this.masque = capacite - 1;
+        this.cases = new Object[capacite];
+        this.sequences = new AtomicLongArray(capacite);
+        for (int i = 0; i < capacite; i++) {
+            sequences.set(i, i);
+        }
+    }
+
+    /**
+     * Ajoute un élément ; false si la file est pleine
+     */
+    public boolean offrir(E element) {
+        long position = queue.get();
+        while (true) {
+            int index = (int) position & masque;
+            long ecart = sequences.get(index) - position;
+            if (ecart == 0) {
+                if (queue.compareAndSet(position, position + 1)) {
+                    cases[index] = element;
+                    sequences.set(index, position + 1);
+                    return true;
+                }
+                position = queue.get();
+            } else if (ecart < 0) {
+                refuses.incrementAndGet();
+                return false;
+            } else {
+                position = queue.get();
+            }
+        }
+    }
+
+    /**
+     * Retire au plus max éléments publiés, dans l'ordre, et les passe au consommateur ; retourne leur nombre
+     */
+    @SuppressWarnings("unchecked")
+    public int vider(Consumer<E> consommateur, int max) {
+        long position = tete;
+        int lus = 0;
+        while (lus < max) {
+            int index = (int) position & masque;
+            if (sequences.get(index) != position + 1) {
+                break; // vide, ou case réservée mais pas encore publiée
+            }
+            E element = (E) cases[index];
+            cases[index] = null;
+            sequences.set(index, position + masque + 1);
+            position++;
+            lus++;
+            consommateur.accept(element);
+        }
+        tete = position;
+        return lus;
+    }
+
+    /**
+     * Nombre approximatif d'éléments en attente
+     */
+    public int taille() {
+        return (int) Math.max(0, queue.get() - tete);
+    }
+
+    public int capacite() {
+        return masque + 1;
+    }
+
+    public long getRefuses() {
+        return refuses.get();
+    }
+}
@@ -0,0 +1,195 @@
+package com.egggo.infrastructure.metrics;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * Esquisse de quantiles à précision relative fixe (histogramme à cases logarithmiques)
+ * Une valeur v ≥ 1 tombe dans la case ceil(log_γ(v)) avec γ = (1 + α) / (1 − α) : tout quantile
+ * est restitué à α près (1 % ici), quelle que soit la distribution. Les valeurs inférieures à 1
+ * sont comptées à part. Avec des durées en secondes, un an tient dans moins de 900 cases ;
+ * la forme sérialisée ne garde que les cases non vides. Deux esquisses se fusionnent par
+ * simple addition des cases, ce qui permet de les cumuler par période sans perte.
+ * Non synchronisée : chaque instance appartient à un seul fil ou est protégée par l'appelant.
+ */
+public final class HistogrammeLogarithmique {
+
+    public static final double PRECISION = 0.01;
+
+    private static final double GAMMA = (1 + PRECISION) / (1 - PRECISION);
+    private static final double LOG_GAMMA = Math.log(GAMMA);
+    private static final int INDEX_MAX = 4096;
+    private static final byte VERSION = 1;
+
+    private int[] cases = new int[0];
+    private long nombreZero;
+    private long nombre;
+    private double somme;
+    private double min = Double.NaN;
+    private double max = Double.NaN;
+
+    /**
+     * Ajoute une observation (les valeurs négatives ou non finies sont ignorées)
+     */
+    public void ajouter(double valeur) {
+        if (!(valeur >= 0) || Double.isInfinite(valeur)) {
+            return;
+        }
+        if (valeur < 1) {
+            nombreZero++;
+        } else {
+            int index = Math.min(INDEX_MAX, (int) Math.ceil(Math.log(valeur) / LOG_GAMMA));
+            if (index >= cases.length) {
+                cases = Arrays.copyOf(cases, Math.min(INDEX_MAX + 1, Math.max(index + 1, cases.length * 2)));
+            }
+            cases[index]++;
+        }
+        nombre++;
+        somme += valeur;
+        min = Double.isNaN(min) ? valeur : Math.min(min, valeur);
+        max = Double.isNaN(max) ? valeur : Math.max(max, valeur);
+    }
+
+    /**
+     * Ajoute toutes les observations d'une autre esquisse
+     */
+    public void fusionner(HistogrammeLogarithmique autre) {
+        if (autre.nombre == 0) {
+            return;
+        }
+        if (autre.cases.length > cases.length) {
+            cases = Arrays.copyOf(cases, autre.cases.length);
+        }
+        for (int i = 0; i < autre.cases.length; i++) {
+            cases[i] += autre.cases[i];
+        }
+        nombreZero += autre.nombreZero;
+        nombre += autre.nombre;
+        somme += autre.somme;
+        min = Double.isNaN(min) ? autre.min : Math.min(min, autre.min);
+        max = Double.isNaN(max) ? autre.max : Math.max(max, autre.max);
+    }
+
+    /**
+     * Quantile q (0 à 1), à la précision relative près ; NaN si l'esquisse est vide
+     */
+    public double quantile(double q) {
+        if (nombre == 0) {
+            return Double.NaN;
+        }
+        if (q <= 0) {
+            return min;
+        }
+        if (q >= 1) {
+            return max;
+        }
+        long rang = (long) Math.floor(q * (nombre - 1));
+        long cumul = nombreZero;
+        if (cumul > rang) {
+            return min;
+        }
+        for (int i = 0; i < cases.length; i++) {
+            cumul += cases[i];
+            if (cumul > rang) {
+                double estimation = 2 * Math.pow(GAMMA, i) / (GAMMA + 1);
+                return Math.max(min, Math.min(max, estimation));
+            }
+        }
+        return max;
+    }
+
+    public long getNombre() {
+        return nombre;
+    }
+
+    public double getSomme() {
+        return somme;
+    }
+
+    public double getMoyenne() {
+        return nombre == 0 ? Double.NaN : somme / nombre;
+    }
+
+    // ====================== Sérialisation ======================
+
+    /**
+     * Forme compacte : en-tête, puis paires (écart d'index, effectif) des cases non vides en varint
+     */
+    public byte[] encoder() {
+        ByteArrayOutputStream sortie = new ByteArrayOutputStream(32);
+        sortie.write(VERSION);
+        ecrireVarint(sortie, nombre);
+        ecrireVarint(sortie, nombreZero);
+        byte[] reels = ByteBuffer.allocate(3 * Double.BYTES).putDouble(somme).putDouble(min).putDouble(max).array();
+        sortie.write(reels, 0, reels.length);
+        int nonVides = 0;
+        for (int effectif : cases) {
+            if (effectif != 0) {
+                nonVides++;
+            }
+        }
+        ecrireVarint(sortie, nonVides);
+        int precedent = 0;
+        for (int i = 0; i < cases.length; i++) {
+            if (cases[i] != 0) {
+                ecrireVarint(sortie, i - precedent);
+                ecrireVarint(sortie, cases[i]);
+                precedent = i;
+            }
+        }
+        return sortie.toByteArray();
+    }
+
+    /**
+     * Relit une esquisse encodée ; null ou vide donne une esquisse vide
+     */
+    public static HistogrammeLogarithmique decoder(byte[] octets) {
+        HistogrammeLogarithmique histogramme = new HistogrammeLogarithmique();
+        if (octets == null || octets.length == 0) {
+            return histogramme;
+        }
+        ByteBuffer entree = ByteBuffer.wrap(octets);
+        if (entree.get() != VERSION) {
+            throw new IllegalArgumentException("Version d'esquisse inconnue");
+        }
+        histogramme.nombre = lireVarint(entree);
+        histogramme.nombreZero = lireVarint(entree);
+        histogramme.somme = entree.getDouble();
+        histogramme.min = entree.getDouble();
+        histogramme.max = entree.getDouble();
+        int nonVides = (int) lireVarint(entree);
+        int index = 0;
+        for (int n = 0; n < nonVides; n++) {
+            index += (int) lireVarint(entree);
+            if (index > INDEX_MAX) {
+                throw new IllegalArgumentException("Esquisse corrompue");
+            }
+            if (index >= histogramme.cases.length) {
+                histogramme.cases = Arrays.copyOf(histogramme.cases, index + 1);
+            }
+            histogramme.cases[index] = (int) lireVarint(entree);
+        }
+        return histogramme;
+    }
+
+    private static void ecrireVarint(ByteArrayOutputStream sortie, long valeur) {
+        while ((valeur & ~0x7FL) != 0) {
+            sortie.write((int) ((valeur & 0x7F) | 0x80));
+            valeur >>>= 7;
+        }
+        sortie.write((int) valeur);
+    }
+
+    private static long lireVarint(ByteBuffer entree) {
+        long valeur = 0;
+        for (int decalage = 0; decalage < 64; decalage += 7) {
+            byte octet = entree.get();
+            valeur |= (long) (octet & 0x7F) << decalage;
+            if (octet >= 0) {
+                return valeur;
+            }
+        }
+        throw new IllegalArgumentException("Esquisse corrompue");
+    }
+}
@@ -0,0 +1,20 @@
+package com.egggo.infrastructure.metrics;
+
+import java.util.Map;
+
+/**
+ * Composant exposant des compteurs internes (files d'attente, rejets, caches...)
+ * Toutes les sources sont agrégées par l'endpoint d'administration des métriques
+ */
+public interface SourceMetriques {
+
+    /**
+     * Nom de la source, utilisé comme clé dans la réponse agrégée
+     */
+    String getNom();
+
+    /**
+     * Valeurs instantanées des compteurs de la source
+     */
+    Map<String, Object> getMetriques();
+}
@@ -0,0 +1,90 @@
+package com.egggo.infrastructure.ratelimit;
+
+import java.time.Duration;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Registre de seaux à jetons indexés par clé (téléphone, utilisateur, route...)
+ * S'appuie sur une ConcurrentHashMap (segmentée, sans verrou global en lecture) ;
+ * les seaux inactifs sont purgés périodiquement.
+ */
+public class LimiteurDebit {
+
+    private final String nom;
+    private final int capacite;
+    private final long intervalleNanos;
+    private final ConcurrentHashMap<String, SeauJetons> seaux = new ConcurrentHashMap<>();
+    private final LongAdder acceptees = new LongAdder();
+    private final LongAdder rejetees = new LongAdder();
+
+    /**
+     * @param capacite nombre de requêtes autorisées en rafale
+     * @param periode  durée de recharge complète du seau
+     */
+    public LimiteurDebit(String nom, int capacite, Duration periode) {
+        if (capacite <= 0) {
+            throw new IllegalArgumentException("La capacité du limiteur doit être positive");
+        }
+        this.nom = nom;
+        this.capacite = capacite;
+        this.intervalleNanos = Math.max(1, periode.toNanos() / capacite);
+    }
+
+    /**
+     * Consomme un jeton pour la clé donnée
+     *
+     * @return 0 si la requête est autorisée, sinon l'attente conseillée en nanosecondes
+     */
+    public long consommer(String cle) {
+        long maintenant = System.nanoTime();
+        SeauJetons seau = seaux.get(cle);
+        if (seau == null) {
+            seau = seaux.computeIfAbsent(cle, k -> new SeauJetons(intervalleNanos, capacite, maintenant));
+        }
+        long attente = seau.consommer(maintenant);
+        if (attente == 0) {
+            acceptees.increment();
+        } else {
+            rejetees.increment();
+        }
+        return attente;
+    }
+
+    /**
+     * Convertit une attente en nanosecondes en secondes (arrondi supérieur) pour l'en-tête Retry-After
+     */
+    public static long enSecondes(long attenteNanos) {
+        return Math.max(1, (attenteNanos + TimeUnit.SECONDS.toNanos(1) - 1) / TimeUnit.SECONDS.toNanos(1));
+    }
+
+    /**
+     * Supprime les seaux pleins non sollicités depuis le délai donné
+     *
+     * @return nombre de seaux supprimés
+     */
+    public int purgerInactifs(Duration delai) {
+        long maintenant = System.nanoTime();
+        long delaiNanos = delai.toNanos();
+        int avant = seaux.size();
+        seaux.values().removeIf(seau -> seau.estInactif(maintenant, delaiNanos));
+        return avant - seaux.size();
+    }
+
+    public String getNom() {
+        return nom;
+    }
+
+    public int getNombreCles() {
+        return seaux.size();
+    }
+
+    public long getAcceptees() {
+        return acceptees.sum();
+    }
+
+    public long getRejetees() {
+        return rejetees.sum();
+    }
+}
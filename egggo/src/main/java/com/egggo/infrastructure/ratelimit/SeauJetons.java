@@ -0,0 +1,58 @@
+package com.egggo.infrastructure.ratelimit;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Seau à jetons sans verrou
+ * Tout l'état tient dans un seul long (instant théorique d'arrivée, algorithme GCRA) :
+ * une consommation est un simple compare-and-set, sans allocation.
+ */
+public final class SeauJetons {
+
+    /**
+     * Intervalle de recharge d'un jeton, en nanosecondes
+     */
+    private final long intervalleNanos;
+
+    /**
+     * Avance maximale tolérée sur l'échéancier (capacité du seau moins un jeton)
+     */
+    private final long toleranceNanos;
+
+    private final AtomicLong arriveeTheorique;
+    private volatile long dernierAcces;
+
+    public SeauJetons(long intervalleNanos, int capacite, long maintenant) {
+        this.intervalleNanos = intervalleNanos;
+        this.toleranceNanos = intervalleNanos * (Math.max(1, capacite) - 1);
+        this.arriveeTheorique = new AtomicLong(maintenant);
+        this.dernierAcces = maintenant;
+    }
+
+    /**
+     * Tente de consommer un jeton
+     *
+     * @return 0 si le jeton est accordé, sinon l'attente en nanosecondes avant le prochain jeton
+     */
+    public long consommer(long maintenant) {
+        dernierAcces = maintenant;
+        while (true) {
+            long courant = arriveeTheorique.get();
+            long base = Math.max(courant, maintenant);
+            long attente = base - toleranceNanos - maintenant;
+            if (attente > 0) {
+                return attente;
+            }
+            if (arriveeTheorique.compareAndSet(courant, base + intervalleNanos)) {
+                return 0;
+            }
+        }
+    }
+
+    /**
+     * Un seau est inactif lorsqu'il est plein et n'a pas été sollicité depuis le délai donné
+     */
+    public boolean estInactif(long maintenant, long delaiNanos) {
+        return maintenant - dernierAcces > delaiNanos && arriveeTheorique.get() <= maintenant;
+    }
+}
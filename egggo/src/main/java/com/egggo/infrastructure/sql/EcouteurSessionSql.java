@@ -0,0 +1,44 @@
+package com.egggo.infrastructure.sql;
+
+import org.hibernate.SessionEventListener;
+
+/**
+ * Écouteur de session Hibernate : temps d'exécution JDBC des requêtes et des lots
+ * Instancié par Hibernate pour chaque session (hibernate.session.events.auto)
+ */
+public class EcouteurSessionSql implements SessionEventListener {
+
+    @Override
+    public void jdbcExecuteStatementStart() {
+        debut();
+    }
+
+    @Override
+    public void jdbcExecuteStatementEnd() {
+        fin();
+    }
+
+    @Override
+    public void jdbcExecuteBatchStart() {
+        debut();
+    }
+
+    @Override
+    public void jdbcExecuteBatchEnd() {
+        fin();
+    }
+
+    private static void debut() {
+        MesureSql mesure = MesureSql.courante();
+        if (mesure != null) {
+            mesure.debutExecution();
+        }
+    }
+
+    private static void fin() {
+        MesureSql mesure = MesureSql.courante();
+        if (mesure != null) {
+            mesure.finExecution();
+        }
+    }
+}
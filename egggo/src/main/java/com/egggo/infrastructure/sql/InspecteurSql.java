@@ -0,0 +1,30 @@
+package com.egggo.infrastructure.sql;
+
+import org.hibernate.Interceptor;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.hibernate.type.Type;
+
+/**
+ * Point d'accroche Hibernate : compte chaque requête SQL préparée et chaque entité chargée
+ * dans la mesure en cours du thread (sans effet s'il n'y en a pas)
+ */
+public class InspecteurSql implements StatementInspector, Interceptor {
+
+    @Override
+    public String inspect(String sql) {
+        MesureSql mesure = MesureSql.courante();
+        if (mesure != null) {
+            mesure.requete(sql);
+        }
+        return sql;
+    }
+
+    @Override
+    public boolean onLoad(Object entity, Object id, Object[] state, String[] propertyNames, Type[] types) {
+        MesureSql mesure = MesureSql.courante();
+        if (mesure != null) {
+            mesure.entiteChargee();
+        }
+        return false;
+    }
+}
@@ -0,0 +1,145 @@
+package com.egggo.infrastructure.sql;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * Mesure des requêtes SQL émises par le thread courant pendant une unité de travail
+ * (une requête HTTP, ou un bloc de test) : nombre de requêtes, temps d'exécution JDBC,
+ * entités chargées et nombre d'occurrences de chaque forme de requête.
+ * Deux requêtes ne différant que par leurs paramètres ont la même forme : une forme
+ * répétée de nombreuses fois signale un chargement N+1.
+ * Les mesures s'imbriquent : une mesure démarrée dans une autre alimente aussi la mesure englobante.
+ */
+public final class MesureSql {
+
+    private static final ThreadLocal<MesureSql> COURANTE = new ThreadLocal<>();
+
+    private static final Pattern ESPACES = Pattern.compile("\\s+");
+    private static final Pattern LISTE_PARAMETRES = Pattern.compile("\\(\\s*\\?(\\s*,\\s*\\?)*\\s*\\)");
+    private static final Pattern LITTERAUX = Pattern.compile("'(?:[^']|'')*'|\\b\\d+\\b");
+
+    private final MesureSql englobante;
+    private final Map<String, Integer> formes = new HashMap<>();
+    private int requetes;
+    private int entitesChargees;
+    private long dureeNanos;
+    private long debutExecution;
+
+    private MesureSql(MesureSql englobante) {
+        this.englobante = englobante;
+    }
+
+    /**
+     * Démarre une mesure sur le thread courant
+     */
+    public static MesureSql demarrer() {
+        MesureSql mesure = new MesureSql(COURANTE.get());
+        COURANTE.set(mesure);
+        return mesure;
+    }
+
+    /**
+     * Termine la mesure du thread courant et rend la main à la mesure englobante
+     */
+    public static MesureSql terminer() {
+        MesureSql mesure = COURANTE.get();
+        if (mesure == null) {
+            throw new IllegalStateException("Aucune mesure SQL en cours");
+        }
+        if (mesure.englobante != null) {
+            COURANTE.set(mesure.englobante);
+        } else {
+            COURANTE.remove();
+        }
+        return mesure;
+    }
+
+    /**
+     * Mesure en cours sur le thread, null s'il n'y en a pas
+     */
+    static MesureSql courante() {
+        return COURANTE.get();
+    }
+
+    void requete(String sql) {
+        String forme = forme(sql);
+        for (MesureSql mesure = this; mesure != null; mesure = mesure.englobante) {
+            mesure.requetes++;
+            mesure.formes.merge(forme, 1, Integer::sum);
+        }
+    }
+
+    void debutExecution() {
+        debutExecution = System.nanoTime();
+    }
+
+    void finExecution() {
+        if (debutExecution == 0) {
+            return;
+        }
+        long duree = System.nanoTime() - debutExecution;
+        debutExecution = 0;
+        for (MesureSql mesure = this; mesure != null; mesure = mesure.englobante) {
+            mesure.dureeNanos += duree;
+        }
+    }
+
+    void entiteChargee() {
+        for (MesureSql mesure = this; mesure != null; mesure = mesure.englobante) {
+            mesure.entitesChargees++;
+        }
+    }
+
+    public int getRequetes() {
+        return requetes;
+    }
+
+    public int getEntitesChargees() {
+        return entitesChargees;
+    }
+
+    public long getDureeMs() {
+        return dureeNanos / 1_000_000;
+    }
+
+    public long getDureeNanos() {
+        return dureeNanos;
+    }
+
+    /**
+     * Nombre d'occurrences de chaque forme de requête
+     */
+    public Map<String, Integer> getFormes() {
+        return Collections.unmodifiableMap(formes);
+    }
+
+    /**
+     * Formes exécutées au moins seuil fois (suspicion de N+1), de la plus fréquente à la moins fréquente
+     */
+    public Map<String, Integer> getRepetitions(int seuil) {
+        Map<String, Integer> repetitions = new LinkedHashMap<>();
+        formes.entrySet().stream()
+                .filter(forme -> forme.getValue() >= seuil)
+                .sorted(Map.Entry.<String, Integer>comparingByValue().reversed())
+                .forEach(forme -> repetitions.put(forme.getKey(), forme.getValue()));
+        return repetitions;
+    }
+
+    /**
+     * Forme d'une requête : littéraux et listes de paramètres IN réduits, espaces normalisés
+     */
+    static String forme(String sql) {
+        String forme = ESPACES.matcher(sql.trim()).replaceAll(" ");
+        forme = LITTERAUX.matcher(forme).replaceAll("?");
+        return LISTE_PARAMETRES.matcher(forme).replaceAll("(?)");
+    }
+
+    @Override
+    public String toString() {
+        return requetes + " requêtes SQL, " + entitesChargees + " entités chargées, " + getDureeMs() + " ms";
+    }
+}
@@ -0,0 +1,25 @@
+package com.egggo.infrastructure.sql;
+
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Branche l'instrumentation SQL sur Hibernate (requêtes, entités chargées, temps JDBC)
+ */
+@Configuration
+@ConditionalOnProperty(name = "sql.surveillance.actif", havingValue = "true", matchIfMissing = true)
+public class SurveillanceSqlConfig {
+
+    @Bean
+    public HibernatePropertiesCustomizer instrumentationSql() {
+        InspecteurSql inspecteur = new InspecteurSql();
+        return proprietes -> {
+            proprietes.put(AvailableSettings.STATEMENT_INSPECTOR, inspecteur);
+            proprietes.put(AvailableSettings.INTERCEPTOR, inspecteur);
+            proprietes.put(AvailableSettings.AUTO_SESSION_EVENTS_LISTENER, EcouteurSessionSql.class.getName());
+        };
+    }
+}
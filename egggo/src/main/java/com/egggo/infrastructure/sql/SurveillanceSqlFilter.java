@@ -0,0 +1,140 @@
+package com.egggo.infrastructure.sql;
+
+import com.egggo.infrastructure.metrics.SourceMetriques;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Filtre de surveillance des requêtes SQL par requête HTTP
+ * Placé en tête de chaîne pour couvrir aussi l'authentification. Agrège par route (méthode et motif)
+ * le nombre de requêtes SQL, d'entités chargées et le temps JDBC, et journalise les requêtes HTTP
+ * qui dépassent le budget ou répètent une même forme de requête (suspicion de N+1).
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 10)
+@Slf4j
+public class SurveillanceSqlFilter extends OncePerRequestFilter implements SourceMetriques {
+
+    private static final String ROUTE_NON_RESOLUE = "non résolue";
+
+    private final boolean actif;
+    private final int budget;
+    private final int seuilNPlusUn;
+
+    private final Map<String, StatistiquesRoute> routes = new ConcurrentHashMap<>();
+
+    public SurveillanceSqlFilter(@Value("${sql.surveillance.actif:true}") boolean actif,
+                                 @Value("${sql.surveillance.budget:30}") int budget,
+                                 @Value("${sql.surveillance.seuil-n-plus-un:5}") int seuilNPlusUn) {
+        this.actif = actif;
+        this.budget = budget;
+        this.seuilNPlusUn = seuilNPlusUn;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(@NonNull HttpServletRequest request) {
+        return !actif;
+    }
+
+    @Override
+    protected void doFilterInternal(
+            @NonNull HttpServletRequest request,
+            @NonNull HttpServletResponse response,
+            @NonNull FilterChain filterChain
+    ) throws ServletException, IOException {
+
+        MesureSql.demarrer();
+        MesureSql mesure;
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            mesure = MesureSql.terminer();
+        }
+        if (mesure.getRequetes() == 0) {
+            return;
+        }
+
+        Object motif = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String route = request.getMethod() + " " + (motif != null ? motif : ROUTE_NON_RESOLUE);
+        Map<String, Integer> repetitions = mesure.getRepetitions(seuilNPlusUn);
+        routes.computeIfAbsent(route, cle -> new StatistiquesRoute()).enregistrer(mesure, !repetitions.isEmpty());
+
+        if (!repetitions.isEmpty()) {
+            Map.Entry<String, Integer> pire = repetitions.entrySet().iterator().next();
+            log.warn("N+1 probable sur {} : {} exécutions de « {} » ({})", route, pire.getValue(), pire.getKey(), mesure);
+        } else if (mesure.getRequetes() > budget) {
+            log.warn("Budget SQL dépassé sur {} : {} (budget {})", route, mesure, budget);
+        }
+    }
+
+    @Override
+    public String getNom() {
+        return "sql";
+    }
+
+    @Override
+    public Map<String, Object> getMetriques() {
+        Map<String, Object> metriques = new LinkedHashMap<>();
+        metriques.put("budget", budget);
+        metriques.put("seuilNPlusUn", seuilNPlusUn);
+        Map<String, Object> parRoute = new TreeMap<>();
+        routes.forEach((route, statistiques) -> parRoute.put(route, statistiques.resume()));
+        metriques.put("routes", parRoute);
+        return metriques;
+    }
+
+    /**
+     * Compteurs cumulés d'une route
+     */
+    private static final class StatistiquesRoute {
+
+        private final LongAdder appels = new LongAdder();
+        private final LongAdder requetes = new LongAdder();
+        private final LongAccumulator requetesMax = new LongAccumulator(Math::max, 0);
+        private final LongAdder entites = new LongAdder();
+        private final LongAdder dureeNanos = new LongAdder();
+        private final LongAdder nPlusUn = new LongAdder();
+
+        void enregistrer(MesureSql mesure, boolean suspicionNPlusUn) {
+            appels.increment();
+            requetes.add(mesure.getRequetes());
+            requetesMax.accumulate(mesure.getRequetes());
+            entites.add(mesure.getEntitesChargees());
+            dureeNanos.add(mesure.getDureeNanos());
+            if (suspicionNPlusUn) {
+                nPlusUn.increment();
+            }
+        }
+
+        Map<String, Object> resume() {
+            long nombreAppels = appels.sum();
+            Map<String, Object> resume = new LinkedHashMap<>();
+            resume.put("appels", nombreAppels);
+            resume.put("requetesSql", requetes.sum());
+            resume.put("requetesSqlMoyenne", nombreAppels > 0 ? Math.round(10.0 * requetes.sum() / nombreAppels) / 10.0 : 0);
+            resume.put("requetesSqlMax", requetesMax.get());
+            resume.put("entitesChargees", entites.sum());
+            resume.put("dureeSqlMs", dureeNanos.sum() / 1_000_000);
+            resume.put("suspicionsNPlusUn", nPlusUn.sum());
+            return resume;
+        }
+    }
+}
@@ -0,0 +1,150 @@
+package com.egggo.infrastructure.timer;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Roue temporelle hiérarchique : planification et annulation d'échéances en O(1)
+ * Chaque niveau compte 64 cases ; une case du niveau n couvre 64^n ticks. Une échéance est rangée
+ * au niveau le plus fin qui la contient, puis redescend d'un niveau quand le temps l'atteint,
+ * jusqu'à expirer depuis le niveau 0. Avec un tick d'une seconde et 3 niveaux, l'horizon est
+ * d'environ 3 jours ; les échéances plus lointaines sont replacées au fil des tours.
+ * L'annulation est paresseuse : seule la table des échéances fait foi, les entrées périmées
+ * sont ignorées lors de leur passage.
+ */
+public class RoueTemporelle<K> {
+
+    private static final int BITS = 6;
+    private static final int CASES = 1 << BITS;
+    private static final int MASQUE = CASES - 1;
+
+    private final long dureeTickMs;
+    private final int niveaux;
+    private final ArrayDeque<Entree<K>>[][] roues;
+    private final Map<K, Long> echeances = new HashMap<>();
+    private final List<Entree<K>> enRetard = new ArrayList<>();
+    private long tickCourant;
+
+    @SuppressWarnings("unchecked")
+    public RoueTemporelle(long dureeTickMs, int niveaux, long maintenantMs) {
+        if (dureeTickMs <= 0 || niveaux < 1 || niveaux * BITS >= 63) {
+            throw new IllegalArgumentException("Paramètres de roue temporelle invalides");
+        }
+        this.dureeTickMs = dureeTickMs;
+        this.niveaux = niveaux;
+        this.roues = new ArrayDeque[niveaux][CASES];
+        for (int niveau = 0; niveau < niveaux; niveau++) {
+            for (int i = 0; i < CASES; i++) {
+                roues[niveau][i] = new ArrayDeque<>();
+            }
+        }
+        this.tickCourant = maintenantMs / dureeTickMs;
+    }
+
+    /**
+     * Planifie (ou replanifie) l'échéance d'une clé
+     */
+    public synchronized void planifier(K cle, long echeanceMs) {
+        long tick = Math.floorDiv(echeanceMs + dureeTickMs - 1, dureeTickMs);
+        echeances.put(cle, tick);
+        Entree<K> entree = new Entree<>(cle, tick);
+        if (tick <= tickCourant) {
+            enRetard.add(entree);
+        } else {
+            placer(entree);
+        }
+    }
+
+    /**
+     * Annule l'échéance d'une clé ; retourne false si elle n'était pas planifiée
+     */
+    public synchronized boolean annuler(K cle) {
+        return echeances.remove(cle) != null;
+    }
+
+    /**
+     * Fait avancer la roue jusqu'à l'instant donné et retourne les clés arrivées à échéance,
+     * par échéance croissante (échéances déjà passées à la planification en premier)
+     */
+    public synchronized List<K> avancer(long maintenantMs) {
+        List<K> expirees = new ArrayList<>();
+        enRetard.sort(Comparator.comparingLong(Entree::tick));
+        for (Entree<K> entree : enRetard) {
+            if (estActive(entree)) {
+                echeances.remove(entree.cle());
+                expirees.add(entree.cle());
+            }
+        }
+        enRetard.clear();
+
+        long cible = maintenantMs / dureeTickMs;
+        while (tickCourant < cible) {
+            tickCourant++;
+            cascader();
+            ArrayDeque<Entree<K>> caseCourante = roues[0][(int) (tickCourant & MASQUE)];
+            Entree<K> entree;
+            while ((entree = caseCourante.poll()) != null) {
+                if (estActive(entree)) {
+                    echeances.remove(entree.cle());
+                    expirees.add(entree.cle());
+                }
+            }
+        }
+        return expirees;
+    }
+
+    /**
+     * Nombre d'échéances planifiées
+     */
+    public synchronized int taille() {
+        return echeances.size();
+    }
+
+    /**
+     * Redescend les cases supérieures dont la période commence à ce tick,
+     * du niveau le plus haut au plus bas (une entrée peut descendre de plusieurs niveaux)
+     */
+    private void cascader() {
+        int plusHaut = 0;
+        while (plusHaut + 1 < niveaux && (tickCourant & ((1L << (BITS * (plusHaut + 1))) - 1)) == 0) {
+            plusHaut++;
+        }
+        for (int niveau = plusHaut; niveau >= 1; niveau--) {
+            ArrayDeque<Entree<K>> caseNiveau = roues[niveau][(int) ((tickCourant >>> (BITS * niveau)) & MASQUE)];
+            List<Entree<K>> entrees = new ArrayList<>(caseNiveau);
+            caseNiveau.clear();
+            for (Entree<K> entree : entrees) {
+                if (estActive(entree)) {
+                    placer(entree);
+                }
+            }
+        }
+    }
+
+    private void placer(Entree<K> entree) {
+        // delta nul (pendant une cascade) : case courante du niveau 0, traitée juste après
+        long delta = Math.max(0, entree.tick() - tickCourant);
+        for (int niveau = 0; niveau < niveaux; niveau++) {
+            if (delta < 1L << (BITS * (niveau + 1))) {
+                roues[niveau][(int) ((entree.tick() >>> (BITS * niveau)) & MASQUE)].add(entree);
+                return;
+            }
+        }
+        // Au-delà de l'horizon : case la plus lointaine du dernier niveau, replacée au passage
+        int dernier = niveaux - 1;
+        long horizon = tickCourant + (1L << (BITS * niveaux)) - 1;
+        roues[dernier][(int) ((horizon >>> (BITS * dernier)) & MASQUE)].add(entree);
+    }
+
+    private boolean estActive(Entree<K> entree) {
+        Long tick = echeances.get(entree.cle());
+        return tick != null && tick == entree.tick();
+    }
+
+    private record Entree<K>(K cle, long tick) {
+    }
+}
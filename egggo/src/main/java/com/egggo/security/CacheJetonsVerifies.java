@@ -0,0 +1,141 @@
+package com.egggo.security;
+
+import io.jsonwebtoken.Claims;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Cache borné des tokens JWT déjà vérifiés
+ * Associe l'empreinte SHA-256 d'un token à ses claims et à son expiration,
+ * ce qui évite de recalculer le HMAC et de redécoder le JSON à chaque requête.
+ * Le cache est découpé en segments LRU indépendants pour limiter la contention.
+ */
+class CacheJetonsVerifies {
+
+    private static final int NOMBRE_SEGMENTS = 16;
+
+    private static final ThreadLocal<MessageDigest> SHA256 = ThreadLocal.withInitial(() -> {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 indisponible", e);
+        }
+    });
+
+    private final Segment[] segments;
+    private final LongAdder succes = new LongAdder();
+    private final LongAdder echecs = new LongAdder();
+
+    CacheJetonsVerifies(int capacite) {
+        int capaciteSegment = Math.max(1, capacite / NOMBRE_SEGMENTS);
+        this.segments = new Segment[NOMBRE_SEGMENTS];
+        for (int i = 0; i < NOMBRE_SEGMENTS; i++) {
+            segments[i] = new Segment(capaciteSegment);
+        }
+    }
+
+    /**
+     * Retourne les claims d'un token déjà vérifié et non expiré, sinon null
+     */
+    Claims get(String token, long maintenant) {
+        Empreinte empreinte = Empreinte.of(token);
+        Segment segment = segmentPour(empreinte);
+        JetonVerifie jeton;
+        synchronized (segment) {
+            jeton = segment.get(empreinte);
+            if (jeton != null && jeton.expiration() <= maintenant) {
+                segment.remove(empreinte);
+                jeton = null;
+            }
+        }
+        if (jeton == null) {
+            echecs.increment();
+            return null;
+        }
+        succes.increment();
+        return jeton.claims();
+    }
+
+    /**
+     * Enregistre un token dont la signature et l'expiration viennent d'être vérifiées
+     */
+    void put(String token, Claims claims) {
+        if (claims.getExpiration() == null) {
+            return;
+        }
+        Empreinte empreinte = Empreinte.of(token);
+        Segment segment = segmentPour(empreinte);
+        synchronized (segment) {
+            segment.put(empreinte, new JetonVerifie(claims, claims.getExpiration().getTime()));
+        }
+    }
+
+    void vider() {
+        for (Segment segment : segments) {
+            synchronized (segment) {
+                segment.clear();
+            }
+        }
+    }
+
+    int taille() {
+        int taille = 0;
+        for (Segment segment : segments) {
+            synchronized (segment) {
+                taille += segment.size();
+            }
+        }
+        return taille;
+    }
+
+    long getSucces() {
+        return succes.sum();
+    }
+
+    long getEchecs() {
+        return echecs.sum();
+    }
+
+    private Segment segmentPour(Empreinte empreinte) {
+        return segments[(int) (empreinte.a() >>> 60) & (NOMBRE_SEGMENTS - 1)];
+    }
+
+    /**
+     * Empreinte SHA-256 d'un token, stockée sur quatre longs
+     */
+    private record Empreinte(long a, long b, long c, long d) {
+
+        static Empreinte of(String token) {
+            MessageDigest digest = SHA256.get();
+            ByteBuffer octets = ByteBuffer.wrap(digest.digest(token.getBytes(StandardCharsets.US_ASCII)));
+            return new Empreinte(octets.getLong(), octets.getLong(), octets.getLong(), octets.getLong());
+        }
+    }
+
+    private record JetonVerifie(Claims claims, long expiration) {
+    }
+
+    /**
+     * Segment LRU (LinkedHashMap en ordre d'accès), protégé par son propre verrou
+     */
+    private static final class Segment extends LinkedHashMap<Empreinte, JetonVerifie> {
+
+        private final int capacite;
+
+        Segment(int capacite) {
+            super(capacite * 4 / 3 + 1, 0.75f, true);
+            this.capacite = capacite;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Empreinte, JetonVerifie> eldest) {
+            return size() > capacite;
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package com.egggo.security;
+
+import com.egggo.domain.model.user.Role;
+import com.egggo.domain.model.user.Utilisateur;
+import lombok.Getter;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Principal de sécurité EggGo
+ * Construit soit depuis la base (connexion), soit directement depuis les claims
+ * signées du JWT (requêtes authentifiées), sans aucune requête SQL
+ */
+@Getter
+public class EggGoPrincipal implements UserDetails {
+
+    private final Long id;
+    private final String telephone;
+    private final Role role;
+    private final Integer versionSecurite;
+    private final boolean actif;
+
+    /**
+     * Identifiant (jti) du token d'accès utilisé, null si issu d'une connexion ou d'un ancien token
+     */
+    private final String jti;
+    private final List<GrantedAuthority> authorities;
+
+    /**
+     * Mot de passe haché, uniquement renseigné lors d'une connexion (null si issu d'un token)
+     */
+    private final String motDePasse;
+
+    public EggGoPrincipal(Long id, String telephone, Role role, Integer versionSecurite,
+                          boolean actif, String motDePasse, String jti) {
+        this.id = id;
+        this.telephone = telephone;
+        this.role = role;
+        this.versionSecurite = versionSecurite != null ? versionSecurite : 0;
+        this.actif = actif;
+        this.motDePasse = motDePasse;
+        this.jti = jti;
+        this.authorities = List.of(new SimpleGrantedAuthority("ROLE_" + role.name()));
+    }
+
+    /**
+     * Construit un principal à partir des claims d'un token déjà vérifié
+     */
+    public static EggGoPrincipal fromToken(Long id, String telephone, Role role, Integer versionSecurite, String jti) {
+        return new EggGoPrincipal(id, telephone, role, versionSecurite, true, null, jti);
+    }
+
+    /**
+     * Construit un principal à partir de l'entité utilisateur
+     */
+    public static EggGoPrincipal fromUtilisateur(Utilisateur utilisateur) {
+        return new EggGoPrincipal(
+                utilisateur.getId(),
+                utilisateur.getTelephone(),
+                utilisateur.getRole(),
+                utilisateur.getVersionSecurite(),
+                Boolean.TRUE.equals(utilisateur.getActif()),
+                utilisateur.getMotDePasse(),
+                null);
+    }
+
+    /**
+     * Récupère le principal de l'utilisateur connecté depuis le contexte de sécurité
+     */
+    public static EggGoPrincipal current() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !(authentication.getPrincipal() instanceof EggGoPrincipal principal)) {
+            throw new IllegalStateException("Utilisateur non authentifié");
+        }
+        return principal;
+    }
+
+    @Override
+    public Collection<? extends GrantedAuthority> getAuthorities() {
+        return authorities;
+    }
+
+    @Override
+    public String getPassword() {
+        return motDePasse;
+    }
+
+    @Override
+    public String getUsername() {
+        return telephone;
+    }
+
+    @Override
+    public boolean isAccountNonExpired() {
+        return true;
+    }
+
+    @Override
+    public boolean isAccountNonLocked() {
+        return true;
+    }
+
+    @Override
+    public boolean isCredentialsNonExpired() {
+        return true;
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return actif;
+    }
+}
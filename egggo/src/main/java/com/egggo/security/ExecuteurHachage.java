@@ -0,0 +1,118 @@
+package com.egggo.security;
+
+import com.egggo.api.exception.TropDeRequetesException;
+import com.egggo.infrastructure.metrics.SourceMetriques;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Exécuteur dédié au hachage BCrypt des mots de passe
+ * Le nombre de threads et la file d'attente sont bornés : en cas de rafale de connexions,
+ * les tentatives excédentaires sont rejetées immédiatement (429) au lieu d'occuper
+ * les threads Tomcat et de faire attendre les autres requêtes (commandes, paiements...)
+ */
+@Component
+@Slf4j
+public class ExecuteurHachage implements SourceMetriques {
+
+    private final PasswordEncoder passwordEncoder;
+    private final ThreadPoolExecutor executor;
+    private final long delaiMaxMillis;
+    private final LongAdder rejets = new LongAdder();
+    private final LongAdder delaisDepasses = new LongAdder();
+
+    public ExecuteurHachage(PasswordEncoder passwordEncoder,
+                            @Value("${securite.hachage.threads:2}") int threads,
+                            @Value("${securite.hachage.file:64}") int tailleFile,
+                            @Value("${securite.hachage.delai-max-ms:5000}") long delaiMaxMillis) {
+        this.passwordEncoder = passwordEncoder;
+        this.delaiMaxMillis = delaiMaxMillis;
+        AtomicInteger compteur = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(tailleFile),
+                r -> {
+                    Thread thread = new Thread(r, "egggo-hachage-" + compteur.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    /**
+     * Hache un mot de passe sur l'exécuteur dédié
+     */
+    public String encode(String motDePasse) {
+        return executer(() -> passwordEncoder.encode(motDePasse));
+    }
+
+    /**
+     * Vérifie un mot de passe sur l'exécuteur dédié
+     */
+    public boolean matches(String motDePasse, String motDePasseHache) {
+        return executer(() -> passwordEncoder.matches(motDePasse, motDePasseHache));
+    }
+
+    private <T> T executer(Callable<T> tache) {
+        Future<T> future;
+        try {
+            future = executor.submit(tache);
+        } catch (RejectedExecutionException e) {
+            rejets.increment();
+            log.warn("File de hachage saturée ({} en attente), tentative rejetée", executor.getQueue().size());
+            throw new TropDeRequetesException("Service momentanément surchargé, veuillez réessayer", 2);
+        }
+        try {
+            return future.get(delaiMaxMillis, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            delaisDepasses.increment();
+            throw new TropDeRequetesException("Service momentanément surchargé, veuillez réessayer", 2);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Hachage du mot de passe interrompu", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw new IllegalStateException("Erreur lors du hachage du mot de passe", e.getCause());
+        }
+    }
+
+    @PreDestroy
+    void arreter() {
+        executor.shutdown();
+    }
+
+    @Override
+    public String getNom() {
+        return "hachage";
+    }
+
+    @Override
+    public Map<String, Object> getMetriques() {
+        Map<String, Object> metriques = new LinkedHashMap<>();
+        metriques.put("threadsActifs", executor.getActiveCount());
+        metriques.put("fileAttente", executor.getQueue().size());
+        metriques.put("capaciteRestante", executor.getQueue().remainingCapacity());
+        metriques.put("terminees", executor.getCompletedTaskCount());
+        metriques.put("rejets", rejets.sum());
+        metriques.put("delaisDepasses", delaisDepasses.sum());
+        return metriques;
+    }
+}
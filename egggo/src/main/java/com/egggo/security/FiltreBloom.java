@@ -0,0 +1,77 @@
+package com.egggo.security;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Filtre de Bloom à écriture concurrente
+ * Répond "absent" de façon certaine, "peut-être présent" avec un taux de faux positifs borné.
+ * Les bits sont posés par OR atomique : lectures et écritures sans verrou.
+ */
+final class FiltreBloom {
+
+    private final AtomicLongArray bits;
+    private final int nombreBits;
+    private final int nombreHachages;
+
+    /**
+     * @param elementsAttendus   nombre d'éléments prévus
+     * @param tauxFauxPositifs   taux de faux positifs visé (ex: 0.01)
+     */
+    FiltreBloom(int elementsAttendus, double tauxFauxPositifs) {
+        int n = Math.max(1, elementsAttendus);
+        long m = (long) Math.ceil(-n * Math.log(tauxFauxPositifs) / (Math.log(2) * Math.log(2)));
+        this.nombreBits = (int) Math.min(Integer.MAX_VALUE - 63, Math.max(64, m));
+        this.nombreHachages = Math.max(1, (int) Math.round((double) nombreBits / n * Math.log(2)));
+        this.bits = new AtomicLongArray((nombreBits + 63) / 64);
+    }
+
+    void ajouter(String valeur) {
+        long hachage = hacher(valeur);
+        int h1 = (int) hachage;
+        int h2 = (int) (hachage >>> 32) | 1;
+        for (int i = 0; i < nombreHachages; i++) {
+            int position = Math.floorMod(h1 + i * h2, nombreBits);
+            int index = position >>> 6;
+            long masque = 1L << position;
+            long courant = bits.get(index);
+            while ((courant & masque) == 0 && !bits.compareAndSet(index, courant, courant | masque)) {
+                courant = bits.get(index);
+            }
+        }
+    }
+
+    boolean peutContenir(String valeur) {
+        long hachage = hacher(valeur);
+        int h1 = (int) hachage;
+        int h2 = (int) (hachage >>> 32) | 1;
+        for (int i = 0; i < nombreHachages; i++) {
+            int position = Math.floorMod(h1 + i * h2, nombreBits);
+            if ((bits.get(position >>> 6) & (1L << position)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    int getNombreBits() {
+        return nombreBits;
+    }
+
+    /**
+     * FNV-1a 64 bits suivi d'un mélange final (murmur3 fmix64)
+     */
+    private static long hacher(String valeur) {
+        long h = 0xcbf29ce484222325L;
+        for (byte b : valeur.getBytes(StandardCharsets.UTF_8)) {
+            h ^= b;
+            h *= 0x100000001b3L;
+        }
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
@@ -1,5 +1,6 @@
 package com.egggo.security;
 
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -21,6 +22,8 @@ import java.io.IOException;
 /**
  * Filtre d'authentification JWT
  * Intercepte chaque requête et valide le token JWT
+ * Le principal est reconstruit depuis les claims signées, sans accès à la base
+ * La révocation est vérifiée sur une liste en mémoire, également sans accès à la base
  */
 @Component
 @RequiredArgsConstructor
@@ -29,6 +32,7 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private final JwtTokenProvider jwtTokenProvider;
     private final UserDetailsService userDetailsService;
+    private final ListeRevocation listeRevocation;
 
     private static final String AUTHORIZATION_HEADER = "Authorization";
     private static final String BEARER_PREFIX = "Bearer ";
@@ -44,32 +48,40 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
             // Extraire le token de l'en-tête Authorization
             String jwt = extractJwtFromRequest(request);
             
-            if (StringUtils.hasText(jwt)) {
-                // Extraire le username (téléphone) du token
-                String username = jwtTokenProvider.extractUsername(jwt);
-                
-                // Vérifier que l'utilisateur n'est pas déjà authentifié
-                if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-                    
-                    // Charger les détails de l'utilisateur
-                    UserDetails userDetails = userDetailsService.loadUserByUsername(username);
-                    
-                    // Valider le token
-                    if (jwtTokenProvider.isTokenValid(jwt, userDetails)) {
-                        // Créer l'authentification
-                        UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
-                                userDetails,
-                                null,
-                                userDetails.getAuthorities()
-                        );
-                        
-                        authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
-                        
-                        // Définir l'authentification dans le contexte de sécurité
-                        SecurityContextHolder.getContext().setAuthentication(authToken);
-                        
-                        log.debug("Utilisateur authentifié: {}", username);
-                    }
+            if (StringUtils.hasText(jwt) && SecurityContextHolder.getContext().getAuthentication() == null) {
+                // Valider le token (signature et expiration)
+                Claims claims = jwtTokenProvider.parseToken(jwt);
+
+                // Construire le principal depuis les claims signées (aucune requête SQL)
+                UserDetails userDetails = claims != null ? jwtTokenProvider.buildPrincipal(claims) : null;
+
+                // Token révoqué (déconnexion, compte désactivé) : filtre de Bloom puis ensemble exact
+                if (userDetails instanceof EggGoPrincipal principal
+                        && listeRevocation.estRevoque(claims.getId(), principal)) {
+                    log.debug("Token révoqué pour: {}", principal.getUsername());
+                    userDetails = null;
+                    claims = null;
+                }
+
+                // Anciens tokens sans claims d'identité: chargement depuis la base
+                if (claims != null && userDetails == null && claims.getSubject() != null) {
+                    userDetails = userDetailsService.loadUserByUsername(claims.getSubject());
+                }
+
+                if (userDetails != null && userDetails.isEnabled()) {
+                    // Créer l'authentification
+                    UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
+                            userDetails,
+                            null,
+                            userDetails.getAuthorities()
+                    );
+
+                    authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+
+                    // Définir l'authentification dans le contexte de sécurité
+                    SecurityContextHolder.getContext().setAuthentication(authToken);
+
+                    log.debug("Utilisateur authentifié: {}", userDetails.getUsername());
                 }
             }
         } catch (Exception e) {
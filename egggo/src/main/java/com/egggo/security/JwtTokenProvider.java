@@ -1,13 +1,17 @@
 package com.egggo.security;
 
+import com.egggo.domain.model.user.Role;
+import com.egggo.domain.model.user.Utilisateur;
 import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.MalformedJwtException;
 import io.jsonwebtoken.UnsupportedJwtException;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
 import io.jsonwebtoken.security.SignatureException;
+import jakarta.annotation.PostConstruct;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -17,16 +21,23 @@ import javax.crypto.SecretKey;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.UUID;
 import java.util.function.Function;
 
 /**
  * Utilitaire pour la gestion des tokens JWT
  * Génération, validation et extraction des informations
+ * La clé et le parseur sont construits une seule fois ; les tokens déjà vérifiés
+ * sont mémorisés pour éviter de refaire HMAC et décodage JSON à chaque requête
  */
 @Component
 @Slf4j
 public class JwtTokenProvider {
 
+    static final String CLAIM_ROLE = "role";
+    static final String CLAIM_USER_ID = "uid";
+    static final String CLAIM_VERSION = "ver";
+
     @Value("${jwt.secret}")
     private String jwtSecret;
 
@@ -36,6 +47,20 @@ public class JwtTokenProvider {
     @Value("${jwt.refresh-expiration}")
     private long refreshExpiration;
 
+    @Value("${jwt.cache.taille:10000}")
+    private int tailleCache;
+
+    private SecretKey signingKey;
+    private JwtParser parser;
+    private CacheJetonsVerifies cacheJetons;
+
+    @PostConstruct
+    void init() {
+        this.signingKey = Keys.hmacShaKeyFor(Decoders.BASE64.decode(jwtSecret));
+        this.parser = Jwts.parser().verifyWith(signingKey).build();
+        this.cacheJetons = new CacheJetonsVerifies(tailleCache);
+    }
+
     /**
      * Extrait le nom d'utilisateur (téléphone) du token
      */
@@ -58,12 +83,38 @@ public class JwtTokenProvider {
         return generateToken(new HashMap<>(), userDetails);
     }
 
+    /**
+     * Génère un token d'accès embarquant l'identité complète de l'utilisateur
+     * (id, rôle et version de sécurité) pour une authentification sans requête SQL
+     */
+    public String generateToken(Utilisateur utilisateur) {
+        return generateToken(utilisateur, UUID.randomUUID().toString());
+    }
+
+    /**
+     * Génère un token d'accès avec un identifiant (jti) choisi, permettant sa révocation
+     */
+    public String generateToken(Utilisateur utilisateur, String jti) {
+        Map<String, Object> claims = new HashMap<>();
+        claims.put(CLAIM_ROLE, utilisateur.getRole().name());
+        claims.put(CLAIM_USER_ID, utilisateur.getId());
+        claims.put(CLAIM_VERSION, utilisateur.getVersionSecurite() != null ? utilisateur.getVersionSecurite() : 0);
+        return Jwts.builder()
+                .claims(claims)
+                .id(jti)
+                .subject(utilisateur.getTelephone())
+                .issuedAt(new Date(System.currentTimeMillis()))
+                .expiration(new Date(System.currentTimeMillis() + jwtExpiration))
+                .signWith(getSigningKey())
+                .compact();
+    }
+
     /**
      * Génère un token d'accès pour un téléphone et un rôle
      */
     public String generateToken(String telephone, String role) {
         Map<String, Object> claims = new HashMap<>();
-        claims.put("role", role);
+        claims.put(CLAIM_ROLE, role);
         return Jwts.builder()
                 .claims(claims)
                 .subject(telephone)
@@ -104,9 +155,23 @@ public class JwtTokenProvider {
      * Valide un token JWT
      */
     public boolean isTokenValid(String token, UserDetails userDetails) {
+        Claims claims = parseToken(token);
+        return claims != null && userDetails.getUsername().equals(claims.getSubject());
+    }
+
+    /**
+     * Valide un token (signature et expiration) et retourne ses claims
+     * Retourne null si le token est invalide
+     */
+    public Claims parseToken(String token) {
+        Claims claims = cacheJetons.get(token, System.currentTimeMillis());
+        if (claims != null) {
+            return claims;
+        }
         try {
-            final String username = extractUsername(token);
-            return (username.equals(userDetails.getUsername())) && !isTokenExpired(token);
+            claims = extractAllClaims(token);
+            cacheJetons.put(token, claims);
+            return claims;
         } catch (SignatureException e) {
             log.error("Signature JWT invalide: {}", e.getMessage());
         } catch (MalformedJwtException e) {
@@ -118,39 +183,64 @@ public class JwtTokenProvider {
         } catch (IllegalArgumentException e) {
             log.error("Claims JWT vides: {}", e.getMessage());
         }
-        return false;
+        return null;
+    }
+
+    /**
+     * Construit le principal depuis les claims signées d'un token valide
+     * Retourne null pour les anciens tokens émis sans claims d'identité
+     */
+    public EggGoPrincipal buildPrincipal(Claims claims) {
+        Number userId = claims.get(CLAIM_USER_ID, Number.class);
+        String role = claims.get(CLAIM_ROLE, String.class);
+        if (userId == null || role == null || claims.getSubject() == null) {
+            return null;
+        }
+        Number version = claims.get(CLAIM_VERSION, Number.class);
+        return EggGoPrincipal.fromToken(
+                userId.longValue(),
+                claims.getSubject(),
+                Role.valueOf(role),
+                version != null ? version.intValue() : 0,
+                claims.getId());
     }
 
     /**
-     * Vérifie si un token est expiré
+     * Durée de validité des tokens d'accès (ms)
      */
-    private boolean isTokenExpired(String token) {
-        return extractExpiration(token).before(new Date());
+    public long getJwtExpiration() {
+        return jwtExpiration;
     }
 
     /**
-     * Extrait la date d'expiration du token
+     * Durée de validité des tokens de rafraîchissement (ms)
      */
-    private Date extractExpiration(String token) {
-        return extractClaim(token, Claims::getExpiration);
+    public long getRefreshExpiration() {
+        return refreshExpiration;
+    }
+
+    /**
+     * Nombre de vérifications servies par le cache / ayant nécessité un décodage complet
+     */
+    public long getCacheSucces() {
+        return cacheJetons.getSucces();
+    }
+
+    public long getCacheEchecs() {
+        return cacheJetons.getEchecs();
     }
 
     /**
      * Extrait toutes les claims du token
      */
     private Claims extractAllClaims(String token) {
-        return Jwts.parser()
-                .verifyWith(getSigningKey())
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
+        return parser.parseSignedClaims(token).getPayload();
     }
 
     /**
      * Obtient la clé de signature
      */
     private SecretKey getSigningKey() {
-        byte[] keyBytes = Decoders.BASE64.decode(jwtSecret);
-        return Keys.hmacShaKeyFor(keyBytes);
+        return signingKey;
     }
 }
@@ -0,0 +1,155 @@
+package com.egggo.security;
+
+import com.egggo.api.dto.common.ApiResponse;
+import com.egggo.infrastructure.metrics.SourceMetriques;
+import com.egggo.infrastructure.ratelimit.LimiteurDebit;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.lang.NonNull;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Filtre de limitation de débit
+ * Placé juste après le filtre JWT : chaque utilisateur authentifié (ou chaque IP pour les
+ * requêtes anonymes) dispose d'un budget de requêtes par famille de routes.
+ * Les budgets sont des seaux à jetons sans verrou ; les dépassements reçoivent un 429.
+ * L'IP d'un appelant anonyme est celle résolue par Tomcat depuis X-Forwarded-For
+ * (server.forward-headers-strategy=native), l'en-tête n'étant cru que s'il vient d'un proxy de
+ * confiance. Une même IP publique pouvant regrouper beaucoup d'abonnés mobiles (NAT d'opérateur),
+ * les routes générales ont un budget anonyme propre, plus large ; les essais de mot de passe
+ * restent bornés par numéro de téléphone (LimiteurConnexion).
+ */
+@Component
+@Slf4j
+public class LimiteDebitFilter extends OncePerRequestFilter implements SourceMetriques {
+
+    private static final Duration PERIODE = Duration.ofMinutes(1);
+    private static final Duration DELAI_INACTIVITE = Duration.ofMinutes(10);
+    private static final String PREFIXE_IP = "ip:";
+
+    private final ObjectMapper objectMapper;
+    private final boolean actif;
+    private final LimiteurDebit position;
+    private final LimiteurDebit statsAdmin;
+    private final LimiteurDebit paiements;
+    private final LimiteurDebit defaut;
+    private final LimiteurDebit anonyme;
+    private final List<LimiteurDebit> limiteurs;
+
+    public LimiteDebitFilter(ObjectMapper objectMapper,
+                             @Value("${securite.debit.actif:true}") boolean actif,
+                             @Value("${securite.debit.position-par-minute:240}") int positionParMinute,
+                             @Value("${securite.debit.stats-admin-par-minute:20}") int statsAdminParMinute,
+                             @Value("${securite.debit.paiements-par-minute:60}") int paiementsParMinute,
+                             @Value("${securite.debit.defaut-par-minute:300}") int defautParMinute,
+                             @Value("${securite.debit.anonyme-par-minute:1200}") int anonymeParMinute) {
+        this.objectMapper = objectMapper;
+        this.actif = actif;
+        this.position = new LimiteurDebit("position", positionParMinute, PERIODE);
+        this.statsAdmin = new LimiteurDebit("stats-admin", statsAdminParMinute, PERIODE);
+        this.paiements = new LimiteurDebit("paiements", paiementsParMinute, PERIODE);
+        this.defaut = new LimiteurDebit("defaut", defautParMinute, PERIODE);
+        this.anonyme = new LimiteurDebit("anonyme", anonymeParMinute, PERIODE);
+        this.limiteurs = List.of(position, statsAdmin, paiements, defaut, anonyme);
+    }
+
+    @Override
+    protected void doFilterInternal(
+            @NonNull HttpServletRequest request,
+            @NonNull HttpServletResponse response,
+            @NonNull FilterChain filterChain
+    ) throws ServletException, IOException {
+
+        if (!actif || "OPTIONS".equals(request.getMethod())) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        String chemin = request.getRequestURI().substring(request.getContextPath().length());
+        String cle = cleClient(request);
+        LimiteurDebit limiteur = limiteurPour(chemin, cle.startsWith(PREFIXE_IP));
+        long attente = limiteur.consommer(cle);
+
+        if (attente > 0) {
+            long retryAfter = LimiteurDebit.enSecondes(attente);
+            log.warn("Limite de débit '{}' atteinte pour {} sur {}", limiteur.getNom(), cle, chemin);
+            response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+            response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfter));
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            response.setCharacterEncoding("UTF-8");
+            objectMapper.writeValue(response.getOutputStream(),
+                    ApiResponse.error("Trop de requêtes, veuillez réessayer dans " + retryAfter + " s"));
+            return;
+        }
+
+        filterChain.doFilter(request, response);
+    }
+
+    /**
+     * Famille de routes d'une requête
+     */
+    private LimiteurDebit limiteurPour(String chemin, boolean anonymeIp) {
+        if (chemin.startsWith("/v1/livreur/position")) {
+            return position;
+        }
+        if (chemin.startsWith("/v1/admin/stats/")) {
+            return statsAdmin;
+        }
+        if (chemin.startsWith("/v1/paiements")) {
+            return paiements;
+        }
+        return anonymeIp ? anonyme : defaut;
+    }
+
+    /**
+     * Identifiant de l'appelant : id utilisateur si authentifié, sinon adresse IP du client
+     * (getRemoteAddr renvoie l'IP d'origine une fois les en-têtes de proxy appliqués par Tomcat)
+     */
+    private String cleClient(HttpServletRequest request) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.getPrincipal() instanceof EggGoPrincipal principal) {
+            return "u:" + principal.getId();
+        }
+        return PREFIXE_IP + request.getRemoteAddr();
+    }
+
+    @Scheduled(fixedDelay = 60_000)
+    void purger() {
+        limiteurs.forEach(limiteur -> limiteur.purgerInactifs(DELAI_INACTIVITE));
+    }
+
+    @Override
+    public String getNom() {
+        return "limiteDebit";
+    }
+
+    @Override
+    public Map<String, Object> getMetriques() {
+        Map<String, Object> metriques = new LinkedHashMap<>();
+        for (LimiteurDebit limiteur : limiteurs) {
+            metriques.put(limiteur.getNom(), Map.of(
+                    "cles", limiteur.getNombreCles(),
+                    "acceptees", limiteur.getAcceptees(),
+                    "rejetees", limiteur.getRejetees()));
+        }
+        return metriques;
+    }
+}
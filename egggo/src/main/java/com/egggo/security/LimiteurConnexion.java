@@ -0,0 +1,62 @@
+package com.egggo.security;
+
+import com.egggo.api.exception.TropDeRequetesException;
+import com.egggo.infrastructure.metrics.SourceMetriques;
+import com.egggo.infrastructure.ratelimit.LimiteurDebit;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Limitation des tentatives de connexion et d'inscription par numéro de téléphone
+ * Vérifiée avant tout accès base ou hachage BCrypt
+ */
+@Component
+@Slf4j
+public class LimiteurConnexion implements SourceMetriques {
+
+    private static final Duration DELAI_INACTIVITE = Duration.ofMinutes(15);
+
+    private final LimiteurDebit limiteur;
+
+    public LimiteurConnexion(@Value("${securite.connexion.tentatives:5}") int tentatives,
+                             @Value("${securite.connexion.periode-secondes:60}") long periodeSecondes) {
+        this.limiteur = new LimiteurDebit("connexion", tentatives, Duration.ofSeconds(periodeSecondes));
+    }
+
+    /**
+     * Consomme une tentative pour ce téléphone, ou lève une TropDeRequetesException
+     */
+    public void verifier(String telephone) {
+        long attente = limiteur.consommer(telephone);
+        if (attente > 0) {
+            log.warn("Trop de tentatives de connexion pour: {}", telephone);
+            throw new TropDeRequetesException(
+                    "Trop de tentatives, veuillez réessayer plus tard", LimiteurDebit.enSecondes(attente));
+        }
+    }
+
+    @Scheduled(fixedDelay = 60_000)
+    void purger() {
+        limiteur.purgerInactifs(DELAI_INACTIVITE);
+    }
+
+    @Override
+    public String getNom() {
+        return limiteur.getNom();
+    }
+
+    @Override
+    public Map<String, Object> getMetriques() {
+        Map<String, Object> metriques = new LinkedHashMap<>();
+        metriques.put("telephonesSuivis", limiteur.getNombreCles());
+        metriques.put("acceptees", limiteur.getAcceptees());
+        metriques.put("rejetees", limiteur.getRejetees());
+        return metriques;
+    }
+}
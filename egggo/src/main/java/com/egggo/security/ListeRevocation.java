@@ -0,0 +1,188 @@
+package com.egggo.security;
+
+import com.egggo.domain.model.user.JetonRafraichissement;
+import com.egggo.domain.repository.JetonRafraichissementRepository;
+import com.egggo.domain.repository.UtilisateurRepository;
+import com.egggo.infrastructure.metrics.SourceMetriques;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Liste de révocation des tokens d'accès, consultée à chaque requête authentifiée
+ * Un filtre de Bloom écarte sans autre coût la quasi-totalité des tokens valides ;
+ * seuls les "peut-être révoqués" consultent l'ensemble exact en mémoire.
+ * Deux types d'entrées :
+ * - un token précis (jti), après déconnexion ou détection de réutilisation
+ * - tous les tokens d'un utilisateur antérieurs à une version de sécurité (désactivation)
+ * Les entrées disparaissent une fois tous les tokens concernés expirés.
+ */
+@Component
+@Slf4j
+public class ListeRevocation implements SourceMetriques {
+
+    private final JetonRafraichissementRepository jetonRepository;
+    private final UtilisateurRepository utilisateurRepository;
+    private final long dureeAcces;
+    private final int capaciteFiltre;
+
+    /**
+     * jti révoqué → instant d'expiration du token (ms)
+     */
+    private final ConcurrentHashMap<String, Long> jetonsRevoques = new ConcurrentHashMap<>();
+
+    /**
+     * id utilisateur → version de sécurité minimale acceptée et instant d'expiration de l'entrée
+     */
+    private final ConcurrentHashMap<Long, VersionMinimale> versionsMinimales = new ConcurrentHashMap<>();
+
+    private volatile FiltreBloom filtre;
+    private final LongAdder verifications = new LongAdder();
+    private final LongAdder passagesFiltre = new LongAdder();
+    private final LongAdder revocationsDetectees = new LongAdder();
+
+    public ListeRevocation(JetonRafraichissementRepository jetonRepository,
+                           UtilisateurRepository utilisateurRepository,
+                           @Value("${jwt.expiration}") long dureeAcces,
+                           @Value("${jwt.revocation.capacite:100000}") int capaciteFiltre) {
+        this.jetonRepository = jetonRepository;
+        this.utilisateurRepository = utilisateurRepository;
+        this.dureeAcces = dureeAcces;
+        this.capaciteFiltre = capaciteFiltre;
+        this.filtre = new FiltreBloom(capaciteFiltre, 0.01);
+    }
+
+    /**
+     * Vérifie si le token d'accès d'un principal a été révoqué
+     */
+    public boolean estRevoque(String jti, EggGoPrincipal principal) {
+        verifications.increment();
+        FiltreBloom courant = filtre;
+        boolean revoque = false;
+        if (jti != null && courant.peutContenir(cleJeton(jti))) {
+            passagesFiltre.increment();
+            Long expiration = jetonsRevoques.get(jti);
+            revoque = expiration != null && expiration > System.currentTimeMillis();
+        }
+        if (!revoque && courant.peutContenir(cleUtilisateur(principal.getId()))) {
+            passagesFiltre.increment();
+            VersionMinimale minimale = versionsMinimales.get(principal.getId());
+            revoque = minimale != null && minimale.expiration() > System.currentTimeMillis()
+                    && principal.getVersionSecurite() < minimale.version();
+        }
+        if (revoque) {
+            revocationsDetectees.increment();
+        }
+        return revoque;
+    }
+
+    /**
+     * Révoque un token d'accès précis jusqu'à son expiration
+     */
+    public void revoquerJeton(String jti, long expirationMillis) {
+        jetonsRevoques.merge(jti, expirationMillis, Math::max);
+        filtre.ajouter(cleJeton(jti));
+    }
+
+    /**
+     * Révoque un token d'accès précis, d'expiration inconnue (durée de vie maximale)
+     */
+    public void revoquerJeton(String jti) {
+        revoquerJeton(jti, System.currentTimeMillis() + dureeAcces);
+    }
+
+    /**
+     * Révoque tous les tokens d'un utilisateur portant une version de sécurité inférieure
+     */
+    public void revoquerUtilisateur(Long utilisateurId, int versionMinimale) {
+        VersionMinimale entree = new VersionMinimale(versionMinimale, System.currentTimeMillis() + dureeAcces);
+        versionsMinimales.merge(utilisateurId, entree,
+                (ancienne, nouvelle) -> nouvelle.version() >= ancienne.version() ? nouvelle : ancienne);
+        filtre.ajouter(cleUtilisateur(utilisateurId));
+    }
+
+    /**
+     * Recharge la liste au démarrage : déconnexions et réutilisations récentes,
+     * comptes désactivés ou dont la version de sécurité a changé
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void prechauffer() {
+        LocalDateTime depuis = LocalDateTime.now().minusNanos(dureeAcces * 1_000_000);
+        List<JetonRafraichissement> revoques = jetonRepository.findRevoquesDepuis(depuis);
+        for (JetonRafraichissement jeton : revoques) {
+            long revocation = jeton.getDateRevocation().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+            revoquerJeton(jeton.getJtiAcces(), revocation + dureeAcces);
+        }
+        List<Object[]> versions = utilisateurRepository.findVersionsSecuriteARevoquer();
+        for (Object[] ligne : versions) {
+            Long id = (Long) ligne[0];
+            int version = ligne[1] != null ? (Integer) ligne[1] : 0;
+            boolean actif = Boolean.TRUE.equals(ligne[2]);
+            // Compte désactivé : plus aucun token accepté ; sinon seuls les tokens antérieurs au changement
+            revoquerUtilisateur(id, actif ? version : version + 1);
+        }
+        log.info("Liste de révocation préchargée: {} tokens, {} utilisateurs", revoques.size(), versions.size());
+    }
+
+    /**
+     * Supprime les entrées expirées et reconstruit le filtre de Bloom
+     * (un filtre de Bloom ne permet pas la suppression d'éléments)
+     */
+    @Scheduled(fixedDelay = 600_000)
+    public void purger() {
+        long maintenant = System.currentTimeMillis();
+        jetonsRevoques.values().removeIf(expiration -> expiration <= maintenant);
+        versionsMinimales.values().removeIf(minimale -> minimale.expiration() <= maintenant);
+
+        FiltreBloom nouveau = new FiltreBloom(Math.max(capaciteFiltre, 2 * taille()), 0.01);
+        jetonsRevoques.keySet().forEach(jti -> nouveau.ajouter(cleJeton(jti)));
+        versionsMinimales.keySet().forEach(id -> nouveau.ajouter(cleUtilisateur(id)));
+        filtre = nouveau;
+        // Les révocations arrivées pendant la reconstruction sont reportées dans le nouveau filtre
+        jetonsRevoques.keySet().forEach(jti -> nouveau.ajouter(cleJeton(jti)));
+        versionsMinimales.keySet().forEach(id -> nouveau.ajouter(cleUtilisateur(id)));
+    }
+
+    private int taille() {
+        return jetonsRevoques.size() + versionsMinimales.size();
+    }
+
+    private static String cleJeton(String jti) {
+        return "j:" + jti;
+    }
+
+    private static String cleUtilisateur(Long id) {
+        return "u:" + id;
+    }
+
+    @Override
+    public String getNom() {
+        return "revocation";
+    }
+
+    @Override
+    public Map<String, Object> getMetriques() {
+        Map<String, Object> metriques = new LinkedHashMap<>();
+        metriques.put("jetonsRevoques", jetonsRevoques.size());
+        metriques.put("utilisateursRevoques", versionsMinimales.size());
+        metriques.put("bitsFiltre", filtre.getNombreBits());
+        metriques.put("verifications", verifications.sum());
+        metriques.put("passagesFiltre", passagesFiltre.sum());
+        metriques.put("revocationsDetectees", revocationsDetectees.sum());
+        return metriques;
+    }
+
+    private record VersionMinimale(int version, long expiration) {
+    }
+}
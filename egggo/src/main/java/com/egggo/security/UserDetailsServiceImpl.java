@@ -3,16 +3,12 @@ package com.egggo.security;
 import com.egggo.domain.model.user.Utilisateur;
 import com.egggo.domain.repository.UtilisateurRepository;
 import lombok.RequiredArgsConstructor;
-import org.springframework.security.core.authority.SimpleGrantedAuthority;
-import org.springframework.security.core.userdetails.User;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.util.Collections;
-
 /**
  * Service de chargement des utilisateurs pour Spring Security
  * Utilise le numéro de téléphone comme identifiant
@@ -34,16 +30,6 @@ public class UserDetailsServiceImpl implements UserDetailsService {
             throw new UsernameNotFoundException("Compte désactivé: " + telephone);
         }
 
-        return new User(
-                utilisateur.getTelephone(),
-                utilisateur.getMotDePasse(),
-                utilisateur.getActif(),
-                true, // accountNonExpired
-                true, // credentialsNonExpired
-                true, // accountNonLocked
-                Collections.singletonList(
-                        new SimpleGrantedAuthority("ROLE_" + utilisateur.getRole().name())
-                )
-        );
+        return EggGoPrincipal.fromUtilisateur(utilisateur);
     }
 }
@@ -0,0 +1,119 @@
+package com.egggo.api.controller;
+
+import com.egggo.domain.model.delivery.Livraison;
+import com.egggo.domain.model.order.Commande;
+import com.egggo.domain.model.order.LigneCommande;
+import com.egggo.domain.model.order.ModePaiement;
+import com.egggo.domain.model.product.Produit;
+import com.egggo.domain.model.user.Client;
+import com.egggo.domain.model.user.Producteur;
+import com.egggo.domain.model.user.Utilisateur;
+import com.egggo.domain.repository.CommandeRepository;
+import com.egggo.domain.repository.LivraisonRepository;
+import com.egggo.infrastructure.sql.BudgetSql;
+import com.egggo.infrastructure.sql.MesureSql;
+import com.egggo.security.EggGoPrincipal;
+import com.egggo.support.JeuDeDonnees;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.RequestPostProcessor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.authentication;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Nombre de requêtes SQL des listes de commandes : borné et indépendant de la taille de page
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@Import(JeuDeDonnees.class)
+class CommandesRequetesSqlTest {
+
+    private static final int COMMANDES = 25;
+    private static final int BUDGET_PAR_PAGE = 6;
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private CommandeRepository commandeRepository;
+    @Autowired
+    private LivraisonRepository livraisonRepository;
+    @Autowired
+    private JeuDeDonnees jeuDeDonnees;
+
+    private Client client;
+    private Producteur producteur;
+
+    @BeforeEach
+    void preparer() {
+        JeuDeDonnees.Acteurs acteurs = jeuDeDonnees.creer();
+        client = acteurs.client();
+        producteur = acteurs.producteur();
+
+        List<Produit> produits = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            produits.add(jeuDeDonnees.produit(acteurs, "Produit " + i, 1000.0 + i, 100));
+        }
+
+        for (int i = 0; i < COMMANDES; i++) {
+            Commande commande = Commande.builder()
+                    .client(client).producteur(producteur).adresseLivraison(acteurs.adresse())
+                    .modePaiement(ModePaiement.CASH_LIVRAISON)
+                    .build();
+            for (Produit produit : produits) {
+                commande.ajouterLigne(LigneCommande.builder()
+                        .produit(produit).quantite(1 + i % 4).prixUnitaire(produit.getPrixUnitaire())
+                        .build());
+            }
+            commande = commandeRepository.save(commande);
+            if (i % 2 == 0) {
+                livraisonRepository.save(Livraison.builder().commande(commande).livreur(acteurs.livreur()).build());
+            }
+        }
+    }
+
+    @Test
+    void mesCommandesCoutentUnNombreFixeDeRequetes() throws Exception {
+        MesureSql petitePage = page("/v1/commandes/mes-commandes", 5, client);
+        MesureSql grandePage = page("/v1/commandes/mes-commandes", 20, client);
+
+        BudgetSql.verifierAuPlus(grandePage, BUDGET_PAR_PAGE);
+        BudgetSql.verifierSansNPlusUn(grandePage);
+        assertThat(grandePage.getRequetes()).isEqualTo(petitePage.getRequetes());
+    }
+
+    @Test
+    void commandesProducteurCoutentUnNombreFixeDeRequetes() throws Exception {
+        MesureSql petitePage = page("/v1/producteur/commandes", 5, producteur);
+        MesureSql grandePage = page("/v1/producteur/commandes", 20, producteur);
+
+        BudgetSql.verifierAuPlus(grandePage, BUDGET_PAR_PAGE);
+        BudgetSql.verifierSansNPlusUn(grandePage);
+        assertThat(grandePage.getRequetes()).isEqualTo(petitePage.getRequetes());
+    }
+
+    private MesureSql page(String chemin, int taille, Utilisateur utilisateur) throws Exception {
+        return BudgetSql.mesurer(() -> mockMvc.perform(get(chemin)
+                        .param("size", String.valueOf(taille))
+                        .with(connecte(utilisateur)))
+                .andExpect(status().isOk()));
+    }
+
+    private static RequestPostProcessor connecte(Utilisateur utilisateur) {
+        EggGoPrincipal principal = EggGoPrincipal.fromUtilisateur(utilisateur);
+        return authentication(new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities()));
+    }
+}
@@ -0,0 +1,224 @@
+package com.egggo.application.analytics;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.function.Predicate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.within;
+
+/**
+ * Compare les agrégats du cube des ventes à un calcul naïf sur les mêmes lignes
+ */
+class CubeVentesTest {
+
+    private static final LocalDate DEBUT = LocalDate.of(2023, 11, 20);
+    private static final String[] VILLES = {"yaounde", "douala", "bafoussam", "garoua"};
+    private static final String[] CATEGORIES = {"oeufs", "poulets", "volailles", "autres"};
+    private static final String[] UNITES = {"plateau", "piece", "kg"};
+
+    private CubeVentes cube;
+    private List<CubeVentes.Fait> faits;
+
+    @BeforeEach
+    void remplir() {
+        Random aleatoire = new Random(11);
+        cube = new CubeVentes();
+        faits = new ArrayList<>();
+        for (long commandeId = 1; commandeId <= 4_000; commandeId++) {
+            LocalDate jour = DEBUT.plusDays(aleatoire.nextInt(400));
+            int producteur = aleatoire.nextInt(6);
+            String ville = VILLES[aleatoire.nextInt(VILLES.length)];
+            boolean annulee = aleatoire.nextInt(10) == 0;
+            List<CubeVentes.Fait> lignes = new ArrayList<>();
+            for (int l = 1 + aleatoire.nextInt(4); l > 0; l--) {
+                int produit = aleatoire.nextInt(1_200);
+                int quantite = 1 + aleatoire.nextInt(20);
+                lignes.add(new CubeVentes.Fait(commandeId, jour, "f" + producteur, "Ferme " + producteur,
+                        CATEGORIES[produit % CATEGORIES.length], "p" + produit, "Produit " + produit,
+                        UNITES[produit % UNITES.length], ville, annulee, quantite,
+                        quantite * (500 + aleatoire.nextInt(5_000)) / 100.0));
+            }
+            cube.ajouterCommande(lignes);
+            faits.addAll(lignes);
+        }
+    }
+
+    @Test
+    void totauxIdentiquesAuCalculNaifPourChaqueRegroupement() {
+        List<List<DimensionVente>> regroupements = List.of(
+                List.of(),
+                List.of(DimensionVente.PRODUCTEUR),
+                List.of(DimensionVente.MOIS, DimensionVente.VILLE),
+                List.of(DimensionVente.SEMAINE, DimensionVente.CATEGORIE, DimensionVente.ANNULEE),
+                List.of(DimensionVente.UNITE, DimensionVente.PRODUIT),
+                // Cardinalité au-delà de la table dense : table de hachage
+                List.of(DimensionVente.JOUR, DimensionVente.PRODUIT, DimensionVente.VILLE));
+        for (List<DimensionVente> groupes : regroupements) {
+            verifier(new CubeVentes.Requete(groupes, Map.of(), null, null, Integer.MAX_VALUE), fait -> true);
+        }
+    }
+
+    @Test
+    void filtresEtIntervalleDeJours() {
+        LocalDate du = DEBUT.plusDays(50);
+        LocalDate au = DEBUT.plusDays(180);
+        Map<DimensionVente, Set<String>> filtres = Map.of(
+                DimensionVente.PRODUCTEUR, Set.of("f1", "f4"),
+                DimensionVente.VILLE, Set.of("douala", "inconnue"),
+                DimensionVente.ANNULEE, Set.of("false"));
+        verifier(new CubeVentes.Requete(List.of(DimensionVente.SEMAINE, DimensionVente.CATEGORIE), filtres,
+                        du, au, Integer.MAX_VALUE),
+                fait -> !fait.jour().isBefore(du) && !fait.jour().isAfter(au)
+                        && Set.of("f1", "f4").contains(fait.producteurId())
+                        && fait.ville().equals("douala") && !fait.annulee());
+
+        verifier(new CubeVentes.Requete(List.of(DimensionVente.PRODUCTEUR),
+                        Map.of(DimensionVente.ANNULEE, Set.of("true")), null, null, Integer.MAX_VALUE),
+                CubeVentes.Fait::annulee);
+
+        CubeVentes.Resultat aucun = cube.executer(new CubeVentes.Requete(List.of(DimensionVente.VILLE),
+                Map.of(DimensionVente.UNITE, Set.of("litre")), null, null, 10));
+        assertThat(aucun.lignes()).isEmpty();
+        assertThat(aucun.lignesRetenues()).isZero();
+    }
+
+    @Test
+    void limiteRetientLesPlusFortsMontantsDansLOrdre() {
+        CubeVentes.Resultat resultat = cube.executer(new CubeVentes.Requete(
+                List.of(DimensionVente.PRODUIT), Map.of(), null, null, 7));
+        Map<List<Object>, Mesures> attendu = calculNaif(List.of(DimensionVente.PRODUIT), fait -> true);
+        List<Double> meilleurs = attendu.values().stream()
+                .map(mesures -> mesures.montant)
+                .sorted(Comparator.reverseOrder())
+                .limit(7)
+                .toList();
+
+        assertThat(resultat.tronque()).isTrue();
+        assertThat(resultat.groupes()).isEqualTo(attendu.size());
+        assertThat(resultat.lignes()).hasSize(7);
+        for (int i = 0; i < 7; i++) {
+            assertThat((double) resultat.lignes().get(i).get("montant")).isCloseTo(meilleurs.get(i), within(1e-6));
+        }
+    }
+
+    @Test
+    void annulationVisibleDansLesAgregats() {
+        long commandeId = faits.get(faits.size() / 2).commandeId();
+        int lignes = (int) faits.stream().filter(fait -> fait.commandeId() == commandeId).count();
+
+        assertThat(cube.annuler(commandeId)).isEqualTo(lignes);
+        assertThat(cube.annuler(-1)).isZero();
+        faits.replaceAll(fait -> fait.commandeId() != commandeId ? fait : new CubeVentes.Fait(fait.commandeId(),
+                fait.jour(), fait.producteurId(), fait.producteur(), fait.categorie(), fait.produitId(),
+                fait.produit(), fait.unite(), fait.ville(), true, fait.quantite(), fait.montant()));
+        verifier(new CubeVentes.Requete(List.of(DimensionVente.ANNULEE, DimensionVente.VILLE), Map.of(),
+                null, null, Integer.MAX_VALUE), fait -> true);
+    }
+
+    @Test
+    void requetesInvalidesRefusees() {
+        assertThatThrownBy(() -> cube.executer(new CubeVentes.Requete(List.of(DimensionVente.JOUR,
+                DimensionVente.VILLE, DimensionVente.UNITE, DimensionVente.PRODUIT), Map.of(), null, null, 10)))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> cube.executer(new CubeVentes.Requete(
+                List.of(DimensionVente.VILLE, DimensionVente.VILLE), Map.of(), null, null, 10)))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> cube.executer(new CubeVentes.Requete(
+                List.of(), Map.of(DimensionVente.MOIS, Set.of("2024-01")), null, null, 10)))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> cube.executer(new CubeVentes.Requete(
+                List.of(), Map.of(), DEBUT.plusDays(1), DEBUT, 10)))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void semaineEtMoisConformesAuCalendrier() {
+        for (LocalDate jour = LocalDate.of(1999, 12, 1); jour.isBefore(LocalDate.of(2031, 3, 1)); jour = jour.plusDays(1)) {
+            int epoque = (int) jour.toEpochDay();
+            assertThat(LocalDate.ofEpochDay(7L * CubeVentes.semaine(epoque) - 3))
+                    .isEqualTo(jour.with(DayOfWeek.MONDAY));
+            assertThat(CubeVentes.mois(epoque)).isEqualTo(jour.getYear() * 12 + jour.getMonthValue() - 1);
+        }
+    }
+
+    // ====================== Calcul naïf ======================
+
+    private void verifier(CubeVentes.Requete requete, Predicate<CubeVentes.Fait> retenu) {
+        CubeVentes.Resultat resultat = cube.executer(requete);
+        Map<List<Object>, Mesures> attendu = calculNaif(requete.groupes(), retenu);
+
+        assertThat(resultat.lignesAnalysees()).isEqualTo(faits.size());
+        assertThat(resultat.lignesRetenues()).isEqualTo(faits.stream().filter(retenu).count());
+        assertThat(resultat.tronque()).isFalse();
+        assertThat(resultat.lignes()).hasSize(attendu.size());
+        double precedent = Double.POSITIVE_INFINITY;
+        for (Map<String, Object> ligne : resultat.lignes()) {
+            List<Object> cle = new ArrayList<>();
+            for (DimensionVente dimension : requete.groupes()) {
+                cle.add(ligne.get(dimension.getCle()));
+            }
+            Mesures mesures = attendu.get(cle);
+            assertThat(mesures).as("groupe %s", cle).isNotNull();
+            double montant = (double) ligne.get("montant");
+            assertThat(montant).isCloseTo(mesures.montant, within(1e-6)).isLessThanOrEqualTo(precedent);
+            assertThat(ligne.get("quantite")).isEqualTo(mesures.quantite);
+            assertThat(ligne.get("lignes")).isEqualTo(mesures.lignes);
+            assertThat(ligne.get("commandes")).isEqualTo((long) mesures.commandes.size());
+            precedent = montant;
+        }
+    }
+
+    private Map<List<Object>, Mesures> calculNaif(List<DimensionVente> groupes, Predicate<CubeVentes.Fait> retenu) {
+        Map<List<Object>, Mesures> groupesAttendus = new HashMap<>();
+        for (CubeVentes.Fait fait : faits) {
+            if (!retenu.test(fait)) {
+                continue;
+            }
+            List<Object> cle = new ArrayList<>();
+            for (DimensionVente dimension : groupes) {
+                cle.add(valeur(dimension, fait));
+            }
+            Mesures mesures = groupesAttendus.computeIfAbsent(cle, c -> new Mesures());
+            mesures.montant += fait.montant();
+            mesures.quantite += fait.quantite();
+            mesures.lignes++;
+            mesures.commandes.add(fait.commandeId());
+        }
+        return groupesAttendus;
+    }
+
+    private static Object valeur(DimensionVente dimension, CubeVentes.Fait fait) {
+        return switch (dimension) {
+            case JOUR -> fait.jour().toString();
+            case SEMAINE -> fait.jour().with(DayOfWeek.MONDAY).toString();
+            case MOIS -> YearMonth.from(fait.jour()).toString();
+            case PRODUCTEUR -> fait.producteurId();
+            case CATEGORIE -> fait.categorie();
+            case PRODUIT -> fait.produitId();
+            case VILLE -> fait.ville();
+            case UNITE -> fait.unite();
+            case ANNULEE -> fait.annulee();
+        };
+    }
+
+    private static final class Mesures {
+        double montant;
+        long quantite;
+        long lignes;
+        final Set<Long> commandes = new HashSet<>();
+    }
+}
@@ -0,0 +1,113 @@
+package com.egggo.application.dispatch;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+/**
+ * Compare l'affectation hongroise à une énumération exhaustive sur de petites matrices
+ */
+class AffectationHongroiseTest {
+
+    private static final double I = AffectationHongroise.INTERDIT;
+
+    @Test
+    void optimumDeLEnumerationSurDesMatricesAleatoires() {
+        Random aleatoire = new Random(17);
+        for (int essai = 0; essai < 3_000; essai++) {
+            int lignes = 1 + aleatoire.nextInt(6);
+            int colonnes = 1 + aleatoire.nextInt(6);
+            double[][] couts = new double[lignes][colonnes];
+            for (int i = 0; i < lignes; i++) {
+                for (int j = 0; j < colonnes; j++) {
+                    couts[i][j] = aleatoire.nextInt(5) == 0 ? I : Math.round(aleatoire.nextDouble() * 6000) / 100.0 - 15;
+                }
+            }
+            int[] choix = AffectationHongroise.resoudre(couts);
+
+            assertThat(choix).hasSize(lignes);
+            verifierAffectation(couts, choix);
+            assertThat(objectif(couts, choix)).as("essai %d", essai)
+                    .isCloseTo(optimum(couts), within(1e-3));
+        }
+    }
+
+    @Test
+    void pairesInterditesEviteesPuisRetirees() {
+        double[][] couts = {
+                {1, I, I},
+                {2, 3, I},
+                {I, I, I}
+        };
+        // La ligne 1 cède la colonne 0 et prend la 1 ; la ligne 2 n'a aucune colonne possible
+        assertThat(AffectationHongroise.resoudre(couts)).containsExactly(0, 1, -1);
+    }
+
+    @Test
+    void matricesRectangulairesEtVides() {
+        assertThat(AffectationHongroise.resoudre(new double[0][0])).isEmpty();
+        assertThat(AffectationHongroise.resoudre(new double[3][0])).containsExactly(-1, -1, -1);
+        // Plus de lignes que de colonnes : une seule ligne servie, la moins chère
+        assertThat(AffectationHongroise.resoudre(new double[][]{{5}, {2}, {9}})).containsExactly(-1, 0, -1);
+        // Plus de colonnes que de lignes
+        assertThat(AffectationHongroise.resoudre(new double[][]{{4, 1, 3}})).containsExactly(1);
+    }
+
+    private static void verifierAffectation(double[][] couts, int[] choix) {
+        boolean[] prises = new boolean[couts[0].length];
+        for (int i = 0; i < choix.length; i++) {
+            if (choix[i] < 0) {
+                continue;
+            }
+            assertThat(couts[i][choix[i]]).isLessThan(I);
+            assertThat(prises[choix[i]]).as("colonne %d prise deux fois", choix[i]).isFalse();
+            prises[choix[i]] = true;
+        }
+    }
+
+    /**
+     * Coût d'une affectation complète (min(lignes, colonnes) paires), paires retirées comptées INTERDIT
+     */
+    private static double objectif(double[][] couts, int[] choix) {
+        int paires = Math.min(couts.length, couts[0].length);
+        double total = 0;
+        for (int i = 0; i < choix.length; i++) {
+            if (choix[i] >= 0) {
+                total += couts[i][choix[i]];
+                paires--;
+            }
+        }
+        return total + paires * I;
+    }
+
+    private static double optimum(double[][] couts) {
+        if (couts.length <= couts[0].length) {
+            return meilleur(couts, 0, new boolean[couts[0].length]);
+        }
+        double[][] transposee = new double[couts[0].length][couts.length];
+        for (int i = 0; i < couts.length; i++) {
+            for (int j = 0; j < couts[0].length; j++) {
+                transposee[j][i] = couts[i][j];
+            }
+        }
+        return meilleur(transposee, 0, new boolean[couts.length]);
+    }
+
+    private static double meilleur(double[][] couts, int ligne, boolean[] prises) {
+        if (ligne == couts.length) {
+            return 0;
+        }
+        double meilleur = Double.POSITIVE_INFINITY;
+        for (int j = 0; j < prises.length; j++) {
+            if (!prises[j]) {
+                prises[j] = true;
+                meilleur = Math.min(meilleur, couts[ligne][j] + meilleur(couts, ligne + 1, prises));
+                prises[j] = false;
+            }
+        }
+        return meilleur;
+    }
+}
@@ -0,0 +1,115 @@
+package com.egggo.application.dispatch;
+
+import com.egggo.domain.model.user.Livreur;
+import com.egggo.domain.model.user.Producteur;
+import com.egggo.infrastructure.geo.Geodesie;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+/**
+ * Matrice des coûts de la répartition : paires interdites et bonus d'attente plafonné
+ */
+class MoteurDispatchTest {
+
+    private static final double I = AffectationHongroise.INTERDIT;
+    private static final double FERME_LATITUDE = 3.8480;
+    private static final double FERME_LONGITUDE = 11.5021;
+    private static final double RAYON_MAX_KM = 15.0;
+    private static final double POIDS_ATTENTE = 0.25;
+    private static final int LIVRAISONS_MAX = 3;
+
+    private final MoteurDispatch moteur = new MoteurDispatch(null, null, null, null, new TransactionTemplate(),
+            false, 500, LIVRAISONS_MAX, RAYON_MAX_KM, POIDS_ATTENTE);
+
+    @Test
+    void pairesInterdites() {
+        MoteurDispatch.Demande demande = demande(1, 10L, "Yaoundé", 0.0);
+        List<MoteurDispatch.Candidat> candidats = List.of(
+                // Indépendant sans zone : seule la distance compte
+                moteur.candidat(livreur(100, 0.0, true, null, null), 0),
+                // Rattaché à un autre producteur
+                moteur.candidat(livreur(101, 0.0, false, 11L, null), 0),
+                // Rattaché au producteur de la commande
+                moteur.candidat(livreur(102, 0.0, false, 10L, null), 0),
+                // Rattachement ignoré pour un livreur indépendant
+                moteur.candidat(livreur(103, 0.0, true, 11L, null), 0),
+                // Zone identique aux accents, à la casse et aux espaces près
+                moteur.candidat(livreur(104, 0.0, true, null, "  YAOUNDÉ "), 0),
+                // Autre zone
+                moteur.candidat(livreur(105, 0.0, true, null, "Douala"), 0),
+                // Juste au-delà du rayon maximal
+                moteur.candidat(livreur(106, RAYON_MAX_KM + 0.05, true, null, null), 0),
+                // Juste en deçà
+                moteur.candidat(livreur(107, RAYON_MAX_KM - 0.05, true, null, null), 0));
+
+        double[] couts = moteur.couts(List.of(demande), candidats)[0];
+
+        double approche = minutes(candidats.get(0));
+        assertThat(couts[0]).isCloseTo(approche, within(1e-9));
+        assertThat(couts[1]).isEqualTo(I);
+        assertThat(couts[2]).isCloseTo(approche, within(1e-9));
+        assertThat(couts[3]).isCloseTo(approche, within(1e-9));
+        assertThat(couts[4]).isCloseTo(approche, within(1e-9));
+        assertThat(couts[5]).isEqualTo(I);
+        assertThat(couts[6]).isEqualTo(I);
+        assertThat(couts[7]).isCloseTo(minutes(candidats.get(7)), within(1e-9)).isLessThan(I);
+
+        // Commande sans ville : un livreur à zone de couverture ne la prend pas
+        assertThat(moteur.couts(List.of(demande(2, 10L, " ", 0.0)), candidats)[0])
+                .containsExactly(couts[0], I, couts[2], couts[3], I, I, I, couts[7]);
+    }
+
+    @Test
+    void livreurAuMaximumDeLivraisonsEcarte() {
+        Livreur livreur = livreur(100, 1.0, true, null, null);
+        assertThat(moteur.candidat(livreur, LIVRAISONS_MAX - 1)).isNotNull();
+        assertThat(moteur.candidat(livreur, LIVRAISONS_MAX)).isNull();
+        assertThat(moteur.candidat(livreur, LIVRAISONS_MAX + 2)).isNull();
+    }
+
+    @Test
+    void bonusDAttentePlafonneAUneHeure() {
+        MoteurDispatch.Candidat candidat = moteur.candidat(livreur(100, 2.0, true, null, null), 0);
+        double approche = minutes(candidat);
+        double[][] couts = moteur.couts(List.of(
+                demande(1, 10L, "Yaoundé", 0.0),
+                demande(2, 10L, "Yaoundé", 20.0),
+                demande(3, 10L, "Yaoundé", 60.0),
+                demande(4, 10L, "Yaoundé", 600.0)), List.of(candidat));
+
+        assertThat(couts[0][0]).isCloseTo(approche, within(1e-9));
+        assertThat(couts[1][0]).isCloseTo(approche - POIDS_ATTENTE * 20.0, within(1e-9));
+        assertThat(couts[2][0]).isCloseTo(approche - POIDS_ATTENTE * 60.0, within(1e-9));
+        assertThat(couts[3][0]).isCloseTo(couts[2][0], within(1e-9));
+        // Le bonus peut rendre le coût négatif sans le confondre avec une paire interdite
+        assertThat(couts[3][0]).isNegative();
+    }
+
+    private static MoteurDispatch.Demande demande(long commandeId, long producteurId, String ville, double attenteMinutes) {
+        return new MoteurDispatch.Demande(commandeId, producteurId, FERME_LATITUDE, FERME_LONGITUDE,
+                MoteurDispatch.normaliser(ville), attenteMinutes);
+    }
+
+    /**
+     * Livreur placé à distanceKm au nord de la ferme
+     */
+    private static Livreur livreur(long id, double distanceKm, boolean independant, Long producteurId, String zone) {
+        return Livreur.builder()
+                .id(id)
+                .latitude(FERME_LATITUDE + distanceKm / Geodesie.KM_PAR_DEGRE)
+                .longitude(FERME_LONGITUDE)
+                .independant(independant)
+                .producteurRattache(producteurId != null ? Producteur.builder().id(producteurId).build() : null)
+                .zoneCouverture(zone)
+                .build();
+    }
+
+    private static double minutes(MoteurDispatch.Candidat candidat) {
+        return Geodesie.distanceKm(candidat.latitude(), candidat.longitude(), FERME_LATITUDE, FERME_LONGITUDE) / 20.0 * 60.0;
+    }
+}
@@ -0,0 +1,170 @@
+package com.egggo.application.dispatch;
+
+import com.egggo.infrastructure.geo.Geodesie;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.within;
+
+/**
+ * Compare l'ordre de passage à une énumération exhaustive et vérifie les contraintes de précédence
+ */
+class OptimiseurTourneeTest {
+
+    private static final long BUDGET = 1_000_000_000L;
+
+    @Test
+    void optimumDeLEnumerationSurDePetitesTournees() {
+        Random aleatoire = new Random(23);
+        for (int essai = 0; essai < 400; essai++) {
+            List<OptimiseurTournee.Arret> arrets = arrets(aleatoire, 1 + aleatoire.nextInt(5), 8);
+            double latitude = 3.80 + aleatoire.nextDouble() * 0.1;
+            double longitude = 11.45 + aleatoire.nextDouble() * 0.1;
+            OptimiseurTournee.Tournee tournee = OptimiseurTournee.optimiser(latitude, longitude, arrets, BUDGET);
+
+            verifierTournee(latitude, longitude, arrets, tournee);
+            assertThat(tournee.distanceKm()).as("essai %d", essai)
+                    .isCloseTo(optimum(latitude, longitude, arrets), within(1e-9));
+        }
+    }
+
+    @Test
+    void precedencesRespecteesSurDeGrandesTournees() {
+        Random aleatoire = new Random(31);
+        for (int essai = 0; essai < 200; essai++) {
+            List<OptimiseurTournee.Arret> arrets = arrets(aleatoire, 6 + aleatoire.nextInt(10), 30);
+            double latitude = 3.80 + aleatoire.nextDouble() * 0.1;
+            double longitude = 11.45 + aleatoire.nextDouble() * 0.1;
+            OptimiseurTournee.Tournee tournee = OptimiseurTournee.optimiser(latitude, longitude, arrets, BUDGET);
+
+            verifierTournee(latitude, longitude, arrets, tournee);
+        }
+    }
+
+    @Test
+    void departInconnuCommenceAuPremierArret() {
+        Random aleatoire = new Random(37);
+        for (int essai = 0; essai < 100; essai++) {
+            List<OptimiseurTournee.Arret> arrets = arrets(aleatoire, 1 + aleatoire.nextInt(4), 7);
+            OptimiseurTournee.Tournee tournee = OptimiseurTournee.optimiser(null, 11.5, arrets, BUDGET);
+
+            verifierTournee(null, null, arrets, tournee);
+            assertThat(tournee.distanceKm()).as("essai %d", essai)
+                    .isCloseTo(optimum(null, null, arrets), within(1e-9));
+        }
+        // Dépôt seul derrière son retrait : aucune distance depuis un départ inconnu
+        OptimiseurTournee.Tournee paire = OptimiseurTournee.optimiser(null, null, List.of(
+                new OptimiseurTournee.Arret(3.85, 11.50, 1),
+                new OptimiseurTournee.Arret(3.86, 11.51, -1)), BUDGET);
+        assertThat(paire.ordre()).containsExactly(1, 0);
+        assertThat(paire.distanceKm()).isCloseTo(Geodesie.distanceKm(3.86, 11.51, 3.85, 11.50), within(1e-12));
+    }
+
+    @Test
+    void tourneeVideEtPrecedencesCirculaires() {
+        OptimiseurTournee.Tournee vide = OptimiseurTournee.optimiser(3.85, 11.50, List.of(), BUDGET);
+        assertThat(vide.ordre()).isEmpty();
+        assertThat(vide.distanceKm()).isZero();
+        assertThat(vide.ameliorations()).isZero();
+
+        List<OptimiseurTournee.Arret> circulaires = List.of(
+                new OptimiseurTournee.Arret(3.85, 11.50, 1),
+                new OptimiseurTournee.Arret(3.86, 11.51, 0));
+        assertThatThrownBy(() -> OptimiseurTournee.optimiser(3.85, 11.50, circulaires, BUDGET))
+                .isInstanceOf(IllegalArgumentException.class);
+
+        // Au-delà de la résolution exacte, même refus par la construction initiale
+        List<OptimiseurTournee.Arret> nombreux = new ArrayList<>(arrets(new Random(3), 6, 0));
+        nombreux.add(new OptimiseurTournee.Arret(3.85, 11.50, nombreux.size() + 1));
+        nombreux.add(new OptimiseurTournee.Arret(3.86, 11.51, nombreux.size() - 1));
+        assertThat(nombreux.size()).isGreaterThan(OptimiseurTournee.EXACT_MAX);
+        assertThatThrownBy(() -> OptimiseurTournee.optimiser(3.85, 11.50, nombreux, BUDGET))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    /**
+     * Paires retrait → dépôt, plus quelques arrêts libres, sans dépasser max arrêts
+     */
+    private static List<OptimiseurTournee.Arret> arrets(Random aleatoire, int paires, int max) {
+        List<OptimiseurTournee.Arret> arrets = new ArrayList<>();
+        for (int p = 0; p < paires; p++) {
+            int retrait = arrets.size();
+            arrets.add(new OptimiseurTournee.Arret(3.80 + aleatoire.nextDouble() * 0.1,
+                    11.45 + aleatoire.nextDouble() * 0.1, -1));
+            arrets.add(new OptimiseurTournee.Arret(3.80 + aleatoire.nextDouble() * 0.1,
+                    11.45 + aleatoire.nextDouble() * 0.1, retrait));
+        }
+        while (arrets.size() < max && aleatoire.nextInt(3) == 0) {
+            arrets.add(new OptimiseurTournee.Arret(3.80 + aleatoire.nextDouble() * 0.1,
+                    11.45 + aleatoire.nextDouble() * 0.1, -1));
+        }
+        return arrets;
+    }
+
+    private static void verifierTournee(Double latitude, Double longitude, List<OptimiseurTournee.Arret> arrets,
+                                        OptimiseurTournee.Tournee tournee) {
+        int[] ordre = tournee.ordre();
+        assertThat(ordre).hasSize(arrets.size());
+        int[] position = new int[arrets.size()];
+        boolean[] vus = new boolean[arrets.size()];
+        for (int k = 0; k < ordre.length; k++) {
+            assertThat(vus[ordre[k]]).as("arrêt %d visité deux fois", ordre[k]).isFalse();
+            vus[ordre[k]] = true;
+            position[ordre[k]] = k;
+        }
+        for (int i = 0; i < arrets.size(); i++) {
+            int precedent = arrets.get(i).precedent();
+            if (precedent >= 0) {
+                assertThat(position[precedent]).as("arrêt %d avant %d", precedent, i).isLessThan(position[i]);
+            }
+        }
+        double total = 0;
+        OptimiseurTournee.Arret courant = null;
+        for (int indice : ordre) {
+            OptimiseurTournee.Arret arret = arrets.get(indice);
+            total += distance(latitude, longitude, courant, arret);
+            courant = arret;
+        }
+        assertThat(tournee.distanceKm()).isCloseTo(total, within(1e-9));
+    }
+
+    private static double optimum(Double latitude, Double longitude, List<OptimiseurTournee.Arret> arrets) {
+        return meilleur(latitude, longitude, arrets, null, new boolean[arrets.size()], 0);
+    }
+
+    private static double meilleur(Double latitude, Double longitude, List<OptimiseurTournee.Arret> arrets,
+                                   OptimiseurTournee.Arret courant, boolean[] vus, int visites) {
+        if (visites == arrets.size()) {
+            return 0;
+        }
+        double meilleur = Double.POSITIVE_INFINITY;
+        for (int i = 0; i < arrets.size(); i++) {
+            OptimiseurTournee.Arret arret = arrets.get(i);
+            if (vus[i] || (arret.precedent() >= 0 && !vus[arret.precedent()])) {
+                continue;
+            }
+            vus[i] = true;
+            meilleur = Math.min(meilleur, distance(latitude, longitude, courant, arret)
+                    + meilleur(latitude, longitude, arrets, arret, vus, visites + 1));
+            vus[i] = false;
+        }
+        return meilleur;
+    }
+
+    /**
+     * Depuis le départ quand courant est nul ; nulle si le départ est inconnu
+     */
+    private static double distance(Double latitude, Double longitude, OptimiseurTournee.Arret courant,
+                                   OptimiseurTournee.Arret arret) {
+        if (courant != null) {
+            return Geodesie.distanceKm(courant.latitude(), courant.longitude(), arret.latitude(), arret.longitude());
+        }
+        return latitude == null || longitude == null ? 0
+                : Geodesie.distanceKm(latitude, longitude, arret.latitude(), arret.longitude());
+    }
+}
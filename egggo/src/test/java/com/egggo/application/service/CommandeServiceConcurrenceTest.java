@@ -0,0 +1,204 @@
+package com.egggo.application.service;
+
+import com.egggo.api.dto.order.CommandeDto;
+import com.egggo.api.dto.order.CreateCommandeRequest;
+import com.egggo.api.dto.payment.ConfirmerPaiementRequest;
+import com.egggo.api.dto.payment.InitierPaiementRequest;
+import com.egggo.domain.model.order.ModePaiement;
+import com.egggo.domain.model.order.StatutCommande;
+import com.egggo.domain.model.payment.StatutPaiement;
+import com.egggo.domain.model.product.Produit;
+import com.egggo.domain.model.product.StatutReservation;
+import com.egggo.domain.repository.CommandeRepository;
+import com.egggo.domain.repository.PaiementRepository;
+import com.egggo.domain.repository.ProduitRepository;
+import com.egggo.support.JeuDeDonnees;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Vérifie qu'aucune survente n'est possible quand de nombreux clients commandent en même temps
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@Import(JeuDeDonnees.class)
+class CommandeServiceConcurrenceTest {
+
+    private static final int STOCK_INITIAL = 100;
+    private static final int COMMANDES = 300;
+    private static final int THREADS = 24;
+
+    @Autowired
+    private CommandeService commandeService;
+    @Autowired
+    private PaiementService paiementService;
+    @Autowired
+    private ReservationStockService reservationStockService;
+    @Autowired
+    private ProduitRepository produitRepository;
+    @Autowired
+    private PaiementRepository paiementRepository;
+    @Autowired
+    private CommandeRepository commandeRepository;
+    @Autowired
+    private JeuDeDonnees jeuDeDonnees;
+
+    private JeuDeDonnees.Acteurs acteurs;
+
+    @BeforeEach
+    void preparer() {
+        acteurs = jeuDeDonnees.creer();
+    }
+
+    @Test
+    void commandesConcurrentesNeSurvendentPas() throws Exception {
+        Produit produit = creerProduit(STOCK_INITIAL);
+        long commandesAvant = commandeRepository.count();
+
+        ExecutorService executeur = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch depart = new CountDownLatch(1);
+        AtomicInteger quantiteVendue = new AtomicInteger();
+        AtomicInteger refus = new AtomicInteger();
+        List<Future<?>> taches = new ArrayList<>();
+
+        for (int i = 0; i < COMMANDES; i++) {
+            int quantite = 1 + i % 3;
+            taches.add(executeur.submit(() -> {
+                depart.await();
+                try {
+                    commandeService.createCommande(acteurs.client().getId(), requete(ligne(produit, quantite)));
+                    quantiteVendue.addAndGet(quantite);
+                } catch (IllegalArgumentException e) {
+                    refus.incrementAndGet();
+                }
+                return null;
+            }));
+        }
+        depart.countDown();
+        for (Future<?> tache : taches) {
+            tache.get(60, TimeUnit.SECONDS);
+        }
+        executeur.shutdown();
+
+        Produit apres = produitRepository.findById(produit.getId()).orElseThrow();
+        assertThat(apres.getQuantiteStock()).isGreaterThanOrEqualTo(0);
+        assertThat(quantiteVendue.get() + apres.getQuantiteStock()).isEqualTo(STOCK_INITIAL);
+        assertThat(refus.get()).isPositive();
+        assertThat(commandeRepository.count() - commandesAvant).isEqualTo(COMMANDES - refus.get());
+    }
+
+    @Test
+    void stockInsuffisantSurUneLigneAnnuleToutLePanier() {
+        Produit abondant = creerProduit(50);
+        Produit rare = creerProduit(1);
+        long commandesAvant = commandeRepository.count();
+
+        assertThatThrownBy(() -> commandeService.createCommande(acteurs.client().getId(),
+                requete(ligne(abondant, 5), ligne(rare, 2))))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("Stock insuffisant");
+
+        assertThat(produitRepository.findById(abondant.getId()).orElseThrow().getQuantiteStock()).isEqualTo(50);
+        assertThat(produitRepository.findById(rare.getId()).orElseThrow().getQuantiteStock()).isEqualTo(1);
+        assertThat(commandeRepository.count()).isEqualTo(commandesAvant);
+    }
+
+    @Test
+    void annulationRestitueLeStock() {
+        Produit produit = creerProduit(10);
+
+        var commande = commandeService.createCommande(acteurs.client().getId(), requete(ligne(produit, 4), ligne(produit, 2)));
+        assertThat(produitRepository.findById(produit.getId()).orElseThrow().getQuantiteStock()).isEqualTo(4);
+
+        commandeService.annulerCommande(commande.getId(), "Test");
+        Produit apres = produitRepository.findById(produit.getId()).orElseThrow();
+        assertThat(apres.getQuantiteStock()).isEqualTo(10);
+        assertThat(apres.getDisponible()).isTrue();
+    }
+
+    @Test
+    void annulationDUneCommandePayeeRestitueLeStock() {
+        Produit produit = creerProduit(10);
+
+        CommandeDto commande = commandeService.createCommande(acteurs.client().getId(),
+                requete(ModePaiement.ORANGE_MONEY, ligne(produit, 3)));
+        payer(commande);
+        assertThat(commandeRepository.findById(commande.getId()).orElseThrow().getPaye()).isTrue();
+
+        commandeService.annulerCommande(commande.getId(), "Test");
+        assertThat(produitRepository.findById(produit.getId()).orElseThrow().getQuantiteStock()).isEqualTo(10);
+    }
+
+    @Test
+    void paiementRecuApresExpirationEstEnregistreSansReprendreLeStock() {
+        Produit produit = creerProduit(10);
+
+        CommandeDto commande = commandeService.createCommande(acteurs.client().getId(),
+                requete(ModePaiement.ORANGE_MONEY, ligne(produit, 3)));
+        reservationStockService.liberer(commande.getId(), StatutReservation.EXPIREE, "Test");
+        assertThat(produitRepository.findById(produit.getId()).orElseThrow().getQuantiteStock()).isEqualTo(10);
+
+        Long paiementId = payer(commande);
+
+        assertThat(paiementRepository.findById(paiementId).orElseThrow().getStatut()).isEqualTo(StatutPaiement.REUSSI);
+        var apres = commandeRepository.findById(commande.getId()).orElseThrow();
+        assertThat(apres.getPaye()).isTrue();
+        assertThat(apres.getStatut()).isEqualTo(StatutCommande.ANNULEE);
+        assertThat(apres.getNotes()).isEqualTo(PaiementService.NOTE_REMBOURSEMENT);
+        assertThat(produitRepository.findById(produit.getId()).orElseThrow().getQuantiteStock()).isEqualTo(10);
+    }
+
+    private Long payer(CommandeDto commande) {
+        Long paiementId = paiementService.initierPaiement(InitierPaiementRequest.builder()
+                .commandeId(commande.getId())
+                .modePaiement(ModePaiement.ORANGE_MONEY)
+                .numeroTelephone("690000000")
+                .montant(commande.getMontantTotal())
+                .build()).getId();
+        paiementService.confirmerPaiement(ConfirmerPaiementRequest.builder()
+                .paiementId(paiementId)
+                .codeOtp("1234")
+                .build());
+        return paiementId;
+    }
+
+    private Produit creerProduit(int stock) {
+        return jeuDeDonnees.produit(acteurs, "Plateau de 30 œufs", 2500.0, stock);
+    }
+
+    private static CreateCommandeRequest.LigneCommandeRequest ligne(Produit produit, int quantite) {
+        return CreateCommandeRequest.LigneCommandeRequest.builder()
+                .produitId(produit.getId())
+                .quantite(quantite)
+                .build();
+    }
+
+    private CreateCommandeRequest requete(CreateCommandeRequest.LigneCommandeRequest... lignes) {
+        return requete(ModePaiement.CASH_LIVRAISON, lignes);
+    }
+
+    private CreateCommandeRequest requete(ModePaiement mode, CreateCommandeRequest.LigneCommandeRequest... lignes) {
+        return CreateCommandeRequest.builder()
+                .producteurId(acteurs.producteur().getId())
+                .adresseId(acteurs.adresse().getId())
+                .modePaiement(mode)
+                .lignes(List.of(lignes))
+                .build();
+    }
+}
@@ -0,0 +1,162 @@
+package com.egggo.application.service;
+
+import com.egggo.api.dto.user.StatsVentesDto;
+import com.egggo.application.stats.CalendrierStatistiques;
+import com.egggo.domain.model.order.Commande;
+import com.egggo.domain.model.order.StatutCommande;
+import com.egggo.domain.model.product.Produit;
+import com.egggo.domain.repository.CommandeRepository;
+import com.egggo.support.JeuDeDonnees;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+/**
+ * Compare les statistiques de ventes calculées en base au regroupement en Java des commandes,
+ * pour des commandes passées de part et d'autre de minuit à Douala
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@Import(JeuDeDonnees.class)
+class StatsVentesTest {
+
+    private static final LocalTime[] HEURES_DOUALA = {
+            LocalTime.of(0, 0), LocalTime.of(0, 0, 30), LocalTime.of(0, 59), LocalTime.of(12, 0),
+            LocalTime.of(23, 0), LocalTime.of(23, 59, 59)
+    };
+
+    /**
+     * Prix unitaires des trois producteurs, choisis pour qu'aucun chiffre d'affaires ne soit à égalité
+     */
+    private static final double[] PRIX = {1_000_003.0, 1_700_021.0, 2_900_047.0};
+
+    @Autowired
+    private AdminService adminService;
+    @Autowired
+    private CalendrierStatistiques calendrier;
+    @Autowired
+    private CommandeRepository commandeRepository;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    @Autowired
+    private JeuDeDonnees jeuDeDonnees;
+
+    @Test
+    void memesTotauxQueLeRegroupementEnJavaAutourDeMinuitADouala() {
+        LocalDate aujourdhui = calendrier.aujourdhui();
+        LocalDate premier = calendrier.premierJour("annee");
+        LocalDate debut = aujourdhui.minusDays(3).isBefore(premier) ? premier : aujourdhui.minusDays(3);
+        LocalDateTime maintenant = LocalDateTime.now();
+
+        // Trois producteurs aux chiffres d'affaires bien au-dessus des autres tests : ils forment le haut du classement
+        List<JeuDeDonnees.Acteurs> acteurs = List.of(jeuDeDonnees.creer(), jeuDeDonnees.creer(), jeuDeDonnees.creer());
+        List<Produit> produits = new ArrayList<>();
+        for (int p = 0; p < acteurs.size(); p++) {
+            produits.add(jeuDeDonnees.produit(acteurs.get(p), "Plateau " + p, PRIX[p], 1000));
+        }
+        Set<LocalDate> joursSemes = new HashSet<>();
+        int rang = 0;
+        for (LocalDate jour = debut; !jour.isAfter(aujourdhui); jour = jour.plusDays(1)) {
+            for (LocalTime heure : HEURES_DOUALA) {
+                LocalDateTime date = jour.atTime(heure).atZone(calendrier.getFuseau())
+                        .withZoneSameInstant(ZoneId.systemDefault()).toLocalDateTime();
+                if (date.isAfter(maintenant)) {
+                    continue;
+                }
+                int p = rang % acteurs.size();
+                StatutCommande statut = rang % 5 == 4 ? StatutCommande.ANNULEE : StatutCommande.LIVREE;
+                jeuDeDonnees.commande(acteurs.get(p), produits.get(p), 1 + rang % 3, statut, date);
+                if (statut != StatutCommande.ANNULEE) {
+                    joursSemes.add(jour);
+                }
+                rang++;
+            }
+        }
+
+        StatsVentesDto stats = adminService.getStatsVentes("annee");
+        StatsVentesDto attendu = transactionTemplate.execute(statut -> regrouperEnJava(calendrier.debutPeriode("annee")));
+
+        assertThat(stats.getNombreCommandes()).isEqualTo(attendu.getNombreCommandes());
+        assertThat(stats.getNombreClients()).isEqualTo(attendu.getNombreClients());
+        assertThat(stats.getChiffreAffairesTotal()).isCloseTo(attendu.getChiffreAffairesTotal(), within(1e-3));
+        assertThat(stats.getPanierMoyen()).isCloseTo(attendu.getPanierMoyen(), within(1e-3));
+
+        assertThat(stats.getVentesParJour()).extracting(StatsVentesDto.VenteJourDto::getDate)
+                .containsExactlyElementsOf(attendu.getVentesParJour().stream().map(StatsVentesDto.VenteJourDto::getDate).toList())
+                .contains(joursSemes.stream().map(LocalDate::toString).toArray(String[]::new));
+        for (int i = 0; i < attendu.getVentesParJour().size(); i++) {
+            StatsVentesDto.VenteJourDto jour = stats.getVentesParJour().get(i);
+            StatsVentesDto.VenteJourDto reference = attendu.getVentesParJour().get(i);
+            assertThat(jour.getCommandes()).as(jour.getDate()).isEqualTo(reference.getCommandes());
+            assertThat(jour.getMontant()).as(jour.getDate()).isCloseTo(reference.getMontant(), within(1e-3));
+        }
+
+        assertThat(stats.getTopProducteurs()).hasSameSizeAs(attendu.getTopProducteurs());
+        for (int i = 0; i < acteurs.size(); i++) {
+            StatsVentesDto.TopProducteurDto producteur = stats.getTopProducteurs().get(i);
+            StatsVentesDto.TopProducteurDto reference = attendu.getTopProducteurs().get(i);
+            assertThat(producteur.getId()).isEqualTo(reference.getId());
+            assertThat(producteur.getNomFerme()).isEqualTo(reference.getNomFerme());
+            assertThat(producteur.getCommandes()).isEqualTo(reference.getCommandes());
+            assertThat(producteur.getChiffreAffaires()).isCloseTo(reference.getChiffreAffaires(), within(1e-3));
+        }
+    }
+
+    /**
+     * Regroupement d'origine, commande par commande, avec les journées découpées à Douala
+     */
+    private StatsVentesDto regrouperEnJava(LocalDateTime debut) {
+        List<Commande> payees = commandeRepository.findByDateCommandeAfter(debut.minusNanos(1)).stream()
+                .filter(c -> c.getStatut() != StatutCommande.ANNULEE)
+                .toList();
+        double chiffreAffaires = payees.stream().mapToDouble(Commande::getMontantTotal).sum();
+
+        Map<LocalDate, List<Commande>> parJour = new TreeMap<>();
+        Map<Long, List<Commande>> parProducteur = new TreeMap<>();
+        for (Commande commande : payees) {
+            parJour.computeIfAbsent(calendrier.jourDe(commande.getDateCommande()), j -> new ArrayList<>()).add(commande);
+            parProducteur.computeIfAbsent(commande.getProducteur().getId(), p -> new ArrayList<>()).add(commande);
+        }
+        return StatsVentesDto.builder()
+                .chiffreAffairesTotal(chiffreAffaires)
+                .nombreCommandes(payees.size())
+                .panierMoyen(payees.isEmpty() ? 0 : chiffreAffaires / payees.size())
+                .nombreClients((int) payees.stream().map(c -> c.getClient().getId()).distinct().count())
+                .ventesParJour(parJour.entrySet().stream()
+                        .map(e -> StatsVentesDto.VenteJourDto.builder()
+                                .date(e.getKey().toString())
+                                .montant(e.getValue().stream().mapToDouble(Commande::getMontantTotal).sum())
+                                .commandes(e.getValue().size())
+                                .build())
+                        .toList())
+                .topProducteurs(parProducteur.values().stream()
+                        .map(commandes -> StatsVentesDto.TopProducteurDto.builder()
+                                .id(commandes.get(0).getProducteur().getId())
+                                .nomFerme(commandes.get(0).getProducteur().getNomFerme())
+                                .chiffreAffaires(commandes.stream().mapToDouble(Commande::getMontantTotal).sum())
+                                .commandes(commandes.size())
+                                .build())
+                        .sorted(Comparator.comparing(StatsVentesDto.TopProducteurDto::getChiffreAffaires).reversed())
+                        .limit(5)
+                        .toList())
+                .build();
+    }
+}
@@ -0,0 +1,107 @@
+package com.egggo.application.stats;
+
+import com.egggo.domain.event.CommandeAnnuleeEvent;
+import com.egggo.domain.event.CommandeCreeeEvent;
+import com.egggo.domain.model.order.Commande;
+import com.egggo.domain.model.order.StatutCommande;
+import com.egggo.domain.model.product.Produit;
+import com.egggo.domain.model.stats.StatistiqueJournaliere;
+import com.egggo.domain.repository.StatistiqueJournaliereRepository;
+import com.egggo.support.JeuDeDonnees;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+/**
+ * Écriture des agrégats journaliers (création puis mise à jour relative des lignes) et
+ * reconstruction depuis les commandes, sur deux journées de Douala réservées à ce test
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@Import(JeuDeDonnees.class)
+class AgregatsJournaliersTest {
+
+    private static final LocalDate JOUR = LocalDate.of(2021, 3, 14);
+    private static final LocalDate LENDEMAIN = JOUR.plusDays(1);
+
+    @Autowired
+    private AgregatsJournaliers agregats;
+    @Autowired
+    private CalendrierStatistiques calendrier;
+    @Autowired
+    private StatistiqueJournaliereRepository statistiqueRepository;
+    @Autowired
+    private JeuDeDonnees jeuDeDonnees;
+
+    @Test
+    void ecritPuisReconstruitLesCompteursDuJour() {
+        JeuDeDonnees.Acteurs acteurs = jeuDeDonnees.creer();
+        Produit produit = jeuDeDonnees.produit(acteurs, "Plateau de 30", 2_500.0, 100);
+        // 00:10 à Douala tombe la veille à l'heure du serveur si celui-ci est en UTC
+        Commande nuit = jeuDeDonnees.commande(acteurs, produit, 1, StatutCommande.LIVREE, aDouala(JOUR, 0, 10));
+        Commande midi = jeuDeDonnees.commande(acteurs, produit, 2, StatutCommande.LIVREE, aDouala(JOUR, 12, 0));
+        Commande annulee = jeuDeDonnees.commande(acteurs, produit, 4, StatutCommande.ANNULEE, aDouala(JOUR, 23, 50));
+        Commande lendemain = jeuDeDonnees.commande(acteurs, produit, 3, StatutCommande.LIVREE, aDouala(LENDEMAIN, 0, 5));
+        long echecs = echecsEcriture();
+
+        // Première écriture : les lignes n'existent pas encore
+        agregats.surCommandeCreee(CommandeCreeeEvent.of(nuit));
+        agregats.surCommandeCreee(CommandeCreeeEvent.of(midi));
+        agregats.ecrire();
+        assertThat(statistiqueRepository.findById(new StatistiqueJournaliere.Cle(JOUR, "yaounde"))).isPresent();
+
+        // Seconde écriture : mise à jour relative de la ligne du jour, création de celle du lendemain
+        agregats.surCommandeCreee(CommandeCreeeEvent.of(annulee));
+        agregats.surCommandeAnnulee(CommandeAnnuleeEvent.of(annulee));
+        agregats.surCommandeCreee(CommandeCreeeEvent.of(lendemain));
+        agregats.ecrire();
+
+        assertThat(agregats.getMetriques()).containsEntry("lignesEnAttente", 0);
+        assertThat(echecsEcriture()).isEqualTo(echecs);
+        verifier(3, 3 * 2_500.0, 1, 1, 3 * 2_500.0);
+
+        // Événement sans commande en base : compté par l'écriture, effacé par la reconstruction
+        agregats.surCommandeCreee(new CommandeCreeeEvent(0L, aDouala(JOUR, 18, 0), "Yaoundé", 999.0));
+        agregats.ecrire();
+        assertThat(agregats.totauxParJour(JOUR, JOUR).get(JOUR).getCommandes()).isEqualTo(4);
+
+        assertThat(agregats.reconstruire(JOUR, LENDEMAIN)).isEqualTo(2);
+        verifier(3, 3 * 2_500.0, 1, 1, 3 * 2_500.0);
+    }
+
+    private void verifier(long commandes, double chiffreAffaires, long annulations,
+                          long commandesLendemain, double chiffreAffairesLendemain) {
+        Map<LocalDate, StatistiqueJournaliere> totaux = agregats.totauxParJour(JOUR, LENDEMAIN);
+        StatistiqueJournaliere jour = totaux.get(JOUR);
+        assertThat(jour.getCommandes()).isEqualTo(commandes);
+        assertThat(jour.getChiffreAffaires()).isCloseTo(chiffreAffaires, within(1e-6));
+        assertThat(jour.getAnnulations()).isEqualTo(annulations);
+        StatistiqueJournaliere suivant = totaux.get(LENDEMAIN);
+        assertThat(suivant.getCommandes()).isEqualTo(commandesLendemain);
+        assertThat(suivant.getChiffreAffaires()).isCloseTo(chiffreAffairesLendemain, within(1e-6));
+        assertThat(suivant.getAnnulations()).isZero();
+    }
+
+    private long echecsEcriture() {
+        return (Long) agregats.getMetriques().get("echecsEcriture");
+    }
+
+    /**
+     * Heure de Douala convertie en heure du serveur, comme les dates de commande en base
+     */
+    private LocalDateTime aDouala(LocalDate jour, int heure, int minute) {
+        return jour.atTime(LocalTime.of(heure, minute)).atZone(calendrier.getFuseau())
+                .withZoneSameInstant(ZoneId.systemDefault()).toLocalDateTime();
+    }
+}
@@ -0,0 +1,93 @@
+package com.egggo.application.suivi;
+
+import com.egggo.domain.model.delivery.SegmentTrajectoire;
+import com.egggo.domain.repository.SegmentTrajectoireRepository;
+import com.egggo.infrastructure.geo.CodecTrajectoire;
+import com.egggo.support.JeuDeDonnees;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+/**
+ * Reprise des trajectoires après un redémarrage : chaque nouvelle instance de Trajectoires repart
+ * sans traîne en mémoire, comme un nœud relancé
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@Import(JeuDeDonnees.class)
+class TrajectoiresTest {
+
+    private static final int POINTS_PAR_SEGMENT = 4;
+    private static final long DEBUT_MS = 1_700_000_000_000L;
+
+    @Autowired
+    private SegmentTrajectoireRepository segmentRepository;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Test
+    void numerotationRepriseApresLeDernierTronconFerme() {
+        long livraisonId = ThreadLocalRandom.current().nextLong(1_000_000_000L, Long.MAX_VALUE);
+        List<CodecTrajectoire.Point> points = points(12);
+
+        // Le 5e relevé ferme le tronçon 0 ; la traîne 1 (un point) est perdue avec l'instance
+        Trajectoires avantArret = nouvelle();
+        avantArret.ajouter(Map.of(livraisonId, releves(points.subList(0, 5))));
+
+        // Aucun tronçon ouvert en base : la nouvelle traîne prend le numéro 1, pas 0
+        Trajectoires apresArret = nouvelle();
+        apresArret.ajouter(Map.of(livraisonId, releves(points.subList(5, 11))));
+        apresArret.ecrire();
+        assertThat(apresArret.getMetriques()).containsEntry("conflits", 0L);
+
+        // Arrêt propre puis reprise du tronçon ouvert
+        apresArret.vider();
+        Trajectoires reprise = nouvelle();
+        reprise.ajouter(Map.of(livraisonId, releves(points.subList(11, 12))));
+        reprise.vider();
+        assertThat(reprise.getMetriques()).containsEntry("conflits", 0L);
+
+        assertThat(segmentRepository.findByLivraisonIdOrderByNumeroAsc(livraisonId))
+                .extracting(SegmentTrajectoire::getNumero, SegmentTrajectoire::getOuvert, SegmentTrajectoire::getNombrePoints)
+                .containsExactly(
+                        tuple(0, false, 4),
+                        tuple(1, false, 4),
+                        tuple(2, true, 3));
+        List<CodecTrajectoire.Point> attendus = new ArrayList<>(points.subList(0, 4));
+        attendus.addAll(points.subList(5, 12));
+        assertThat(nouvelle().lire(livraisonId)).containsExactlyElementsOf(attendus);
+    }
+
+    private Trajectoires nouvelle() {
+        return new Trajectoires(segmentRepository, transactionTemplate, POINTS_PAR_SEGMENT);
+    }
+
+    /**
+     * Points déjà quantifiés au 1e-5 degré : le décodage les rend à l'identique
+     */
+    private static List<CodecTrajectoire.Point> points(int nombre) {
+        List<CodecTrajectoire.Point> points = new ArrayList<>();
+        for (int i = 0; i < nombre; i++) {
+            points.add(new CodecTrajectoire.Point(DEBUT_MS + i * 5_000L,
+                    (384_800 + 7 * i) / CodecTrajectoire.ECHELLE, (1_150_210 + 11 * i) / CodecTrajectoire.ECHELLE));
+        }
+        return points;
+    }
+
+    private static List<IngestionPositions.Releve> releves(List<CodecTrajectoire.Point> points) {
+        return points.stream()
+                .map(point -> new IngestionPositions.Releve(1L, point.latitude(), point.longitude(), point.horodatageMs()))
+                .toList();
+    }
+}
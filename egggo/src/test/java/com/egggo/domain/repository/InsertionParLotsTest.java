@@ -0,0 +1,158 @@
+package com.egggo.domain.repository;
+
+import com.egggo.domain.model.delivery.Livraison;
+import com.egggo.domain.model.order.Commande;
+import com.egggo.domain.model.order.LigneCommande;
+import com.egggo.domain.model.order.ModePaiement;
+import com.egggo.domain.model.product.Produit;
+import com.egggo.infrastructure.sql.BudgetSql;
+import com.egggo.infrastructure.sql.MesureSql;
+import com.egggo.support.JeuDeDonnees;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Nombre de requêtes SQL par commande et par lot de positions GPS
+ * Avec GenerationType.IDENTITY, chaque INSERT part seul pour récupérer l'identifiant généré :
+ * une commande de 20 lignes coûte 21 requêtes, 100 positions GPS en coûtent 100.
+ * Avec des séquences allouées par blocs de 50, les lignes partent en lots JDBC et les appels
+ * à nextval sont amortis sur 50 identifiants.
+ * Les requêtes sont comptées par forme, sur le thread du test : exactement un INSERT par table et
+ * par transaction, les appels de séquence bornés par le nombre de blocs consommés. Les statistiques
+ * Hibernate, communes à tous les threads, ne servent qu'au nombre d'entités insérées.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@Import(JeuDeDonnees.class)
+class InsertionParLotsTest {
+
+    private static final int LIGNES_PAR_COMMANDE = 20;
+    private static final int COMMANDES = 10;
+    private static final int POSITIONS = 100;
+    private static final int BLOC_SEQUENCE = 50;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    @Autowired
+    private CommandeRepository commandeRepository;
+    @Autowired
+    private LivraisonRepository livraisonRepository;
+    @Autowired
+    private JeuDeDonnees jeuDeDonnees;
+
+    private Statistics statistiques;
+    private JeuDeDonnees.Acteurs acteurs;
+    private List<Produit> produits;
+
+    @BeforeEach
+    void preparer() {
+        statistiques = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistiques.setStatisticsEnabled(true);
+
+        acteurs = jeuDeDonnees.creer();
+        produits = new ArrayList<>();
+        for (int i = 0; i < LIGNES_PAR_COMMANDE; i++) {
+            produits.add(jeuDeDonnees.produit(acteurs, "Produit " + i, 100.0 + i, 1000));
+        }
+    }
+
+    @Test
+    void lesLignesDeCommandeSontInsereesParLots() throws Exception {
+        statistiques.clear();
+        MesureSql mesure = BudgetSql.mesurer(() -> {
+            for (int i = 0; i < COMMANDES; i++) {
+                transactionTemplate.executeWithoutResult(statut -> commandeRepository.save(nouvelleCommande()));
+            }
+        });
+
+        assertThat(statistiques.getEntityInsertCount()).isEqualTo((long) COMMANDES * (1 + LIGNES_PAR_COMMANDE));
+        // Par commande : un INSERT de la commande et un seul lot pour ses 20 lignes
+        assertThat(insertions(mesure, "commandes")).isEqualTo(COMMANDES);
+        assertThat(insertions(mesure, "lignes_commande")).isEqualTo(COMMANDES);
+        int sequences = appelsSequence(mesure);
+        assertThat(sequences).isLessThanOrEqualTo(
+                blocs(COMMANDES) + blocs(COMMANDES * LIGNES_PAR_COMMANDE));
+        assertThat(mesure.getRequetes()).isEqualTo(2 * COMMANDES + sequences);
+    }
+
+    @Test
+    void lesPositionsGpsSontInsereesParLots() throws Exception {
+        Commande commande = transactionTemplate.execute(statut -> commandeRepository.save(nouvelleCommande()));
+
+        statistiques.clear();
+        MesureSql mesure = BudgetSql.mesurer(() -> transactionTemplate.executeWithoutResult(statut -> {
+            Livraison livraison = Livraison.builder().commande(commande).livreur(acteurs.livreur()).build();
+            for (int i = 0; i < POSITIONS; i++) {
+                livraison.ajouterPosition(3.848 + i * 1e-4, 11.502 + i * 1e-4);
+            }
+            livraisonRepository.save(livraison);
+        }));
+
+        assertThat(statistiques.getEntityInsertCount()).isEqualTo(1 + POSITIONS);
+        // Un INSERT de la livraison et un seul lot pour les 100 positions
+        assertThat(insertions(mesure, "livraisons")).isEqualTo(1);
+        assertThat(insertions(mesure, "positions_gps")).isEqualTo(1);
+        int sequences = appelsSequence(mesure);
+        assertThat(sequences).isLessThanOrEqualTo(blocs(1) + blocs(POSITIONS));
+        assertThat(mesure.getRequetes()).isEqualTo(2 + sequences);
+    }
+
+    /**
+     * Nombre d'INSERT dans une table (avec ou sans préfixe de schéma)
+     */
+    private static int insertions(MesureSql mesure, String table) {
+        Pattern insert = Pattern.compile("insert into (\\w+\\.)?" + table + " .*");
+        return mesure.getFormes().entrySet().stream()
+                .filter(forme -> insert.matcher(forme.getKey().toLowerCase(Locale.ROOT)).matches())
+                .mapToInt(Map.Entry::getValue)
+                .sum();
+    }
+
+    private static int appelsSequence(MesureSql mesure) {
+        return mesure.getFormes().entrySet().stream()
+                .filter(forme -> forme.getKey().toLowerCase(Locale.ROOT).contains("next value for")
+                        || forme.getKey().toLowerCase(Locale.ROOT).contains("nextval"))
+                .mapToInt(Map.Entry::getValue)
+                .sum();
+    }
+
+    /**
+     * Appels de séquence au plus pour n identifiants : un par bloc, plus l'appel initial de l'optimiseur
+     */
+    private static int blocs(int identifiants) {
+        return (identifiants + BLOC_SEQUENCE - 1) / BLOC_SEQUENCE + 1;
+    }
+
+    private Commande nouvelleCommande() {
+        Commande commande = Commande.builder()
+                .client(acteurs.client())
+                .producteur(acteurs.producteur())
+                .adresseLivraison(acteurs.adresse())
+                .modePaiement(ModePaiement.CASH_LIVRAISON)
+                .build();
+        for (Produit produit : produits) {
+            commande.ajouterLigne(LigneCommande.builder()
+                    .produit(produit).quantite(2).prixUnitaire(produit.getPrixUnitaire())
+                    .build());
+        }
+        return commande;
+    }
+}
@@ -0,0 +1,122 @@
+package com.egggo.infrastructure.geo;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.within;
+
+/**
+ * Vérifie l'aller-retour exact de l'encodage des trajectoires, sa reprise et sa compacité
+ */
+class CodecTrajectoireTest {
+
+    @Test
+    void allerRetourExactDePointsQuantifies() {
+        List<CodecTrajectoire.Point> points = trajet(new Random(5), 2_000, 3.86667, 11.51667);
+        CodecTrajectoire.Encodeur encodeur = CodecTrajectoire.Encodeur.nouveau();
+        points.forEach(point -> encodeur.ajouter(point.horodatageMs(), point.latitude(), point.longitude()));
+
+        assertThat(encodeur.nombre()).isEqualTo(points.size());
+        assertThat(CodecTrajectoire.decoder(encodeur.octets())).containsExactlyElementsOf(points);
+    }
+
+    @Test
+    void coordonneesNegativesEtHorodatagesNonMonotones() {
+        List<CodecTrajectoire.Point> points = List.of(
+                new CodecTrajectoire.Point(1_700_000_000_000L, -33.92487, 18.42406),
+                new CodecTrajectoire.Point(1_700_000_004_000L, -33.92311, -0.00001),
+                new CodecTrajectoire.Point(1_699_999_990_000L, 89.99999, -179.99999),
+                new CodecTrajectoire.Point(0L, 0.0, 180.0),
+                new CodecTrajectoire.Point(Long.MAX_VALUE / 2, -90.0, 0.00001));
+        CodecTrajectoire.Encodeur encodeur = CodecTrajectoire.Encodeur.nouveau();
+        points.forEach(point -> encodeur.ajouter(point.horodatageMs(), point.latitude(), point.longitude()));
+
+        assertThat(CodecTrajectoire.decoder(encodeur.octets())).containsExactlyElementsOf(points);
+    }
+
+    @Test
+    void repriseIdentiqueAUnEncodageContinu() {
+        List<CodecTrajectoire.Point> points = trajet(new Random(9), 300, 4.05, 9.7);
+        CodecTrajectoire.Encodeur continu = CodecTrajectoire.Encodeur.nouveau();
+        CodecTrajectoire.Encodeur premier = CodecTrajectoire.Encodeur.nouveau();
+        for (int i = 0; i < points.size(); i++) {
+            CodecTrajectoire.Point point = points.get(i);
+            continu.ajouter(point.horodatageMs(), point.latitude(), point.longitude());
+            if (i < 120) {
+                premier.ajouter(point.horodatageMs(), point.latitude(), point.longitude());
+            }
+        }
+        CodecTrajectoire.Encodeur repris = CodecTrajectoire.Encodeur.reprendre(premier.octets(), premier.nombre(),
+                premier.dernierHorodatage(), premier.derniereLatitude(), premier.derniereLongitude());
+        points.subList(120, points.size())
+                .forEach(point -> repris.ajouter(point.horodatageMs(), point.latitude(), point.longitude()));
+
+        assertThat(repris.nombre()).isEqualTo(points.size());
+        assertThat(repris.octets()).isEqualTo(continu.octets());
+        assertThat(CodecTrajectoire.decoder(repris.octets())).containsExactlyElementsOf(points);
+    }
+
+    @Test
+    void coordonneesQuelconquesArrondiesAuCentMillieme() {
+        Random aleatoire = new Random(13);
+        CodecTrajectoire.Encodeur encodeur = CodecTrajectoire.Encodeur.nouveau();
+        double[][] coordonnees = new double[500][];
+        for (int i = 0; i < coordonnees.length; i++) {
+            coordonnees[i] = new double[]{aleatoire.nextDouble() * 180 - 90, aleatoire.nextDouble() * 360 - 180};
+            encodeur.ajouter(i * 1_000L, coordonnees[i][0], coordonnees[i][1]);
+        }
+        List<CodecTrajectoire.Point> decodes = CodecTrajectoire.decoder(encodeur.octets());
+        for (int i = 0; i < coordonnees.length; i++) {
+            assertThat(decodes.get(i).latitude()).isCloseTo(coordonnees[i][0], within(0.5e-5 + 1e-12));
+            assertThat(decodes.get(i).longitude()).isCloseTo(coordonnees[i][1], within(0.5e-5 + 1e-12));
+        }
+    }
+
+    @Test
+    void relevesUrbainsEnQuelquesOctetsParPoint() {
+        List<CodecTrajectoire.Point> points = trajet(new Random(21), 1_000, 3.86667, 11.51667);
+        CodecTrajectoire.Encodeur encodeur = CodecTrajectoire.Encodeur.nouveau();
+        points.forEach(point -> encodeur.ajouter(point.horodatageMs(), point.latitude(), point.longitude()));
+
+        assertThat((double) encodeur.longueur() / points.size()).isLessThanOrEqualTo(7.0);
+    }
+
+    @Test
+    void encodagesVidesInconnusOuTronques() {
+        assertThat(CodecTrajectoire.decoder(null)).isEmpty();
+        assertThat(CodecTrajectoire.decoder(new byte[0])).isEmpty();
+        assertThat(CodecTrajectoire.decoder(CodecTrajectoire.Encodeur.nouveau().octets())).isEmpty();
+        assertThatThrownBy(() -> CodecTrajectoire.decoder(new byte[]{42, 0, 0, 0}))
+                .isInstanceOf(IllegalArgumentException.class);
+
+        CodecTrajectoire.Encodeur encodeur = CodecTrajectoire.Encodeur.nouveau();
+        encodeur.ajouter(1_700_000_000_000L, 3.86667, 11.51667);
+        encodeur.ajouter(1_700_000_004_000L, 3.86712, 11.51702);
+        byte[] octets = encodeur.octets();
+        assertThatThrownBy(() -> CodecTrajectoire.decoder(Arrays.copyOf(octets, octets.length - 1)))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    /**
+     * Trajet de livreur en ville : un relevé toutes les 3 à 6 s, quelques mètres à quelques dizaines de mètres
+     */
+    private static List<CodecTrajectoire.Point> trajet(Random aleatoire, int nombre, double latitude, double longitude) {
+        List<CodecTrajectoire.Point> points = new ArrayList<>(nombre);
+        long horodatage = 1_700_000_000_000L;
+        long lat = CodecTrajectoire.quantifier(latitude);
+        long lon = CodecTrajectoire.quantifier(longitude);
+        for (int i = 0; i < nombre; i++) {
+            horodatage += 3_000 + aleatoire.nextInt(3_000);
+            lat += aleatoire.nextInt(61) - 30;
+            lon += aleatoire.nextInt(61) - 30;
+            points.add(new CodecTrajectoire.Point(horodatage, lat / CodecTrajectoire.ECHELLE, lon / CodecTrajectoire.ECHELLE));
+        }
+        return points;
+    }
+}
@@ -0,0 +1,143 @@
+package com.egggo.infrastructure.geo;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Compare les recherches de la grille à un parcours linéaire de tous les points, autour de
+ * Yaoundé, sur les bords de cellules, aux hautes latitudes et de part et d'autre de l'antiméridien
+ */
+class GrilleSpatialeTest {
+
+    private static final double CELLULE_KM = 2.0;
+    private static final double CELLULE_DEG = CELLULE_KM / Geodesie.KM_PAR_DEGRE;
+
+    private record Point(double latitude, double longitude) {
+    }
+
+    @Test
+    void plusProchesDuPlusProcheAuPlusEloigne() {
+        GrilleSpatiale grille = new GrilleSpatiale(CELLULE_KM);
+        grille.placer(1, 3.8480, 11.5021);
+        grille.placer(2, 3.8600, 11.5200);
+        grille.placer(3, 3.9000, 11.5500);
+        grille.placer(4, 4.0511, 9.7679);
+
+        assertThat(grille.plusProches(3.8480, 11.5021, 2, 50)).extracting(GrilleSpatiale.Voisin::id)
+                .containsExactly(1L, 2L);
+        assertThat(grille.dansRayon(3.8480, 11.5021, 10)).extracting(GrilleSpatiale.Voisin::id)
+                .containsExactly(1L, 2L, 3L);
+        // Déplacement vers une autre cellule puis retrait
+        grille.placer(1, 4.0500, 9.7600);
+        assertThat(grille.plusProches(3.8480, 11.5021, 1, 50)).extracting(GrilleSpatiale.Voisin::id)
+                .containsExactly(2L);
+        grille.retirer(2);
+        grille.retirer(2);
+        assertThat(grille.taille()).isEqualTo(3);
+        assertThat(grille.plusProches(3.8480, 11.5021, 5, 1)).isEmpty();
+        assertThat(grille.plusProches(3.8480, 11.5021, 0, 50)).isEmpty();
+
+        assertThatThrownBy(() -> new GrilleSpatiale(0)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void identiqueAUnParcoursLineaireAutourDeYaounde() {
+        comparer(new Random(21), 3.85, 11.50, 0.3, 2_000);
+    }
+
+    @Test
+    void identiqueAUnParcoursLineaireAuxHautesLatitudes() {
+        // Les méridiens se resserrent : une cellule ne fait plus qu'une fraction de sa largeur nominale
+        comparer(new Random(22), 65.0, 25.0, 0.6, 2_000);
+        comparer(new Random(23), -78.0, -40.0, 0.4, 1_000);
+    }
+
+    @Test
+    void identiqueAUnParcoursLineaireAutourDeLAntimeridien() {
+        comparer(new Random(24), 60.0, 179.95, 0.2, 1_000);
+        comparer(new Random(25), -1.0, -179.98, 0.1, 1_000);
+    }
+
+    /**
+     * Points tirés autour d'un centre, dont un tiers posés à moins d'un mètre d'un bord de cellule,
+     * puis recherches depuis des points du nuage et des bords de cellules, avant et après déplacements
+     */
+    private static void comparer(Random aleatoire, double latitude, double longitude, double etendueDeg, int nombre) {
+        GrilleSpatiale grille = new GrilleSpatiale(CELLULE_KM);
+        Map<Long, Point> points = new HashMap<>();
+        for (long id = 0; id < nombre; id++) {
+            Point point = tirer(aleatoire, latitude, longitude, etendueDeg);
+            grille.placer(id, point.latitude(), point.longitude());
+            points.put(id, point);
+        }
+        verifierRecherches(aleatoire, grille, points, latitude, longitude, etendueDeg);
+
+        for (int i = 0; i < nombre / 2; i++) {
+            long id = aleatoire.nextInt(nombre);
+            if (aleatoire.nextInt(4) == 0) {
+                grille.retirer(id);
+                points.remove(id);
+            } else {
+                Point point = tirer(aleatoire, latitude, longitude, etendueDeg);
+                grille.placer(id, point.latitude(), point.longitude());
+                points.put(id, point);
+            }
+        }
+        assertThat(grille.taille()).isEqualTo(points.size());
+        verifierRecherches(aleatoire, grille, points, latitude, longitude, etendueDeg);
+    }
+
+    private static void verifierRecherches(Random aleatoire, GrilleSpatiale grille, Map<Long, Point> points,
+                                           double latitude, double longitude, double etendueDeg) {
+        double[] rayons = {0.5, 2.0, 3.9, 15.0, 80.0};
+        int[] ks = {1, 3, 10, 50};
+        for (int requete = 0; requete < 300; requete++) {
+            Point centre = tirer(aleatoire, latitude, longitude, etendueDeg);
+            double rayon = rayons[aleatoire.nextInt(rayons.length)];
+            int k = ks[aleatoire.nextInt(ks.length)];
+            String description = String.format("requête %d en %s, k=%d, rayon=%.1f km", requete, centre, k, rayon);
+
+            assertThat(grille.plusProches(centre.latitude(), centre.longitude(), k, rayon))
+                    .as(description).containsExactlyElementsOf(lineaire(points, centre, k, rayon));
+            assertThat(grille.dansRayon(centre.latitude(), centre.longitude(), rayon))
+                    .as(description).containsExactlyElementsOf(lineaire(points, centre, Integer.MAX_VALUE, rayon));
+        }
+    }
+
+    private static List<GrilleSpatiale.Voisin> lineaire(Map<Long, Point> points, Point centre, int k, double rayonKm) {
+        List<GrilleSpatiale.Voisin> voisins = new ArrayList<>();
+        points.forEach((id, point) -> {
+            double distance = Geodesie.distanceKm(centre.latitude(), centre.longitude(), point.latitude(), point.longitude());
+            if (distance <= rayonKm) {
+                voisins.add(new GrilleSpatiale.Voisin(id, distance));
+            }
+        });
+        voisins.sort(Comparator.comparingDouble(GrilleSpatiale.Voisin::distanceKm));
+        return voisins.subList(0, Math.min(k, voisins.size()));
+    }
+
+    private static Point tirer(Random aleatoire, double latitude, double longitude, double etendueDeg) {
+        double lat = latitude + (aleatoire.nextDouble() * 2 - 1) * etendueDeg;
+        double lon = longitude + (aleatoire.nextDouble() * 2 - 1) * etendueDeg / Math.cos(Math.toRadians(latitude));
+        if (aleatoire.nextInt(3) == 0) {
+            // À moins d'un mètre d'un bord de cellule, d'un côté ou de l'autre
+            double decalage = (aleatoire.nextDouble() * 2 - 1) * 1e-5;
+            if (aleatoire.nextBoolean()) {
+                lat = Math.round((lat + 90.0) / CELLULE_DEG) * CELLULE_DEG - 90.0 + decalage;
+            } else {
+                lon = Math.round((lon + 180.0) / CELLULE_DEG) * CELLULE_DEG - 180.0 + decalage;
+            }
+        }
+        lon = lon >= 180.0 ? lon - 360.0 : lon < -180.0 ? lon + 360.0 : lon;
+        return new Point(lat, lon);
+    }
+}
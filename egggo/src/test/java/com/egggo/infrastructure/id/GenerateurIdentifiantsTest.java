@@ -0,0 +1,103 @@
+package com.egggo.infrastructure.id;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Vérifie l'unicité et l'ordre des identifiants, y compris sous forte contention
+ */
+class GenerateurIdentifiantsTest {
+
+    private static final int THREADS = 8;
+    private static final int PAR_THREAD = 50_000;
+
+    @Test
+    void identifiantsUniquesSousContention() throws Exception {
+        GenerateurIdentifiants generateur = new GenerateurIdentifiants(7);
+        ExecutorService executeur = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch depart = new CountDownLatch(1);
+        List<Future<long[]>> taches = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            taches.add(executeur.submit(() -> {
+                depart.await();
+                long[] identifiants = new long[PAR_THREAD];
+                for (int i = 0; i < PAR_THREAD; i++) {
+                    identifiants[i] = generateur.prochain();
+                }
+                return identifiants;
+            }));
+        }
+        depart.countDown();
+
+        Set<Long> vus = new HashSet<>(THREADS * PAR_THREAD * 2);
+        for (Future<long[]> tache : taches) {
+            long[] identifiants = tache.get(60, TimeUnit.SECONDS);
+            for (int i = 0; i < identifiants.length; i++) {
+                if (i > 0) {
+                    // Chaque thread voit une suite strictement croissante
+                    assertThat(identifiants[i]).isGreaterThan(identifiants[i - 1]);
+                }
+                assertThat(vus.add(identifiants[i])).as("doublon %d", identifiants[i]).isTrue();
+            }
+        }
+        executeur.shutdown();
+        assertThat(vus).hasSize(THREADS * PAR_THREAD);
+    }
+
+    @Test
+    void suiteCroissanteAuDelaDeLaSequenceDUneMilliseconde() {
+        GenerateurIdentifiants generateur = new GenerateurIdentifiants(0);
+        long precedent = generateur.prochain();
+        for (int i = 0; i < 20_000; i++) {
+            long suivant = generateur.prochain();
+            assertThat(suivant).isGreaterThan(precedent);
+            precedent = suivant;
+        }
+    }
+
+    @Test
+    void texteBase32PreserveLOrdre() {
+        GenerateurIdentifiants generateur = new GenerateurIdentifiants(1023);
+        String precedent = generateur.prochainTexte();
+        for (int i = 0; i < 10_000; i++) {
+            String suivant = generateur.prochainTexte();
+            assertThat(suivant).hasSize(13).matches("[0-9A-HJKMNP-TV-Z]+");
+            assertThat(suivant.compareTo(precedent)).isPositive();
+            precedent = suivant;
+        }
+    }
+
+    @Test
+    void noeudEtInstantSontEncodes() {
+        GenerateurIdentifiants a = new GenerateurIdentifiants(3);
+        GenerateurIdentifiants b = new GenerateurIdentifiants(4);
+        long idA = a.prochain();
+        long idB = b.prochain();
+
+        assertThat((idA >>> 12) & GenerateurIdentifiants.NOEUD_MAX).isEqualTo(3);
+        assertThat((idB >>> 12) & GenerateurIdentifiants.NOEUD_MAX).isEqualTo(4);
+        assertThat(Duration.between(GenerateurIdentifiants.instantDe(idA), Instant.now()).abs())
+                .isLessThan(Duration.ofSeconds(5));
+    }
+
+    @Test
+    void noeudHorsLimitesRefuse() {
+        assertThatThrownBy(() -> new GenerateurIdentifiants(-1)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new GenerateurIdentifiants(GenerateurIdentifiants.NOEUD_MAX + 1))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
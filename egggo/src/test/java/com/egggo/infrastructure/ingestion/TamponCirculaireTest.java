@@ -0,0 +1,110 @@
+package com.egggo.infrastructure.ingestion;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Vérifie l'ordre, la capacité et l'absence de perte de la file à producteurs multiples
+ */
+class TamponCirculaireTest {
+
+    private static final int PRODUCTEURS = 4;
+    private static final int PAR_PRODUCTEUR = 50_000;
+
+    @Test
+    void capaciteArrondieALaPuissanceDeDeuxSuperieure() {
+        assertThat(new TamponCirculaire<Integer>(2).capacite()).isEqualTo(2);
+        assertThat(new TamponCirculaire<Integer>(5).capacite()).isEqualTo(8);
+        assertThat(new TamponCirculaire<Integer>(8).capacite()).isEqualTo(8);
+        assertThatThrownBy(() -> new TamponCirculaire<Integer>(1)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new TamponCirculaire<Integer>((1 << 30) + 1))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void fileSansAttenteRefuseQuandPleineEtRestitueDansLOrdre() {
+        TamponCirculaire<Integer> tampon = new TamponCirculaire<>(4);
+        for (int i = 0; i < 4; i++) {
+            assertThat(tampon.offrir(i)).isTrue();
+        }
+        assertThat(tampon.offrir(99)).isFalse();
+        assertThat(tampon.getRefuses()).isEqualTo(1);
+        assertThat(tampon.taille()).isEqualTo(4);
+
+        List<Integer> lus = new ArrayList<>();
+        assertThat(tampon.vider(lus::add, 3)).isEqualTo(3);
+        assertThat(lus).containsExactly(0, 1, 2);
+        assertThat(tampon.taille()).isEqualTo(1);
+
+        // Plusieurs tours d'anneau
+        int suivant = 4;
+        for (int tour = 0; tour < 100; tour++) {
+            while (tampon.offrir(suivant)) {
+                suivant++;
+            }
+            tampon.vider(lus::add, Integer.MAX_VALUE);
+        }
+        for (int i = 0; i < lus.size(); i++) {
+            assertThat(lus.get(i)).isEqualTo(i);
+        }
+        assertThat(lus).hasSize(suivant);
+        assertThat(tampon.taille()).isZero();
+        assertThat(tampon.vider(lus::add, 10)).isZero();
+    }
+
+    @Test
+    void aucunePerteNiDoublonSousContention() throws Exception {
+        TamponCirculaire<long[]> tampon = new TamponCirculaire<>(1024);
+        ExecutorService executeur = Executors.newFixedThreadPool(PRODUCTEURS);
+        CountDownLatch depart = new CountDownLatch(1);
+        List<Future<?>> taches = new ArrayList<>();
+        for (int p = 0; p < PRODUCTEURS; p++) {
+            long producteur = p;
+            taches.add(executeur.submit(() -> {
+                depart.await();
+                for (long i = 0; i < PAR_PRODUCTEUR; i++) {
+                    long[] element = {producteur, i};
+                    while (!tampon.offrir(element)) {
+                        Thread.yield();
+                    }
+                }
+                return null;
+            }));
+        }
+        depart.countDown();
+
+        // Consommateur unique : chaque producteur doit apparaître dans son ordre d'émission
+        long[] attendus = new long[PRODUCTEURS];
+        long[] desordres = new long[1];
+        long total = 0;
+        long echeance = System.nanoTime() + TimeUnit.SECONDS.toNanos(60);
+        while (total < (long) PRODUCTEURS * PAR_PRODUCTEUR && System.nanoTime() < echeance) {
+            total += tampon.vider(element -> {
+                int producteur = (int) element[0];
+                if (element[1] != attendus[producteur]) {
+                    desordres[0]++;
+                }
+                attendus[producteur] = element[1] + 1;
+            }, 512);
+        }
+        for (Future<?> tache : taches) {
+            tache.get(10, TimeUnit.SECONDS);
+        }
+        executeur.shutdown();
+
+        assertThat(total).isEqualTo((long) PRODUCTEURS * PAR_PRODUCTEUR);
+        assertThat(desordres[0]).isZero();
+        assertThat(attendus).containsOnly(PAR_PRODUCTEUR);
+        assertThat(tampon.taille()).isZero();
+    }
+}
@@ -0,0 +1,114 @@
+package com.egggo.infrastructure.metrics;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.within;
+
+/**
+ * Vérifie la précision relative des quantiles, la fusion et la sérialisation de l'esquisse
+ */
+class HistogrammeLogarithmiqueTest {
+
+    private static final double[] QUANTILES = {0.01, 0.1, 0.25, 0.5, 0.75, 0.9, 0.95, 0.99, 0.999};
+
+    @Test
+    void quantilesAUnPourCentPresSurDesDistributionsVariees() {
+        Random aleatoire = new Random(42);
+        double[] uniforme = new double[20_000];
+        double[] lognormale = new double[20_000];
+        double[] exponentielle = new double[20_000];
+        for (int i = 0; i < uniforme.length; i++) {
+            uniforme[i] = 1 + aleatoire.nextDouble() * 3600;
+            lognormale[i] = Math.exp(6 + aleatoire.nextGaussian());
+            exponentielle[i] = 1 - 900 * Math.log(1 - aleatoire.nextDouble());
+        }
+        verifierQuantiles(uniforme);
+        verifierQuantiles(lognormale);
+        verifierQuantiles(exponentielle);
+    }
+
+    @Test
+    void valeursInferieuresAUnEtIgnorees() {
+        HistogrammeLogarithmique histogramme = new HistogrammeLogarithmique();
+        histogramme.ajouter(0.2);
+        histogramme.ajouter(0.5);
+        histogramme.ajouter(120);
+        histogramme.ajouter(-3);
+        histogramme.ajouter(Double.NaN);
+        histogramme.ajouter(Double.POSITIVE_INFINITY);
+
+        assertThat(histogramme.getNombre()).isEqualTo(3);
+        assertThat(histogramme.quantile(0)).isEqualTo(0.2);
+        assertThat(histogramme.quantile(0.5)).isEqualTo(0.2);
+        assertThat(histogramme.quantile(1)).isEqualTo(120);
+        assertThat(new HistogrammeLogarithmique().quantile(0.5)).isNaN();
+    }
+
+    @Test
+    void fusionEquivautAuxAjoutsDirects() {
+        Random aleatoire = new Random(7);
+        HistogrammeLogarithmique a = new HistogrammeLogarithmique();
+        HistogrammeLogarithmique b = new HistogrammeLogarithmique();
+        HistogrammeLogarithmique tout = new HistogrammeLogarithmique();
+        for (int i = 0; i < 5_000; i++) {
+            double valeur = Math.exp(aleatoire.nextDouble() * 12);
+            (i % 3 == 0 ? a : b).ajouter(valeur);
+            tout.ajouter(valeur);
+        }
+        a.fusionner(b);
+
+        assertThat(a.getNombre()).isEqualTo(tout.getNombre());
+        // Somme à l'arrondi près : l'ordre des additions diffère
+        assertThat(a.getSomme()).isCloseTo(tout.getSomme(), within(tout.getSomme() * 1e-12));
+        for (double q : QUANTILES) {
+            assertThat(a.quantile(q)).isEqualTo(tout.quantile(q));
+        }
+    }
+
+    @Test
+    void encodageAllerRetourSansPerte() {
+        Random aleatoire = new Random(3);
+        HistogrammeLogarithmique histogramme = new HistogrammeLogarithmique();
+        for (int i = 0; i < 10_000; i++) {
+            histogramme.ajouter(aleatoire.nextInt(10) == 0 ? aleatoire.nextDouble() : Math.exp(aleatoire.nextDouble() * 15));
+        }
+        byte[] octets = histogramme.encoder();
+        HistogrammeLogarithmique relu = HistogrammeLogarithmique.decoder(octets);
+
+        assertThat(relu.encoder()).isEqualTo(octets);
+        assertThat(relu.getNombre()).isEqualTo(histogramme.getNombre());
+        assertThat(relu.getSomme()).isEqualTo(histogramme.getSomme());
+        for (double q : QUANTILES) {
+            assertThat(relu.quantile(q)).isEqualTo(histogramme.quantile(q));
+        }
+    }
+
+    @Test
+    void decodageDUneEsquisseVideOuInconnue() {
+        assertThat(HistogrammeLogarithmique.decoder(null).getNombre()).isZero();
+        assertThat(HistogrammeLogarithmique.decoder(new byte[0]).getNombre()).isZero();
+        assertThat(HistogrammeLogarithmique.decoder(new HistogrammeLogarithmique().encoder()).getNombre()).isZero();
+        assertThatThrownBy(() -> HistogrammeLogarithmique.decoder(new byte[]{99}))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static void verifierQuantiles(double[] valeurs) {
+        HistogrammeLogarithmique histogramme = new HistogrammeLogarithmique();
+        for (double valeur : valeurs) {
+            histogramme.ajouter(valeur);
+        }
+        double[] triees = valeurs.clone();
+        Arrays.sort(triees);
+        for (double q : QUANTILES) {
+            double exact = triees[(int) Math.floor(q * (triees.length - 1))];
+            assertThat(histogramme.quantile(q))
+                    .as("quantile %s", q)
+                    .isCloseTo(exact, within(exact * HistogrammeLogarithmique.PRECISION * 1.000_001));
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package com.egggo.infrastructure.sql;
+
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Assertions de budget SQL pour les tests
+ * <pre>
+ * MesureSql mesure = BudgetSql.mesurer(() -> mockMvc.perform(get("/v1/commandes/mes-commandes")));
+ * BudgetSql.verifierAuPlus(mesure, 5);
+ * BudgetSql.verifierSansNPlusUn(mesure);
+ * </pre>
+ * L'action doit s'exécuter sur le thread du test (c'est le cas de MockMvc et des services appelés directement).
+ */
+public final class BudgetSql {
+
+    private static final int SEUIL_N_PLUS_UN = 3;
+
+    private BudgetSql() {
+    }
+
+    /**
+     * Action de test pouvant lever une exception vérifiée
+     */
+    @FunctionalInterface
+    public interface Action {
+        void executer() throws Exception;
+    }
+
+    /**
+     * Exécute l'action et retourne la mesure des requêtes SQL qu'elle a émises
+     */
+    public static MesureSql mesurer(Action action) throws Exception {
+        MesureSql mesure = MesureSql.demarrer();
+        try {
+            action.executer();
+        } finally {
+            MesureSql.terminer();
+        }
+        return mesure;
+    }
+
+    /**
+     * Échoue si la mesure dépasse le nombre de requêtes donné
+     */
+    public static void verifierAuPlus(MesureSql mesure, int maxRequetes) {
+        if (mesure.getRequetes() > maxRequetes) {
+            throw new AssertionError("Budget SQL dépassé : " + mesure + " (au plus " + maxRequetes + ")"
+                    + detail(mesure.getFormes()));
+        }
+    }
+
+    /**
+     * Échoue si une même forme de requête a été exécutée au moins 3 fois
+     */
+    public static void verifierSansNPlusUn(MesureSql mesure) {
+        Map<String, Integer> repetitions = mesure.getRepetitions(SEUIL_N_PLUS_UN);
+        if (!repetitions.isEmpty()) {
+            throw new AssertionError("N+1 probable : " + mesure + detail(repetitions));
+        }
+    }
+
+    private static String detail(Map<String, Integer> formes) {
+        return formes.entrySet().stream()
+                .map(forme -> "\n  " + forme.getValue() + " × " + forme.getKey())
+                .collect(Collectors.joining());
+    }
+}
@@ -0,0 +1,135 @@
+package com.egggo.infrastructure.timer;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Compare la roue temporelle à une table naïve des échéances, sur plusieurs tours de roue
+ */
+class RoueTemporelleTest {
+
+    private static final long TICK = 1_000;
+
+    @Test
+    void expireDansLOrdreDesEcheances() {
+        RoueTemporelle<String> roue = new RoueTemporelle<>(TICK, 3, 0);
+        roue.planifier("c", 70_000);
+        roue.planifier("a", 3_000);
+        roue.planifier("b", 3_500);
+        roue.planifier("d", 5_000_000);
+
+        assertThat(roue.avancer(2_999)).isEmpty();
+        // 3 500 ms arrondi au tick supérieur : 4 s
+        assertThat(roue.avancer(3_000)).containsExactly("a");
+        assertThat(roue.avancer(69_000)).containsExactly("b");
+        assertThat(roue.avancer(70_000)).containsExactly("c");
+        assertThat(roue.taille()).isEqualTo(1);
+        assertThat(roue.avancer(4_999_999)).isEmpty();
+        assertThat(roue.avancer(5_000_000)).containsExactly("d");
+        assertThat(roue.taille()).isZero();
+    }
+
+    @Test
+    void annulationEtReplanification() {
+        RoueTemporelle<String> roue = new RoueTemporelle<>(TICK, 2, 0);
+        roue.planifier("a", 10_000);
+        roue.planifier("b", 10_000);
+        roue.planifier("c", 500_000);
+
+        assertThat(roue.annuler("a")).isTrue();
+        assertThat(roue.annuler("a")).isFalse();
+        // Replanifiée plus tard : l'ancienne entrée est ignorée à son passage
+        roue.planifier("b", 20_000);
+        // Replanifiée plus tôt qu'au niveau supérieur
+        roue.planifier("c", 15_000);
+
+        assertThat(roue.avancer(10_000)).isEmpty();
+        assertThat(roue.avancer(15_000)).containsExactly("c");
+        assertThat(roue.avancer(20_000)).containsExactly("b");
+        assertThat(roue.avancer(1_000_000)).isEmpty();
+        assertThat(roue.taille()).isZero();
+    }
+
+    @Test
+    void echeanceDepasseeRenduAuProchainAvancement() {
+        RoueTemporelle<String> roue = new RoueTemporelle<>(TICK, 2, 100_000);
+        roue.planifier("passee", 50_000);
+        roue.planifier("maintenant", 100_000);
+        assertThat(roue.avancer(100_000)).containsExactlyInAnyOrder("passee", "maintenant");
+        assertThat(roue.avancer(100_000)).isEmpty();
+
+        assertThatThrownBy(() -> new RoueTemporelle<String>(0, 2, 0)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new RoueTemporelle<String>(TICK, 0, 0)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new RoueTemporelle<String>(TICK, 11, 0)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void identiqueAUneTableNaiveSurPlusieursToursDeRoue() {
+        // 2 niveaux : horizon de 4 096 ticks, dépassé par une partie des échéances
+        comparer(new Random(11), 2, 200_000);
+        comparer(new Random(12), 3, 200_000);
+    }
+
+    private static void comparer(Random aleatoire, int niveaux, int operations) {
+        long maintenant = 1_700_000_000_123L;
+        RoueTemporelle<Integer> roue = new RoueTemporelle<>(TICK, niveaux, maintenant);
+        Map<Integer, Long> attendues = new HashMap<>();
+        for (int op = 0; op < operations; op++) {
+            int choix = aleatoire.nextInt(10);
+            int cle = aleatoire.nextInt(2_000);
+            if (choix < 5) {
+                long dans = switch (aleatoire.nextInt(4)) {
+                    case 0 -> aleatoire.nextInt(64) * TICK;
+                    case 1 -> aleatoire.nextInt(5_000) * TICK;
+                    case 2 -> aleatoire.nextInt(300_000) * TICK + aleatoire.nextInt((int) TICK);
+                    default -> -aleatoire.nextInt(10) * TICK;
+                };
+                long echeance = maintenant + dans;
+                roue.planifier(cle, echeance);
+                attendues.put(cle, Math.floorDiv(echeance + TICK - 1, TICK));
+            } else if (choix < 7) {
+                assertThat(roue.annuler(cle)).isEqualTo(attendues.remove(cle) != null);
+            } else {
+                maintenant += switch (aleatoire.nextInt(3)) {
+                    case 0 -> aleatoire.nextInt((int) TICK * 3);
+                    case 1 -> aleatoire.nextInt(100) * TICK;
+                    default -> aleatoire.nextInt(20_000) * TICK;
+                };
+                verifierAvancement(roue, attendues, maintenant, op);
+            }
+        }
+        // Vidage complet, bien au-delà de l'horizon
+        maintenant += 400_000 * TICK;
+        verifierAvancement(roue, attendues, maintenant, operations);
+        assertThat(attendues).isEmpty();
+        assertThat(roue.taille()).isZero();
+    }
+
+    private static void verifierAvancement(RoueTemporelle<Integer> roue, Map<Integer, Long> attendues,
+                                           long maintenant, int op) {
+        long tick = maintenant / TICK;
+        List<Integer> expirees = roue.avancer(maintenant);
+        List<Integer> attenduesExpirees = new ArrayList<>();
+        attendues.forEach((cle, echeance) -> {
+            if (echeance <= tick) {
+                attenduesExpirees.add(cle);
+            }
+        });
+        assertThat(expirees).as("opération %d", op).containsExactlyInAnyOrderElementsOf(attenduesExpirees);
+        long precedente = Long.MIN_VALUE;
+        for (Integer cle : expirees) {
+            long echeance = attendues.remove(cle);
+            assertThat(echeance).as("opération %d : ordre des échéances", op).isGreaterThanOrEqualTo(precedente);
+            precedente = echeance;
+        }
+        assertThat(roue.taille()).isEqualTo(attendues.size());
+    }
+}
@@ -0,0 +1,110 @@
+package com.egggo.support;
+
+import com.egggo.domain.model.common.Adresse;
+import com.egggo.domain.model.order.Commande;
+import com.egggo.domain.model.order.LigneCommande;
+import com.egggo.domain.model.order.ModePaiement;
+import com.egggo.domain.model.order.StatutCommande;
+import com.egggo.domain.model.product.Categorie;
+import com.egggo.domain.model.product.Produit;
+import com.egggo.domain.model.product.Unite;
+import com.egggo.domain.model.user.Client;
+import com.egggo.domain.model.user.Livreur;
+import com.egggo.domain.model.user.Producteur;
+import com.egggo.domain.model.user.Role;
+import com.egggo.domain.repository.AdresseRepository;
+import com.egggo.domain.repository.CategorieRepository;
+import com.egggo.domain.repository.ClientRepository;
+import com.egggo.domain.repository.CommandeRepository;
+import com.egggo.domain.repository.LivreurRepository;
+import com.egggo.domain.repository.ProducteurRepository;
+import com.egggo.domain.repository.ProduitRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.TestComponent;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Données de base des tests d'intégration, à importer avec @Import(JeuDeDonnees.class)
+ * Chaque appel à creer() enregistre une catégorie, un producteur validé, un client, son adresse
+ * et un livreur, suffixés pour rester uniques d'un test à l'autre sur la même base.
+ */
+@TestComponent
+public class JeuDeDonnees {
+
+    @Autowired
+    private CategorieRepository categorieRepository;
+    @Autowired
+    private ProducteurRepository producteurRepository;
+    @Autowired
+    private ClientRepository clientRepository;
+    @Autowired
+    private AdresseRepository adresseRepository;
+    @Autowired
+    private LivreurRepository livreurRepository;
+    @Autowired
+    private ProduitRepository produitRepository;
+    @Autowired
+    private CommandeRepository commandeRepository;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    /**
+     * Acteurs d'une commande : catégorie et producteur des produits, client et son adresse, livreur
+     */
+    public record Acteurs(Categorie categorie, Producteur producteur, Client client, Adresse adresse,
+                          Livreur livreur) {
+    }
+
+    public Acteurs creer() {
+        String suffixe = UUID.randomUUID().toString().substring(0, 8);
+        Categorie categorie = categorieRepository.save(Categorie.builder().nom("Œufs " + suffixe).build());
+        Producteur producteur = producteurRepository.save(Producteur.builder()
+                .nom("Ngono").prenom("Paul").telephone("6" + suffixe).motDePasse("x")
+                .role(Role.PRODUCTEUR).nomFerme("Ferme " + suffixe).adresseFerme("Yaoundé")
+                .valide(true)
+                .build());
+        Client client = clientRepository.save(Client.builder()
+                .nom("Mbarga").prenom("Alice").telephone("7" + suffixe).motDePasse("x")
+                .role(Role.CLIENT)
+                .build());
+        Adresse adresse = adresseRepository.save(Adresse.builder()
+                .client(client).libelle("Maison").quartier("Bastos").ville("Yaoundé")
+                .build());
+        Livreur livreur = livreurRepository.save(Livreur.builder()
+                .nom("Ekono").prenom("Paul").telephone("8" + suffixe).motDePasse("x")
+                .role(Role.LIVREUR).numeroPieceIdentite("CNI-" + suffixe)
+                .build());
+        return new Acteurs(categorie, producteur, client, adresse, livreur);
+    }
+
+    /**
+     * Produit du producteur des acteurs, vendu à la pièce
+     */
+    public Produit produit(Acteurs acteurs, String nom, double prixUnitaire, int stock) {
+        return produitRepository.save(Produit.builder()
+                .nom(nom).prixUnitaire(prixUnitaire).quantiteStock(stock).unite(Unite.PIECE)
+                .categorie(acteurs.categorie()).producteur(acteurs.producteur())
+                .build());
+    }
+
+    /**
+     * Commande d'une ligne, livrée à l'adresse du client, datée en SQL (l'audit pose la date de
+     * création à l'enregistrement) ; date en heure du serveur
+     */
+    public Commande commande(Acteurs acteurs, Produit produit, int quantite, StatutCommande statut, LocalDateTime date) {
+        Commande commande = Commande.builder()
+                .client(acteurs.client()).producteur(acteurs.producteur()).adresseLivraison(acteurs.adresse())
+                .modePaiement(ModePaiement.CASH_LIVRAISON).statut(statut)
+                .build();
+        commande.ajouterLigne(LigneCommande.builder()
+                .produit(produit).quantite(quantite).prixUnitaire(produit.getPrixUnitaire())
+                .build());
+        commande = commandeRepository.save(commande);
+        jdbcTemplate.update("UPDATE commandes SET date_commande = ? WHERE id = ?", date, commande.getId());
+        commande.setDateCommande(date);
+        return commande;
+    }
+}
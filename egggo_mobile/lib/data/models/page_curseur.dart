@@ -0,0 +1,41 @@
+/// Page d'une liste paginée par curseur
+/// Le curseur suivant est opaque : il se renvoie tel quel dans le paramètre `curseur`.
+class PageCurseur<T> {
+  final List<T> items;
+  final String? nextCursor;
+  final bool hasNext;
+
+  const PageCurseur({
+    required this.items,
+    this.nextCursor,
+    this.hasNext = false,
+  });
+
+  PageCurseur.vide()
+      : items = <T>[],
+        nextCursor = null,
+        hasNext = false;
+
+  /// Lit `data` d'une réponse : page { content, nextCursor, hasNext } ou simple liste
+  factory PageCurseur.fromJson(
+    dynamic data,
+    T Function(Map<String, dynamic>) fromJson,
+  ) {
+    if (data is List) {
+      return PageCurseur(
+        items: data.map((e) => fromJson(e as Map<String, dynamic>)).toList(),
+      );
+    }
+    if (data is Map<String, dynamic> && data['content'] is List) {
+      final nextCursor = data['nextCursor'] as String?;
+      return PageCurseur(
+        items: (data['content'] as List)
+            .map((e) => fromJson(e as Map<String, dynamic>))
+            .toList(),
+        nextCursor: nextCursor,
+        hasNext: (data['hasNext'] as bool? ?? false) && nextCursor != null,
+      );
+    }
+    return PageCurseur<T>.vide();
+  }
+}
@@ -1,5 +1,6 @@
 import 'package:flutter/foundation.dart';
 import '../models/admin_dashboard.dart';
+import '../models/page_curseur.dart';
 import '../services/admin_service.dart';
 import '../services/api_service.dart';
 
@@ -16,6 +17,11 @@ class AdminProvider extends ChangeNotifier {
   AdminDashboard? _dashboard;
   List<ProducteurEnAttente> _producteursEnAttente = [];
   List<LivreurEnAttente> _livreursEnAttente = [];
+  String? _curseurProducteurs;
+  String? _curseurLivreurs;
+  bool _hasMoreProducteurs = false;
+  bool _hasMoreLivreurs = false;
+  bool _isLoadingMore = false;
 
   // Getters
   bool get isLoading => _isLoading;
@@ -23,6 +29,9 @@ class AdminProvider extends ChangeNotifier {
   AdminDashboard? get dashboard => _dashboard;
   List<ProducteurEnAttente> get producteursEnAttente => _producteursEnAttente;
   List<LivreurEnAttente> get livreursEnAttente => _livreursEnAttente;
+  bool get hasMoreProducteurs => _hasMoreProducteurs;
+  bool get hasMoreLivreurs => _hasMoreLivreurs;
+  bool get isLoadingMore => _isLoadingMore;
 
   /// Charge le dashboard
   Future<void> loadDashboard() async {
@@ -48,7 +57,7 @@ class AdminProvider extends ChangeNotifier {
     notifyListeners();
 
     try {
-      _producteursEnAttente = await _adminService.getProducteursEnAttente();
+      _appliquerProducteurs(await _adminService.getProducteursEnAttente());
     } catch (e) {
       _errorMessage = e.toString();
     }
@@ -64,7 +73,7 @@ class AdminProvider extends ChangeNotifier {
     notifyListeners();
 
     try {
-      _livreursEnAttente = await _adminService.getLivreursEnAttente();
+      _appliquerLivreurs(await _adminService.getLivreursEnAttente());
     } catch (e) {
       _errorMessage = e.toString();
     }
@@ -82,8 +91,8 @@ class AdminProvider extends ChangeNotifier {
     try {
       await Future.wait([
         _adminService.getDashboard().then((d) => _dashboard = d),
-        _adminService.getProducteursEnAttente().then((p) => _producteursEnAttente = p),
-        _adminService.getLivreursEnAttente().then((l) => _livreursEnAttente = l),
+        _adminService.getProducteursEnAttente().then(_appliquerProducteurs),
+        _adminService.getLivreursEnAttente().then(_appliquerLivreurs),
       ]);
     } catch (e) {
       _errorMessage = e.toString();
@@ -94,6 +103,58 @@ class AdminProvider extends ChangeNotifier {
     notifyListeners();
   }
 
+  /// Charge la page suivante des producteurs en attente
+  Future<void> loadMoreProducteursEnAttente() async {
+    if (_isLoading || _isLoadingMore || !_hasMoreProducteurs) return;
+
+    _isLoadingMore = true;
+    notifyListeners();
+
+    try {
+      _appliquerProducteurs(
+        await _adminService.getProducteursEnAttente(curseur: _curseurProducteurs),
+        ajouter: true,
+      );
+    } catch (e) {
+      _errorMessage = e.toString();
+    }
+
+    _isLoadingMore = false;
+    notifyListeners();
+  }
+
+  /// Charge la page suivante des livreurs en attente
+  Future<void> loadMoreLivreursEnAttente() async {
+    if (_isLoading || _isLoadingMore || !_hasMoreLivreurs) return;
+
+    _isLoadingMore = true;
+    notifyListeners();
+
+    try {
+      _appliquerLivreurs(
+        await _adminService.getLivreursEnAttente(curseur: _curseurLivreurs),
+        ajouter: true,
+      );
+    } catch (e) {
+      _errorMessage = e.toString();
+    }
+
+    _isLoadingMore = false;
+    notifyListeners();
+  }
+
+  void _appliquerProducteurs(PageCurseur<ProducteurEnAttente> page, {bool ajouter = false}) {
+    _producteursEnAttente = ajouter ? [..._producteursEnAttente, ...page.items] : page.items;
+    _curseurProducteurs = page.nextCursor;
+    _hasMoreProducteurs = page.hasNext;
+  }
+
+  void _appliquerLivreurs(PageCurseur<LivreurEnAttente> page, {bool ajouter = false}) {
+    _livreursEnAttente = ajouter ? [..._livreursEnAttente, ...page.items] : page.items;
+    _curseurLivreurs = page.nextCursor;
+    _hasMoreLivreurs = page.hasNext;
+  }
+
   /// Valide un producteur
   Future<bool> validerProducteur(int producteurId) async {
     try {
@@ -12,6 +12,9 @@ class CommandeProvider extends ChangeNotifier {
   Commande? _commandeEnCours;
   bool _isLoading = false;
   String? _errorMessage;
+  String? _curseurCommandes;
+  bool _hasMoreCommandes = false;
+  bool _isLoadingMore = false;
 
   CommandeProvider(ApiService apiService) 
       : _commandeService = CommandeService(apiService);
@@ -21,6 +24,8 @@ class CommandeProvider extends ChangeNotifier {
   Commande? get commandeEnCours => _commandeEnCours;
   bool get isLoading => _isLoading;
   String? get errorMessage => _errorMessage;
+  bool get hasMoreCommandes => _hasMoreCommandes;
+  bool get isLoadingMore => _isLoadingMore;
 
   /// Commandes en cours (non livrées/annulées)
   List<Commande> get commandesEnCours {
@@ -48,7 +53,10 @@ class CommandeProvider extends ChangeNotifier {
     notifyListeners();
 
     try {
-      _commandes = await _commandeService.getMesCommandes();
+      final page = await _commandeService.getMesCommandes();
+      _commandes = page.items;
+      _curseurCommandes = page.nextCursor;
+      _hasMoreCommandes = page.hasNext;
       _isLoading = false;
       notifyListeners();
     } catch (e) {
@@ -58,6 +66,26 @@ class CommandeProvider extends ChangeNotifier {
     }
   }
 
+  /// Charge la page suivante des commandes (plus anciennes)
+  Future<void> chargerPlusCommandes() async {
+    if (_isLoading || _isLoadingMore || !_hasMoreCommandes) return;
+
+    _isLoadingMore = true;
+    notifyListeners();
+
+    try {
+      final page = await _commandeService.getMesCommandes(curseur: _curseurCommandes);
+      _commandes = [..._commandes, ...page.items];
+      _curseurCommandes = page.nextCursor;
+      _hasMoreCommandes = page.hasNext;
+    } catch (e) {
+      _errorMessage = e.toString();
+    }
+
+    _isLoadingMore = false;
+    notifyListeners();
+  }
+
   /// Crée une nouvelle commande
   Future<Commande?> creerCommande({
     required Cart cart,
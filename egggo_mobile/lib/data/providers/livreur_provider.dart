@@ -15,6 +15,10 @@ class LivreurProvider extends ChangeNotifier {
   String? _errorMessage;
   LivreurDashboard? _dashboard;
   List<Livraison> _livraisons = [];
+  String? _statutLivraisons;
+  String? _curseurLivraisons;
+  bool _hasMoreLivraisons = false;
+  bool _isLoadingMore = false;
   bool _disponible = false;
 
   // Getters
@@ -22,6 +26,8 @@ class LivreurProvider extends ChangeNotifier {
   String? get errorMessage => _errorMessage;
   LivreurDashboard? get dashboard => _dashboard;
   List<Livraison> get livraisons => _livraisons;
+  bool get hasMoreLivraisons => _hasMoreLivraisons;
+  bool get isLoadingMore => _isLoadingMore;
   bool get disponible => _disponible;
 
   /// Charge le dashboard
@@ -72,7 +78,11 @@ class LivreurProvider extends ChangeNotifier {
     notifyListeners();
 
     try {
-      _livraisons = await _livreurService.getLivraisons(statut: statut);
+      final page = await _livreurService.getLivraisons(statut: statut);
+      _livraisons = page.items;
+      _statutLivraisons = statut;
+      _curseurLivraisons = page.nextCursor;
+      _hasMoreLivraisons = page.hasNext;
     } catch (e) {
       _errorMessage = e.toString();
     }
@@ -81,6 +91,29 @@ class LivreurProvider extends ChangeNotifier {
     notifyListeners();
   }
 
+  /// Charge la page suivante des livraisons (même filtre de statut)
+  Future<void> loadMoreLivraisons() async {
+    if (_isLoading || _isLoadingMore || !_hasMoreLivraisons) return;
+
+    _isLoadingMore = true;
+    notifyListeners();
+
+    try {
+      final page = await _livreurService.getLivraisons(
+        statut: _statutLivraisons,
+        curseur: _curseurLivraisons,
+      );
+      _livraisons = [..._livraisons, ...page.items];
+      _curseurLivraisons = page.nextCursor;
+      _hasMoreLivraisons = page.hasNext;
+    } catch (e) {
+      _errorMessage = e.toString();
+    }
+
+    _isLoadingMore = false;
+    notifyListeners();
+  }
+
   /// Accepte une livraison
   Future<bool> accepterLivraison(int livraisonId) async {
     try {
@@ -18,6 +18,10 @@ class ProducteurProvider extends ChangeNotifier {
   ProducteurDashboard? _dashboard;
   List<Produit> _produits = [];
   List<Commande> _commandes = [];
+  String? _statutCommandes;
+  String? _curseurCommandes;
+  bool _hasMoreCommandes = false;
+  bool _isLoadingMore = false;
 
   // Getters
   bool get isLoading => _isLoading;
@@ -25,6 +29,8 @@ class ProducteurProvider extends ChangeNotifier {
   ProducteurDashboard? get dashboard => _dashboard;
   List<Produit> get produits => _produits;
   List<Commande> get commandes => _commandes;
+  bool get hasMoreCommandes => _hasMoreCommandes;
+  bool get isLoadingMore => _isLoadingMore;
 
   /// Charge le dashboard
   Future<void> loadDashboard() async {
@@ -156,7 +162,11 @@ class ProducteurProvider extends ChangeNotifier {
     notifyListeners();
 
     try {
-      _commandes = await _producteurService.getCommandes(statut: statut);
+      final page = await _producteurService.getCommandes(statut: statut);
+      _commandes = page.items;
+      _statutCommandes = statut;
+      _curseurCommandes = page.nextCursor;
+      _hasMoreCommandes = page.hasNext;
     } catch (e) {
       _errorMessage = e.toString();
     }
@@ -165,6 +175,29 @@ class ProducteurProvider extends ChangeNotifier {
     notifyListeners();
   }
 
+  /// Charge la page suivante des commandes (même filtre de statut)
+  Future<void> loadMoreCommandes() async {
+    if (_isLoading || _isLoadingMore || !_hasMoreCommandes) return;
+
+    _isLoadingMore = true;
+    notifyListeners();
+
+    try {
+      final page = await _producteurService.getCommandes(
+        statut: _statutCommandes,
+        curseur: _curseurCommandes,
+      );
+      _commandes = [..._commandes, ...page.items];
+      _curseurCommandes = page.nextCursor;
+      _hasMoreCommandes = page.hasNext;
+    } catch (e) {
+      _errorMessage = e.toString();
+    }
+
+    _isLoadingMore = false;
+    notifyListeners();
+  }
+
   /// Confirme une commande
   Future<bool> confirmerCommande(int commandeId) async {
     try {
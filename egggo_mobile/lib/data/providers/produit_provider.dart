@@ -13,6 +13,9 @@ class ProduitProvider extends ChangeNotifier {
   bool _isLoading = false;
   String? _errorMessage;
   int? _selectedCategorieId;
+  String? _curseurProduits;
+  bool _hasMoreProduits = false;
+  bool _isLoadingMore = false;
 
   ProduitProvider(ApiService apiService) 
       : _produitService = ProduitService(apiService);
@@ -24,6 +27,8 @@ class ProduitProvider extends ChangeNotifier {
   bool get isLoading => _isLoading;
   String? get errorMessage => _errorMessage;
   int? get selectedCategorieId => _selectedCategorieId;
+  bool get hasMoreProduits => _hasMoreProduits;
+  bool get isLoadingMore => _isLoadingMore;
 
   /// Produits filtrés par catégorie
   List<Produit> get produitsFiltres {
@@ -43,7 +48,10 @@ class ProduitProvider extends ChangeNotifier {
     notifyListeners();
 
     try {
-      _produits = await _produitService.getProduits(disponible: true);
+      final page = await _produitService.getProduits(disponible: true);
+      _produits = page.items;
+      _curseurProduits = page.nextCursor;
+      _hasMoreProduits = page.hasNext;
       _isLoading = false;
       notifyListeners();
     } catch (e) {
@@ -53,6 +61,29 @@ class ProduitProvider extends ChangeNotifier {
     }
   }
 
+  /// Charge la page suivante des produits
+  Future<void> chargerPlusProduits() async {
+    if (_isLoading || _isLoadingMore || !_hasMoreProduits) return;
+
+    _isLoadingMore = true;
+    notifyListeners();
+
+    try {
+      final page = await _produitService.getProduits(
+        disponible: true,
+        curseur: _curseurProduits,
+      );
+      _produits = [..._produits, ...page.items];
+      _curseurProduits = page.nextCursor;
+      _hasMoreProduits = page.hasNext;
+    } catch (e) {
+      _errorMessage = e.toString();
+    }
+
+    _isLoadingMore = false;
+    notifyListeners();
+  }
+
   /// Charge les catégories
   Future<void> chargerCategories({bool refresh = false}) async {
     if (!refresh && _categories.isNotEmpty) return;
@@ -1,5 +1,6 @@
 import '../../core/constants/api_constants.dart';
 import '../models/admin_dashboard.dart';
+import '../models/page_curseur.dart';
 import 'api_service.dart';
 
 /// Service pour les fonctionnalités administrateur
@@ -18,24 +19,22 @@ class AdminService {
     }
   }
 
-  /// Récupère les producteurs en attente de validation
-  Future<List<ProducteurEnAttente>> getProducteursEnAttente() async {
-    final response = await _apiService.get(ApiConstants.adminProducteursEnAttente);
-    final data = response['data'] ?? response;
-    if (data is List) {
-      return data.map((e) => ProducteurEnAttente.fromJson(e)).toList();
-    }
-    return [];
+  /// Récupère une page des producteurs en attente de validation
+  Future<PageCurseur<ProducteurEnAttente>> getProducteursEnAttente({String? curseur}) async {
+    final response = await _apiService.get(
+      ApiConstants.adminProducteursEnAttente,
+      queryParams: curseur != null ? {'curseur': curseur} : null,
+    );
+    return PageCurseur.fromJson(response['data'] ?? response, ProducteurEnAttente.fromJson);
   }
 
-  /// Récupère les livreurs en attente de validation
-  Future<List<LivreurEnAttente>> getLivreursEnAttente() async {
-    final response = await _apiService.get(ApiConstants.adminLivreursEnAttente);
-    final data = response['data'] ?? response;
-    if (data is List) {
-      return data.map((e) => LivreurEnAttente.fromJson(e)).toList();
-    }
-    return [];
+  /// Récupère une page des livreurs en attente de validation
+  Future<PageCurseur<LivreurEnAttente>> getLivreursEnAttente({String? curseur}) async {
+    final response = await _apiService.get(
+      ApiConstants.adminLivreursEnAttente,
+      queryParams: curseur != null ? {'curseur': curseur} : null,
+    );
+    return PageCurseur.fromJson(response['data'] ?? response, LivreurEnAttente.fromJson);
   }
 
   /// Valide un producteur
@@ -1,6 +1,7 @@
 import '../../core/constants/api_constants.dart';
 import '../models/commande.dart';
 import '../models/cart.dart';
+import '../models/page_curseur.dart';
 import 'api_service.dart';
 
 /// Service pour les commandes
@@ -53,25 +54,17 @@ class CommandeService {
     return Commande.fromJson(response['data'] ?? response);
   }
 
-  /// Récupère les commandes de l'utilisateur
-  Future<List<Commande>> getMesCommandes({
-    int page = 0,
+  /// Récupère une page des commandes de l'utilisateur, des plus récentes aux plus anciennes
+  Future<PageCurseur<Commande>> getMesCommandes({
+    String? curseur,
     int size = 20,
   }) async {
     final response = await _apiService.get(
       '${ApiConstants.commandes}/mes-commandes',
-      queryParams: {'page': page, 'size': size},
+      queryParams: {'size': size, if (curseur != null) 'curseur': curseur},
     );
 
-    final data = response['data'];
-    if (data is List) {
-      return data.map((json) => Commande.fromJson(json)).toList();
-    } else if (data != null && data['content'] is List) {
-      return (data['content'] as List)
-          .map((json) => Commande.fromJson(json))
-          .toList();
-    }
-    return [];
+    return PageCurseur.fromJson(response['data'], Commande.fromJson);
   }
 
   /// Récupère une commande par son ID
@@ -1,5 +1,6 @@
 import '../../core/constants/api_constants.dart';
 import '../models/livreur_dashboard.dart';
+import '../models/page_curseur.dart';
 import 'api_service.dart';
 
 /// Service pour les fonctionnalités livreur
@@ -36,17 +37,16 @@ class LivreurService {
     );
   }
 
-  /// Récupère les livraisons du livreur
-  Future<List<Livraison>> getLivraisons({String? statut}) async {
-    String url = ApiConstants.livreurLivraisons;
-    if (statut != null) url += '?statut=$statut';
-
-    final response = await _apiService.get(url);
-    final data = response['data'] ?? response;
-    if (data is List) {
-      return data.map((e) => Livraison.fromJson(e)).toList();
-    }
-    return [];
+  /// Récupère une page des livraisons du livreur
+  Future<PageCurseur<Livraison>> getLivraisons({String? statut, String? curseur}) async {
+    final response = await _apiService.get(
+      ApiConstants.livreurLivraisons,
+      queryParams: {
+        if (statut != null) 'statut': statut,
+        if (curseur != null) 'curseur': curseur,
+      },
+    );
+    return PageCurseur.fromJson(response['data'] ?? response, Livraison.fromJson);
   }
 
   /// Accepte une livraison
@@ -1,6 +1,7 @@
 import '../../core/constants/api_constants.dart';
 import '../models/produit.dart';
 import '../models/commande.dart';
+import '../models/page_curseur.dart';
 import '../models/producteur_dashboard.dart';
 import 'api_service.dart';
 
@@ -122,21 +123,17 @@ class ProducteurService {
     await _apiService.delete('${ApiConstants.producteurProduits}/$produitId');
   }
 
-  /// Récupère les commandes reçues
-  Future<List<Commande>> getCommandes({String? statut, int page = 0, int size = 20}) async {
-    String url = ApiConstants.producteurCommandes;
-    final params = <String>[];
-    if (statut != null) params.add('statut=$statut');
-    params.add('page=$page');
-    params.add('size=$size');
-    if (params.isNotEmpty) url += '?${params.join('&')}';
-
-    final response = await _apiService.get(url);
-    final data = response['data'];
-    if (data != null && data['content'] is List) {
-      return (data['content'] as List).map((e) => Commande.fromJson(e)).toList();
-    }
-    return [];
+  /// Récupère une page des commandes reçues
+  Future<PageCurseur<Commande>> getCommandes({String? statut, String? curseur, int size = 20}) async {
+    final response = await _apiService.get(
+      ApiConstants.producteurCommandes,
+      queryParams: {
+        if (statut != null) 'statut': statut,
+        if (curseur != null) 'curseur': curseur,
+        'size': size,
+      },
+    );
+    return PageCurseur.fromJson(response['data'], Commande.fromJson);
   }
 
   /// Confirme une commande
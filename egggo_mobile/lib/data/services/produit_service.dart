@@ -1,4 +1,5 @@
 import '../../core/constants/api_constants.dart';
+import '../models/page_curseur.dart';
 import '../models/produit.dart';
 import 'api_service.dart';
 
@@ -8,17 +9,19 @@ class ProduitService {
 
   ProduitService(this._apiService);
 
-  /// Récupère tous les produits
-  Future<List<Produit>> getProduits({
+  /// Récupère une page de produits (curseur : nextCursor de la page précédente)
+  Future<PageCurseur<Produit>> getProduits({
     int? categorieId,
     bool? disponible,
-    int page = 0,
+    String? curseur,
     int size = 20,
   }) async {
     final queryParams = <String, dynamic>{
-      'page': page,
       'size': size,
     };
+    if (curseur != null) {
+      queryParams['curseur'] = curseur;
+    }
 
     if (categorieId != null) {
       queryParams['categorieId'] = categorieId;
@@ -32,16 +35,7 @@ class ProduitService {
       queryParams: queryParams,
     );
 
-    final data = response['data'];
-    if (data is List) {
-      return data.map((json) => Produit.fromJson(json)).toList();
-    } else if (data != null && data['content'] is List) {
-      // Format paginé
-      return (data['content'] as List)
-          .map((json) => Produit.fromJson(json))
-          .toList();
-    }
-    return [];
+    return PageCurseur.fromJson(response['data'], Produit.fromJson);
   }
 
   /// Récupère un produit par son ID
@@ -52,7 +46,7 @@ class ProduitService {
 
   /// Récupère les produits par catégorie
   Future<List<Produit>> getProduitsByCategorie(int categorieId) async {
-    return getProduits(categorieId: categorieId);
+    return (await getProduits(categorieId: categorieId)).items;
   }
 
   /// Recherche de produits
@@ -6,6 +6,7 @@ import '../../../data/providers/admin_provider.dart';
 import '../../../data/models/admin_dashboard.dart';
 import '../../../core/router/app_router.dart';
 import '../../../core/theme/app_theme.dart';
+import '../../widgets/chargement_continu.dart';
 
 /// Dashboard de l'administrateur
 class AdminDashboardScreen extends StatefulWidget {
@@ -562,16 +563,20 @@ class _ProducteursEnAttenteList extends StatelessWidget {
           );
         }
 
-        return ListView.builder(
-          padding: const EdgeInsets.all(16),
-          itemCount: provider.producteursEnAttente.length,
-          itemBuilder: (context, index) {
-            final producteur = provider.producteursEnAttente[index];
-            return _ProducteurCard(
-              producteur: producteur,
-              onRefresh: onRefresh,
-            );
-          },
+        return ChargementContinu(
+          hasMore: provider.hasMoreProducteurs,
+          onLoadMore: provider.loadMoreProducteursEnAttente,
+          child: ListView.builder(
+            padding: const EdgeInsets.all(16),
+            itemCount: provider.producteursEnAttente.length,
+            itemBuilder: (context, index) {
+              final producteur = provider.producteursEnAttente[index];
+              return _ProducteurCard(
+                producteur: producteur,
+                onRefresh: onRefresh,
+              );
+            },
+          ),
         );
       },
     );
@@ -786,16 +791,20 @@ class _LivreursEnAttenteList extends StatelessWidget {
           );
         }
 
-        return ListView.builder(
-          padding: const EdgeInsets.all(16),
-          itemCount: provider.livreursEnAttente.length,
-          itemBuilder: (context, index) {
-            final livreur = provider.livreursEnAttente[index];
-            return _LivreurCard(
-              livreur: livreur,
-              onRefresh: onRefresh,
-            );
-          },
+        return ChargementContinu(
+          hasMore: provider.hasMoreLivreurs,
+          onLoadMore: provider.loadMoreLivreursEnAttente,
+          child: ListView.builder(
+            padding: const EdgeInsets.all(16),
+            itemCount: provider.livreursEnAttente.length,
+            itemBuilder: (context, index) {
+              final livreur = provider.livreursEnAttente[index];
+              return _LivreurCard(
+                livreur: livreur,
+                onRefresh: onRefresh,
+              );
+            },
+          ),
         );
       },
     );
@@ -8,6 +8,7 @@ import '../../../data/providers/livreur_provider.dart';
 import '../../../data/models/livreur_dashboard.dart';
 import '../../../core/router/app_router.dart';
 import '../../../core/theme/app_theme.dart';
+import '../../widgets/chargement_continu.dart';
 
 /// Dashboard du livreur avec fonctionnalités complètes
 class LivreurDashboardScreen extends StatefulWidget {
@@ -618,12 +619,16 @@ class _LivraisonsTabState extends State<_LivraisonsTab> {
 
                 return RefreshIndicator(
                   onRefresh: () => provider.loadLivraisons(),
-                  child: ListView.builder(
-                    padding: const EdgeInsets.symmetric(horizontal: 16),
-                    itemCount: livraisons.length,
-                    itemBuilder: (context, index) {
-                      return _LivraisonCard(livraison: livraisons[index]);
-                    },
+                  child: ChargementContinu(
+                    hasMore: provider.hasMoreLivraisons,
+                    onLoadMore: provider.loadMoreLivraisons,
+                    child: ListView.builder(
+                      padding: const EdgeInsets.symmetric(horizontal: 16),
+                      itemCount: livraisons.length,
+                      itemBuilder: (context, index) {
+                        return _LivraisonCard(livraison: livraisons[index]);
+                      },
+                    ),
                   ),
                 );
               },
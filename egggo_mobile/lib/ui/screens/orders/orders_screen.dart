@@ -5,6 +5,7 @@ import 'package:provider/provider.dart';
 import '../../../core/theme/app_theme.dart';
 import '../../../data/providers/commande_provider.dart';
 import '../../../data/models/commande.dart';
+import '../../widgets/chargement_continu.dart';
 
 /// Écran de la liste des commandes
 class OrdersScreen extends StatefulWidget {
@@ -58,13 +59,17 @@ class _OrdersScreenState extends State<OrdersScreen> {
 
           return RefreshIndicator(
             onRefresh: _chargerCommandes,
-            child: ListView.builder(
-              padding: const EdgeInsets.all(16),
-              itemCount: provider.commandes.length,
-              itemBuilder: (context, index) {
-                final commande = provider.commandes[index];
-                return _buildOrderCard(commande);
-              },
+            child: ChargementContinu(
+              hasMore: provider.hasMoreCommandes,
+              onLoadMore: provider.chargerPlusCommandes,
+              child: ListView.builder(
+                padding: const EdgeInsets.all(16),
+                itemCount: provider.commandes.length,
+                itemBuilder: (context, index) {
+                  final commande = provider.commandes[index];
+                  return _buildOrderCard(commande);
+                },
+              ),
             ),
           );
         },
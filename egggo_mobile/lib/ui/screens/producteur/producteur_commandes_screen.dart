@@ -3,6 +3,7 @@ import 'package:provider/provider.dart';
 import '../../../core/theme/app_theme.dart';
 import '../../../data/providers/producteur_provider.dart';
 import '../../../data/models/commande.dart';
+import '../../widgets/chargement_continu.dart';
 
 /// Écran de gestion des commandes pour les producteurs
 class ProducteurCommandesScreen extends StatefulWidget {
@@ -117,17 +118,22 @@ class _ProducteurCommandesScreenState extends State<ProducteurCommandesScreen>
       );
     }
 
+    final provider = context.read<ProducteurProvider>();
     return RefreshIndicator(
       onRefresh: () async => _loadCommandes(),
-      child: ListView.builder(
-        padding: const EdgeInsets.all(16),
-        itemCount: commandes.length,
-        itemBuilder: (context, index) {
-          return _CommandeCard(
-            commande: commandes[index],
-            onRefresh: _loadCommandes,
-          );
-        },
+      child: ChargementContinu(
+        hasMore: provider.hasMoreCommandes,
+        onLoadMore: provider.loadMoreCommandes,
+        child: ListView.builder(
+          padding: const EdgeInsets.all(16),
+          itemCount: commandes.length,
+          itemBuilder: (context, index) {
+            return _CommandeCard(
+              commande: commandes[index],
+              onRefresh: _loadCommandes,
+            );
+          },
+        ),
       ),
     );
   }
@@ -6,6 +6,7 @@ import '../../../core/router/app_router.dart';
 import '../../../core/theme/app_theme.dart';
 import '../../../data/providers/produit_provider.dart';
 import '../../../data/providers/cart_provider.dart';
+import '../../widgets/chargement_continu.dart';
 import '../../widgets/product_card.dart';
 
 /// Écran liste des produits
@@ -197,18 +198,22 @@ class _ProductListScreenState extends State<ProductListScreen> {
 
                 return RefreshIndicator(
                   onRefresh: () => provider.chargerDonnees(refresh: true),
-                  child: GridView.builder(
-                    padding: const EdgeInsets.all(16),
-                    gridDelegate: const SliverGridDelegateWithFixedCrossAxisCount(
-                      crossAxisCount: 2,
-                      childAspectRatio: 0.75,
-                      crossAxisSpacing: 12,
-                      mainAxisSpacing: 12,
+                  child: ChargementContinu(
+                    hasMore: provider.hasMoreProduits,
+                    onLoadMore: provider.chargerPlusProduits,
+                    child: GridView.builder(
+                      padding: const EdgeInsets.all(16),
+                      gridDelegate: const SliverGridDelegateWithFixedCrossAxisCount(
+                        crossAxisCount: 2,
+                        childAspectRatio: 0.75,
+                        crossAxisSpacing: 12,
+                        mainAxisSpacing: 12,
+                      ),
+                      itemCount: produits.length,
+                      itemBuilder: (context, index) {
+                        return ProductCard(produit: produits[index]);
+                      },
                     ),
-                    itemCount: produits.length,
-                    itemBuilder: (context, index) {
-                      return ProductCard(produit: produits[index]);
-                    },
                   ),
                 );
               },
@@ -0,0 +1,33 @@
+import 'package:flutter/widgets.dart';
+
+/// Demande la page suivante quand une liste défilante approche de sa fin
+/// Le provider ignore les appels répétés pendant un chargement ou sans page suivante.
+class ChargementContinu extends StatelessWidget {
+  final Widget child;
+  final bool hasMore;
+  final VoidCallback onLoadMore;
+  final double seuil;
+
+  const ChargementContinu({
+    super.key,
+    required this.child,
+    required this.hasMore,
+    required this.onLoadMore,
+    this.seuil = 300,
+  });
+
+  @override
+  Widget build(BuildContext context) {
+    return NotificationListener<ScrollNotification>(
+      onNotification: (notification) {
+        if (hasMore &&
+            notification.metrics.axis == Axis.vertical &&
+            notification.metrics.extentAfter < seuil) {
+          onLoadMore();
+        }
+        return false;
+      },
+      child: child,
+    );
+  }
+}